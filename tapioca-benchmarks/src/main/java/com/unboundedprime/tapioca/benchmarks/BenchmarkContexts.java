@@ -0,0 +1,112 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Generates JavaBeans XML contexts of arbitrary size for the benchmarks.
+ */
+public final class BenchmarkContexts {
+
+	/**
+	 * Bean count of a small context, such as a library or unit test would declare.
+	 */
+	public static final String SMALL = "10";
+	
+	/**
+	 * Bean count of a typical application context.
+	 */
+	public static final String MEDIUM = "1000";
+	
+	/**
+	 * Bean count of a very large, generated application context.
+	 */
+	public static final String LARGE = "50000";
+	
+	/**
+	 * Generates a context holding one UniqueServiceImpl and beanCount - 1 PooledServiceImpl instances, each pooled
+	 * instance after the first referencing its predecessor through an idref.
+	 * @param beanCount Total number of top level objects in the context, at least one
+	 * @return UTF-8 encoded XML context
+	 * @throws IllegalArgumentException If the bean count is less than one
+	 */
+	public static byte[] generate(final int beanCount) {
+		
+		if (beanCount < 1) {
+			throw new IllegalArgumentException("beanCount must be at least one.");
+		}
+		
+		final StringBuilder xml = new StringBuilder(beanCount * 256);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<java>\n");
+		
+		xml.append("\t<object id=\"unique\" class=\"").append(UniqueServiceImpl.class.getName()).append("\">\n");
+		appendProperty(xml, "name", "<string>unique</string>");
+		xml.append("\t</object>\n");
+
+		for (int index = 1; index < beanCount; index++) {
+			xml.append("\t<object id=\"pooled").append(index).append("\" class=\"").append(PooledServiceImpl.class.getName()).append("\">\n");
+			appendProperty(xml, "name", "<string>pooled" + index + "</string>");
+
+			if (index > 1) {
+				appendProperty(xml, "peer", "<object idref=\"pooled" + (index - 1) + "\"/>");
+			}
+
+			xml.append("\t</object>\n");
+		}
+		
+		xml.append("</java>\n");
+		
+		try {
+			return xml.toString().getBytes("UTF-8");
+		} catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException("UTF-8 must be supported by every JVM.", ex);
+		}
+	}
+
+	/**
+	 * Generates a context that declares no objects, such as a child container holding nothing of its own.
+	 * @return UTF-8 encoded XML context
+	 */
+	public static byte[] generateEmpty() {
+		try {
+			return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<java>\n</java>\n".getBytes("UTF-8");
+		} catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException("UTF-8 must be supported by every JVM.", ex);
+		}
+	}
+
+	/**
+	 * Appends a single property assignment to the context under construction.
+	 * @param xml Context under construction
+	 * @param property Name of the property
+	 * @param value XML element representing the value
+	 */
+	private static void appendProperty(final StringBuilder xml, final String property, final String value) {
+		xml.append("\t\t<void property=\"").append(property).append("\">").append(value).append("</void>\n");
+	}
+
+	/**
+	 * Prevents instantiation of a pure utility class.
+	 */
+	private BenchmarkContexts() {
+		throw new UnsupportedOperationException("Instantiation of pure utility classes is not allowed.");
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.benchmarks;
+
+import com.unboundedprime.tapioca.core.BuildMode;
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerConfiguration;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of building a container, which is what an application pays at startup.
+ * Both Builder entry points share the same decoding path, so the context is supplied from memory in order to keep I/O out of the measurement.
+ * Every build mode is measured, run with -prof gc to compare the allocations of each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContainerBuildBenchmark {
+
+	@Param({BenchmarkContexts.SMALL, BenchmarkContexts.MEDIUM, BenchmarkContexts.LARGE})
+	public int beanCount;
+
+	@Param({"XML_DECODER", "STREAMING", "PARALLEL", "LAZY"})
+	public BuildMode buildMode;
+	
+	private byte[] context;
+
+	private ContainerConfiguration configuration;
+
+	@Setup(Level.Trial)
+	public void generateContext() {
+		this.context = BenchmarkContexts.generate(this.beanCount);
+		this.configuration = new ContainerConfiguration();
+		this.configuration.setBuildMode(this.buildMode);
+	}
+
+	@Benchmark
+	public Container buildContainerFromXmlOnInputStream() throws InvalidContextException {
+		return Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(this.context), this.configuration);
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.benchmarks;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ObjectHandle;
+import java.io.ByteArrayInputStream;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a hot call site reading a service of a medium sized context through a lookup, through the Supplier of an
+ * ObjectHandle, and through its MethodHandle held in a static final field, which the JIT compiler folds into a constant.
+ * The context is built once per fork in a static initializer, since only static final fields are trusted as constants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerHandleBenchmark {
+
+	static final Container CONTAINER;
+
+	static final ObjectHandle<UniqueService> HANDLE;
+
+	static final MethodHandle METHOD_HANDLE;
+
+	static {
+		try {
+			CONTAINER = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(BenchmarkContexts.generate(Integer.parseInt(BenchmarkContexts.MEDIUM))));
+			HANDLE = CONTAINER.getObjectHandle(UniqueService.class);
+			METHOD_HANDLE = HANDLE.getMethodHandle();
+		} catch (Exception ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	@Benchmark
+	public String lookup() throws Exception {
+		return CONTAINER.getObjectThatImplementsOrNull(UniqueService.class).getName();
+	}
+
+	@Benchmark
+	public String supplier() {
+		return HANDLE.get().getName();
+	}
+
+	@Benchmark
+	public String methodHandle() throws Throwable {
+		return ((UniqueService) METHOD_HANDLE.invokeExact()).getName();
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.benchmarks;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerConfiguration;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per call cost of lookups on an empty child container that falls through a chain of parents to the
+ * container holding the objects. Once warmed up, the cost must not grow with the depth of the chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerHierarchyLookupBenchmark {
+
+	@Param({"0", "1", "8"})
+	public int depth;
+
+	Container container;
+
+	@Setup(Level.Trial)
+	public void buildContainer() throws Exception {
+		this.container = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(BenchmarkContexts.generate(Integer.parseInt(BenchmarkContexts.MEDIUM))));
+
+		for (int level = 0; level < this.depth; level++) {
+			final ContainerConfiguration configuration = new ContainerConfiguration();
+			configuration.setParent(this.container);
+			this.container = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(BenchmarkContexts.generateEmpty()), configuration);
+		}
+	}
+
+	@Benchmark
+	public UniqueService getObjectThatImplementsOrNull_Hit() throws Exception {
+		return this.container.getObjectThatImplementsOrNull(UniqueService.class);
+	}
+
+	@Benchmark
+	public AbsentService getObjectThatImplementsOrNull_Miss() throws Exception {
+		return this.container.getObjectThatImplementsOrNull(AbsentService.class);
+	}
+
+	@Benchmark
+	public List<PooledService> getObjectsThatImplement_Hit() throws Exception {
+		return this.container.getObjectsThatImplement(PooledService.class);
+	}
+}
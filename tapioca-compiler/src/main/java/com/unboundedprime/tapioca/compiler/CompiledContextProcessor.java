@@ -0,0 +1,155 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.compiler;
+
+import com.unboundedprime.tapioca.core.CompiledContext;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Annotation processor that compiles the context XML named by each CompiledContext annotation into a ContextFactory,
+ * generated in the package of the annotated type. The context is looked up among the compiled resources first, then
+ * the source path and finally the classpath.
+ */
+@SupportedAnnotationTypes("com.unboundedprime.tapioca.core.CompiledContext")
+public class CompiledContextProcessor extends AbstractProcessor {
+
+	/**
+	 * Locations searched for the context XML, in order.
+	 */
+	private static final JavaFileManager.Location[] CONTEXT_LOCATIONS = new JavaFileManager.Location[] { StandardLocation.CLASS_OUTPUT, StandardLocation.SOURCE_PATH, StandardLocation.CLASS_PATH };
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+		for (Element element : roundEnvironment.getElementsAnnotatedWith(CompiledContext.class)) {
+			final CompiledContext compiledContext = element.getAnnotation(CompiledContext.class);
+			final String packageName = this.processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+			final String factoryName = (packageName.length() == 0) ? compiledContext.factoryName() : packageName + "." + compiledContext.factoryName();
+
+			try {
+				final Document document = this.readContext(compiledContext.value());
+				final String source = new ContextFactoryGenerator(this.processingEnv.getElementUtils(), this.processingEnv.getTypeUtils()).generate(packageName, compiledContext.factoryName(), compiledContext.value(), document);
+				final JavaFileObject sourceFile = this.processingEnv.getFiler().createSourceFile(factoryName, element);
+				final Writer writer = sourceFile.openWriter();
+
+				try {
+					writer.write(source);
+				} finally {
+					writer.close();
+				}
+			} catch (InvalidContextException ex) {
+				this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Context " + compiledContext.value() + " could not be compiled: " + ex.getMessage(), element);
+			} catch (IOException ex) {
+				this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Factory " + factoryName + " could not be written: " + ex.getMessage(), element);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads and parses a context XML.
+	 * @param contextLocation Location of the context in the classpath
+	 * @return Parsed context
+	 * @throws InvalidContextException If the context cannot be found or is not well formed XML
+	 */
+	private Document readContext(final String contextLocation) throws InvalidContextException {
+		final String relativeName = contextLocation.startsWith("/") ? contextLocation.substring(1) : contextLocation;
+
+		for (JavaFileManager.Location location : CONTEXT_LOCATIONS) {
+			final InputStream inputStream;
+
+			try {
+				inputStream = this.processingEnv.getFiler().getResource(location, "", relativeName).openInputStream();
+			} catch (IOException ex) {
+				continue;
+			} catch (IllegalArgumentException ex) {
+				// The location is not supported by this compiler
+				continue;
+			}
+
+			try {
+				return createDocumentBuilder().parse(inputStream);
+			} catch (SAXException ex) {
+				throw new InvalidContextException("Context file must be valid XML.", ex);
+			} catch (IOException ex) {
+				throw new InvalidContextException("Context file could not be read.", ex);
+			} finally {
+				try {
+					inputStream.close();
+				} catch (IOException ex) {
+					// Nothing more can be done with the stream
+				}
+			}
+		}
+
+		throw new InvalidContextException("Context " + contextLocation + " could not be found.");
+	}
+
+	/**
+	 * Creates a namespace unaware document builder that neither reads a DTD nor resolves external entities.
+	 * @return Document builder
+	 * @throws InvalidContextException If the XML parser cannot be configured
+	 */
+	private static DocumentBuilder createDocumentBuilder() throws InvalidContextException {
+		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+
+		factory.setExpandEntityReferences(false);
+		factory.setIgnoringComments(true);
+
+		try {
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+			return factory.newDocumentBuilder();
+		} catch (ParserConfigurationException ex) {
+			throw new InvalidContextException("XML parser could not be configured.", ex);
+		}
+	}
+}
@@ -0,0 +1,670 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.compiler;
+
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Translates a context XML document into the Java source of a ContextFactory. Each element becomes the constructor,
+ * static method, setter or method call that XMLDecoder would have made reflectively, so that the compiler resolves
+ * overloads and checks every type of the object graph at build time.
+ */
+final class ContextFactoryGenerator {
+
+	/**
+	 * Number of root level objects created by one generated method, which keeps large contexts below the method size limit of the class file format.
+	 */
+	private static final int OBJECTS_PER_METHOD = 500;
+
+	/**
+	 * Names of the elements that describe primitive values.
+	 */
+	private static final Set<String> PRIMITIVE_ELEMENTS = new HashSet<String>(Arrays.asList("boolean", "byte", "char", "short", "int", "long", "float", "double"));
+
+	/**
+	 * Utilities to look up the classes referenced by the context.
+	 */
+	private final Elements elements;
+
+	/**
+	 * Utilities to erase the types of methods and fields.
+	 */
+	private final Types types;
+
+	/**
+	 * Expressions of the objects that have been given an id, keyed by that id.
+	 */
+	private final Map<String, Expression> beans = new HashMap<String, Expression>();
+
+	/**
+	 * Declarations of the fields holding the objects that have been given an id.
+	 */
+	private final StringBuilder fields = new StringBuilder();
+
+	/**
+	 * Declarations of the methods creating the root level objects.
+	 */
+	private final StringBuilder methods = new StringBuilder();
+
+	/**
+	 * Number of local variables declared so far, used to keep their names unique.
+	 */
+	private int variableCount;
+
+	/**
+	 * Constructs a new generator, which generates a single factory.
+	 * @param elements Utilities to look up the classes referenced by the context
+	 * @param types Utilities to erase the types of methods and fields
+	 */
+	ContextFactoryGenerator(final Elements elements, final Types types) {
+		this.elements = elements;
+		this.types = types;
+	}
+
+	/**
+	 * Generates the source of the factory.
+	 * @param packageName Package of the factory, empty for the default package
+	 * @param factoryName Simple name of the factory
+	 * @param contextLocation Location of the context, which is mentioned in the generated source
+	 * @param document Context to compile
+	 * @return Java source of the factory
+	 * @throws InvalidContextException If the context is malformed or references unknown types or members
+	 */
+	String generate(final String packageName, final String factoryName, final String contextLocation, final Document document) throws InvalidContextException {
+		final Element root = document.getDocumentElement();
+
+		if (!"java".equals(root.getTagName())) {
+			throw new InvalidContextException("The root element of a context must be <java>, not <" + root.getTagName() + ">.");
+		}
+
+		final List<Element> rootElements = getChildElements(root);
+
+		for (int index = 0; index < rootElements.size(); index++) {
+			final StringBuilder body = new StringBuilder();
+			final Expression rootObject = this.generateValue(rootElements.get(index), body);
+
+			this.methods.append("\tprivate Object createObject").append(index).append("() throws Exception {\n");
+			this.methods.append(body);
+			this.methods.append("\t\treturn ").append(rootObject.code).append(";\n");
+			this.methods.append("\t}\n\n");
+		}
+
+		final StringBuilder source = new StringBuilder();
+
+		if (packageName.length() != 0) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+
+		source.append("/**\n * Creates the objects of ").append(contextLocation.replace("*/", "*\\/")).append(", generated by tapioca-compiler. Do not edit.\n */\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(factoryName).append(" implements com.unboundedprime.tapioca.core.ContextFactory {\n\n");
+		source.append(this.fields);
+
+		if (this.fields.length() != 0) {
+			source.append('\n');
+		}
+
+		source.append("\tpublic java.util.List<Object> createObjects() throws Exception {\n");
+		source.append("\t\tfinal java.util.List<Object> objects = new java.util.ArrayList<Object>(").append(rootElements.size()).append(");\n");
+
+		for (int chunk = 0; chunk * OBJECTS_PER_METHOD < rootElements.size(); chunk++) {
+			source.append("\t\tthis.createObjects").append(chunk).append("(objects);\n");
+		}
+
+		source.append("\t\treturn objects;\n");
+		source.append("\t}\n\n");
+
+		for (int chunk = 0; chunk * OBJECTS_PER_METHOD < rootElements.size(); chunk++) {
+			source.append("\tprivate void createObjects").append(chunk).append("(final java.util.List<Object> objects) throws Exception {\n");
+
+			for (int index = chunk * OBJECTS_PER_METHOD; index < Math.min((chunk + 1) * OBJECTS_PER_METHOD, rootElements.size()); index++) {
+				source.append("\t\tobjects.add(this.createObject").append(index).append("());\n");
+			}
+
+			source.append("\t}\n\n");
+		}
+
+		source.append(this.methods);
+		source.setLength(source.length() - 1);
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	/**
+	 * Generates an expression producing the value described by an element, emitting into the body any statement that must run first.
+	 * @param element Element describing the value
+	 * @param body Body of the method being generated
+	 * @return Expression producing the value
+	 * @throws InvalidContextException If the element is malformed or references unknown types or members
+	 */
+	private Expression generateValue(final Element element, final StringBuilder body) throws InvalidContextException {
+		final String elementName = element.getTagName();
+
+		if ("object".equals(elementName)) {
+			return this.generateObject(element, body);
+		} else if ("array".equals(elementName)) {
+			return this.generateArray(element, body);
+		} else if ("string".equals(elementName)) {
+			checkAttributes(element, "id");
+			return this.finish(element, new Expression(toStringLiteral(element.getTextContent()), "java.lang.String"), body);
+		} else if ("null".equals(elementName)) {
+			checkAttributes(element);
+			return new Expression("null", "java.lang.Object");
+		} else if ("class".equals(elementName)) {
+			checkAttributes(element, "id");
+			return this.finish(element, new Expression(this.resolveType(element.getTextContent().trim()) + ".class", "java.lang.Class"), body);
+		} else if (PRIMITIVE_ELEMENTS.contains(elementName)) {
+			checkAttributes(element, "id");
+			return this.finish(element, new Expression(toPrimitiveLiteral(elementName, element.getTextContent().trim()), elementName), body);
+		}
+
+		throw new InvalidContextException("Unsupported element <" + elementName + "> where a value was expected.");
+	}
+
+	/**
+	 * Generates an expression producing the value of an object element, which is a reference, a static field, the result of a static method or a new instance.
+	 * @param element Object element
+	 * @param body Body of the method being generated
+	 * @return Expression producing the object
+	 * @throws InvalidContextException If the element is malformed or references unknown types or members
+	 */
+	private Expression generateObject(final Element element, final StringBuilder body) throws InvalidContextException {
+		checkAttributes(element, "id", "idref", "class", "method", "field");
+
+		if (element.hasAttribute("idref")) {
+			final Expression reference = this.beans.get(element.getAttribute("idref"));
+
+			if (reference == null) {
+				throw new InvalidContextException("The object '" + element.getAttribute("idref") + "' is referenced before it is declared.");
+			}
+
+			this.generateStatements(element, reference, body);
+			return reference;
+		}
+
+		if (!element.hasAttribute("class")) {
+			throw new InvalidContextException("An <object> must declare a class or an idref.");
+		}
+
+		final String type = this.resolveType(element.getAttribute("class"));
+		final String arguments = this.generateArguments(element, body);
+
+		if (element.hasAttribute("field")) {
+			final String field = element.getAttribute("field");
+			return this.finish(element, new Expression(type + "." + field, this.getFieldType(type, field)), body);
+		} else if (element.hasAttribute("method")) {
+			final String method = element.getAttribute("method");
+			return this.finish(element, new Expression(type + "." + method + "(" + arguments + ")", this.getReturnType(type, method, countArguments(element), true)), body);
+		}
+
+		return this.finish(element, new Expression("new " + type + "(" + arguments + ")", type), body);
+	}
+
+	/**
+	 * Generates an expression producing the value of an array element.
+	 * @param element Array element
+	 * @param body Body of the method being generated
+	 * @return Expression producing the array
+	 * @throws InvalidContextException If the element is malformed or references unknown types
+	 */
+	private Expression generateArray(final Element element, final StringBuilder body) throws InvalidContextException {
+		checkAttributes(element, "id", "class", "length");
+
+		if (!element.hasAttribute("class")) {
+			throw new InvalidContextException("An <array> must declare the class of its elements.");
+		}
+
+		final String componentType = this.resolveType(element.getAttribute("class"));
+
+		if (element.hasAttribute("length")) {
+			try {
+				return this.finish(element, new Expression("new " + componentType + "[" + Integer.parseInt(element.getAttribute("length").trim()) + "]", componentType + "[]"), body);
+			} catch (NumberFormatException ex) {
+				throw new InvalidContextException("'" + element.getAttribute("length") + "' is not a valid array length.", ex);
+			}
+		}
+
+		return this.finish(element, new Expression("new " + componentType + "[] {" + this.generateArguments(element, body) + "}", componentType + "[]"), body);
+	}
+
+	/**
+	 * Completes the expression of an element, storing it in a field when the element has an id and in a local variable when statements are applied to it.
+	 * @param element Element describing the value
+	 * @param expression Expression creating the value
+	 * @param body Body of the method being generated
+	 * @return Expression referring to the value
+	 * @throws InvalidContextException If a statement of the element is malformed
+	 */
+	private Expression finish(final Element element, final Expression expression, final StringBuilder body) throws InvalidContextException {
+		final Expression result;
+
+		if (element.hasAttribute("id")) {
+			final String id = element.getAttribute("id");
+
+			if (this.beans.containsKey(id)) {
+				throw new InvalidContextException("The id '" + id + "' is declared more than once.");
+			}
+
+			final String fieldName = "object" + this.beans.size();
+
+			this.fields.append("\t/** Object with the id ").append(toStringLiteral(id).replace("*/", "*\\/")).append(". */\n");
+			this.fields.append("\tprivate ").append(expression.type).append(' ').append(fieldName).append(";\n");
+			body.append("\t\tthis.").append(fieldName).append(" = ").append(expression.code).append(";\n");
+			result = new Expression("this." + fieldName, expression.type);
+			this.beans.put(id, result);
+		} else if (!getStatementElements(element).isEmpty()) {
+			result = this.declareVariable(expression, body);
+		} else {
+			return expression;
+		}
+
+		this.generateStatements(element, result, body);
+		return result;
+	}
+
+	/**
+	 * Generates the statements of an element, in document order.
+	 * @param element Element carrying the statements
+	 * @param target Expression of the object the statements are applied to
+	 * @param body Body of the method being generated
+	 * @throws InvalidContextException If a statement is malformed
+	 */
+	private void generateStatements(final Element element, final Expression target, final StringBuilder body) throws InvalidContextException {
+		for (Element statement : getStatementElements(element)) {
+			this.generateStatement(statement, target, body);
+		}
+	}
+
+	/**
+	 * Generates a property access, method call or index access, along with the statements applied to its result.
+	 * @param element Void element describing the statement
+	 * @param target Expression of the object the statement is applied to
+	 * @param body Body of the method being generated
+	 * @throws InvalidContextException If the statement is malformed or references unknown members
+	 */
+	private void generateStatement(final Element element, final Expression target, final StringBuilder body) throws InvalidContextException {
+		checkAttributes(element, "property", "method", "index");
+
+		final String arguments = this.generateArguments(element, body);
+		final int argumentCount = countArguments(element);
+		final boolean hasStatements = !getStatementElements(element).isEmpty();
+		final Expression result;
+		boolean declared = false;
+
+		if (element.hasAttribute("property")) {
+			final String property = element.getAttribute("property");
+			final String capitalized = property.isEmpty() ? property : Character.toUpperCase(property.charAt(0)) + property.substring(1);
+
+			if (argumentCount == 1) {
+				result = new Expression(target.code + ".set" + capitalized + "(" + arguments + ")", "void");
+			} else if (argumentCount == 0) {
+				final String getter = this.hasMethod(target.type, "get" + capitalized) ? "get" + capitalized : "is" + capitalized;
+				result = new Expression(target.code + "." + getter + "()", this.getReturnType(target.type, getter, 0, false));
+			} else {
+				throw new InvalidContextException("The property '" + property + "' is given more than one value.");
+			}
+		} else if (element.hasAttribute("index")) {
+			final String index = element.getAttribute("index").trim();
+
+			try {
+				Integer.parseInt(index);
+			} catch (NumberFormatException ex) {
+				throw new InvalidContextException("'" + index + "' is not a valid index.", ex);
+			}
+
+			if (argumentCount > 1) {
+				throw new InvalidContextException("The index " + index + " is given more than one value.");
+			} else if (target.type.endsWith("[]") && argumentCount == 1) {
+				result = new Expression(target.code + "[" + index + "] = " + arguments, "void");
+			} else if (target.type.endsWith("[]")) {
+				// An array access alone is not a statement in Java, so the element is always read into a variable
+				result = this.declareVariable(new Expression(target.code + "[" + index + "]", target.type.substring(0, target.type.length() - 2)), body);
+				declared = true;
+			} else {
+				result = (argumentCount == 1)
+					? new Expression(target.code + ".set(" + index + ", " + arguments + ")", "void")
+					: new Expression(target.code + ".get(" + index + ")", this.getReturnType(target.type, "get", 1, false));
+			}
+		} else if (element.hasAttribute("method")) {
+			final String method = element.getAttribute("method");
+			result = new Expression(target.code + "." + method + "(" + arguments + ")", hasStatements ? this.getReturnType(target.type, method, argumentCount, false) : "void");
+		} else {
+			throw new InvalidContextException("A <void> must declare a property, method or index.");
+		}
+
+		if (!hasStatements) {
+			if (!declared) {
+				body.append("\t\t").append(result.code).append(";\n");
+			}
+		} else if ("void".equals(result.type)) {
+			throw new InvalidContextException("Statements cannot be applied to the result of a <void> that returns nothing.");
+		} else {
+			this.generateStatements(element, declared ? result : this.declareVariable(result, body), body);
+		}
+	}
+
+	/**
+	 * Generates the comma separated argument list made of the value children of an element.
+	 * @param element Element whose children are the arguments
+	 * @param body Body of the method being generated
+	 * @return Argument list, empty when the element has no value children
+	 * @throws InvalidContextException If an argument is malformed
+	 */
+	private String generateArguments(final Element element, final StringBuilder body) throws InvalidContextException {
+		final StringBuilder arguments = new StringBuilder();
+
+		for (Element child : getChildElements(element)) {
+			if (!"void".equals(child.getTagName())) {
+				if (arguments.length() != 0) {
+					arguments.append(", ");
+				}
+
+				arguments.append(this.generateValue(child, body).code);
+			}
+		}
+
+		return arguments.toString();
+	}
+
+	/**
+	 * Declares a local variable holding the value of an expression.
+	 * @param expression Expression producing the value
+	 * @param body Body of the method being generated
+	 * @return Expression referring to the local variable
+	 */
+	private Expression declareVariable(final Expression expression, final StringBuilder body) {
+		final String variableName = "v" + this.variableCount++;
+
+		body.append("\t\tfinal ").append(expression.type).append(' ').append(variableName).append(" = ").append(expression.code).append(";\n");
+		return new Expression(variableName, expression.type);
+	}
+
+	/**
+	 * Resolves a class name of the context, in its binary form, to its name in Java source.
+	 * @param className Name of a class or primitive type
+	 * @return Canonical name of the type
+	 * @throws InvalidContextException If the class does not exist
+	 */
+	private String resolveType(final String className) throws InvalidContextException {
+		if (PRIMITIVE_ELEMENTS.contains(className)) {
+			return className;
+		}
+
+		final TypeElement typeElement = this.elements.getTypeElement(className.replace('$', '.'));
+
+		if (typeElement == null) {
+			throw new InvalidContextException("Class " + className + " could not be found.");
+		}
+
+		return typeElement.getQualifiedName().toString();
+	}
+
+	/**
+	 * Determines the erased type of a static field.
+	 * @param type Canonical name of the class declaring the field
+	 * @param fieldName Name of the field
+	 * @return Erased type of the field
+	 * @throws InvalidContextException If the class has no such static field
+	 */
+	private String getFieldType(final String type, final String fieldName) throws InvalidContextException {
+		for (VariableElement field : ElementFilter.fieldsIn(this.elements.getAllMembers(this.getTypeElement(type)))) {
+			if (field.getSimpleName().contentEquals(fieldName) && field.getModifiers().contains(Modifier.STATIC)) {
+				return this.types.erasure(field.asType()).toString();
+			}
+		}
+
+		throw new InvalidContextException("Class " + type + " has no static field " + fieldName + ".");
+	}
+
+	/**
+	 * Determines the erased return type of a method, which must be the same for every overload taking the given number of arguments.
+	 * @param type Canonical name of the class declaring the method
+	 * @param methodName Name of the method
+	 * @param argumentCount Number of arguments given to the method
+	 * @param requireStatic Whether only static methods are considered
+	 * @return Erased return type of the method
+	 * @throws InvalidContextException If there is no such method, or its overloads return different types
+	 */
+	private String getReturnType(final String type, final String methodName, final int argumentCount, final boolean requireStatic) throws InvalidContextException {
+		final Set<String> returnTypes = new HashSet<String>();
+
+		for (ExecutableElement method : ElementFilter.methodsIn(this.elements.getAllMembers(this.getTypeElement(type)))) {
+			if (method.getSimpleName().contentEquals(methodName) && method.getParameters().size() == argumentCount && (!requireStatic || method.getModifiers().contains(Modifier.STATIC))) {
+				returnTypes.add(this.types.erasure(method.getReturnType()).toString());
+			}
+		}
+
+		if (returnTypes.size() != 1) {
+			throw new InvalidContextException("Cannot determine the type returned by " + type + "." + methodName + " with " + argumentCount + " argument(s).");
+		}
+
+		return returnTypes.iterator().next();
+	}
+
+	/**
+	 * Determines whether a class has a method of the given name that takes no argument.
+	 * @param type Canonical name of the class
+	 * @param methodName Name of the method
+	 * @return True if the method exists
+	 * @throws InvalidContextException If the type is not a class
+	 */
+	private boolean hasMethod(final String type, final String methodName) throws InvalidContextException {
+		for (ExecutableElement method : ElementFilter.methodsIn(this.elements.getAllMembers(this.getTypeElement(type)))) {
+			if (method.getSimpleName().contentEquals(methodName) && method.getParameters().isEmpty()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Looks up the declaration of a class.
+	 * @param type Canonical name of the class
+	 * @return Declaration of the class
+	 * @throws InvalidContextException If the type is not a known class
+	 */
+	private TypeElement getTypeElement(final String type) throws InvalidContextException {
+		final TypeElement typeElement = this.elements.getTypeElement(type);
+
+		if (typeElement == null) {
+			throw new InvalidContextException("Members of " + type + " cannot be accessed from a compiled context.");
+		}
+
+		return typeElement;
+	}
+
+	/**
+	 * Verifies that an element carries no attributes other than the given ones.
+	 * @param element Element to verify
+	 * @param allowedAttributes Names of the allowed attributes
+	 * @throws InvalidContextException If the element carries another attribute
+	 */
+	private static void checkAttributes(final Element element, final String... allowedAttributes) throws InvalidContextException {
+		final List<String> allowed = Arrays.asList(allowedAttributes);
+		final NamedNodeMap attributes = element.getAttributes();
+
+		for (int index = 0; index < attributes.getLength(); index++) {
+			if (!allowed.contains(attributes.item(index).getNodeName())) {
+				throw new InvalidContextException("Unsupported attribute '" + attributes.item(index).getNodeName() + "' on <" + element.getTagName() + ">.");
+			}
+		}
+	}
+
+	/**
+	 * Counts the value children of an element, which are the arguments of the call it describes.
+	 * @param element Element whose children are counted
+	 * @return Number of children that are not statements
+	 */
+	private static int countArguments(final Element element) {
+		return getChildElements(element).size() - getStatementElements(element).size();
+	}
+
+	/**
+	 * Lists the child elements of an element.
+	 * @param element Parent element
+	 * @return Child elements, in document order
+	 */
+	private static List<Element> getChildElements(final Element element) {
+		final List<Element> children = new ArrayList<Element>();
+		final NodeList nodes = element.getChildNodes();
+
+		for (int index = 0; index < nodes.getLength(); index++) {
+			if (nodes.item(index).getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element) nodes.item(index));
+			}
+		}
+
+		return children;
+	}
+
+	/**
+	 * Lists the statement children of an element, which are the void elements.
+	 * @param element Parent element
+	 * @return Statement elements, in document order
+	 */
+	private static List<Element> getStatementElements(final Element element) {
+		final List<Element> statements = new ArrayList<Element>();
+
+		for (Element child : getChildElements(element)) {
+			if ("void".equals(child.getTagName())) {
+				statements.add(child);
+			}
+		}
+
+		return statements;
+	}
+
+	/**
+	 * Converts the text of a primitive element into a Java literal.
+	 * @param elementName Name of the element, which is the name of the primitive type
+	 * @param text Text of the element
+	 * @return Java literal of the value
+	 * @throws InvalidContextException If the text is not a valid value of the type
+	 */
+	private static String toPrimitiveLiteral(final String elementName, final String text) throws InvalidContextException {
+		try {
+			if ("boolean".equals(elementName)) {
+				return Boolean.valueOf(text).toString();
+			} else if ("byte".equals(elementName)) {
+				return "(byte) " + Byte.decode(text);
+			} else if ("char".equals(elementName)) {
+				if (text.length() != 1) {
+					throw new InvalidContextException("A <char> must contain exactly one character.");
+				}
+
+				return "'" + escape(text.charAt(0), '\'') + "'";
+			} else if ("short".equals(elementName)) {
+				return "(short) " + Short.decode(text);
+			} else if ("int".equals(elementName)) {
+				return Integer.decode(text).toString();
+			} else if ("long".equals(elementName)) {
+				return Long.decode(text) + "L";
+			} else if ("float".equals(elementName)) {
+				final Float value = Float.valueOf(text);
+				return value.isNaN() ? "Float.NaN" : value.isInfinite() ? ((value > 0) ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY") : value + "F";
+			}
+
+			final Double value = Double.valueOf(text);
+			return value.isNaN() ? "Double.NaN" : value.isInfinite() ? ((value > 0) ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY") : value + "D";
+		} catch (NumberFormatException ex) {
+			throw new InvalidContextException("'" + text + "' is not a valid <" + elementName + ">.", ex);
+		}
+	}
+
+	/**
+	 * Converts text into a Java string literal.
+	 * @param text Text to convert
+	 * @return Quoted and escaped literal
+	 */
+	private static String toStringLiteral(final String text) {
+		final StringBuilder literal = new StringBuilder(text.length() + 2).append('"');
+
+		for (int index = 0; index < text.length(); index++) {
+			literal.append(escape(text.charAt(index), '"'));
+		}
+
+		return literal.append('"').toString();
+	}
+
+	/**
+	 * Escapes a character for use in a Java literal. Control characters use octal escapes, as unicode escapes are translated before literals are read.
+	 * @param character Character to escape
+	 * @param quote Quote character of the literal
+	 * @return Escaped character
+	 */
+	private static String escape(final char character, final char quote) {
+		if (character == quote || character == '\\') {
+			return "\\" + character;
+		} else if (character < 0x20 || character == 0x7f) {
+			return String.format("\\%03o", (int) character);
+		} else if (character > 0x7f) {
+			return String.format("\\u%04x", (int) character);
+		}
+
+		return String.valueOf(character);
+	}
+
+	/**
+	 * Java expression along with its static type.
+	 */
+	private static final class Expression {
+
+		/**
+		 * Java source of the expression.
+		 */
+		private final String code;
+
+		/**
+		 * Canonical name of the static type of the expression, or void.
+		 */
+		private final String type;
+
+		/**
+		 * Constructs a new Expression.
+		 * @param code Java source of the expression
+		 * @param type Canonical name of the static type of the expression
+		 */
+		private Expression(final String code, final String type) {
+			this.code = code;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.compiler;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContextFactory;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompiledContextProcessorTest {
+
+	private static final String CONTEXT_FILE_LOCATION = "/com/unboundedprime/tapioca/compiler/beans_CompiledContextProcessorTest.xml";
+
+	private static final String FACTORY_NAME = "com.unboundedprime.tapioca.compiler.CompiledTestContextFactory";
+
+	/**
+	 * Test of process method, of class CompiledContextProcessor with the annotated test context.
+	 */
+	@Test
+	public void testProcess_AnnotatedContext_GeneratesContextFactory() throws Throwable {
+		System.out.println("testProcess_AnnotatedContext_GeneratesContextFactory");
+
+		final Class<?> factoryClass = Class.forName(FACTORY_NAME);
+
+		assertTrue("generated class must be a context factory", ContextFactory.class.isAssignableFrom(factoryClass));
+		assertEquals("every root object must be created", 3, ((ContextFactory) factoryClass.newInstance()).createObjects().size());
+	}
+
+	/**
+	 * Test of createObjects method, of the factory generated by CompiledContextProcessor with the annotated test context.
+	 */
+	@Test
+	public void testCreateObjects_CompiledContext_WiresObjectGraph() throws Throwable {
+		System.out.println("testCreateObjects_CompiledContext_WiresObjectGraph");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext(FACTORY_NAME);
+
+		final ParentTestClass parent = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+		final ChildTestClass child = instance.getObjectThatImplementsOrNull(ChildTestClass.class);
+
+		assertNotNull("parent must be created", parent);
+		assertSame("idref must refer to the root child", child, parent.getChild());
+		assertSame("parent must be found by its interface", parent, instance.getObjectThatImplementsOrNull(ParentTestInterface.class));
+		assertEquals("string must be unescaped", "Hello \"World\"!\té", child.getText());
+		assertEquals("static factory method must be called", "created", parent.getChildren()[0].getText());
+		assertSame("static field must be read", ChildTestClass.DEFAULT, parent.getChildren()[1]);
+		assertEquals("constructor must be called with the argument", "constructed", parent.getChildren()[2].getText());
+		assertEquals("methods must be called on the property value", Arrays.asList("first", "second"), parent.getNames());
+		assertEquals(-42, parent.getNumber());
+		assertEquals(9000000000L, parent.getTotal());
+		assertEquals(0.25, parent.getRatio(), 0.0);
+		assertTrue(parent.isEnabled());
+		assertEquals('\'', parent.getLetter());
+		assertSame(List.class, parent.getType());
+		assertEquals("root string", instance.getObjectThatImplementsOrNull(String.class));
+	}
+
+	/**
+	 * Test of createObjects method, of the factory generated by CompiledContextProcessor compared to the container built from the same XML.
+	 */
+	@Test
+	public void testCreateObjects_CompiledContext_MatchesXmlContext() throws Throwable {
+		System.out.println("testCreateObjects_CompiledContext_MatchesXmlContext");
+
+		final Container compiled = Container.Builder.buildContainerFromCompiledContext(FACTORY_NAME);
+		final Container decoded = Container.Builder.buildContainerFromXmlInClasspath(CONTEXT_FILE_LOCATION);
+
+		final List<Object> compiledObjects = compiled.getObjectsThatImplement(Object.class);
+		final List<Object> decodedObjects = decoded.getObjectsThatImplement(Object.class);
+
+		assertEquals("both containers must hold the same number of objects", decodedObjects.size(), compiledObjects.size());
+
+		for (int index = 0; index < decodedObjects.size(); index++) {
+			assertSame("objects must be cataloged in the same order", decodedObjects.get(index).getClass(), compiledObjects.get(index).getClass());
+		}
+
+		final ParentTestClass compiledParent = compiled.getObjectThatImplementsOrNull(ParentTestClass.class);
+		final ParentTestClass decodedParent = decoded.getObjectThatImplementsOrNull(ParentTestClass.class);
+
+		assertEquals(decodedParent.getChild().getText(), compiledParent.getChild().getText());
+		assertEquals(decodedParent.getChildren().length, compiledParent.getChildren().length);
+		assertEquals(decodedParent.getNames(), compiledParent.getNames());
+		assertEquals(decodedParent.getNumber(), compiledParent.getNumber());
+		assertEquals(decodedParent.getTotal(), compiledParent.getTotal());
+		assertEquals(decodedParent.getLetter(), compiledParent.getLetter());
+		assertSame(decodedParent.getType(), compiledParent.getType());
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParentTestClass implements ParentTestInterface {
+
+	private ChildTestClass child;
+
+	private ChildTestClass[] children;
+
+	private final List<String> names = new ArrayList<String>();
+
+	private int number;
+
+	private long total;
+
+	private double ratio;
+
+	private boolean enabled;
+
+	private char letter;
+
+	private Class<?> type;
+
+	public ChildTestClass getChild() {
+		return child;
+	}
+
+	public void setChild(ChildTestClass child) {
+		this.child = child;
+	}
+
+	public ChildTestClass[] getChildren() {
+		return children;
+	}
+
+	public void setChildren(ChildTestClass[] children) {
+		this.children = children;
+	}
+
+	public List<String> getNames() {
+		return names;
+	}
+
+	public int getNumber() {
+		return number;
+	}
+
+	public void setNumber(int number) {
+		this.number = number;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+	public double getRatio() {
+		return ratio;
+	}
+
+	public void setRatio(double ratio) {
+		this.ratio = ratio;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public char getLetter() {
+		return letter;
+	}
+
+	public void setLetter(char letter) {
+		this.letter = letter;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public void setType(Class<?> type) {
+		this.type = type;
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * Strategies by which a container turns the objects declared in its context into instances.
+ */
+public enum BuildMode {
+
+	/**
+	 * Decodes the context with java.beans.XMLDecoder, instantiating every object while the container is built. A
+	 * container built from several contexts reads them as STREAMING does, since XMLDecoder cannot resolve an idref to an
+	 * object of another document. Attributes that XMLDecoder does not know, such as scopes, lifecycle methods and
+	 * priorities, are rejected, so the objects of a type are listed in document order. XMLDecoder does not tell which
+	 * element an object was decoded from, so the objects cannot be looked up by id.
+	 */
+	XML_DECODER,
+
+	/**
+	 * Reads the context with a javax.xml.stream reader and instantiates every object while the container is built, as
+	 * XML_DECODER does. Constructors and methods are resolved once per class and argument types and then reused by every
+	 * object and container of the JVM. Supports the same elements as LAZY.
+	 */
+	STREAMING,
+
+	/**
+	 * Reads the context as STREAMING does, then instantiates its objects concurrently on the executor of the
+	 * configuration. An object is instantiated once every object it references through an idref exists, so objects that
+	 * are independent of each other are instantiated at the same time. Objects are cataloged in document order, as in
+	 * every other mode.
+	 */
+	PARALLEL,
+
+	/**
+	 * Parses the object definitions of the context while the container is built, but instantiates each root level
+	 * object, along with the objects it references, only when a lookup first needs it. Objects are indexed by their
+	 * declared type, which is the type returned by a factory method or held by a static field where those are used
+	 * instead of a constructor. Supports the java, object, void, array, null, class, string and primitive elements.
+	 */
+	LAZY
+}
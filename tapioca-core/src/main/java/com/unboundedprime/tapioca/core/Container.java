@@ -22,17 +22,32 @@ package com.unboundedprime.tapioca.core;
 import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
 import com.unboundedprime.tapioca.core.exception.InvalidContextException;
 import com.unboundedprime.tapioca.core.exception.InvalidInterfaceException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
 import com.unboundedprime.tapioca.core.impl.DefaultContainerImpl;
+import com.unboundedprime.tapioca.core.impl.ObjectHandleImpl;
+import com.unboundedprime.tapioca.core.impl.OverlayContainerImpl;
+import com.unboundedprime.tapioca.core.impl.ReloadableContainerImpl;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
- * Main container facade interface in the Tapioca container framework.
+ * Main container facade interface in the Tapioca container framework. The methods added after the first three lookups
+ * have default implementations in terms of those lookups, so that implementations written against them keep compiling.
  */
-public interface Container {
+public interface Container extends AutoCloseable {
 	
 	/**
-	 * Gets a specific instance of an object from the container.
+	 * Gets a specific instance of an object from the container. An object of the container itself takes precedence over
+	 * the objects of its parent, which are only consulted if the container holds no implementation.
 	 * @param <T> Type of the class to extract
 	 * @param classOrInterfaceToExtract Class of the class, or interface for which to obtain an implementation
 	 * @return Object instance or null, if there is no implementer of the interface, or the actual object
@@ -41,11 +56,61 @@ public interface Container {
 	
 	/**
 	 * Gets a set of object instances from the container that implement a specific interface, or are an instance of a class.
+	 * The returned list is an unmodifiable snapshot that is shared between callers, and must be copied before being altered.
+	 * It holds the objects of the container itself, followed by those of its parent. The objects of each container come
+	 * by ascending priority, as declared by the priority attribute of root level objects, then in document order, which
+	 * is computed once while building, so the order is the same on every call and every run. The priority attribute is
+	 * only read by the STREAMING, PARALLEL and LAZY build modes: a context declaring it fails to build in the XML_DECODER
+	 * mode, and the objects of a compiled context have no priority, so both come in document order.
 	 * @param <T> Type of the class to extract
 	 * @param classOrInterfaceToExtract Class of the class, or interface for which to obtain an implementation
-	 * @return Object instance or null, if there is no implementer of the interface, or the actual object
+	 * @return Unmodifiable list of the object instances, which is empty if there is no implementer of the interface
 	 */
 	<T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException;
+
+	/**
+	 * Gets a set of object instances from the container that implement a specific interface, or are an instance of a class,
+	 * and whose class carries an annotation, such as a qualifier telling apart implementations of the same interface.
+	 * Annotations inherited from superclasses count, those of interfaces do not. The objects are selected while the
+	 * container is built, so the returned list is an unmodifiable snapshot shared between callers, holding the objects of
+	 * the container itself, followed by those of its parent, in the order of getObjectsThatImplement.
+	 * @param <T> Type of the class to extract
+	 * @param classOrInterfaceToExtract Class of the class, or interface for which to obtain an implementation
+	 * @param annotationType Annotation the class of the objects must carry, which must be retained at runtime to be found
+	 * @return Unmodifiable list of the object instances, which is empty if there is no annotated implementer of the interface
+	 * @throws InvalidInterfaceException If the class or interface is null, or the annotation type is null or not an annotation
+	 */
+	default <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract, final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		if (annotationType == null) {
+			throw new InvalidInterfaceException("annotationType may not be null");
+		}
+
+		if (!annotationType.isAnnotation()) {
+			throw new InvalidInterfaceException("'" + annotationType.getName() + "' is not an annotation type.");
+		}
+
+		final List<T> annotatedObjects = new ArrayList<T>();
+
+		for (final T object : this.getObjectsThatImplement(classOrInterfaceToExtract)) {
+			if (object.getClass().isAnnotationPresent(annotationType)) {
+				annotatedObjects.add(object);
+			}
+		}
+
+		return Collections.unmodifiableList(annotatedObjects);
+	}
+
+	/**
+	 * Gets every object instance from the container whose class carries an annotation, inherited from a superclass or not.
+	 * The returned list is an unmodifiable snapshot shared between callers, holding the objects of the container itself,
+	 * followed by those of its parent, in the order of getObjectsThatImplement.
+	 * @param annotationType Annotation the class of the objects must carry, which must be retained at runtime to be found
+	 * @return Unmodifiable list of the object instances, which is empty if no object carries the annotation
+	 * @throws InvalidInterfaceException If the annotation type is null or not an annotation
+	 */
+	default List<Object> getObjectsAnnotatedWith(final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		return this.getObjectsThatImplement(Object.class, annotationType);
+	}
 	
 	/**
 	 * Determines whether an object is available in the container that implements the specified interface, or is an instance of the specified class.
@@ -54,6 +119,106 @@ public interface Container {
 	 */
 	<T> boolean containsObjectThatImplements(final Class<T> classOrInterface) throws InvalidInterfaceException;
 
+	/**
+	 * Gets a root level object of the container by the id it was declared with in the context, which tells apart objects
+	 * implementing the same interface. The objects of the parent are only consulted if the container holds no object
+	 * with the id. Objects created by a compiled context or decoded in the XML_DECODER build mode have no id, and neither
+	 * do those of a container that does not override this method.
+	 * @param <T> Type of the class to extract
+	 * @param id Id of the object
+	 * @param classOrInterfaceToExtract Class of the class, or interface the object must implement
+	 * @return Object instance, or null if no root level object has the id
+	 * @throws InvalidInterfaceException If the class or interface is null, or the object does not implement it
+	 */
+	default <T> T getObjectById(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the pool of a root level object declared with the pooled scope, from which its instances are borrowed. The
+	 * pools of the parent are only consulted if the container holds no object with the id. A container that does not
+	 * override this method has no pools.
+	 * @param <T> Type of the pooled instances
+	 * @param id Id of the object
+	 * @param classOrInterfaceToExtract Class of the class, or interface the declared type of the object must implement
+	 * @return Pool of the object, or null if no root level object has the id
+	 * @throws InvalidInterfaceException If the class or interface is null, or the object is not pooled or does not implement it
+	 */
+	default <T> ObjectPool<T> getObjectPool(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the name of the source that declared a root level object of the container, such as its path in the classpath.
+	 * @param object Object obtained from the container
+	 * @return Name of the source, or null if the object is not a root level object of the container, was not yet instantiated, or its source is unnamed
+	 */
+	default String getSourceOf(final Object object) {
+		return null;
+	}
+
+	/**
+	 * Gets the timings of the build of the container, which are collected when enabled by its configuration.
+	 * @return Timings of the build, or null if they were not collected
+	 */
+	default ContainerStatistics getStatistics() {
+		return null;
+	}
+
+	/**
+	 * Gets a snapshot of the lookups made on the container per requested type, which are counted when enabled by its
+	 * configuration. A LookupStatisticsView exposes them through JMX.
+	 * @return Counts of the lookups, or null if they are not counted
+	 */
+	default LookupStatistics getLookupStatistics() {
+		return null;
+	}
+
+	/**
+	 * Resolves the object of a type once, returning a handle that yields it without any further lookup. The object is
+	 * the one getObjectThatImplementsOrNull returns, and the handle stays bound to it, except for a ReloadableContainer,
+	 * which rebinds its handles on every reload.
+	 * @param <T> Type of the class to extract
+	 * @param classOrInterfaceToExtract Class of the class, or interface for which to obtain an implementation
+	 * @return Handle bound to the object instance, or to null if there is no implementer of the interface
+	 * @throws AmbiguousInterfaceException If more than one object implements the interface
+	 * @throws InvalidInterfaceException If the requested interface is null or primitive
+	 */
+	default <T> ObjectHandle<T> getObjectHandle(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+		if ((classOrInterfaceToExtract != null) && classOrInterfaceToExtract.isPrimitive()) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be primitive");
+		}
+
+		return new ObjectHandleImpl<T>(classOrInterfaceToExtract, this.getObjectThatImplementsOrNull(classOrInterfaceToExtract));
+	}
+
+	/**
+	 * Gets the container to which lookups fall through when this container holds no implementation.
+	 * @return Parent container, or null if the container has no parent
+	 */
+	default Container getParent() {
+		return null;
+	}
+
+	/**
+	 * Destroys the objects of the container by invoking their destroy methods, or closing them if they declare none and
+	 * are AutoCloseable. An object is destroyed as soon as every object referencing it has been destroyed, so objects
+	 * that do not depend on each other are destroyed concurrently, each within the lifecycle timeout of the
+	 * configuration. Objects of the THREAD and POOLED scopes, and the objects of the parent container, are not destroyed.
+	 * Closing the container again has no effect. A container that does not override this method destroys nothing.
+	 * @throws LifecycleException If any object could not be destroyed in time, after every other object has been destroyed
+	 */
+	default void close() throws LifecycleException {
+	}
+
 	/**
 	 * Builder by which instances of the Tapioca container are instantiated.
 	 */
@@ -69,6 +234,17 @@ public interface Container {
 			return new DefaultContainerImpl(inputStream);
 		}
 		
+		/**
+		 * Builds a container instance using a JavaBeans XML configuration file provided in an InputStream.
+		 * @param inputStream InputStream from which to obtain the configuration
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the wired object graph context
+		 * @throws InvalidContextException If the provided context is malformed, or the configuration is null
+		 */
+		public static Container buildContainerFromXmlOnInputStream(final InputStream inputStream, final ContainerConfiguration configuration) throws InvalidContextException {
+			return new DefaultContainerImpl(inputStream, configuration);
+		}
+		
 		/**
 		 * Builds a container instance using a JavaBeans XML configuration file located on the classpath referenced in a string.
 		 * @param inputStream String containing the fully qualified location in the classpath from which to obtain the configuration
@@ -79,6 +255,226 @@ public interface Container {
 			return new DefaultContainerImpl(xmlFileFromClasspath);
 		}
 		
+		/**
+		 * Builds a container instance using a JavaBeans XML configuration file located on the classpath referenced in a string.
+		 * @param xmlFileFromClasspath String containing the fully qualified location in the classpath from which to obtain the configuration
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the wired object graph context
+		 * @throws InvalidContextException If the provided context is malformed, or the configuration is null
+		 */
+		public static Container buildContainerFromXmlInClasspath(final String xmlFileFromClasspath, final ContainerConfiguration configuration) throws InvalidContextException {
+			return new DefaultContainerImpl(xmlFileFromClasspath, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from several JavaBeans XML configuration files located on the classpath, which are
+		 * parsed concurrently and merged into one context, so that an idref may refer to an id declared in another file.
+		 * @param xmlFilesFromClasspath Fully qualified locations in the classpath from which to obtain the configuration, in the order in which their objects are cataloged
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If any provided context is malformed, or two contexts declare the same id
+		 */
+		public static Container buildContainerFromXmlFilesInClasspath(final List<String> xmlFilesFromClasspath) throws InvalidContextException {
+			return new DefaultContainerImpl(xmlFilesFromClasspath, new ContainerConfiguration());
+		}
+		
+		/**
+		 * Builds a container instance from several JavaBeans XML configuration files located on the classpath, which are
+		 * parsed concurrently and merged into one context, so that an idref may refer to an id declared in another file.
+		 * @param xmlFilesFromClasspath Fully qualified locations in the classpath from which to obtain the configuration, in the order in which their objects are cataloged
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the wired object graph context
+		 * @throws InvalidContextException If any provided context is malformed, two contexts declare the same id, or the configuration is null
+		 */
+		public static Container buildContainerFromXmlFilesInClasspath(final List<String> xmlFilesFromClasspath, final ContainerConfiguration configuration) throws InvalidContextException {
+			return new DefaultContainerImpl(xmlFilesFromClasspath, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from several JavaBeans XML configuration files provided in InputStreams, which are
+		 * parsed concurrently and merged into one context, so that an idref may refer to an id declared in another file.
+		 * Every stream is closed once it has been read.
+		 * @param inputStreamsBySourceName InputStreams from which to obtain the configuration keyed by the name reported for their objects, in the order in which their objects are cataloged
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the wired object graph context
+		 * @throws InvalidContextException If any provided context is malformed, two contexts declare the same id, or the configuration is null
+		 */
+		public static Container buildContainerFromXmlOnInputStreams(final Map<String, InputStream> inputStreamsBySourceName, final ContainerConfiguration configuration) throws InvalidContextException {
+			return new DefaultContainerImpl(inputStreamsBySourceName, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from a JavaBeans XML configuration file in the file system, which is rebuilt
+		 * whenever the file changes until the container is closed.
+		 * @param xmlFile Path of the file from which to obtain the configuration
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If the provided context is malformed, or the file could not be read or watched
+		 */
+		public static ReloadableContainer buildReloadableContainerFromXmlFile(final Path xmlFile) throws InvalidContextException {
+			return new ReloadableContainerImpl(xmlFile, new ContainerConfiguration());
+		}
+		
+		/**
+		 * Builds a container instance from a JavaBeans XML configuration file in the file system, which is rebuilt
+		 * whenever the file changes until the container is closed.
+		 * @param xmlFile Path of the file from which to obtain the configuration
+		 * @param configuration Options that control how the container is built, applied to every rebuild
+		 * @return Container instance containing the wired object graph context
+		 * @throws InvalidContextException If the provided context is malformed, the file could not be read or watched, or the configuration is null
+		 */
+		public static ReloadableContainer buildReloadableContainerFromXmlFile(final Path xmlFile, final ContainerConfiguration configuration) throws InvalidContextException {
+			return new ReloadableContainerImpl(xmlFile, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from a context that was compiled into a ContextFactory at build time.
+		 * @param contextFactoryClass Class of the generated factory
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If the factory is null, or could not be instantiated or create the objects
+		 */
+		public static Container buildContainerFromCompiledContext(final Class<? extends ContextFactory> contextFactoryClass) throws InvalidContextException {
+			return buildContainerFromCompiledContext(contextFactoryClass, new ContainerConfiguration());
+		}
+		
+		/**
+		 * Builds a container instance from a context that was compiled into a ContextFactory at build time, honouring the
+		 * parent, lookup metrics, listener, executor, lifecycle timeout, warm-up budget and statistics of the configuration.
+		 * The build mode does not apply, as the generated code creates the objects.
+		 * @param contextFactoryClass Class of the generated factory, which must have a constructor without parameters
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If the factory is null, could not be instantiated or create the objects, or the configuration is null
+		 */
+		public static Container buildContainerFromCompiledContext(final Class<? extends ContextFactory> contextFactoryClass, final ContainerConfiguration configuration) throws InvalidContextException {
+			if (contextFactoryClass == null) {
+				throw new InvalidContextException("contextFactoryClass may not be null.");
+			}
+
+			final ContextFactory contextFactory;
+
+			try {
+				contextFactory = contextFactoryClass.getDeclaredConstructor().newInstance();
+			} catch (NoSuchMethodException ex) {
+				throw new InvalidContextException(contextFactoryClass.getName() + " has no constructor without parameters.", ex);
+			} catch (InvocationTargetException ex) {
+				throw new InvalidContextException("Unable to instantiate " + contextFactoryClass.getName() + ".", ex.getCause());
+			} catch (InstantiationException ex) {
+				throw new InvalidContextException("Unable to instantiate " + contextFactoryClass.getName() + ".", ex);
+			} catch (IllegalAccessException ex) {
+				throw new InvalidContextException("Unable to instantiate " + contextFactoryClass.getName() + ".", ex);
+			}
+
+			return new DefaultContainerImpl(contextFactory, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from a context that was compiled into a ContextFactory at build time.
+		 * @param contextFactoryClassName Fully qualified name of the generated factory, which is loaded by the context class loader of the current thread
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If the factory does not exist, or could not be instantiated or create the objects
+		 */
+		public static Container buildContainerFromCompiledContext(final String contextFactoryClassName) throws InvalidContextException {
+			return buildContainerFromCompiledContext(contextFactoryClassName, new ContainerConfiguration());
+		}
+		
+		/**
+		 * Builds a container instance from a context that was compiled into a ContextFactory at build time, honouring the
+		 * options of the configuration as buildContainerFromCompiledContext(Class, ContainerConfiguration) does.
+		 * @param contextFactoryClassName Fully qualified name of the generated factory, which is loaded by the context class loader of the current thread
+		 * @param configuration Options that control how the container is built
+		 * @return Container instance containing the fully wired object graph context
+		 * @throws InvalidContextException If the factory does not exist, could not be instantiated or create the objects, or the configuration is null
+		 */
+		public static Container buildContainerFromCompiledContext(final String contextFactoryClassName, final ContainerConfiguration configuration) throws InvalidContextException {
+			if (contextFactoryClassName == null) {
+				throw new InvalidContextException("contextFactoryClassName may not be null.");
+			}
+
+			final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			final Class<? extends ContextFactory> contextFactoryClass;
+
+			try {
+				contextFactoryClass = Class.forName(contextFactoryClassName, true, (classLoader != null) ? classLoader : Container.class.getClassLoader()).asSubclass(ContextFactory.class);
+			} catch (ClassNotFoundException ex) {
+				throw new InvalidContextException("Compiled context " + contextFactoryClassName + " could not be found.", ex);
+			} catch (ClassCastException ex) {
+				throw new InvalidContextException(contextFactoryClassName + " is not a ContextFactory.", ex);
+			}
+
+			return buildContainerFromCompiledContext(contextFactoryClass, configuration);
+		}
+		
+		/**
+		 * Builds a container instance from a JavaBeans XML configuration file on the classpath without blocking the caller,
+		 * on a thread of its own, which is a virtual thread on Java versions that offer them.
+		 * @param xmlFileFromClasspath String containing the fully qualified location in the classpath from which to obtain the configuration
+		 * @return Future completed with the container, or exceptionally with an InvalidContextException if the provided context is malformed
+		 */
+		public static CompletableFuture<Container> buildAsync(final String xmlFileFromClasspath) {
+			return buildAsync(xmlFileFromClasspath, new ContainerConfiguration(), null);
+		}
+		
+		/**
+		 * Builds a container instance from a JavaBeans XML configuration file on the classpath without blocking the caller.
+		 * @param xmlFileFromClasspath String containing the fully qualified location in the classpath from which to obtain the configuration
+		 * @param configuration Options that control how the container is built
+		 * @param executor Executor on which to build the container, or null to build it on a thread of its own, which is a virtual thread on Java versions that offer them
+		 * @return Future completed with the container, or exceptionally with an InvalidContextException if the provided context is malformed, the configuration is null or the executor rejected the build
+		 */
+		public static CompletableFuture<Container> buildAsync(final String xmlFileFromClasspath, final ContainerConfiguration configuration, final Executor executor) {
+			return DefaultContainerImpl.buildAsync(new Callable<Container>() {
+				public Container call() throws InvalidContextException {
+					return buildContainerFromXmlInClasspath(xmlFileFromClasspath, configuration);
+				}
+			}, executor);
+		}
+		
+		/**
+		 * Builds a container instance from several JavaBeans XML configuration files on the classpath without blocking the
+		 * caller, merging them as buildContainerFromXmlFilesInClasspath does.
+		 * @param xmlFilesFromClasspath Fully qualified locations in the classpath from which to obtain the configuration, in the order in which their objects are cataloged
+		 * @param configuration Options that control how the container is built
+		 * @param executor Executor on which to build the container, or null to build it on a thread of its own, which is a virtual thread on Java versions that offer them
+		 * @return Future completed with the container, or exceptionally with an InvalidContextException if any provided context is malformed, two contexts declare the same id, the configuration is null or the executor rejected the build
+		 */
+		public static CompletableFuture<Container> buildAsync(final List<String> xmlFilesFromClasspath, final ContainerConfiguration configuration, final Executor executor) {
+			return DefaultContainerImpl.buildAsync(new Callable<Container>() {
+				public Container call() throws InvalidContextException {
+					return buildContainerFromXmlFilesInClasspath(xmlFilesFromClasspath, configuration);
+				}
+			}, executor);
+		}
+		
+		/**
+		 * Builds a container instance from a JavaBeans XML configuration file provided in an InputStream without blocking
+		 * the caller. The stream is read on the thread that builds the container.
+		 * @param inputStream InputStream from which to obtain the configuration
+		 * @param configuration Options that control how the container is built
+		 * @param executor Executor on which to build the container, or null to build it on a thread of its own, which is a virtual thread on Java versions that offer them
+		 * @return Future completed with the container, or exceptionally with an InvalidContextException if the provided context is malformed, the configuration is null or the executor rejected the build
+		 */
+		public static CompletableFuture<Container> buildAsync(final InputStream inputStream, final ContainerConfiguration configuration, final Executor executor) {
+			return DefaultContainerImpl.buildAsync(new Callable<Container>() {
+				public Container call() throws InvalidContextException {
+					return buildContainerFromXmlOnInputStream(inputStream, configuration);
+				}
+			}, executor);
+		}
+		
+		/**
+		 * Creates an empty overlay over a built container, to which objects of a single request can be registered. Creating
+		 * an overlay allocates a single small object, and registering the first objects allocates two short arrays.
+		 * @param sharedContainer Container to which every lookup of the overlay falls through
+		 * @return Overlay container holding no objects of its own
+		 * @throws InvalidContextException If the shared container is null
+		 */
+		public static OverlayContainer buildOverlayContainer(final Container sharedContainer) throws InvalidContextException {
+			if (sharedContainer == null) {
+				throw new InvalidContextException("sharedContainer may not be null.");
+			}
+
+			return new OverlayContainerImpl(sharedContainer);
+		}
+		
 		/**
 		 * Prevents construction of a pure utility class.
 		 */
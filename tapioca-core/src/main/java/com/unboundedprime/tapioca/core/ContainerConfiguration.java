@@ -0,0 +1,255 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options that control how a container is built from its context. A new configuration holds the defaults used by the
+ * Builder methods that take no configuration.
+ */
+public class ContainerConfiguration {
+
+	/**
+	 * Strategy by which the objects of the context are instantiated.
+	 */
+	private BuildMode buildMode = BuildMode.XML_DECODER;
+
+	/**
+	 * Executor on which objects are instantiated in the PARALLEL build mode, or null for a pool private to each build.
+	 */
+	private Executor executor;
+
+	/**
+	 * Container to which lookups fall through, or null if the container has no parent.
+	 */
+	private Container parent;
+
+	/**
+	 * Whether the timings of the build are collected.
+	 */
+	private boolean statisticsEnabled;
+
+	/**
+	 * Whether the lookups made on the container are counted.
+	 */
+	private boolean lookupMetricsEnabled;
+
+	/**
+	 * Observer of the activity of the container, or null.
+	 */
+	private ContainerListener listener;
+
+	/**
+	 * Average number of lookups per lookup reported to the listener, or zero if no lookup is reported.
+	 */
+	private int lookupSamplingInterval;
+
+	/**
+	 * Longest time in milliseconds an init or destroy method may take.
+	 */
+	private long lifecycleTimeoutMillis = 30000;
+
+	/**
+	 * Time in milliseconds during which the objects are warmed up before the container is ready, or zero for no warm-up.
+	 */
+	private long warmUpBudgetMillis;
+
+	/**
+	 * Gets the strategy by which the objects of the context are instantiated.
+	 * @return Build mode, XML_DECODER by default
+	 */
+	public BuildMode getBuildMode() {
+		return this.buildMode;
+	}
+
+	/**
+	 * Sets the strategy by which the objects of the context are instantiated.
+	 * @param buildMode Build mode
+	 * @throws IllegalArgumentException If the build mode is null
+	 */
+	public void setBuildMode(final BuildMode buildMode) {
+		if (buildMode == null) {
+			throw new IllegalArgumentException("buildMode may not be null.");
+		}
+
+		this.buildMode = buildMode;
+	}
+
+	/**
+	 * Gets the executor on which objects are instantiated in the PARALLEL build mode, and on which the init and destroy
+	 * methods of the objects are invoked.
+	 * @return Executor, or null if each build uses a pool of one thread per available processor, shut down once the build completes
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Sets the executor on which objects are instantiated in the PARALLEL build mode, and on which the init and destroy
+	 * methods of the objects are invoked, such as a ForkJoinPool or, where the JVM provides them, an executor starting a
+	 * virtual thread per task. The executor is not shut down by the container.
+	 * @param executor Executor, or null to use a pool private to each build
+	 */
+	public void setExecutor(final Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the container to which lookups of the built container fall through.
+	 * @return Parent container, or null if the built container has no parent
+	 */
+	public Container getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * Sets the container to which lookups of the built container fall through, such as a container of shared
+	 * infrastructure below per module containers. The parent is not altered by its children.
+	 * @param parent Parent container, or null for a container without parent
+	 */
+	public void setParent(final Container parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Determines whether the timings of the build are collected.
+	 * @return Whether the timings are collected, false by default
+	 */
+	public boolean isStatisticsEnabled() {
+		return this.statisticsEnabled;
+	}
+
+	/**
+	 * Sets whether the timings of the build are collected, which are then available from Container.getStatistics().
+	 * Collecting them adds a few clock and, where supported, allocation readings per object and statement.
+	 * @param statisticsEnabled Whether the timings are collected
+	 */
+	public void setStatisticsEnabled(final boolean statisticsEnabled) {
+		this.statisticsEnabled = statisticsEnabled;
+	}
+
+	/**
+	 * Determines whether the lookups made on the container are counted.
+	 * @return Whether the lookups are counted, false by default
+	 */
+	public boolean isLookupMetricsEnabled() {
+		return this.lookupMetricsEnabled;
+	}
+
+	/**
+	 * Sets whether the lookups made on the container are counted per requested type, which are then available from
+	 * Container.getLookupStatistics(). Counting adds a ClassValue probe and a LongAdder increment or two per lookup,
+	 * while a container that does not count pays a single test of a final field.
+	 * @param lookupMetricsEnabled Whether the lookups are counted
+	 */
+	public void setLookupMetricsEnabled(final boolean lookupMetricsEnabled) {
+		this.lookupMetricsEnabled = lookupMetricsEnabled;
+	}
+
+	/**
+	 * Gets the observer of the activity of the container.
+	 * @return Listener, or null if the activity is not observed
+	 */
+	public ContainerListener getListener() {
+		return this.listener;
+	}
+
+	/**
+	 * Sets the observer of the activity of the container, which is told about reading the context, instantiating each
+	 * object, indexing the objects and, at the lookup sampling interval, lookups. A container without listener pays a
+	 * single test of a final field per lookup.
+	 * @param listener Listener, or null if the activity is not observed
+	 */
+	public void setListener(final ContainerListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Gets the average number of lookups per lookup reported to the listener.
+	 * @return Sampling interval, zero by default, in which case no lookup is reported
+	 */
+	public int getLookupSamplingInterval() {
+		return this.lookupSamplingInterval;
+	}
+
+	/**
+	 * Sets the average number of lookups per lookup reported to the listener. Lookups are chosen at random with a
+	 * probability of one in the interval, so that concurrent lookups share no sampling state.
+	 * @param lookupSamplingInterval Sampling interval, 1 to report every lookup, or zero to report none
+	 * @throws IllegalArgumentException If the interval is negative
+	 */
+	public void setLookupSamplingInterval(final int lookupSamplingInterval) {
+		if (lookupSamplingInterval < 0) {
+			throw new IllegalArgumentException("lookupSamplingInterval may not be negative.");
+		}
+
+		this.lookupSamplingInterval = lookupSamplingInterval;
+	}
+
+	/**
+	 * Gets the longest time an init or destroy method may take, counted from the moment it starts.
+	 * @return Timeout in milliseconds, 30000 by default
+	 */
+	public long getLifecycleTimeoutMillis() {
+		return this.lifecycleTimeoutMillis;
+	}
+
+	/**
+	 * Sets the longest time an init or destroy method may take, counted from the moment it starts, so that a method
+	 * waiting for others is not charged for their time. A method still running once the timeout expires is interrupted
+	 * and reported as failed, and the methods waiting for it only start once it has returned.
+	 * @param lifecycleTimeoutMillis Timeout in milliseconds
+	 * @throws IllegalArgumentException If the timeout is not positive
+	 */
+	public void setLifecycleTimeoutMillis(final long lifecycleTimeoutMillis) {
+		if (lifecycleTimeoutMillis < 1) {
+			throw new IllegalArgumentException("lifecycleTimeoutMillis must be positive.");
+		}
+
+		this.lifecycleTimeoutMillis = lifecycleTimeoutMillis;
+	}
+
+	/**
+	 * Gets the time during which the objects are warmed up before the container is ready.
+	 * @return Budget in milliseconds, zero by default, in which case no object is warmed up
+	 */
+	public long getWarmUpBudgetMillis() {
+		return this.warmUpBudgetMillis;
+	}
+
+	/**
+	 * Sets the time during which the objects are warmed up before the container is ready. The warm-up methods of every
+	 * singleton that declares one or is Warmable are invoked repeatedly and concurrently until the budget is spent, on the
+	 * executor of the configuration. The budget is shared by every object rather than granted to each: an object whose
+	 * warm-up waits for a thread of the executor gets what is left of it, and is warmed up by a single invocation if
+	 * nothing is left. A warm-up method still running once the lifecycle timeout has passed beyond the budget
+	 * is interrupted and fails the build. The LAZY mode, which instantiates no object while building, warms up nothing.
+	 * @param warmUpBudgetMillis Budget in milliseconds, or zero for no warm-up
+	 * @throws IllegalArgumentException If the budget is negative
+	 */
+	public void setWarmUpBudgetMillis(final long warmUpBudgetMillis) {
+		if (warmUpBudgetMillis < 0) {
+			throw new IllegalArgumentException("warmUpBudgetMillis may not be negative.");
+		}
+
+		this.warmUpBudgetMillis = warmUpBudgetMillis;
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * Observer of the activity of a container, such as a bridge to an event recorder, set by its configuration. Each step is
+ * reported by a starting call, whose result is handed back to the matching finished call on the same thread. A starting
+ * call may return null to ignore the step, in which case the finished call is not made, nor is it if the step fails.
+ * Calls are made on whichever thread performs the step, and must therefore be thread safe and quick.
+ */
+public interface ContainerListener {
+
+	/**
+	 * Reports that a context is about to be read.
+	 * @param sourceName Name of the context, or null if it is unnamed
+	 * @return Token handed to parseFinished, or null to ignore the step
+	 */
+	Object parseStarting(final String sourceName);
+
+	/**
+	 * Reports that a context has been read, which in the XML_DECODER mode includes instantiating its objects.
+	 * @param token Result of the matching parseStarting call
+	 * @param sourceName Name of the context, or null if it is unnamed
+	 * @param objectCount Number of root level objects declared by the context
+	 */
+	void parseFinished(final Object token, final String sourceName, final int objectCount);
+
+	/**
+	 * Reports that an object is about to be instantiated.
+	 * @return Token handed to beanFinished, or null to ignore the step
+	 */
+	Object beanStarting();
+
+	/**
+	 * Reports that an object has been instantiated and its statements applied.
+	 * @param token Result of the matching beanStarting call
+	 * @param id Id of the object, or null if it has none
+	 * @param className Name of the class of the object, or null if it is null
+	 */
+	void beanFinished(final Object token, final String id, final String className);
+
+	/**
+	 * Reports that the objects of the container are about to be indexed by type.
+	 * @return Token handed to indexFinished, or null to ignore the step
+	 */
+	Object indexStarting();
+
+	/**
+	 * Reports that the objects of the container have been indexed by type.
+	 * @param token Result of the matching indexStarting call
+	 * @param objectCount Number of indexed objects
+	 */
+	void indexFinished(final Object token, final int objectCount);
+
+	/**
+	 * Reports that a lookup, chosen at the sampling interval of the configuration, is about to be made.
+	 * @param classOrInterface Looked up type
+	 * @return Token handed to lookupFinished, or null to ignore the step
+	 */
+	Object lookupStarting(final Class<?> classOrInterface);
+
+	/**
+	 * Reports that a sampled lookup has been made.
+	 * @param token Result of the matching lookupStarting call
+	 * @param classOrInterface Looked up type
+	 * @param methodName Name of the Container method called
+	 * @param found Whether any object was found
+	 */
+	void lookupFinished(final Object token, final Class<?> classOrInterface, final String methodName, final boolean found);
+}
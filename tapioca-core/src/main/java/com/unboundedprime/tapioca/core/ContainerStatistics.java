@@ -0,0 +1,465 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable timings of the build of a container, collected when enabled by its configuration. Times are in nanoseconds,
+ * and allocations are in bytes, or -1 where the JVM cannot measure the memory allocated by a thread.
+ */
+public final class ContainerStatistics {
+
+	/**
+	 * Time spent reading the context, which includes instantiating its objects in the XML_DECODER mode.
+	 */
+	private final long decodeTimeNanos;
+
+	/**
+	 * Time spent instantiating the objects after the context was read.
+	 */
+	private final long instantiationTimeNanos;
+
+	/**
+	 * Time spent indexing the objects by type.
+	 */
+	private final long indexTimeNanos;
+
+	/**
+	 * Time spent building the container.
+	 */
+	private final long totalTimeNanos;
+
+	/**
+	 * Memory allocated by the thread that built the container.
+	 */
+	private final long allocatedBytes;
+
+	/**
+	 * Timings of the objects, in the order in which they were declared.
+	 */
+	private final List<BeanStatistics> beanStatistics;
+
+	/**
+	 * Time spent warming up the objects.
+	 */
+	private final long warmUpTimeNanos;
+
+	/**
+	 * Timings of the warm-up of the objects, in the order in which they were declared.
+	 */
+	private final List<WarmUpStatistics> warmUpStatistics;
+
+	/**
+	 * Constructs a new ContainerStatistics of a build without warm-up.
+	 * @param decodeTimeNanos Time spent reading the context
+	 * @param instantiationTimeNanos Time spent instantiating the objects after the context was read
+	 * @param indexTimeNanos Time spent indexing the objects by type
+	 * @param totalTimeNanos Time spent building the container
+	 * @param allocatedBytes Memory allocated by the thread that built the container, or -1 if unknown
+	 * @param beanStatistics Timings of the objects, in the order in which they were declared
+	 */
+	public ContainerStatistics(final long decodeTimeNanos, final long instantiationTimeNanos, final long indexTimeNanos, final long totalTimeNanos, final long allocatedBytes, final List<BeanStatistics> beanStatistics) {
+		this(decodeTimeNanos, instantiationTimeNanos, indexTimeNanos, 0, totalTimeNanos, allocatedBytes, beanStatistics, Collections.<WarmUpStatistics>emptyList());
+	}
+
+	/**
+	 * Constructs a new ContainerStatistics.
+	 * @param decodeTimeNanos Time spent reading the context
+	 * @param instantiationTimeNanos Time spent instantiating the objects after the context was read
+	 * @param indexTimeNanos Time spent indexing the objects by type
+	 * @param warmUpTimeNanos Time spent warming up the objects
+	 * @param totalTimeNanos Time spent building the container
+	 * @param allocatedBytes Memory allocated by the thread that built the container, or -1 if unknown
+	 * @param beanStatistics Timings of the objects, in the order in which they were declared
+	 * @param warmUpStatistics Timings of the warm-up of the objects, in the order in which they were declared
+	 */
+	public ContainerStatistics(final long decodeTimeNanos, final long instantiationTimeNanos, final long indexTimeNanos, final long warmUpTimeNanos, final long totalTimeNanos,
+			final long allocatedBytes, final List<BeanStatistics> beanStatistics, final List<WarmUpStatistics> warmUpStatistics) {
+		this.decodeTimeNanos = decodeTimeNanos;
+		this.instantiationTimeNanos = instantiationTimeNanos;
+		this.indexTimeNanos = indexTimeNanos;
+		this.totalTimeNanos = totalTimeNanos;
+		this.allocatedBytes = allocatedBytes;
+		this.beanStatistics = Collections.unmodifiableList(new ArrayList<BeanStatistics>(beanStatistics));
+		this.warmUpTimeNanos = warmUpTimeNanos;
+		this.warmUpStatistics = Collections.unmodifiableList(new ArrayList<WarmUpStatistics>(warmUpStatistics));
+	}
+
+	/**
+	 * Gets the time spent reading the context. In the XML_DECODER mode, which reads and instantiates in a single pass,
+	 * this includes instantiating the objects.
+	 * @return Time in nanoseconds
+	 */
+	public long getDecodeTimeNanos() {
+		return this.decodeTimeNanos;
+	}
+
+	/**
+	 * Gets the time spent instantiating the objects after the context was read, which is zero in the XML_DECODER and
+	 * LAZY modes.
+	 * @return Time in nanoseconds
+	 */
+	public long getInstantiationTimeNanos() {
+		return this.instantiationTimeNanos;
+	}
+
+	/**
+	 * Gets the time spent indexing the objects by type.
+	 * @return Time in nanoseconds
+	 */
+	public long getIndexTimeNanos() {
+		return this.indexTimeNanos;
+	}
+
+	/**
+	 * Gets the time spent warming up the objects, which is zero unless the configuration grants a warm-up budget.
+	 * @return Time in nanoseconds
+	 */
+	public long getWarmUpTimeNanos() {
+		return this.warmUpTimeNanos;
+	}
+
+	/**
+	 * Gets the time spent building the container, from reading the context to indexing and warming up its objects.
+	 * @return Time in nanoseconds
+	 */
+	public long getTotalTimeNanos() {
+		return this.totalTimeNanos;
+	}
+
+	/**
+	 * Gets the memory allocated by the thread that built the container, which excludes the memory allocated by an
+	 * executor in the PARALLEL mode.
+	 * @return Allocated bytes, or -1 if the JVM cannot measure them
+	 */
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	/**
+	 * Gets the timings of every object instantiated so far, which in the LAZY mode grows as objects are looked up.
+	 * @return Unmodifiable list of the timings, in the order in which the objects were declared
+	 */
+	public List<BeanStatistics> getBeanStatistics() {
+		return this.beanStatistics;
+	}
+
+	/**
+	 * Gets the timings of the warm-up of every object that was warmed up.
+	 * @return Unmodifiable list of the timings, in the order in which the objects were declared
+	 */
+	public List<WarmUpStatistics> getWarmUpStatistics() {
+		return this.warmUpStatistics;
+	}
+
+	/**
+	 * Gets the timings of the objects that took longest to instantiate.
+	 * @param count Maximum number of objects to return
+	 * @return Timings of at most count objects, the slowest first
+	 */
+	public List<BeanStatistics> getSlowestBeans(final int count) {
+		final List<BeanStatistics> slowestBeans = new ArrayList<BeanStatistics>(this.beanStatistics);
+
+		Collections.sort(slowestBeans, new Comparator<BeanStatistics>() {
+			public int compare(final BeanStatistics first, final BeanStatistics second) {
+				return (first.constructionTimeNanos < second.constructionTimeNanos) ? 1 : ((first.constructionTimeNanos == second.constructionTimeNanos) ? 0 : -1);
+			}
+		});
+
+		return slowestBeans.subList(0, Math.max(0, Math.min(count, slowestBeans.size())));
+	}
+
+	/**
+	 * Formats a report of the build phases and of the objects that took longest to instantiate, along with the
+	 * properties and methods of each of them.
+	 * @param count Maximum number of objects to report
+	 * @return Multi line report
+	 */
+	public String formatSlowestBeansReport(final int count) {
+		final StringBuilder report = new StringBuilder(this.toString()).append('\n');
+
+		for (final BeanStatistics bean : this.getSlowestBeans(count)) {
+			report.append(formatMillis(bean.constructionTimeNanos)).append("  ").append(bean).append('\n');
+
+			for (final PropertyStatistics property : bean.propertyStatistics) {
+				report.append(formatMillis(property.injectionTimeNanos)).append("      ").append(property.name).append('\n');
+			}
+		}
+
+		return report.toString();
+	}
+
+	/**
+	 * Formats a time in milliseconds, right aligned.
+	 * @param nanos Time in nanoseconds
+	 * @return Formatted time
+	 */
+	private static String formatMillis(final long nanos) {
+		return String.format(Locale.ROOT, "%12.3f ms", nanos / 1000000.0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "Container built in %.3f ms: decode %.3f ms, instantiation %.3f ms, index %.3f ms, warm-up %.3f ms, %d objects, %s allocated",
+				this.totalTimeNanos / 1000000.0, this.decodeTimeNanos / 1000000.0, this.instantiationTimeNanos / 1000000.0, this.indexTimeNanos / 1000000.0,
+				this.warmUpTimeNanos / 1000000.0, this.beanStatistics.size(), (this.allocatedBytes < 0) ? "unknown bytes" : this.allocatedBytes + " bytes");
+	}
+
+	/**
+	 * Immutable timings of the instantiation of a single object of the context.
+	 */
+	public static final class BeanStatistics {
+
+		/**
+		 * Human readable description of the object, naming its id and source where known.
+		 */
+		private final String description;
+
+		/**
+		 * Id of the object, or null.
+		 */
+		private final String id;
+
+		/**
+		 * Name of the class of the object, or null if it is null.
+		 */
+		private final String className;
+
+		/**
+		 * Time spent creating the object and applying its statements, excluding the objects it references.
+		 */
+		private final long constructionTimeNanos;
+
+		/**
+		 * Memory allocated while creating the object.
+		 */
+		private final long allocatedBytes;
+
+		/**
+		 * Timings of the statements applied to the object, in order.
+		 */
+		private final List<PropertyStatistics> propertyStatistics;
+
+		/**
+		 * Constructs a new BeanStatistics.
+		 * @param description Human readable description of the object
+		 * @param id Id of the object, or null
+		 * @param className Name of the class of the object, or null if it is null
+		 * @param constructionTimeNanos Time spent creating the object and applying its statements
+		 * @param allocatedBytes Memory allocated while creating the object, or -1 if unknown
+		 * @param propertyStatistics Timings of the statements applied to the object, in order
+		 */
+		public BeanStatistics(final String description, final String id, final String className, final long constructionTimeNanos, final long allocatedBytes, final List<PropertyStatistics> propertyStatistics) {
+			this.description = description;
+			this.id = id;
+			this.className = className;
+			this.constructionTimeNanos = constructionTimeNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.propertyStatistics = Collections.unmodifiableList(new ArrayList<PropertyStatistics>(propertyStatistics));
+		}
+
+		/**
+		 * Gets the human readable description of the object, naming its id and source where known.
+		 * @return Description
+		 */
+		public String getDescription() {
+			return this.description;
+		}
+
+		/**
+		 * Gets the id of the object.
+		 * @return Id, or null if the object has none
+		 */
+		public String getId() {
+			return this.id;
+		}
+
+		/**
+		 * Gets the name of the class of the object.
+		 * @return Class name, or null if the object is null
+		 */
+		public String getClassName() {
+			return this.className;
+		}
+
+		/**
+		 * Gets the time spent creating the object and applying its statements. The objects it references are
+		 * instantiated beforehand and timed separately, except in the XML_DECODER mode, where each root level object
+		 * is timed along with everything it declares.
+		 * @return Time in nanoseconds
+		 */
+		public long getConstructionTimeNanos() {
+			return this.constructionTimeNanos;
+		}
+
+		/**
+		 * Gets the memory allocated by the thread creating the object while creating it.
+		 * @return Allocated bytes, or -1 if the JVM cannot measure them
+		 */
+		public long getAllocatedBytes() {
+			return this.allocatedBytes;
+		}
+
+		/**
+		 * Gets the timings of the properties set and methods invoked on the object, which are not available in the
+		 * XML_DECODER mode.
+		 * @return Unmodifiable list of the timings, in the order in which the statements were applied
+		 */
+		public List<PropertyStatistics> getPropertyStatistics() {
+			return this.propertyStatistics;
+		}
+
+		@Override
+		public String toString() {
+			return (this.className == null) ? this.description : this.description + " (" + this.className + ")";
+		}
+	}
+
+	/**
+	 * Immutable timing of the warm-up of a single object of the context.
+	 */
+	public static final class WarmUpStatistics {
+
+		/**
+		 * Human readable description of the object, naming its id and source where known.
+		 */
+		private final String description;
+
+		/**
+		 * Id of the object, or null.
+		 */
+		private final String id;
+
+		/**
+		 * Time spent invoking the warm-up method of the object.
+		 */
+		private final long warmUpTimeNanos;
+
+		/**
+		 * Number of times the warm-up method was invoked.
+		 */
+		private final long invocationCount;
+
+		/**
+		 * Constructs a new WarmUpStatistics.
+		 * @param description Human readable description of the object
+		 * @param id Id of the object, or null
+		 * @param warmUpTimeNanos Time spent invoking the warm-up method of the object
+		 * @param invocationCount Number of times the warm-up method was invoked
+		 */
+		public WarmUpStatistics(final String description, final String id, final long warmUpTimeNanos, final long invocationCount) {
+			this.description = description;
+			this.id = id;
+			this.warmUpTimeNanos = warmUpTimeNanos;
+			this.invocationCount = invocationCount;
+		}
+
+		/**
+		 * Gets the human readable description of the object, naming its id and source where known.
+		 * @return Description
+		 */
+		public String getDescription() {
+			return this.description;
+		}
+
+		/**
+		 * Gets the id of the object.
+		 * @return Id, or null if the object has none
+		 */
+		public String getId() {
+			return this.id;
+		}
+
+		/**
+		 * Gets the time spent invoking the warm-up method of the object, from its first invocation to the end of its last.
+		 * @return Time in nanoseconds
+		 */
+		public long getWarmUpTimeNanos() {
+			return this.warmUpTimeNanos;
+		}
+
+		/**
+		 * Gets the number of times the warm-up method was invoked within the warm-up budget.
+		 * @return Number of invocations, at least one
+		 */
+		public long getInvocationCount() {
+			return this.invocationCount;
+		}
+
+		@Override
+		public String toString() {
+			return this.description;
+		}
+	}
+
+	/**
+	 * Immutable timing of a single statement applied to an object, being a property set, a method invoked or an index set.
+	 */
+	public static final class PropertyStatistics {
+
+		/**
+		 * Name of the property, method or index.
+		 */
+		private final String name;
+
+		/**
+		 * Time spent evaluating the arguments and applying the statement.
+		 */
+		private final long injectionTimeNanos;
+
+		/**
+		 * Constructs a new PropertyStatistics.
+		 * @param name Name of the property, method or index
+		 * @param injectionTimeNanos Time spent evaluating the arguments and applying the statement
+		 */
+		public PropertyStatistics(final String name, final long injectionTimeNanos) {
+			this.name = name;
+			this.injectionTimeNanos = injectionTimeNanos;
+		}
+
+		/**
+		 * Gets the name of the statement, being the name of a property, a method followed by parentheses, or an index
+		 * in brackets.
+		 * @return Name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Gets the time spent evaluating the arguments of the statement and applying it, including any statements
+		 * nested in it.
+		 * @return Time in nanoseconds
+		 */
+		public long getInjectionTimeNanos() {
+			return this.injectionTimeNanos;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+}
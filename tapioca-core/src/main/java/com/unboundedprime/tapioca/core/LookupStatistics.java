@@ -0,0 +1,277 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the lookups made on a container, counted per requested type when enabled by its configuration.
+ */
+public final class LookupStatistics {
+
+	/**
+	 * Counts of every type looked up at least once, the most frequently looked up first.
+	 */
+	private final List<TypeLookupStatistics> typeStatistics;
+
+	/**
+	 * Constructs a new LookupStatistics.
+	 * @param typeStatistics Counts of the looked up types, in any order
+	 */
+	public LookupStatistics(final List<TypeLookupStatistics> typeStatistics) {
+		final List<TypeLookupStatistics> sortedStatistics = new ArrayList<TypeLookupStatistics>(typeStatistics);
+
+		Collections.sort(sortedStatistics, new Comparator<TypeLookupStatistics>() {
+			public int compare(final TypeLookupStatistics first, final TypeLookupStatistics second) {
+				final int byCount = Long.compare(second.getTotalLookupCount(), first.getTotalLookupCount());
+
+				return (byCount != 0) ? byCount : first.typeName.compareTo(second.typeName);
+			}
+		});
+
+		this.typeStatistics = Collections.unmodifiableList(sortedStatistics);
+	}
+
+	/**
+	 * Gets the counts of every type looked up at least once.
+	 * @return Unmodifiable list of the counts, the most frequently looked up type first
+	 */
+	public List<TypeLookupStatistics> getTypeStatistics() {
+		return this.typeStatistics;
+	}
+
+	/**
+	 * Gets the counts of a single type.
+	 * @param typeName Fully qualified name of the type
+	 * @return Counts of the type, or null if it was never looked up
+	 */
+	public TypeLookupStatistics getTypeStatistics(final String typeName) {
+		for (final TypeLookupStatistics statistics : this.typeStatistics) {
+			if (statistics.typeName.equals(typeName)) {
+				return statistics;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the number of lookups of every kind made for any type.
+	 * @return Number of lookups
+	 */
+	public long getTotalLookupCount() {
+		long count = 0;
+
+		for (final TypeLookupStatistics statistics : this.typeStatistics) {
+			count += statistics.getTotalLookupCount();
+		}
+
+		return count;
+	}
+
+	/**
+	 * Gets the number of lookups made for any type that found no object.
+	 * @return Number of misses
+	 */
+	public long getTotalMissCount() {
+		long count = 0;
+
+		for (final TypeLookupStatistics statistics : this.typeStatistics) {
+			count += statistics.missCount;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Gets the number of single object lookups made for any type that failed with an AmbiguousInterfaceException.
+	 * @return Number of ambiguous lookups
+	 */
+	public long getTotalAmbiguousCount() {
+		long count = 0;
+
+		for (final TypeLookupStatistics statistics : this.typeStatistics) {
+			count += statistics.ambiguousCount;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Exports the counts as flat metrics, for publication to a monitoring system. Each type contributes the keys
+	 * "&lt;type&gt;.lookups", "&lt;type&gt;.misses" and "&lt;type&gt;.ambiguous".
+	 * @return Counts keyed by metric name, the most frequently looked up type first
+	 */
+	public Map<String, Long> toMetrics() {
+		final Map<String, Long> metrics = new LinkedHashMap<String, Long>();
+
+		for (final TypeLookupStatistics statistics : this.typeStatistics) {
+			metrics.put(statistics.typeName + ".lookups", statistics.getTotalLookupCount());
+			metrics.put(statistics.typeName + ".misses", statistics.missCount);
+			metrics.put(statistics.typeName + ".ambiguous", statistics.ambiguousCount);
+		}
+
+		return metrics;
+	}
+
+	/**
+	 * Formats a report of the most frequently looked up types.
+	 * @param count Maximum number of types to report
+	 * @return Multi line report
+	 */
+	public String formatReport(final int count) {
+		final StringBuilder report = new StringBuilder(this.toString()).append('\n');
+
+		for (final TypeLookupStatistics statistics : this.typeStatistics.subList(0, Math.max(0, Math.min(count, this.typeStatistics.size())))) {
+			report.append(String.format(Locale.ROOT, "%12d lookups %12d misses %12d ambiguous  ", statistics.getTotalLookupCount(), statistics.missCount, statistics.ambiguousCount))
+					.append(statistics.typeName).append('\n');
+		}
+
+		return report.toString();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%d lookups of %d types: %d misses, %d ambiguous", this.getTotalLookupCount(), this.typeStatistics.size(),
+				this.getTotalMissCount(), this.getTotalAmbiguousCount());
+	}
+
+	/**
+	 * Immutable counts of the lookups made for a single type. Lookups answered from a memoized resolution of a parent
+	 * container are counted by the child only.
+	 */
+	public static final class TypeLookupStatistics {
+
+		/**
+		 * Fully qualified name of the looked up type.
+		 */
+		private final String typeName;
+
+		/**
+		 * Number of calls to getObjectThatImplementsOrNull.
+		 */
+		private final long singleLookupCount;
+
+		/**
+		 * Number of calls to getObjectsThatImplement.
+		 */
+		private final long multipleLookupCount;
+
+		/**
+		 * Number of calls to containsObjectThatImplements.
+		 */
+		private final long containsLookupCount;
+
+		/**
+		 * Number of lookups that found no object.
+		 */
+		private final long missCount;
+
+		/**
+		 * Number of single object lookups that failed with an AmbiguousInterfaceException.
+		 */
+		private final long ambiguousCount;
+
+		/**
+		 * Constructs a new TypeLookupStatistics.
+		 * @param typeName Fully qualified name of the looked up type
+		 * @param singleLookupCount Number of calls to getObjectThatImplementsOrNull
+		 * @param multipleLookupCount Number of calls to getObjectsThatImplement
+		 * @param containsLookupCount Number of calls to containsObjectThatImplements
+		 * @param missCount Number of lookups that found no object
+		 * @param ambiguousCount Number of single object lookups that failed with an AmbiguousInterfaceException
+		 */
+		public TypeLookupStatistics(final String typeName, final long singleLookupCount, final long multipleLookupCount, final long containsLookupCount, final long missCount, final long ambiguousCount) {
+			this.typeName = typeName;
+			this.singleLookupCount = singleLookupCount;
+			this.multipleLookupCount = multipleLookupCount;
+			this.containsLookupCount = containsLookupCount;
+			this.missCount = missCount;
+			this.ambiguousCount = ambiguousCount;
+		}
+
+		/**
+		 * Gets the fully qualified name of the looked up type.
+		 * @return Type name
+		 */
+		public String getTypeName() {
+			return this.typeName;
+		}
+
+		/**
+		 * Gets the number of calls to getObjectThatImplementsOrNull.
+		 * @return Number of lookups
+		 */
+		public long getSingleLookupCount() {
+			return this.singleLookupCount;
+		}
+
+		/**
+		 * Gets the number of calls to getObjectsThatImplement.
+		 * @return Number of lookups
+		 */
+		public long getMultipleLookupCount() {
+			return this.multipleLookupCount;
+		}
+
+		/**
+		 * Gets the number of calls to containsObjectThatImplements.
+		 * @return Number of lookups
+		 */
+		public long getContainsLookupCount() {
+			return this.containsLookupCount;
+		}
+
+		/**
+		 * Gets the number of lookups of every kind.
+		 * @return Number of lookups
+		 */
+		public long getTotalLookupCount() {
+			return this.singleLookupCount + this.multipleLookupCount + this.containsLookupCount;
+		}
+
+		/**
+		 * Gets the number of lookups that found no object, being a null, an empty list or a false result.
+		 * @return Number of misses
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * Gets the number of single object lookups that failed with an AmbiguousInterfaceException.
+		 * @return Number of ambiguous lookups
+		 */
+		public long getAmbiguousCount() {
+			return this.ambiguousCount;
+		}
+
+		@Override
+		public String toString() {
+			return this.typeName;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.List;
+
+/**
+ * Management interface exposing the lookups made on a container through JMX. Every attribute is read from a fresh
+ * snapshot of the lookup statistics of the container.
+ */
+public interface LookupStatisticsMXBean {
+
+	/**
+	 * Gets the number of lookups of every kind made for any type.
+	 * @return Number of lookups, which is zero if lookups are not counted
+	 */
+	long getTotalLookupCount();
+
+	/**
+	 * Gets the number of lookups made for any type that found no object.
+	 * @return Number of misses, which is zero if lookups are not counted
+	 */
+	long getTotalMissCount();
+
+	/**
+	 * Gets the number of single object lookups made for any type that failed with an AmbiguousInterfaceException.
+	 * @return Number of ambiguous lookups, which is zero if lookups are not counted
+	 */
+	long getTotalAmbiguousCount();
+
+	/**
+	 * Gets the counts of every type looked up at least once.
+	 * @return Counts of the types, the most frequently looked up type first, which is empty if lookups are not counted
+	 */
+	List<LookupStatistics.TypeLookupStatistics> getTypeStatistics();
+}
@@ -0,0 +1,91 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of the LookupStatisticsMXBean interface reading the lookup statistics of a container, to be registered
+ * with an MBeanServer by the application, which thereby controls under which name and for how long it is exposed.
+ */
+public class LookupStatisticsView implements LookupStatisticsMXBean {
+
+	/**
+	 * Statistics reported while the container does not count its lookups.
+	 */
+	private static final LookupStatistics NO_STATISTICS = new LookupStatistics(Collections.<LookupStatistics.TypeLookupStatistics>emptyList());
+
+	/**
+	 * Container whose lookups are exposed.
+	 */
+	private final Container container;
+
+	/**
+	 * Constructs a new LookupStatisticsView.
+	 * @param container Container whose lookups are exposed
+	 * @throws IllegalArgumentException If the container is null
+	 */
+	public LookupStatisticsView(final Container container) {
+		if (container == null) {
+			throw new IllegalArgumentException("container may not be null.");
+		}
+
+		this.container = container;
+	}
+
+	/**
+	 * Takes a snapshot of the lookup statistics of the container.
+	 * @return Statistics, which are empty if lookups are not counted
+	 */
+	private LookupStatistics snapshot() {
+		final LookupStatistics statistics = this.container.getLookupStatistics();
+
+		return (statistics != null) ? statistics : NO_STATISTICS;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.LookupStatisticsMXBean#getTotalLookupCount()
+	 */
+	public long getTotalLookupCount() {
+		return this.snapshot().getTotalLookupCount();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.LookupStatisticsMXBean#getTotalMissCount()
+	 */
+	public long getTotalMissCount() {
+		return this.snapshot().getTotalMissCount();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.LookupStatisticsMXBean#getTotalAmbiguousCount()
+	 */
+	public long getTotalAmbiguousCount() {
+		return this.snapshot().getTotalAmbiguousCount();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.LookupStatisticsMXBean#getTypeStatistics()
+	 */
+	public List<LookupStatistics.TypeLookupStatistics> getTypeStatistics() {
+		return this.snapshot().getTypeStatistics();
+	}
+}
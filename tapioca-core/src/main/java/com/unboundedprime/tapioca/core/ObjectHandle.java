@@ -0,0 +1,60 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
+
+/**
+ * Object of a container resolved once for a type, so that call sites reading it repeatedly pay no lookup. The handle
+ * is a Supplier, whose get method costs a single plain field read, and exposes a MethodHandle that returns the object.
+ * Held in a static final field, that MethodHandle is treated as a constant by the JIT compiler, which folds the object
+ * into the compiled code:
+ * <pre>
+ * private static final MethodHandle DATA_SOURCE = container.getObjectHandle(DataSource.class).getMethodHandle();
+ * ...
+ * final DataSource dataSource = (DataSource) DATA_SOURCE.invokeExact();
+ * </pre>
+ * A handle obtained from a ReloadableContainer is rebound to the new object on every reload, which invalidates the code
+ * that folded the previous object. The get method may keep returning the previous object within a loop that the JIT
+ * compiler optimized, so code that must notice a reload in the middle of a loop should use the MethodHandle.
+ * @param <T> Type the object was resolved for
+ */
+public interface ObjectHandle<T> extends Supplier<T> {
+
+	/**
+	 * Gets the object the handle is bound to.
+	 * @return Object instance, or null if the container held no object of the type
+	 */
+	T get();
+
+	/**
+	 * Gets the type the object was resolved for.
+	 * @return Class or interface
+	 */
+	Class<T> getType();
+
+	/**
+	 * Gets a method handle taking no arguments and returning the object as the type it was resolved for, which suits
+	 * invokeExact with a cast to that type.
+	 * @return Method handle of type ()T
+	 */
+	MethodHandle getMethodHandle();
+}
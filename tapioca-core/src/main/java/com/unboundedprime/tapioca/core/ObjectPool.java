@@ -0,0 +1,54 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * A bounded pool of the instances of an object declared with the POOLED scope. Borrowing and returning never block.
+ * @param <T> Type of the pooled instances
+ */
+public interface ObjectPool<T> {
+
+	/**
+	 * Takes an idle instance from the pool, or creates a new one from the definition of the object if there is none.
+	 * @return Instance for the exclusive use of the caller until it is returned
+	 * @throws com.unboundedprime.tapioca.core.exception.ObjectInstantiationException If a new instance could not be created
+	 */
+	T borrowObject();
+
+	/**
+	 * Hands a borrowed instance back to the pool, which keeps it for the next borrower unless it already holds as many
+	 * idle instances as its capacity allows.
+	 * @param object Instance obtained from borrowObject, which the caller may no longer use
+	 * @throws IllegalArgumentException If the instance is null
+	 */
+	void returnObject(final T object);
+
+	/**
+	 * Gets the largest number of idle instances the pool keeps.
+	 * @return Capacity of the pool
+	 */
+	int getCapacity();
+
+	/**
+	 * Gets the number of idle instances the pool currently holds.
+	 * @return Number of idle instances
+	 */
+	int getIdleCount();
+}
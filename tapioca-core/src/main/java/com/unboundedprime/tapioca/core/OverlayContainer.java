@@ -0,0 +1,51 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * Lightweight container layered over a shared container, meant to live for a single request or task. Objects
+ * registered on the overlay take precedence over those of the shared container, to which every other lookup falls
+ * through, so request objects can be looked up alongside the shared singletons. An overlay holds its objects in small
+ * arrays that are scanned on lookup, which is cheaper than hashing for the few objects of a request, and is disposed
+ * of by dropping the reference to it.
+ * <p>
+ * An overlay is meant to be filled by the thread that created it. Objects registered before it is handed to another
+ * thread, for example through an ExecutorService or a ScopedValue binding, are visible to that thread.
+ */
+public interface OverlayContainer extends Container {
+
+	/**
+	 * Registers an object of the request, which lookups by any of its types find ahead of the shared objects.
+	 * @param object Object to register
+	 * @return This overlay, so that registrations can be chained
+	 * @throws IllegalArgumentException If the object is null
+	 */
+	OverlayContainer register(final Object object);
+
+	/**
+	 * Registers an object of the request under an id, which lookups by that id or by any of its types find ahead of the
+	 * shared objects.
+	 * @param id Id of the object
+	 * @param object Object to register
+	 * @return This overlay, so that registrations can be chained
+	 * @throws IllegalArgumentException If the id or the object is null
+	 */
+	OverlayContainer register(final String id, final Object object);
+}
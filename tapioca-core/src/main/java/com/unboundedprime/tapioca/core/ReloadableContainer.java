@@ -0,0 +1,59 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+
+/**
+ * Container backed by a context file that is rebuilt whenever the file changes. Every rebuild reuses the objects whose
+ * definition, and the definitions of all objects they reference, did not change, and is published atomically, so a
+ * lookup sees either the previous or the new objects, never a mix of both, and never waits for a rebuild.
+ */
+public interface ReloadableContainer extends Container {
+
+	/**
+	 * Rebuilds the container from its context file on the calling thread, as is done whenever the file changes. Once the
+	 * new objects are in use, the previous singletons that were not reused are destroyed, so a caller still holding one
+	 * must look it up anew.
+	 * @throws InvalidContextException If the context could not be read, interpreted or instantiated, in which case the previous objects remain in use,
+	 * or if a replaced object could not be destroyed, in which case the new objects are in use and the reload is counted
+	 */
+	void reload() throws InvalidContextException;
+
+	/**
+	 * Gets the reason the latest rebuild triggered by a change of the context file failed.
+	 * @return Failure of the latest rebuild, or null if it succeeded or none was triggered yet
+	 */
+	InvalidContextException getLastReloadFailure();
+
+	/**
+	 * Gets the number of successful rebuilds since the container was built.
+	 * @return Number of rebuilds
+	 */
+	long getReloadCount();
+
+	/**
+	 * Stops watching the context file for changes and destroys the objects of the latest build. Objects replaced by a
+	 * rebuild are not destroyed, as lookups made before the rebuild may still be using them.
+	 * @throws LifecycleException If the file system watch could not be released, or any object could not be destroyed in time
+	 */
+	void close() throws LifecycleException;
+}
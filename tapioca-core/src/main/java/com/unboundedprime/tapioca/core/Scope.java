@@ -0,0 +1,48 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * Lifetimes of the instances of an object declared in a context, chosen by the scope attribute of its object element.
+ * Objects other than singletons must carry an id, by which they are obtained from the container, and are neither
+ * indexed by type nor supported by the XML_DECODER build mode or by compiled contexts.
+ */
+public enum Scope {
+
+	/**
+	 * A single instance shared by every user of the container, which is the scope of an object that declares none.
+	 */
+	SINGLETON,
+
+	/**
+	 * One instance per thread, created from the definition of the object the first time the thread looks it up. A
+	 * virtual thread gets an instance of its own, as for any ThreadLocal. Only objects of this scope may reference an
+	 * object of this scope, and they receive the instance of the thread that creates them.
+	 */
+	THREAD,
+
+	/**
+	 * Instances borrowed from and returned to a bounded pool, which creates an instance from the definition of the object
+	 * whenever it holds no idle one and drops returned instances once it is full. The capacity attribute of the object
+	 * bounds the number of idle instances, which defaults to the number of available processors. No object may
+	 * reference a pooled object.
+	 */
+	POOLED
+}
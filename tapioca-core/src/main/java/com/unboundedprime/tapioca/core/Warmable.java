@@ -0,0 +1,36 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+/**
+ * Object whose code benefits from being run before the container is ready, so that the JIT compiler has optimized it
+ * by the time the first requests arrive. When the configuration grants a warm-up budget, the container invokes warmUp
+ * repeatedly until the budget is spent, concurrently for every object to warm up. An object may declare a warm-up
+ * method in the context instead, which takes precedence over this interface.
+ */
+public interface Warmable {
+
+	/**
+	 * Runs a representative unit of the work of the object, such as handling a synthetic request. Must have no lasting
+	 * effect, and should return within a fraction of the warm-up budget.
+	 * @throws Exception If the work failed, which fails the build of the container
+	 */
+	void warmUp() throws Exception;
+}
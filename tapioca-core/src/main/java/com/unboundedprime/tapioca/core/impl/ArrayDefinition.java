@@ -0,0 +1,113 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Definition of an array, declared by the array element. The array either has the length given by its length attribute,
+ * or holds the values of its child elements, after which its statements are applied to it.
+ */
+final class ArrayDefinition extends ValueDefinition {
+
+	/**
+	 * Name of the component type of the array.
+	 */
+	private final String componentClassName;
+
+	/**
+	 * Length of the array, or -1 if the length is given by the number of elements.
+	 */
+	private final int length;
+
+	/**
+	 * Elements of the array.
+	 */
+	private final ValueDefinition[] elements;
+
+	/**
+	 * Statements applied to the array once it has been created.
+	 */
+	private final StatementDefinition[] statements;
+
+	/**
+	 * Constructs a new ArrayDefinition.
+	 * @param componentClassName Name of the component type of the array
+	 * @param length Length of the array, or -1 if the length is given by the number of elements
+	 * @param elements Elements of the array
+	 * @param statements Statements applied to the array once it has been created
+	 */
+	ArrayDefinition(final String componentClassName, final int length, final List<ValueDefinition> elements, final List<StatementDefinition> statements) {
+		this.componentClassName = componentClassName;
+		this.length = length;
+		this.elements = elements.toArray(new ValueDefinition[elements.size()]);
+		this.statements = statements.toArray(new StatementDefinition[statements.size()]);
+	}
+
+	@Override
+	Object evaluate(final ContextDefinition context) throws Exception {
+		final Object[] values = ValueDefinition.evaluateAll(this.elements, context);
+		final Object array = Array.newInstance(context.loadClass(this.componentClassName), Math.max(this.length, values.length));
+
+		for (int index = 0; index < values.length; index++) {
+			Array.set(array, index, values[index]);
+		}
+
+		StatementDefinition.applyAll(this.statements, array, context);
+
+		return array;
+	}
+
+	@Override
+	Class<?> getDeclaredType(final ContextDefinition context) throws Exception {
+		return Array.newInstance(context.loadClass(this.componentClassName), 0).getClass();
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (!(other instanceof ArrayDefinition)) {
+			return false;
+		}
+
+		final ArrayDefinition otherDefinition = (ArrayDefinition) other;
+
+		return this.componentClassName.equals(otherDefinition.componentClassName)
+				&& (this.length == otherDefinition.length)
+				&& Arrays.equals(this.elements, otherDefinition.elements)
+				&& Arrays.equals(this.statements, otherDefinition.statements);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * this.componentClassName.hashCode() + Arrays.hashCode(this.elements)) * 31 + Arrays.hashCode(this.statements);
+	}
+
+	@Override
+	void collectReferences(final Collection<String> ids) {
+		ValueDefinition.collectReferences(Arrays.asList(this.elements), ids);
+
+		for (final StatementDefinition statement : this.statements) {
+			statement.collectReferences(ids);
+		}
+	}
+}
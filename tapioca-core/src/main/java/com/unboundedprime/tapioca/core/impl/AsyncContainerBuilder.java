@@ -0,0 +1,132 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs container builds off the calling thread. Without an executor of the caller, each build gets a thread of its own,
+ * which is a virtual thread on Java versions that offer them and a daemon platform thread otherwise. Virtual threads
+ * are created reflectively, so that the library still runs on Java 8.
+ */
+final class AsyncContainerBuilder {
+
+	/**
+	 * Factory of the threads that run builds for which the caller supplied no executor.
+	 */
+	private static final ThreadFactory DEFAULT_THREAD_FACTORY = createDefaultThreadFactory();
+
+	/**
+	 * Executor starting a new thread of the default factory for each build.
+	 */
+	private static final Executor DEFAULT_EXECUTOR = new Executor() {
+		public void execute(final Runnable runnable) {
+			DEFAULT_THREAD_FACTORY.newThread(runnable).start();
+		}
+	};
+
+	/**
+	 * Runs a build on an executor.
+	 * @param build Build to run, which returns the built container
+	 * @param executor Executor on which to run the build, or null to run it on a thread of its own
+	 * @return Future completed with the container, or exceptionally with the failure of the build, which is an InvalidContextException if the context could not be built, the executor rejected the build or the thread of the build could not be started
+	 */
+	static CompletableFuture<Container> buildAsync(final Callable<Container> build, final Executor executor) {
+		final CompletableFuture<Container> future = new CompletableFuture<Container>();
+
+		try {
+			((executor == null) ? DEFAULT_EXECUTOR : executor).execute(new Runnable() {
+				public void run() {
+					try {
+						future.complete(build.call());
+					} catch (Throwable throwable) {
+						future.completeExceptionally(throwable);
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			future.completeExceptionally(new InvalidContextException("The executor rejected the build of the container.", ex));
+		} catch (Throwable throwable) {
+			// Creating or starting a thread may fail, e.g. with an OutOfMemoryError, which belongs to the future rather than the caller
+			future.completeExceptionally(new InvalidContextException("Unable to start the build of the container.", throwable));
+		}
+
+		return future;
+	}
+
+	/**
+	 * Determines whether builds without an executor of the caller run on virtual threads.
+	 * @return Whether the JVM offers virtual threads
+	 */
+	static boolean isVirtualThreadDefault() {
+		return !(DEFAULT_THREAD_FACTORY instanceof PlatformThreadFactory);
+	}
+
+	/**
+	 * Creates the factory of virtual threads through Thread.ofVirtual if the JVM offers it, or of daemon platform threads otherwise.
+	 * @return Thread factory
+	 */
+	private static ThreadFactory createDefaultThreadFactory() {
+		try {
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			final Object namedBuilder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "tapioca-build-async-", 1L);
+
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(namedBuilder);
+		} catch (Exception ex) {
+			// Virtual threads are missing before Java 21 and need preview features before that
+			return new PlatformThreadFactory();
+		}
+	}
+
+	/**
+	 * Factory of numbered daemon platform threads, used where virtual threads are unavailable.
+	 */
+	private static final class PlatformThreadFactory implements ThreadFactory {
+
+		/**
+		 * Number of threads created so far.
+		 */
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		/**
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, "tapioca-build-async-" + this.threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Prevents construction of a pure utility class.
+	 */
+	private AsyncContainerBuilder() {
+		throw new UnsupportedOperationException("Instantiation of AsyncContainerBuilder is not allowed.");
+	}
+}
@@ -0,0 +1,484 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ContainerListener;
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+import com.unboundedprime.tapioca.core.exception.ObjectInstantiationException;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A bean of a context, being either a root level object or an object carrying an id, which holds the definition of the
+ * bean and, once it has been created, its single instance. A bean of another scope than SINGLETON holds the instances of
+ * each thread or its pool instead.
+ */
+final class BeanHolder {
+
+	/**
+	 * Arguments passed to init and destroy methods.
+	 */
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	/**
+	 * Order of beans by ascending priority, which keeps beans of equal priority in place when used by a stable sort.
+	 */
+	static final Comparator<BeanHolder> PRIORITY_ORDER = new Comparator<BeanHolder>() {
+		public int compare(final BeanHolder first, final BeanHolder second) {
+			return Integer.compare(first.getPriority(), second.getPriority());
+		}
+	};
+
+	/**
+	 * Id of the bean, or null for an anonymous root level object.
+	 */
+	final String id;
+
+	/**
+	 * Definition of the bean.
+	 */
+	final ValueDefinition definition;
+
+	/**
+	 * Name of the source that declared the bean, or null if it is unnamed.
+	 */
+	final String source;
+
+	/**
+	 * Lifetime of the instances of the bean.
+	 */
+	final Scope scope;
+
+	/**
+	 * Pool of the instances of a bean of the POOLED scope, or null for any other scope.
+	 */
+	final BeanPool pool;
+
+	/**
+	 * Instances of each thread of a bean of the THREAD scope, or null for any other scope.
+	 */
+	private final ThreadLocal<Object> threadInstances;
+
+	/**
+	 * Human readable description of the bean for use in messages.
+	 */
+	private final String description;
+
+	/**
+	 * Context the bean belongs to.
+	 */
+	private final ContextDefinition context;
+
+	/**
+	 * Beans referenced by the definition of this bean, set once the context has been validated.
+	 */
+	BeanHolder[] dependencies;
+
+	/**
+	 * Declared type of the bean, determined on first request.
+	 */
+	private volatile Class<?> declaredType;
+
+	/**
+	 * Instance of the bean, which is only valid once created has been set.
+	 */
+	private Object instance;
+
+	/**
+	 * Whether the instance has been created, which also safely publishes the instance to other threads.
+	 */
+	private volatile boolean created;
+
+	/**
+	 * Whether the init method has been invoked on the instance of a singleton.
+	 */
+	private volatile boolean initialized;
+
+	/**
+	 * Whether the instance was adopted from a previous context, which is only valid once created has been set.
+	 */
+	private boolean reused;
+
+	/**
+	 * Timings of the creation of the instance, or null if they were not collected or the instance was not created yet.
+	 */
+	private volatile ContainerStatistics.BeanStatistics statistics;
+
+	/**
+	 * Constructs a new BeanHolder.
+	 * @param id Id of the bean, or null for an anonymous root level object
+	 * @param definition Definition of the bean
+	 * @param description Human readable description of the bean for use in messages
+	 * @param source Name of the source that declared the bean, or null if it is unnamed
+	 * @param context Context the bean belongs to
+	 */
+	BeanHolder(final String id, final ValueDefinition definition, final String description, final String source, final ContextDefinition context) {
+		this(id, definition, Scope.SINGLETON, 0, description, source, context);
+	}
+
+	/**
+	 * Constructs a new BeanHolder.
+	 * @param id Id of the bean, or null for an anonymous root level object
+	 * @param definition Definition of the bean
+	 * @param scope Lifetime of the instances of the bean
+	 * @param capacity Largest number of idle instances kept by the pool of a bean of the POOLED scope, or 0 for the number of available processors
+	 * @param description Human readable description of the bean for use in messages
+	 * @param source Name of the source that declared the bean, or null if it is unnamed
+	 * @param context Context the bean belongs to
+	 */
+	BeanHolder(final String id, final ValueDefinition definition, final Scope scope, final int capacity, final String description, final String source, final ContextDefinition context) {
+		this.id = id;
+		this.definition = definition;
+		this.scope = scope;
+		this.description = (source == null) ? description : description + " of " + source;
+		this.source = source;
+		this.context = context;
+		this.pool = (scope == Scope.POOLED) ? new BeanPool(this, (capacity == 0) ? Runtime.getRuntime().availableProcessors() : capacity) : null;
+		this.threadInstances = (scope == Scope.THREAD) ? new ThreadLocal<Object>() {
+			@Override
+			protected Object initialValue() {
+				return BeanHolder.this.createInstance();
+			}
+		} : null;
+	}
+
+	/**
+	 * Gets the instance of the bean, creating it on first request. Concurrent first requests create exactly one instance.
+	 * A bean of the THREAD scope returns the instance of the calling thread instead.
+	 * @return Instance of the bean
+	 * @throws ObjectInstantiationException If the bean or any bean it references could not be created
+	 * @throws IllegalStateException If the bean is pooled, so that its instances must be borrowed from its pool
+	 */
+	Object getInstance() {
+		if (this.scope != Scope.SINGLETON) {
+			if (this.threadInstances == null) {
+				throw new IllegalStateException(this + " is pooled, so its instances must be borrowed from its pool.");
+			}
+
+			return this.threadInstances.get();
+		}
+
+		if (!this.created) {
+			synchronized (this) {
+				if (!this.created) {
+					this.instance = this.createInstance();
+					this.created = true;
+				}
+			}
+		}
+
+		return this.instance;
+	}
+
+	/**
+	 * Gets the instance of the bean without creating it.
+	 * @return Instance of the bean, or null if it has not been created yet
+	 */
+	Object getInstanceIfCreated() {
+		return this.created ? this.instance : null;
+	}
+
+	/**
+	 * Determines whether the instance of the bean has been created, which may be null.
+	 * @return Whether the instance has been created
+	 */
+	boolean isCreated() {
+		return this.created;
+	}
+
+	/**
+	 * Adopts the instance of an equally defined bean of a previous context instead of creating a new one, along with
+	 * whether it has been initialized.
+	 * @param previous Bean of the previous context, whose instance has been created
+	 */
+	synchronized void reuseInstance(final BeanHolder previous) {
+		this.instance = previous.getInstanceIfCreated();
+		this.initialized = previous.initialized;
+		this.reused = true;
+		this.created = true;
+	}
+
+	/**
+	 * Determines whether the instance was adopted from a previous context rather than created for this one.
+	 * @return Whether the instance was reused
+	 */
+	boolean isReused() {
+		return this.created && this.reused;
+	}
+
+	/**
+	 * Creates an instance of the bean and invokes its init method, unless the context defers the init methods of its
+	 * singletons until every singleton has been created.
+	 * @return New instance of the bean
+	 * @throws ObjectInstantiationException If the bean or any bean it references could not be created or initialized
+	 */
+	Object createInstance() {
+		final Object createdInstance = this.createUninitializedInstance();
+
+		if ((createdInstance != null) && (this.getInitMethod() != null) && ((this.scope != Scope.SINGLETON) || !this.context.deferredInitialization)) {
+			this.invokeInitMethod(createdInstance);
+			this.initialized = true;
+		}
+
+		return createdInstance;
+	}
+
+	/**
+	 * Invokes the init method on the instance of a singleton, unless it has already been invoked.
+	 * @throws ObjectInstantiationException If the init method does not exist or fails
+	 */
+	void initialize() {
+		final Object createdInstance = this.getInstanceIfCreated();
+
+		if (!this.initialized && (createdInstance != null) && (this.getInitMethod() != null)) {
+			this.invokeInitMethod(createdInstance);
+		}
+
+		this.initialized = true;
+	}
+
+	/**
+	 * Determines whether the init method of a singleton still has to be invoked on its instance.
+	 * @return Whether the instance has been created but its init method not invoked yet
+	 */
+	boolean needsInitialization() {
+		return !this.initialized && (this.getInitMethod() != null) && (this.getInstanceIfCreated() != null);
+	}
+
+	/**
+	 * Determines whether the instance of a singleton has been created and has a destroy method or is AutoCloseable.
+	 * @return Whether the instance is to be destroyed when the container is closed
+	 */
+	boolean needsDestruction() {
+		final Object createdInstance = this.getInstanceIfCreated();
+
+		return (this.scope == Scope.SINGLETON) && (createdInstance != null) && ((this.getDestroyMethod() != null) || (createdInstance instanceof AutoCloseable));
+	}
+
+	/**
+	 * Invokes the destroy method on the instance of a singleton, or closes it if it declares none and is AutoCloseable.
+	 * @throws LifecycleException If the destroy method does not exist or fails, or closing fails
+	 */
+	void destroy() throws LifecycleException {
+		final Object createdInstance = this.getInstanceIfCreated();
+		final String destroyMethod = this.getDestroyMethod();
+
+		try {
+			if (destroyMethod != null) {
+				invokeLifecycleMethod(createdInstance, destroyMethod);
+			} else if (createdInstance instanceof AutoCloseable) {
+				((AutoCloseable) createdInstance).close();
+			}
+		} catch (Exception ex) {
+			throw new LifecycleException("Unable to destroy " + this.description + ".", ex);
+		}
+	}
+
+	/**
+	 * Gets the name of the method invoked once the instance has been created and wired.
+	 * @return Name of the init method, or null if none is declared
+	 */
+	String getInitMethod() {
+		return (this.definition instanceof ObjectDefinition) ? ((ObjectDefinition) this.definition).getInitMethod() : null;
+	}
+
+	/**
+	 * Gets the name of the method invoked when the container is closed.
+	 * @return Name of the destroy method, or null if none is declared
+	 */
+	String getDestroyMethod() {
+		return (this.definition instanceof ObjectDefinition) ? ((ObjectDefinition) this.definition).getDestroyMethod() : null;
+	}
+
+	/**
+	 * Gets the name of the method invoked repeatedly to warm up the instance before the container is ready.
+	 * @return Name of the warm-up method, or null if none is declared
+	 */
+	String getWarmUpMethod() {
+		return (this.definition instanceof ObjectDefinition) ? ((ObjectDefinition) this.definition).getWarmUpMethod() : null;
+	}
+
+	/**
+	 * Gets the rank of the instance among the instances assignable to the same type.
+	 * @return Declared priority, or zero if none is declared, lower ranks coming first
+	 */
+	int getPriority() {
+		return (this.definition instanceof ObjectDefinition) ? ((ObjectDefinition) this.definition).getPriority() : 0;
+	}
+
+	/**
+	 * Invokes the init method on an instance of the bean.
+	 * @param target Instance of the bean
+	 * @throws ObjectInstantiationException If the init method does not exist or fails
+	 */
+	private void invokeInitMethod(final Object target) {
+		try {
+			invokeLifecycleMethod(target, this.getInitMethod());
+		} catch (Exception ex) {
+			throw new ObjectInstantiationException("Unable to initialize " + this.description + ".", ex);
+		}
+	}
+
+	/**
+	 * Invokes a public method without arguments on an object.
+	 * @param target Object to invoke the method on
+	 * @param methodName Name of the method
+	 * @throws Exception If the method does not exist or fails
+	 */
+	private static void invokeLifecycleMethod(final Object target, final String methodName) throws Exception {
+		final MethodHandle method = ClassMetadata.forClass(target.getClass()).findMethod(methodName, NO_ARGUMENTS, false);
+
+		if (method == null) {
+			throw new NoSuchMethodException("No method " + target.getClass().getName() + "." + methodName + " without arguments.");
+		}
+
+		ClassMetadata.invoke(method, target, NO_ARGUMENTS);
+	}
+
+	/**
+	 * Creates an instance of the bean, recording its timings if the context collects them, and telling its listener.
+	 * @return New instance of the bean
+	 * @throws ObjectInstantiationException If the bean or any bean it references could not be created
+	 */
+	private Object createUninitializedInstance() {
+		final StatisticsRecorder recorder = this.context.statisticsRecorder;
+		final ContainerListener listener = this.context.listener;
+
+		// The referenced beans are created first, so that the timings of this bean only cover its own work
+		this.createDependencies();
+
+		if ((recorder == null) && (listener == null)) {
+			return this.evaluate();
+		}
+
+		final StatisticsRecorder.BeanRecord record = (recorder == null) ? null : recorder.startBean();
+		final Object token = (listener == null) ? null : listener.beanStarting();
+		final Object createdInstance;
+
+		try {
+			createdInstance = this.evaluate();
+		} catch (RuntimeException ex) {
+			if (record != null) {
+				recorder.abandonBean(record);
+			}
+
+			throw ex;
+		}
+
+		if (token != null) {
+			listener.beanFinished(token, this.id, (createdInstance == null) ? null : createdInstance.getClass().getName());
+		}
+
+		if (record != null) {
+			this.statistics = recorder.finishBean(record, this.description, this.id, createdInstance);
+		}
+
+		return createdInstance;
+	}
+
+	/**
+	 * Gets the timings of the creation of the instance.
+	 * @return Timings, or null if they were not collected or the instance was not created yet
+	 */
+	ContainerStatistics.BeanStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Evaluates the definition of the bean.
+	 * @return New instance of the bean
+	 * @throws ObjectInstantiationException If the bean or any bean it references could not be created
+	 */
+	private Object evaluate() {
+		try {
+			return this.definition.evaluate(this.context);
+		} catch (ObjectInstantiationException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new ObjectInstantiationException("Unable to instantiate " + this.description + ".", ex);
+		}
+	}
+
+	/**
+	 * Creates every singleton the bean references directly or transitively that has not been created yet, each after the
+	 * singletons it references. As the references of each singleton then resolve to existing instances, creating a bean
+	 * at the end of a long chain of references, as the LAZY mode does on lookup, never nests deeper than one bean.
+	 * @throws ObjectInstantiationException If any referenced bean could not be created
+	 */
+	private void createDependencies() {
+		final Deque<BeanHolder> pendingBeans = new ArrayDeque<BeanHolder>();
+		final Set<BeanHolder> expandedBeans = new HashSet<BeanHolder>();
+
+		pushUncreatedDependencies(this, pendingBeans, expandedBeans);
+
+		while (!pendingBeans.isEmpty()) {
+			final BeanHolder bean = pendingBeans.peek();
+
+			if (expandedBeans.add(bean)) {
+				pushUncreatedDependencies(bean, pendingBeans, expandedBeans);
+			} else {
+				pendingBeans.pop();
+				bean.getInstance();
+			}
+		}
+	}
+
+	/**
+	 * Pushes the singletons a bean references directly that have neither been created nor expanded yet.
+	 * @param bean Bean whose references to push
+	 * @param pendingBeans Stack of the beans to create
+	 * @param expandedBeans Beans whose references have already been pushed
+	 */
+	private static void pushUncreatedDependencies(final BeanHolder bean, final Deque<BeanHolder> pendingBeans, final Set<BeanHolder> expandedBeans) {
+		for (final BeanHolder dependency : bean.dependencies) {
+			if ((dependency.scope == Scope.SINGLETON) && !dependency.isCreated() && !expandedBeans.contains(dependency)) {
+				pendingBeans.push(dependency);
+			}
+		}
+	}
+
+	/**
+	 * Gets the declared type of the bean, which may be a supertype of the class of its instance when the bean is created
+	 * by a factory method.
+	 * @return Declared type of the bean, or null if it is always null
+	 * @throws Exception If the type could not be determined
+	 */
+	Class<?> getDeclaredType() throws Exception {
+		Class<?> type = this.declaredType;
+
+		if (type == null) {
+			type = this.definition.getDeclaredType(this.context);
+			this.declaredType = type;
+		}
+
+		return type;
+	}
+
+	@Override
+	public String toString() {
+		return this.description;
+	}
+}
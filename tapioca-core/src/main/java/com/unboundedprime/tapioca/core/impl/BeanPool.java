@@ -0,0 +1,118 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ObjectPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of the instances of a bean declared with the POOLED scope, whose idle instances occupy the slots of an atomic
+ * array. Threads claim and fill slots by compare and set, starting at a random slot so that concurrent borrowers seldom
+ * contend for the same one.
+ */
+final class BeanPool implements ObjectPool<Object> {
+
+	/**
+	 * Bean whose definition creates the instances.
+	 */
+	private final BeanHolder bean;
+
+	/**
+	 * Idle instances, with null marking a free slot.
+	 */
+	private final AtomicReferenceArray<Object> idleInstances;
+
+	/**
+	 * Constructs a new BeanPool.
+	 * @param bean Bean whose definition creates the instances
+	 * @param capacity Largest number of idle instances to keep
+	 */
+	BeanPool(final BeanHolder bean, final int capacity) {
+		this.bean = bean;
+		this.idleInstances = new AtomicReferenceArray<Object>(capacity);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectPool#borrowObject()
+	 */
+	public Object borrowObject() {
+		final int capacity = this.idleInstances.length();
+		final int start = ThreadLocalRandom.current().nextInt(capacity);
+
+		for (int i = 0; i < capacity; i++) {
+			final int slot = (start + i) % capacity;
+			final Object instance = this.idleInstances.get(slot);
+
+			if ((instance != null) && this.idleInstances.compareAndSet(slot, instance, null)) {
+				return instance;
+			}
+		}
+
+		return this.bean.createInstance();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectPool#returnObject(java.lang.Object)
+	 */
+	public void returnObject(final Object object) {
+		if (object == null) {
+			throw new IllegalArgumentException("object may not be null");
+		}
+
+		final int capacity = this.idleInstances.length();
+		final int start = ThreadLocalRandom.current().nextInt(capacity);
+
+		for (int i = 0; i < capacity; i++) {
+			final int slot = (start + i) % capacity;
+
+			if ((this.idleInstances.get(slot) == null) && this.idleInstances.compareAndSet(slot, null, object)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectPool#getCapacity()
+	 */
+	public int getCapacity() {
+		return this.idleInstances.length();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectPool#getIdleCount()
+	 */
+	public int getIdleCount() {
+		int idleCount = 0;
+
+		for (int i = 0; i < this.idleInstances.length(); i++) {
+			if (this.idleInstances.get(i) != null) {
+				idleCount++;
+			}
+		}
+
+		return idleCount;
+	}
+
+	@Override
+	public String toString() {
+		return "pool of " + this.bean;
+	}
+}
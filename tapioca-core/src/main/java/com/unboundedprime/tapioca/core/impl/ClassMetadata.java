@@ -0,0 +1,268 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reflective metadata of a class, shared by every context and container of the JVM. The constructor or method chosen
+ * for a member name and a list of argument classes is resolved once by the rules of ReflectionUtils and memoized as a
+ * MethodHandle, so that declaring thousands of objects of the same class costs a single resolution per distinct
+ * signature. Every handle has the same type, taking the target, which is ignored by constructors and static methods,
+ * and the array of arguments, and returning the result, which is null for void methods.
+ * <p>
+ * The metadata of a class is held by the class itself, and only memoizes signatures whose argument classes are visible
+ * from the class loader of that class, so that it never keeps a class of another loader reachable. A signature with an
+ * argument of a class loaded by a child loader, such as an object of a web application passed to a library class of the
+ * server, is resolved again on every use.
+ */
+final class ClassMetadata {
+
+	/**
+	 * Metadata of every class it has been requested for, held by the class itself.
+	 */
+	private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+		@Override
+		protected ClassMetadata computeValue(final Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+
+	/**
+	 * Marker memoizing that no member accepts a signature.
+	 */
+	private static final MethodHandle NO_MEMBER = MethodHandles.constant(Object.class, null);
+
+	/**
+	 * Type shared by every handle of this class.
+	 */
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	/**
+	 * Class described by this metadata.
+	 */
+	private final Class<?> type;
+
+	/**
+	 * Constructors and methods resolved so far, or NO_MEMBER, keyed by their signature.
+	 */
+	private final ConcurrentMap<Signature, MethodHandle> members = new ConcurrentHashMap<Signature, MethodHandle>();
+
+	/**
+	 * Constructs a new ClassMetadata.
+	 * @param type Class described by this metadata
+	 */
+	private ClassMetadata(final Class<?> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Gets the metadata of a class.
+	 * @param type Class to describe
+	 * @return Metadata of the class, which is created on first request
+	 */
+	static ClassMetadata forClass(final Class<?> type) {
+		return METADATA.get(type);
+	}
+
+	/**
+	 * Finds the most specific public constructor that accepts a set of arguments.
+	 * @param arguments Arguments to pass
+	 * @return Handle invoking the matching constructor, or null if there is none
+	 * @throws IllegalAccessException If the constructor may not be invoked
+	 */
+	MethodHandle findConstructor(final Object[] arguments) throws IllegalAccessException {
+		final Signature signature = new Signature(null, false, arguments);
+		MethodHandle constructor = this.members.get(signature);
+
+		if (constructor == null) {
+			final Constructor<?> match = ReflectionUtils.findConstructor(this.type, arguments);
+			constructor = (match != null) ? toInvoker(MethodHandles.publicLookup().unreflectConstructor(match), true) : NO_MEMBER;
+			this.memoize(signature, constructor);
+		}
+
+		return (constructor == NO_MEMBER) ? null : constructor;
+	}
+
+	/**
+	 * Finds the most specific public method that accepts a set of arguments.
+	 * @param methodName Name of the method
+	 * @param arguments Arguments to pass
+	 * @param staticMethod Whether a static rather than an instance method is searched for
+	 * @return Handle invoking the matching method, or null if there is none
+	 * @throws IllegalAccessException If the method may not be invoked
+	 */
+	MethodHandle findMethod(final String methodName, final Object[] arguments, final boolean staticMethod) throws IllegalAccessException {
+		final Signature signature = new Signature(methodName, staticMethod, arguments);
+		MethodHandle method = this.members.get(signature);
+
+		if (method == null) {
+			final Method match = ReflectionUtils.findMethod(this.type, methodName, arguments, staticMethod);
+			method = (match != null) ? toInvoker(MethodHandles.publicLookup().unreflect(match), staticMethod) : NO_MEMBER;
+			this.memoize(signature, method);
+		}
+
+		return (method == NO_MEMBER) ? null : method;
+	}
+
+	/**
+	 * Memoizes the member resolved for a signature, unless an argument class is not visible from the class described by
+	 * this metadata, as the metadata would then keep the class loader of that argument reachable for as long as the
+	 * described class exists.
+	 * @param signature Signature resolved
+	 * @param member Handle of the member resolved, or NO_MEMBER
+	 */
+	private void memoize(final Signature signature, final MethodHandle member) {
+		final ClassLoader loader = this.type.getClassLoader();
+
+		for (final Class<?> argumentClass : signature.argumentClasses) {
+			if ((argumentClass != null) && !isVisible(argumentClass.getClassLoader(), loader)) {
+				return;
+			}
+		}
+
+		this.members.putIfAbsent(signature, member);
+	}
+
+	/**
+	 * Determines whether the classes of a class loader are visible from another class loader, which is the case if it is
+	 * that loader or one of its parents.
+	 * @param classLoader Class loader of the class, or null for the bootstrap class loader
+	 * @param fromLoader Class loader from which the class is to be visible, or null for the bootstrap class loader
+	 * @return Whether classLoader is fromLoader or one of its parents
+	 */
+	private static boolean isVisible(final ClassLoader classLoader, final ClassLoader fromLoader) {
+		if (classLoader == null) {
+			return true;
+		}
+
+		for (ClassLoader loader = fromLoader; loader != null; loader = loader.getParent()) {
+			if (loader == classLoader) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Invokes a handle obtained from this class, letting any exception it throws propagate unwrapped.
+	 * @param invoker Handle to invoke
+	 * @param target Object to invoke an instance method on, ignored for constructors and static methods
+	 * @param arguments Arguments to pass
+	 * @return Result of the invocation, or null for void methods
+	 * @throws Exception If the invoked member throws an exception
+	 */
+	static Object invoke(final MethodHandle invoker, final Object target, final Object[] arguments) throws Exception {
+		try {
+			return (Object) invoker.invokeExact(target, arguments);
+		} catch (Exception ex) {
+			throw ex;
+		} catch (Error ex) {
+			throw ex;
+		} catch (Throwable throwable) {
+			throw new UndeclaredThrowableException(throwable);
+		}
+	}
+
+	/**
+	 * Adapts a direct handle to the type shared by every handle of this class, boxing primitive parameters and results.
+	 * @param handle Handle of a constructor or method
+	 * @param withoutTarget Whether the handle takes no target, as for constructors and static methods
+	 * @return Adapted handle
+	 */
+	private static MethodHandle toInvoker(final MethodHandle handle, final boolean withoutTarget) {
+		final int parameterCount = handle.type().parameterCount();
+		// Varargs methods take their array as a single argument, exactly as XMLDecoder passes it
+		final MethodHandle spreader = handle.asFixedArity().asType(MethodType.genericMethodType(parameterCount)).asSpreader(Object[].class, withoutTarget ? parameterCount : parameterCount - 1);
+
+		return withoutTarget ? MethodHandles.dropArguments(spreader, 0, Object.class).asType(INVOKER_TYPE) : spreader.asType(INVOKER_TYPE);
+	}
+
+	/**
+	 * Name of a member along with the classes of the arguments it is invoked with, which fully determine the member chosen.
+	 */
+	private static final class Signature {
+
+		/**
+		 * Name of the method, or null for a constructor.
+		 */
+		private final String memberName;
+
+		/**
+		 * Whether a static method is searched for.
+		 */
+		private final boolean staticMember;
+
+		/**
+		 * Classes of the arguments, with null standing for a null argument.
+		 */
+		private final Class<?>[] argumentClasses;
+
+		/**
+		 * Hash code, computed once.
+		 */
+		private final int hashCode;
+
+		/**
+		 * Constructs a new Signature.
+		 * @param memberName Name of the method, or null for a constructor
+		 * @param staticMember Whether a static method is searched for
+		 * @param arguments Arguments the member is invoked with
+		 */
+		private Signature(final String memberName, final boolean staticMember, final Object[] arguments) {
+			this.memberName = memberName;
+			this.staticMember = staticMember;
+			this.argumentClasses = new Class<?>[arguments.length];
+
+			for (int index = 0; index < arguments.length; index++) {
+				this.argumentClasses[index] = (arguments[index] == null) ? null : arguments[index].getClass();
+			}
+
+			this.hashCode = 31 * (31 * ((memberName == null) ? 0 : memberName.hashCode()) + (staticMember ? 1 : 0)) + Arrays.hashCode(this.argumentClasses);
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (!(other instanceof Signature)) {
+				return false;
+			}
+
+			final Signature signature = (Signature) other;
+
+			return (this.hashCode == signature.hashCode) && (this.staticMember == signature.staticMember)
+					&& ((this.memberName == null) ? (signature.memberName == null) : this.memberName.equals(signature.memberName))
+					&& Arrays.equals(this.argumentClasses, signature.argumentClasses);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+}
@@ -0,0 +1,395 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ContainerListener;
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed, validated definitions of all beans of a context, from which the beans can be instantiated in any order.
+ */
+final class ContextDefinition {
+
+	/**
+	 * Root level beans, in the order in which they were declared in the context.
+	 */
+	private final List<BeanHolder> rootBeans = new ArrayList<BeanHolder>();
+
+	/**
+	 * Root level beans, for constant time membership checks.
+	 */
+	private final Set<BeanHolder> rootBeanSet = new HashSet<BeanHolder>();
+
+	/**
+	 * Beans keyed by their id.
+	 */
+	private final Map<String, BeanHolder> beansById = new LinkedHashMap<String, BeanHolder>();
+
+	/**
+	 * Classes loaded so far, keyed by name.
+	 */
+	private final Map<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+	/**
+	 * Class loader used to load the classes named in the context.
+	 */
+	private final ClassLoader classLoader;
+
+	/**
+	 * Time spent parsing and validating the context, set once it has been validated.
+	 */
+	long parseTimeNanos;
+
+	/**
+	 * Memory allocated by the parsing thread while parsing and validating the context, or -1 if unknown.
+	 */
+	long parseAllocatedBytes = -1;
+
+	/**
+	 * Recorder of the timings of the beans as they are instantiated, or null if no timings are collected. Must be set
+	 * before any bean is instantiated.
+	 */
+	StatisticsRecorder statisticsRecorder;
+
+	/**
+	 * Observer told about each bean as it is instantiated, or null. Must be set before any bean is instantiated.
+	 */
+	ContainerListener listener;
+
+	/**
+	 * Whether the init methods of singletons are invoked once every singleton of the build has been created, rather than
+	 * as each is created. Must be set before any bean is instantiated.
+	 */
+	volatile boolean deferredInitialization;
+
+	/**
+	 * Constructs a new, empty ContextDefinition.
+	 * @param classLoader Class loader used to load the classes named in the context
+	 */
+	ContextDefinition(final ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Registers a bean that carries an id.
+	 * @param id Id of the bean
+	 * @param definition Definition of the bean
+	 * @param scope Lifetime of the instances of the bean
+	 * @param capacity Largest number of idle instances kept by the pool of a bean of the POOLED scope, or 0 for the default
+	 * @param source Name of the source that declared the bean, or null if it is unnamed
+	 * @throws InvalidContextException If the id is already in use
+	 */
+	void registerBean(final String id, final ValueDefinition definition, final Scope scope, final int capacity, final String source) throws InvalidContextException {
+		final BeanHolder existingBean = this.beansById.get(id);
+
+		if (existingBean != null) {
+			throw new InvalidContextException("Duplicate id '" + id + "'" + ((existingBean.source == null) ? "" : ", declared by " + existingBean.source) + ((source == null) ? "" : " and " + source) + ".");
+		}
+
+		this.beansById.put(id, new BeanHolder(id, definition, scope, capacity, "object '" + id + "'", source, this));
+	}
+
+	/**
+	 * Adds a root level bean that has no id.
+	 * @param definition Definition of the bean
+	 * @param source Name of the source that declared the bean, or null if it is unnamed
+	 */
+	void addRootBean(final ValueDefinition definition, final String source) {
+		final BeanHolder bean = new BeanHolder(null, definition, "root level object #" + (this.rootBeans.size() + 1), source, this);
+
+		this.rootBeans.add(bean);
+		this.rootBeanSet.add(bean);
+	}
+
+	/**
+	 * Adds a root level bean that carries an id, unless it already is a root level bean. An id that is not registered
+	 * yet, because it is declared further on or by another source, is held by a reference until the context is validated.
+	 * @param id Id of the bean
+	 * @param source Name of the source that declared the root level element, or null if it is unnamed
+	 */
+	void addRootBean(final String id, final String source) {
+		final BeanHolder bean = this.beansById.get(id);
+
+		if (bean == null) {
+			this.addRootBean(new ReferenceDefinition(id), source);
+		} else if (this.rootBeanSet.add(bean)) {
+			this.rootBeans.add(bean);
+		}
+	}
+
+	/**
+	 * Adds every bean of a context parsed from another source, which has not been validated, after the beans of this context.
+	 * @param fragment Context parsed from another source
+	 * @throws InvalidContextException If the fragment declares an id that is already in use
+	 */
+	void merge(final ContextDefinition fragment) throws InvalidContextException {
+		for (final BeanHolder bean : fragment.beansById.values()) {
+			this.registerBean(bean.id, bean.definition, bean.scope, (bean.pool == null) ? 0 : bean.pool.getCapacity(), bean.source);
+		}
+
+		for (final BeanHolder bean : fragment.rootBeans) {
+			if (bean.id != null) {
+				this.addRootBean(bean.id, bean.source);
+			} else {
+				this.addRootBean(bean.definition, bean.source);
+			}
+		}
+	}
+
+	/**
+	 * Validates that every referenced id exists, that no bean depends on itself and that every reference suits the scope of
+	 * the referenced bean, and records the dependencies of every bean.
+	 * @throws InvalidContextException If the context references an unknown id or a bean of an unsuitable scope, or contains a circular reference
+	 */
+	void validate() throws InvalidContextException {
+		this.resolveRootReferences();
+
+		final Collection<BeanHolder> beans = this.getAllBeans();
+
+		for (final BeanHolder bean : beans) {
+			final Set<String> referencedIds = new LinkedHashSet<String>();
+			bean.definition.collectReferences(referencedIds);
+			bean.dependencies = new BeanHolder[referencedIds.size()];
+
+			int index = 0;
+
+			for (final String referencedId : referencedIds) {
+				final BeanHolder dependency = this.beansById.get(referencedId);
+
+				if (dependency == null) {
+					throw new InvalidContextException("The definition of " + bean + " references unknown id '" + referencedId + "'.");
+				}
+
+				if (dependency.scope == Scope.POOLED) {
+					throw new InvalidContextException("The definition of " + bean + " references the pooled " + dependency + ", whose instances must be borrowed from its pool.");
+				}
+
+				if ((dependency.scope == Scope.THREAD) && (bean.scope != Scope.THREAD)) {
+					throw new InvalidContextException("The definition of " + bean + " references the thread scoped " + dependency + ", which only objects of the THREAD scope may reference.");
+				}
+
+				bean.dependencies[index++] = dependency;
+			}
+		}
+
+		final Set<BeanHolder> visited = new LinkedHashSet<BeanHolder>();
+
+		for (final BeanHolder bean : beans) {
+			checkForCycles(bean, new ArrayList<BeanHolder>(), visited);
+		}
+	}
+
+	/**
+	 * Adopts the instances of the beans of a previous context that are unchanged, being beans whose definition is equal
+	 * to that of the bean with the same id, or of an anonymous root level bean, and whose dependencies are all
+	 * unchanged as well. Must be called once this context has been validated and before any bean is instantiated.
+	 * @param previous Context built before, whose instantiated beans may be reused
+	 * @return Number of beans whose instance was reused
+	 */
+	int reuseUnchangedInstances(final ContextDefinition previous) {
+		final Map<ValueDefinition, List<BeanHolder>> previousAnonymousBeans = new HashMap<ValueDefinition, List<BeanHolder>>();
+
+		for (final BeanHolder bean : previous.rootBeans) {
+			if (bean.id == null) {
+				List<BeanHolder> equalBeans = previousAnonymousBeans.get(bean.definition);
+
+				if (equalBeans == null) {
+					equalBeans = new LinkedList<BeanHolder>();
+					previousAnonymousBeans.put(bean.definition, equalBeans);
+				}
+
+				equalBeans.add(bean);
+			}
+		}
+
+		final Collection<BeanHolder> beans = this.getAllBeans();
+		final Map<BeanHolder, BeanHolder> matches = new HashMap<BeanHolder, BeanHolder>();
+		final Map<BeanHolder, List<BeanHolder>> dependents = new HashMap<BeanHolder, List<BeanHolder>>();
+		final Set<BeanHolder> changedBeans = new HashSet<BeanHolder>();
+		final Deque<BeanHolder> pendingBeans = new ArrayDeque<BeanHolder>();
+
+		for (final BeanHolder bean : beans) {
+			final BeanHolder match;
+
+			if (bean.id != null) {
+				match = previous.beansById.get(bean.id);
+			} else {
+				final List<BeanHolder> equalBeans = previousAnonymousBeans.get(bean.definition);
+				match = ((equalBeans == null) || equalBeans.isEmpty()) ? null : equalBeans.remove(0);
+			}
+
+			if ((match != null) && match.isCreated() && (match.scope == bean.scope) && match.definition.equals(bean.definition)) {
+				matches.put(bean, match);
+			} else if (changedBeans.add(bean)) {
+				pendingBeans.add(bean);
+			}
+
+			for (final BeanHolder dependency : bean.dependencies) {
+				List<BeanHolder> beanDependents = dependents.get(dependency);
+
+				if (beanDependents == null) {
+					beanDependents = new ArrayList<BeanHolder>();
+					dependents.put(dependency, beanDependents);
+				}
+
+				beanDependents.add(bean);
+			}
+		}
+
+		// A bean referencing a changed bean must be rebuilt to reference its new instance
+		while (!pendingBeans.isEmpty()) {
+			final List<BeanHolder> beanDependents = dependents.get(pendingBeans.poll());
+
+			if (beanDependents != null) {
+				for (final BeanHolder dependent : beanDependents) {
+					if (changedBeans.add(dependent)) {
+						pendingBeans.add(dependent);
+					}
+				}
+			}
+		}
+
+		int reusedCount = 0;
+
+		for (final Map.Entry<BeanHolder, BeanHolder> match : matches.entrySet()) {
+			if (!changedBeans.contains(match.getKey())) {
+				match.getKey().reuseInstance(match.getValue());
+				reusedCount++;
+			}
+		}
+
+		return reusedCount;
+	}
+
+	/**
+	 * Replaces the root level references to ids that were registered after them by the referenced beans, keeping the
+	 * first occurrence of every bean.
+	 * @throws InvalidContextException If a root level reference refers to an unknown id
+	 */
+	private void resolveRootReferences() throws InvalidContextException {
+		final Set<BeanHolder> resolvedRootBeans = new LinkedHashSet<BeanHolder>();
+
+		for (final BeanHolder bean : this.rootBeans) {
+			if ((bean.id == null) && (bean.definition instanceof ReferenceDefinition)) {
+				final String referencedId = ((ReferenceDefinition) bean.definition).id;
+				final BeanHolder referencedBean = this.beansById.get(referencedId);
+
+				if (referencedBean == null) {
+					throw new InvalidContextException("The definition of " + bean + " references unknown id '" + referencedId + "'.");
+				}
+
+				resolvedRootBeans.add(referencedBean);
+			} else {
+				resolvedRootBeans.add(bean);
+			}
+		}
+
+		this.rootBeans.clear();
+		this.rootBeans.addAll(resolvedRootBeans);
+		this.rootBeanSet.clear();
+		this.rootBeanSet.addAll(resolvedRootBeans);
+	}
+
+	/**
+	 * Checks a bean and its dependencies for circular references, depth first.
+	 * @param bean Bean to check
+	 * @param path Beans currently being checked, leading to this bean
+	 * @param visited Beans that have been fully checked
+	 * @throws InvalidContextException If the bean depends on itself
+	 */
+	private static void checkForCycles(final BeanHolder bean, final List<BeanHolder> path, final Set<BeanHolder> visited) throws InvalidContextException {
+		if (visited.contains(bean)) {
+			return;
+		}
+
+		if (path.contains(bean)) {
+			throw new InvalidContextException("Circular reference between " + path.subList(path.indexOf(bean), path.size()) + ".");
+		}
+
+		path.add(bean);
+
+		for (final BeanHolder dependency : bean.dependencies) {
+			checkForCycles(dependency, path, visited);
+		}
+
+		path.remove(path.size() - 1);
+		visited.add(bean);
+	}
+
+	/**
+	 * Gets the root level beans.
+	 * @return Root level beans, in the order in which they were declared in the context
+	 */
+	List<BeanHolder> getRootBeans() {
+		return Collections.unmodifiableList(this.rootBeans);
+	}
+
+	/**
+	 * Gets every bean of the context, being the root level beans and the beans carrying an id.
+	 * @return Every bean, the root level beans first in the order in which they were declared
+	 */
+	Collection<BeanHolder> getAllBeans() {
+		final Set<BeanHolder> beans = new LinkedHashSet<BeanHolder>(this.rootBeans);
+		beans.addAll(this.beansById.values());
+
+		return beans;
+	}
+
+	/**
+	 * Gets a bean by its id.
+	 * @param id Id of the bean
+	 * @return Bean of that id, or null if there is none
+	 */
+	BeanHolder getBean(final String id) {
+		return this.beansById.get(id);
+	}
+
+	/**
+	 * Loads a class named in the context.
+	 * @param className Name of the class or primitive type
+	 * @return Loaded class
+	 * @throws ClassNotFoundException If the class does not exist
+	 */
+	Class<?> loadClass(final String className) throws ClassNotFoundException {
+		Class<?> loadedClass = this.classes.get(className);
+
+		if (loadedClass == null) {
+			loadedClass = ReflectionUtils.loadClass(className, this.classLoader, false);
+			this.classes.put(className, loadedClass);
+		}
+
+		return loadedClass;
+	}
+}
@@ -0,0 +1,576 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ContainerListener;
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Parses a context in the JavaBeans XML schema into bean definitions, without instantiating any of the beans.
+ * The java, object, void, array, null, class and string elements as well as the primitive elements are supported, with
+ * the same meaning java.beans.XMLDecoder gives them.
+ */
+final class ContextParser {
+
+	/**
+	 * Names of the elements that hold a primitive value.
+	 */
+	private static final Set<String> PRIMITIVE_ELEMENTS = new HashSet<String>(Arrays.asList("boolean", "byte", "char", "short", "int", "long", "float", "double"));
+
+	/**
+	 * Reader positioned in the context.
+	 */
+	private final XMLStreamReader reader;
+
+	/**
+	 * Name of the source being parsed, or null if it is unnamed.
+	 */
+	private final String sourceName;
+
+	/**
+	 * Context under construction.
+	 */
+	private final ContextDefinition context;
+
+	/**
+	 * Constructs a new ContextParser.
+	 * @param reader Reader positioned at the start of the context
+	 * @param sourceName Name of the source being parsed, or null if it is unnamed
+	 * @param context Context to add the parsed definitions to
+	 */
+	private ContextParser(final XMLStreamReader reader, final String sourceName, final ContextDefinition context) {
+		this.reader = reader;
+		this.sourceName = sourceName;
+		this.context = context;
+	}
+
+	/**
+	 * Parses and validates a complete context.
+	 * @param inputStream Input containing the XML content representing the context configuration, which is closed afterwards
+	 * @param sourceName Name of the source being parsed, such as its classpath path, or null if it is unnamed
+	 * @param classLoader Class loader used to load the classes named in the context
+	 * @param listener Observer told about reading the context, or null
+	 * @return Definitions of all beans of the context
+	 * @throws InvalidContextException If the context XML could not be interpreted
+	 */
+	static ContextDefinition parse(final InputStream inputStream, final String sourceName, final ClassLoader classLoader, final ContainerListener listener) throws InvalidContextException {
+		final long startAllocatedBytes = StatisticsRecorder.getAllocatedBytes();
+		final long startNanos = System.nanoTime();
+		final ContextDefinition context = parseFragment(inputStream, sourceName, classLoader, listener);
+
+		context.validate();
+		context.parseTimeNanos = System.nanoTime() - startNanos;
+		context.parseAllocatedBytes = StatisticsRecorder.getAllocatedBytesSince(startAllocatedBytes);
+
+		return context;
+	}
+
+	/**
+	 * Parses several sources concurrently and merges them into a single validated context, in which an idref may refer
+	 * to an id declared by any of the sources. Root level beans keep the order of the sources, then the document order.
+	 * @param inputStreamsBySourceName Inputs keyed by the name of their source, in order, which are all closed afterwards
+	 * @param executor Executor on which the sources are parsed, or null to use a pool private to this call
+	 * @param classLoader Class loader used to load the classes named in the context
+	 * @param listener Observer told about reading each source, or null
+	 * @return Definitions of all beans of every source
+	 * @throws InvalidContextException If any source could not be interpreted, or two sources declare the same id
+	 */
+	static ContextDefinition parseAll(final Map<String, InputStream> inputStreamsBySourceName, final Executor executor, final ClassLoader classLoader, final ContainerListener listener) throws InvalidContextException {
+		final long startAllocatedBytes = StatisticsRecorder.getAllocatedBytes();
+		final long startNanos = System.nanoTime();
+		final ExecutorService privateExecutor = (executor == null) ? ParallelInstantiator.createPrivateExecutor() : null;
+		final List<FutureTask<ContextDefinition>> fragments = new ArrayList<FutureTask<ContextDefinition>>(inputStreamsBySourceName.size());
+
+		try {
+			for (final Map.Entry<String, InputStream> source : inputStreamsBySourceName.entrySet()) {
+				final FutureTask<ContextDefinition> fragment = new FutureTask<ContextDefinition>(new Callable<ContextDefinition>() {
+					public ContextDefinition call() throws InvalidContextException {
+						return parseFragment(source.getValue(), source.getKey(), classLoader, listener);
+					}
+				});
+
+				fragments.add(fragment);
+
+				try {
+					((executor == null) ? privateExecutor : executor).execute(fragment);
+				} catch (RejectedExecutionException ex) {
+					// Parsing on the calling thread still closes the stream
+					fragment.run();
+				}
+			}
+
+			final ContextDefinition context = new ContextDefinition(classLoader);
+			InvalidContextException failure = null;
+
+			// Every fragment is awaited, even after a failure, so that no stream is left open
+			for (final FutureTask<ContextDefinition> fragment : fragments) {
+				try {
+					final ContextDefinition parsedFragment = getFragment(fragment);
+
+					if (failure == null) {
+						context.merge(parsedFragment);
+					}
+				} catch (InvalidContextException ex) {
+					failure = (failure == null) ? ex : failure;
+				}
+			}
+
+			if (failure != null) {
+				throw failure;
+			}
+
+			context.validate();
+			context.parseTimeNanos = System.nanoTime() - startNanos;
+			context.parseAllocatedBytes = StatisticsRecorder.getAllocatedBytesSince(startAllocatedBytes);
+
+			return context;
+		} finally {
+			if (privateExecutor != null) {
+				privateExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Waits for a source to be parsed.
+	 * @param fragment Task parsing the source
+	 * @return Definitions of the beans of the source
+	 * @throws InvalidContextException If the source could not be interpreted, or the wait was interrupted
+	 */
+	private static ContextDefinition getFragment(final FutureTask<ContextDefinition> fragment) throws InvalidContextException {
+		try {
+			return fragment.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InvalidContextException("Interrupted while parsing the context.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof InvalidContextException) {
+				throw (InvalidContextException) ex.getCause();
+			}
+
+			throw new InvalidContextException("Context could not be parsed.", ex.getCause());
+		}
+	}
+
+	/**
+	 * Parses a single source without validating its references, which may point into other sources.
+	 * @param inputStream Input containing the XML content representing the context configuration, which is closed afterwards
+	 * @param sourceName Name of the source being parsed, or null if it is unnamed
+	 * @param classLoader Class loader used to load the classes named in the context
+	 * @param listener Observer told about reading the source, or null
+	 * @return Definitions of the beans of the source
+	 * @throws InvalidContextException If the context XML could not be interpreted
+	 */
+	private static ContextDefinition parseFragment(final InputStream inputStream, final String sourceName, final ClassLoader classLoader, final ContainerListener listener) throws InvalidContextException {
+		final ContextDefinition context = new ContextDefinition(classLoader);
+		final Object token = (listener == null) ? null : listener.parseStarting(sourceName);
+
+		try {
+			final XMLStreamReader reader = createInputFactory().createXMLStreamReader(inputStream);
+
+			try {
+				new ContextParser(reader, sourceName, context).parseContext();
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException ex) {
+			throw new InvalidContextException((sourceName == null) ? "Context XML is malformed." : "Context XML " + sourceName + " is malformed.", ex);
+		} finally {
+			closeQuietly(inputStream);
+		}
+
+		if (token != null) {
+			listener.parseFinished(token, sourceName, context.getRootBeans().size());
+		}
+
+		return context;
+	}
+
+	/**
+	 * Creates a factory for readers that do not resolve DTDs or external entities.
+	 * @return New input factory
+	 */
+	private static XMLInputFactory createInputFactory() {
+		final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+		return inputFactory;
+	}
+
+	/**
+	 * Closes an input stream, ignoring any failure to do so.
+	 * @param inputStream Stream to close
+	 */
+	private static void closeQuietly(final InputStream inputStream) {
+		try {
+			inputStream.close();
+		} catch (IOException ex) {
+			// Nothing was left to read, so a failure to release the stream is irrelevant
+		}
+	}
+
+	/**
+	 * Parses the java root element and every root level bean inside it.
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If the XML does not describe a valid context
+	 */
+	private void parseContext() throws XMLStreamException, InvalidContextException {
+		this.reader.nextTag();
+
+		if (!"java".equals(this.reader.getLocalName())) {
+			throw this.createException("Root element must be <java>");
+		}
+
+		while (this.reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final ValueDefinition definition = this.parseValue(true);
+
+			if (definition instanceof ReferenceDefinition) {
+				this.context.addRootBean(((ReferenceDefinition) definition).id, this.sourceName);
+			} else {
+				this.context.addRootBean(definition, this.sourceName);
+			}
+		}
+	}
+
+	/**
+	 * Parses the value element the reader is positioned at, up to and including its end tag.
+	 * @param rootLevel Whether the element is a child of the java root element
+	 * @return Definition of the value, which is a reference if the element carries an id
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If the element does not describe a valid value
+	 */
+	private ValueDefinition parseValue(final boolean rootLevel) throws XMLStreamException, InvalidContextException {
+		final String elementName = this.reader.getLocalName();
+
+		if ("object".equals(elementName)) {
+			return this.parseObject(rootLevel);
+		} else if ("array".equals(elementName)) {
+			return this.parseArray();
+		} else if ("string".equals(elementName)) {
+			this.checkAttributes();
+			return new LiteralDefinition(this.reader.getElementText());
+		} else if ("null".equals(elementName)) {
+			this.checkAttributes();
+			this.parseChildren(null, null);
+			return new LiteralDefinition(null);
+		} else if ("class".equals(elementName)) {
+			this.checkAttributes();
+			return new LiteralDefinition(this.loadClass(this.reader.getElementText().trim()));
+		} else if (PRIMITIVE_ELEMENTS.contains(elementName)) {
+			this.checkAttributes();
+			return new LiteralDefinition(this.parsePrimitive(elementName, this.reader.getElementText().trim()));
+		}
+
+		throw this.createException("Unsupported element <" + elementName + ">");
+	}
+
+	/**
+	 * Parses an object element.
+	 * @param rootLevel Whether the element is a child of the java root element
+	 * @return Definition of the object, or a reference to it if it carries an id
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If the element does not describe a valid object
+	 */
+	private ValueDefinition parseObject(final boolean rootLevel) throws XMLStreamException, InvalidContextException {
+		this.checkAttributes("id", "idref", "class", "method", "field", "scope", "capacity", "init", "destroy", "warmup", "priority");
+
+		final String id = this.reader.getAttributeValue(null, "id");
+		final Scope scope = this.parseScope(id);
+		final String capacity = this.reader.getAttributeValue(null, "capacity");
+		final String initMethod = this.reader.getAttributeValue(null, "init");
+		final String destroyMethod = this.reader.getAttributeValue(null, "destroy");
+		final String warmUpMethod = this.reader.getAttributeValue(null, "warmup");
+		final String priority = this.reader.getAttributeValue(null, "priority");
+		final String idref = this.reader.getAttributeValue(null, "idref");
+		final String className = this.reader.getAttributeValue(null, "class");
+		final List<ValueDefinition> arguments = new ArrayList<ValueDefinition>();
+		final List<StatementDefinition> statements = new ArrayList<StatementDefinition>();
+
+		if (idref != null) {
+			if ((id != null) || (className != null) || (scope != Scope.SINGLETON) || (initMethod != null) || (destroyMethod != null) || (warmUpMethod != null) || (priority != null)) {
+				throw this.createException("An <object> with an idref may not declare an id, a class, a scope, a priority or lifecycle methods");
+			}
+
+			this.parseChildren(null, null);
+			return new ReferenceDefinition(idref);
+		}
+
+		if (className == null) {
+			throw this.createException("An <object> must declare either a class or an idref");
+		}
+
+		if ((capacity != null) && (scope != Scope.POOLED)) {
+			throw this.createException("Only an <object> of the pooled scope may declare a capacity");
+		}
+
+		final int parsedCapacity = (capacity == null) ? 0 : this.parseInt(capacity);
+
+		if (((initMethod != null) || (destroyMethod != null) || (warmUpMethod != null)) && !rootLevel && (id == null)) {
+			throw this.createException("Only a root level <object> or an <object> with an id may declare lifecycle methods");
+		}
+
+		if (((destroyMethod != null) || (warmUpMethod != null)) && (scope != Scope.SINGLETON)) {
+			throw this.createException("Only an <object> of the singleton scope may declare a destroy or warm-up method");
+		}
+
+		if ((capacity != null) && (parsedCapacity < 1)) {
+			throw this.createException("The capacity of an <object> must be positive");
+		}
+
+		if ((priority != null) && (!rootLevel || (scope != Scope.SINGLETON))) {
+			throw this.createException("Only a root level <object> of the singleton scope may declare a priority");
+		}
+
+		final int parsedPriority = (priority == null) ? 0 : this.parseInt(priority);
+
+		final String method = this.reader.getAttributeValue(null, "method");
+		final String field = this.reader.getAttributeValue(null, "field");
+		this.parseChildren(arguments, statements);
+
+		return this.register(id, new ObjectDefinition(className, method, field, arguments, statements, initMethod, destroyMethod, warmUpMethod, parsedPriority), scope, parsedCapacity);
+	}
+
+	/**
+	 * Parses the scope attribute of the object element the reader is positioned at.
+	 * @param id Id of the object, or null
+	 * @return Declared scope, or SINGLETON if the object declares none
+	 * @throws InvalidContextException If the scope is unknown, or declared by an object without id
+	 */
+	private Scope parseScope(final String id) throws InvalidContextException {
+		final String scope = this.reader.getAttributeValue(null, "scope");
+
+		if (scope == null) {
+			return Scope.SINGLETON;
+		}
+
+		for (final Scope candidate : Scope.values()) {
+			if (candidate.name().equalsIgnoreCase(scope.trim())) {
+				if ((candidate != Scope.SINGLETON) && (id == null)) {
+					throw this.createException("An <object> of the " + scope.trim() + " scope must declare an id");
+				}
+
+				return candidate;
+			}
+		}
+
+		throw this.createException("Unsupported scope '" + scope + "'");
+	}
+
+	/**
+	 * Parses an array element.
+	 * @return Definition of the array, or a reference to it if it carries an id
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If the element does not describe a valid array
+	 */
+	private ValueDefinition parseArray() throws XMLStreamException, InvalidContextException {
+		this.checkAttributes("id", "class", "length");
+
+		final String id = this.reader.getAttributeValue(null, "id");
+		final String className = this.reader.getAttributeValue(null, "class");
+		final String length = this.reader.getAttributeValue(null, "length");
+		final List<ValueDefinition> elements = new ArrayList<ValueDefinition>();
+		final List<StatementDefinition> statements = new ArrayList<StatementDefinition>();
+		this.parseChildren(elements, statements);
+
+		final ArrayDefinition definition = new ArrayDefinition((className == null) ? Object.class.getName() : className, (length == null) ? -1 : this.parseInt(length), elements, statements);
+
+		return this.register(id, definition, Scope.SINGLETON, 0);
+	}
+
+	/**
+	 * Parses a void element.
+	 * @return Definition of the statement
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If the element does not describe a valid statement
+	 */
+	private StatementDefinition parseStatement() throws XMLStreamException, InvalidContextException {
+		this.checkAttributes("property", "method", "index");
+
+		final String property = this.reader.getAttributeValue(null, "property");
+		final String method = this.reader.getAttributeValue(null, "method");
+		final String index = this.reader.getAttributeValue(null, "index");
+		final List<ValueDefinition> arguments = new ArrayList<ValueDefinition>();
+		final List<StatementDefinition> statements = new ArrayList<StatementDefinition>();
+
+		if (((property == null) ? 0 : 1) + ((method == null) ? 0 : 1) + ((index == null) ? 0 : 1) != 1) {
+			throw this.createException("A <void> must declare exactly one of property, method and index");
+		}
+
+		if ((property != null) && property.isEmpty()) {
+			throw this.createException("A <void> may not declare an empty property");
+		}
+
+		final int parsedIndex = (index == null) ? -1 : this.parseInt(index);
+		this.parseChildren(arguments, statements);
+
+		return new StatementDefinition(property, method, parsedIndex, arguments, statements);
+	}
+
+	/**
+	 * Parses all child elements of the current element, up to and including its end tag.
+	 * @param values List to add child value definitions to, or null if the element may not have any
+	 * @param statements List to add child statement definitions to, or null if the element may not have any
+	 * @throws XMLStreamException If the XML is malformed
+	 * @throws InvalidContextException If a child element is not valid
+	 */
+	private void parseChildren(final List<ValueDefinition> values, final List<StatementDefinition> statements) throws XMLStreamException, InvalidContextException {
+		final String elementName = this.reader.getLocalName();
+
+		while (this.reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			final boolean statement = "void".equals(this.reader.getLocalName());
+
+			if ((statement ? statements : values) == null) {
+				throw this.createException("Element <" + this.reader.getLocalName() + "> is not allowed inside <" + elementName + ">");
+			}
+
+			if (statement) {
+				statements.add(this.parseStatement());
+			} else {
+				values.add(this.parseValue(false));
+			}
+		}
+	}
+
+	/**
+	 * Registers a definition as a bean if it carries an id.
+	 * @param id Id of the definition, or null
+	 * @param definition Definition to register
+	 * @param scope Lifetime of the instances of the bean
+	 * @param capacity Largest number of idle instances kept by the pool of a bean of the POOLED scope, or 0 for the default
+	 * @return A reference to the registered bean, or the definition itself if it has no id
+	 * @throws InvalidContextException If the id is already in use
+	 */
+	private ValueDefinition register(final String id, final ValueDefinition definition, final Scope scope, final int capacity) throws InvalidContextException {
+		if (id == null) {
+			return definition;
+		}
+
+		this.context.registerBean(id, definition, scope, capacity, this.sourceName);
+
+		return new ReferenceDefinition(id);
+	}
+
+	/**
+	 * Verifies that the current element carries no attributes other than the given ones.
+	 * @param allowedAttributes Names of the allowed attributes
+	 * @throws InvalidContextException If the element carries another attribute
+	 */
+	private void checkAttributes(final String... allowedAttributes) throws InvalidContextException {
+		final List<String> allowed = Arrays.asList(allowedAttributes);
+
+		for (int index = 0; index < this.reader.getAttributeCount(); index++) {
+			if (!allowed.contains(this.reader.getAttributeLocalName(index))) {
+				throw this.createException("Unsupported attribute '" + this.reader.getAttributeLocalName(index) + "' on <" + this.reader.getLocalName() + ">");
+			}
+		}
+	}
+
+	/**
+	 * Parses the text of a primitive element.
+	 * @param elementName Name of the element, which is the name of the primitive type
+	 * @param text Text of the element
+	 * @return Wrapped primitive value
+	 * @throws InvalidContextException If the text is not a valid value of the type
+	 */
+	private Object parsePrimitive(final String elementName, final String text) throws InvalidContextException {
+		try {
+			if ("boolean".equals(elementName)) {
+				return Boolean.valueOf(text);
+			} else if ("byte".equals(elementName)) {
+				return Byte.decode(text);
+			} else if ("char".equals(elementName)) {
+				if (text.length() != 1) {
+					throw this.createException("A <char> must contain exactly one character");
+				}
+
+				return Character.valueOf(text.charAt(0));
+			} else if ("short".equals(elementName)) {
+				return Short.decode(text);
+			} else if ("int".equals(elementName)) {
+				return Integer.decode(text);
+			} else if ("long".equals(elementName)) {
+				return Long.decode(text);
+			} else if ("float".equals(elementName)) {
+				return Float.valueOf(text);
+			}
+
+			return Double.valueOf(text);
+		} catch (NumberFormatException ex) {
+			throw this.createException("'" + text + "' is not a valid <" + elementName + ">");
+		}
+	}
+
+	/**
+	 * Parses an integer attribute value.
+	 * @param text Value of the attribute
+	 * @return Parsed integer
+	 * @throws InvalidContextException If the value is not a valid integer
+	 */
+	private int parseInt(final String text) throws InvalidContextException {
+		try {
+			return Integer.parseInt(text.trim());
+		} catch (NumberFormatException ex) {
+			throw this.createException("'" + text + "' is not a valid integer");
+		}
+	}
+
+	/**
+	 * Loads a class named by a class element.
+	 * @param className Name of the class
+	 * @return Loaded class
+	 * @throws InvalidContextException If the class does not exist
+	 */
+	private Class<?> loadClass(final String className) throws InvalidContextException {
+		try {
+			return this.context.loadClass(className);
+		} catch (ClassNotFoundException ex) {
+			throw this.createException("Class '" + className + "' could not be found");
+		}
+	}
+
+	/**
+	 * Creates an exception that states the position of the reader in the context.
+	 * @param message Description of the problem
+	 * @return New exception
+	 */
+	private InvalidContextException createException(final String message) {
+		return new InvalidContextException(message + " at line " + this.reader.getLocation().getLineNumber() + ((this.sourceName == null) ? "." : " of " + this.sourceName + "."));
+	}
+}
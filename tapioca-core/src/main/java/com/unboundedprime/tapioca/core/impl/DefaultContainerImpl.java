@@ -20,17 +20,38 @@
 package com.unboundedprime.tapioca.core.impl;
 
 import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
+import com.unboundedprime.tapioca.core.BuildMode;
 import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerConfiguration;
+import com.unboundedprime.tapioca.core.ContainerListener;
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import com.unboundedprime.tapioca.core.ContextFactory;
+import com.unboundedprime.tapioca.core.LookupStatistics;
+import com.unboundedprime.tapioca.core.ObjectPool;
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.Warmable;
 import com.unboundedprime.tapioca.core.exception.InvalidContextException;
 import com.unboundedprime.tapioca.core.exception.InvalidInterfaceException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+import com.unboundedprime.tapioca.core.exception.ObjectInstantiationException;
+import java.beans.ExceptionListener;
 import java.beans.XMLDecoder;
+import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Default implementation of the Container interface in the Tapioca container framework.
@@ -38,61 +59,860 @@ import java.util.Map;
 public class DefaultContainerImpl implements Container {
 
 	/**
-	 * Graph of objects discovered from the context.
+	 * Names of the attributes that only the definition based build modes understand, which XMLDecoder would ignore.
 	 */
-	private final Map<Class, Map<Object, Object>> objects = new HashMap<Class, Map<Object, Object>>();
+	private static final String[] DEFINITION_ONLY_ATTRIBUTES = {"scope", "init", "destroy", "warmup", "priority"};
+
+	/**
+	 * Index of the objects discovered from the context by every type they are assignable to.
+	 */
+	private final TypeIndex typeIndex;
+
+	/**
+	 * Indexes of the objects whose class carries each annotation, by every type they are assignable to, keyed by the
+	 * annotation type. Empty in the LAZY mode, where no object is instantiated while building.
+	 */
+	private final Map<Class<? extends Annotation>, TypeIndex> annotationIndex;
+
+	/**
+	 * Resolutions of types that are absent from the type index, such as the covariant supertypes of arrays, computed
+	 * on first request. Negative results are memoized as well. Values are held by the requested Class itself rather
+	 * than by this container, so caching a type never keeps its class loader alive.
+	 */
+	private final ClassValue<TypeIndexEntry> resolutionCache = new ClassValue<TypeIndexEntry>() {
+		@Override
+		protected TypeIndexEntry computeValue(final Class<?> classOrInterface) {
+			return DefaultContainerImpl.this.resolveUnindexedType(classOrInterface);
+		}
+	};
+
+	/**
+	 * Parsed context whose root level beans are instantiated on first lookup, or null if every object was instantiated
+	 * while the container was built.
+	 */
+	private final ContextDefinition lazyContext;
+
+	/**
+	 * Names of the sources that declared the root level objects, keyed by the identity of the objects. Objects of the lazy
+	 * context are looked up in its definitions instead.
+	 */
+	private final Map<Object, String> objectSources;
+
+	/**
+	 * Root level objects declared with an id, keyed by that id. The values are the BeanHolders of objects of another scope
+	 * than SINGLETON, and of every object in the LAZY mode, which are instantiated on lookup. Empty for objects decoded
+	 * by XMLDecoder or created by a compiled context, which are not paired with their elements.
+	 */
+	private final Map<String, Object> objectsById;
+
+	/**
+	 * Timings of the build, or null if they were not collected. In the LAZY mode the timings of the objects are gathered
+	 * anew on each request, as objects are instantiated on lookup.
+	 */
+	private final ContainerStatistics statistics;
+
+	/**
+	 * Container to which lookups fall through, or null if the container has no parent.
+	 */
+	private final Container parent;
+
+	/**
+	 * Whether the lookups of the parent container, and of each of its ancestors, always return the same objects, so that
+	 * their results may be cached for the lifetime of this container. That only holds for containers of this class, as
+	 * a reloadable container or an overlay changes the objects it returns.
+	 */
+	private final boolean parentImmutable;
+
+	/**
+	 * Counters of the lookups made on the container, or null if lookups are not counted, in which case a lookup pays no
+	 * more than testing this final field.
+	 */
+	private final LookupMetrics lookupMetrics;
+
+	/**
+	 * Observer told about sampled lookups, or null if no lookup is reported, in which case a lookup pays no more than
+	 * testing this final field.
+	 */
+	private final ContainerListener lookupListener;
+
+	/**
+	 * Average number of lookups per lookup reported to the lookup listener.
+	 */
+	private final int lookupSamplingInterval;
+
+	/**
+	 * Runner of the destroy methods of the objects when the container is closed.
+	 */
+	private final LifecycleRunner lifecycleRunner;
+
+	/**
+	 * Destroy methods of the objects, run when the container is closed, or null in the LAZY mode, where they are gathered
+	 * on close from the objects instantiated so far.
+	 */
+	private final List<LifecycleRunner.Step> destroySteps;
+
+	/**
+	 * Whether the container has been closed.
+	 */
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * Objects of this container followed by those of its parent that are assignable to a type, computed on first request
+	 * when the container has an immutable parent, so that a lookup probes the parent at most once per type however deep
+	 * the hierarchy is.
+	 */
+	private final ClassValue<TypeIndexEntry> hierarchyCache = new ClassValue<TypeIndexEntry>() {
+		@Override
+		protected TypeIndexEntry computeValue(final Class<?> classOrInterface) {
+			return DefaultContainerImpl.this.resolveHierarchy(classOrInterface);
+		}
+	};
+
+	/**
+	 * Indexes of the objects of this container followed by those of its parent whose class carries an annotation or, in
+	 * the LAZY mode, of the objects instantiated from the beans whose declared type carries it, computed on first request
+	 * unless the parent is not immutable.
+	 */
+	private final ClassValue<TypeIndex> annotationCache = new ClassValue<TypeIndex>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected TypeIndex computeValue(final Class<?> annotationType) {
+			return DefaultContainerImpl.this.resolveAnnotatedHierarchy((Class<? extends Annotation>) annotationType);
+		}
+	};
+
+	/**
+	 * Root level beans of the lazy context whose declared type is assignable to a type, computed on first request.
+	 */
+	private final ClassValue<BeanHolder[]> lazyCandidates = new ClassValue<BeanHolder[]>() {
+		@Override
+		protected BeanHolder[] computeValue(final Class<?> classOrInterface) {
+			return DefaultContainerImpl.this.findLazyCandidates(classOrInterface);
+		}
+	};
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on a XML context in the class path.
+	 * @param classPathContextPath Textual path to the context XML resource in the classpath
+	 * @throws InvalidContextException If the context XML could not be found or interpreted
+	 */
+	public DefaultContainerImpl(final String classPathContextPath) throws InvalidContextException {
+		this(classPathContextPath, new ContainerConfiguration());
+	}
 
 	/**
 	 * Constructs a new DefaultContainerImpl based on a XML context in the class path.
 	 * @param classPathContextPath Textual path to the context XML resource in the classpath
+	 * @param configuration Options that control how the container is built
+	 * @throws InvalidContextException If the context XML could not be found or interpreted, or the configuration is null
+	 */
+	public DefaultContainerImpl(final String classPathContextPath, final ContainerConfiguration configuration) throws InvalidContextException {
+		this(openClassPathContext(classPathContextPath), classPathContextPath, configuration);
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on a XML context provided in the input stream.
+	 * @param inputStream Input containing the XML content representing the context configuration
 	 * @throws InvalidContextException If the context XML could not be interpreted
 	 */
-	public DefaultContainerImpl(final String classPathContextPath) throws InvalidContextException {
-		if (classPathContextPath == null) {
-			throw new InvalidContextException("classPathContextPath may not be null.");
+	public DefaultContainerImpl(final InputStream inputStream) throws InvalidContextException {
+		this(inputStream, new ContainerConfiguration());
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on a XML context provided in the input stream.
+	 * @param inputStream Input containing the XML content representing the context configuration
+	 * @param configuration Options that control how the container is built
+	 * @throws InvalidContextException If the context XML could not be interpreted, or the configuration is null
+	 */
+	public DefaultContainerImpl(final InputStream inputStream, final ContainerConfiguration configuration) throws InvalidContextException {
+		this(inputStream, null, configuration);
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on a XML context provided in the input stream.
+	 * @param inputStream Input containing the XML content representing the context configuration
+	 * @param sourceName Name of the context, or null if it is unnamed
+	 * @param configuration Options that control how the container is built
+	 * @throws InvalidContextException If the context XML could not be interpreted, or the configuration is null
+	 */
+	private DefaultContainerImpl(final InputStream inputStream, final String sourceName, final ContainerConfiguration configuration) throws InvalidContextException {
+		this(inputStream, sourceName, configuration, parseUnlessDecoded(inputStream, sourceName, configuration), createLookupMetrics(configuration));
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl either by decoding a XML context with XMLDecoder, or from a parsed context.
+	 * @param inputStream Input containing the XML content to decode, or null if the context has been parsed
+	 * @param sourceName Name of the context to decode, or null if it is unnamed
+	 * @param configuration Options that control how the container is built
+	 * @param context Parsed and validated context, or null if the input is to be decoded
+	 * @param lookupMetrics Counters of the lookups, or null if lookups are not counted
+	 * @throws InvalidContextException If the context XML could not be interpreted, or any bean could not be instantiated
+	 */
+	private DefaultContainerImpl(final InputStream inputStream, final String sourceName, final ContainerConfiguration configuration, final ContextDefinition context, final LookupMetrics lookupMetrics) throws InvalidContextException {
+		final StatisticsRecorder recorder = configuration.isStatisticsEnabled() ? new StatisticsRecorder() : null;
+		final long startAllocatedBytes = (recorder == null) ? -1 : StatisticsRecorder.getAllocatedBytes();
+		final long startNanos = System.nanoTime();
+		final List<ContainerStatistics.BeanStatistics> decodedBeanStatistics = new ArrayList<ContainerStatistics.BeanStatistics>();
+		final List<Object> objects;
+
+		final ContainerListener listener = configuration.getListener();
+
+		this.parent = configuration.getParent();
+		this.parentImmutable = (this.parent instanceof DefaultContainerImpl) && ((DefaultContainerImpl) this.parent).isHierarchyImmutable();
+		this.lookupMetrics = lookupMetrics;
+		this.lookupListener = (configuration.getLookupSamplingInterval() == 0) ? null : listener;
+		this.lookupSamplingInterval = configuration.getLookupSamplingInterval();
+		this.lifecycleRunner = new LifecycleRunner(configuration.getExecutor(), configuration.getLifecycleTimeoutMillis());
+
+		if (context == null) {
+			final Object parseToken = (listener == null) ? null : listener.parseStarting(sourceName);
+			objects = this.processObjects(inputStream, sourceName, recorder, decodedBeanStatistics, listener);
+
+			if (parseToken != null) {
+				listener.parseFinished(parseToken, sourceName, objects.size());
+			}
+
+			this.lazyContext = null;
+			this.objectSources = mapSources(objects, sourceName);
+			this.objectsById = Collections.emptyMap();
+			this.destroySteps = LifecycleRunner.getCloseSteps(objects);
+		} else {
+			context.statisticsRecorder = recorder;
+			context.listener = listener;
+			objects = instantiate(context, configuration, this.lifecycleRunner);
+
+			this.lazyContext = (configuration.getBuildMode() == BuildMode.LAZY) ? context : null;
+			this.destroySteps = (this.lazyContext != null) ? null : LifecycleRunner.getDestroySteps(context, true);
+			this.objectSources = mapSources(context);
+			this.objectsById = mapIds(context, this.lazyContext != null);
+		}
+
+		final long indexStartNanos = System.nanoTime();
+		final Object indexToken = (listener == null) ? null : listener.indexStarting();
+		this.typeIndex = TypeIndex.build(objects);
+		this.annotationIndex = TypeIndex.buildByAnnotation(objects);
+
+		if (indexToken != null) {
+			listener.indexFinished(indexToken, objects.size());
+		}
+
+		final long warmUpStartNanos = System.nanoTime();
+		final List<WarmUpTask> warmUpTasks = ((configuration.getWarmUpBudgetMillis() == 0) || (this.lazyContext != null)) ? Collections.<WarmUpTask>emptyList()
+				: collectWarmUpTasks(objects, context, warmUpStartNanos + TimeUnit.MILLISECONDS.toNanos(configuration.getWarmUpBudgetMillis()));
+		this.warmUp(warmUpTasks, configuration, context);
+
+		if (recorder == null) {
+			this.statistics = null;
+		} else {
+			final long endNanos = System.nanoTime();
+			final long allocatedBytes = StatisticsRecorder.getAllocatedBytesSince(startAllocatedBytes);
+			final List<ContainerStatistics.WarmUpStatistics> warmUpStatistics = new ArrayList<ContainerStatistics.WarmUpStatistics>(warmUpTasks.size());
+
+			for (final WarmUpTask warmUpTask : warmUpTasks) {
+				warmUpStatistics.add(warmUpTask.getStatistics());
+			}
+
+			if (context == null) {
+				this.statistics = new ContainerStatistics(indexStartNanos - startNanos, 0, warmUpStartNanos - indexStartNanos, endNanos - warmUpStartNanos, endNanos - startNanos,
+						allocatedBytes, decodedBeanStatistics, warmUpStatistics);
+			} else {
+				this.statistics = new ContainerStatistics(context.parseTimeNanos, (this.lazyContext != null) ? 0 : indexStartNanos - startNanos, warmUpStartNanos - indexStartNanos,
+						endNanos - warmUpStartNanos, context.parseTimeNanos + endNanos - startNanos,
+						((allocatedBytes < 0) || (context.parseAllocatedBytes < 0)) ? -1 : context.parseAllocatedBytes + allocatedBytes, collectBeanStatistics(context), warmUpStatistics);
+			}
+		}
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on several XML contexts in the class path, which are merged into one.
+	 * @param classPathContextPaths Textual paths to the context XML resources in the classpath
+	 * @param configuration Options that control how the container is built
+	 * @throws InvalidContextException If any context XML could not be found or interpreted, or the configuration is null
+	 */
+	public DefaultContainerImpl(final List<String> classPathContextPaths, final ContainerConfiguration configuration) throws InvalidContextException {
+		this(openClassPathContexts(classPathContextPaths), configuration);
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl based on several XML contexts, which are parsed concurrently and merged into
+	 * one, so that an idref may refer to an id declared by any of them. Every mode other than LAZY and PARALLEL
+	 * instantiates the objects as STREAMING does, because XMLDecoder cannot resolve references between documents.
+	 * @param inputStreamsBySourceName Inputs containing the XML contexts keyed by the name of their source, in the order in which their objects are cataloged
+	 * @param configuration Options that control how the container is built, whose executor also parses the contexts
+	 * @throws InvalidContextException If any context XML could not be interpreted, two contexts declare the same id, or the configuration is null
+	 */
+	public DefaultContainerImpl(final Map<String, InputStream> inputStreamsBySourceName, final ContainerConfiguration configuration) throws InvalidContextException {
+		this(parseAll(inputStreamsBySourceName, configuration), configuration, createLookupMetrics(configuration));
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl from a parsed and validated context. Every mode other than LAZY and PARALLEL
+	 * instantiates the objects as STREAMING does.
+	 * @param context Parsed context, whose beans may already hold reused instances
+	 * @param configuration Options that control how the container is built
+	 * @param lookupMetrics Counters of the lookups, which may be shared with the previous builds of a reloaded context, or null if lookups are not counted
+	 * @throws InvalidContextException If any bean could not be instantiated
+	 */
+	DefaultContainerImpl(final ContextDefinition context, final ContainerConfiguration configuration, final LookupMetrics lookupMetrics) throws InvalidContextException {
+		this(null, null, configuration, context, lookupMetrics);
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl from the objects created by a context compiled at build time.
+	 * @param contextFactory Factory generated from the context XML
+	 * @throws InvalidContextException If the factory is null or could not create the objects
+	 */
+	public DefaultContainerImpl(final ContextFactory contextFactory) throws InvalidContextException {
+		this(contextFactory, new ContainerConfiguration());
+	}
+
+	/**
+	 * Constructs a new DefaultContainerImpl from the objects created by a context compiled at build time. The build mode
+	 * does not apply, as the generated code creates the objects, and the build statistics hold no timings per object.
+	 * @param contextFactory Factory generated from the context XML
+	 * @param configuration Options that control how the container is built
+	 * @throws InvalidContextException If the factory is null or could not create the objects, any warm-up failed, or the configuration is null
+	 */
+	public DefaultContainerImpl(final ContextFactory contextFactory, final ContainerConfiguration configuration) throws InvalidContextException {
+		if (contextFactory == null) {
+			throw new InvalidContextException("contextFactory may not be null.");
+		}
+
+		if (configuration == null) {
+			throw new InvalidContextException("configuration may not be null.");
+		}
+
+		final long startAllocatedBytes = configuration.isStatisticsEnabled() ? StatisticsRecorder.getAllocatedBytes() : -1;
+		final long startNanos = System.nanoTime();
+		final ContainerListener listener = configuration.getListener();
+		final List<Object> objects;
+
+		this.parent = configuration.getParent();
+		this.parentImmutable = (this.parent instanceof DefaultContainerImpl) && ((DefaultContainerImpl) this.parent).isHierarchyImmutable();
+		this.lookupMetrics = createLookupMetrics(configuration);
+		this.lookupListener = (configuration.getLookupSamplingInterval() == 0) ? null : listener;
+		this.lookupSamplingInterval = configuration.getLookupSamplingInterval();
+		this.lifecycleRunner = new LifecycleRunner(configuration.getExecutor(), configuration.getLifecycleTimeoutMillis());
+
+		try {
+			objects = contextFactory.createObjects();
+		} catch (Exception ex) {
+			throw new InvalidContextException("Compiled context " + contextFactory.getClass().getName() + " could not create its objects.", ex);
+		}
+
+		this.destroySteps = LifecycleRunner.getCloseSteps(objects);
+		this.lazyContext = null;
+		this.objectSources = mapSources(objects, contextFactory.getClass().getName());
+		this.objectsById = Collections.emptyMap();
+
+		final long indexStartNanos = System.nanoTime();
+		final Object indexToken = (listener == null) ? null : listener.indexStarting();
+		this.typeIndex = TypeIndex.build(objects);
+		this.annotationIndex = TypeIndex.buildByAnnotation(objects);
+
+		if (indexToken != null) {
+			listener.indexFinished(indexToken, objects.size());
+		}
+
+		final long warmUpStartNanos = System.nanoTime();
+		final List<WarmUpTask> warmUpTasks = (configuration.getWarmUpBudgetMillis() == 0) ? Collections.<WarmUpTask>emptyList()
+				: collectWarmUpTasks(objects, null, warmUpStartNanos + TimeUnit.MILLISECONDS.toNanos(configuration.getWarmUpBudgetMillis()));
+		this.warmUp(warmUpTasks, configuration, null);
+
+		if (!configuration.isStatisticsEnabled()) {
+			this.statistics = null;
+		} else {
+			final long endNanos = System.nanoTime();
+			final List<ContainerStatistics.WarmUpStatistics> warmUpStatistics = new ArrayList<ContainerStatistics.WarmUpStatistics>(warmUpTasks.size());
+
+			for (final WarmUpTask warmUpTask : warmUpTasks) {
+				warmUpStatistics.add(warmUpTask.getStatistics());
+			}
+
+			this.statistics = new ContainerStatistics(0, indexStartNanos - startNanos, warmUpStartNanos - indexStartNanos, endNanos - warmUpStartNanos, endNanos - startNanos,
+					StatisticsRecorder.getAllocatedBytesSince(startAllocatedBytes), Collections.<ContainerStatistics.BeanStatistics>emptyList(), warmUpStatistics);
+		}
+	}
+
+	/**
+	 * Parses a XML context, unless the build mode decodes it with XMLDecoder.
+	 * @param inputStream Input containing the XML content representing the context configuration
+	 * @param sourceName Name of the context, or null if it is unnamed
+	 * @param configuration Options that control how the container is built
+	 * @return Parsed and validated context, or null in the XML_DECODER mode
+	 * @throws InvalidContextException If the context XML could not be interpreted, or an argument is null
+	 */
+	private static ContextDefinition parseUnlessDecoded(final InputStream inputStream, final String sourceName, final ContainerConfiguration configuration) throws InvalidContextException {
+		if (inputStream == null) {
+			throw new InvalidContextException("Context file must be valid.");
+		}
+
+		if (configuration == null) {
+			throw new InvalidContextException("configuration may not be null.");
+		}
+
+		return (configuration.getBuildMode() == BuildMode.XML_DECODER) ? null : ContextParser.parse(inputStream, sourceName, getContextClassLoader(), configuration.getListener());
+	}
+
+	/**
+	 * Runs a build of a container without blocking the caller, which is how Container.Builder reaches the asynchronous
+	 * build support of this package.
+	 * @param build Build to run, which returns the built container
+	 * @param executor Executor on which to run the build, or null to run it on a thread of its own
+	 * @return Future completed with the container, or exceptionally with the failure of the build
+	 */
+	public static CompletableFuture<Container> buildAsync(final Callable<Container> build, final Executor executor) {
+		return AsyncContainerBuilder.buildAsync(build, executor);
+	}
+
+	/**
+	 * Creates the counters of the lookups if the configuration enables them.
+	 * @param configuration Options that control how the container is built, which may be null
+	 * @return Counters of the lookups, or null if lookups are not counted
+	 */
+	static LookupMetrics createLookupMetrics(final ContainerConfiguration configuration) {
+		return ((configuration != null) && configuration.isLookupMetricsEnabled()) ? new LookupMetrics() : null;
+	}
+
+	/**
+	 * Gathers the timings of every bean of a context instantiated so far.
+	 * @param context Context whose beans to inspect
+	 * @return Timings, in the order in which the beans were declared
+	 */
+	private static List<ContainerStatistics.BeanStatistics> collectBeanStatistics(final ContextDefinition context) {
+		final List<ContainerStatistics.BeanStatistics> beanStatistics = new ArrayList<ContainerStatistics.BeanStatistics>();
+
+		for (final BeanHolder bean : context.getAllBeans()) {
+			final ContainerStatistics.BeanStatistics statistics = bean.getStatistics();
+
+			if (statistics != null) {
+				beanStatistics.add(statistics);
+			}
+		}
+
+		return beanStatistics;
+	}
+
+	/**
+	 * Parses several XML contexts concurrently and merges them into one.
+	 * @param inputStreamsBySourceName Inputs containing the XML contexts keyed by the name of their source, in order
+	 * @param configuration Options that control how the container is built, whose executor also parses the contexts
+	 * @return Parsed and validated context
+	 * @throws InvalidContextException If any context XML could not be interpreted, two contexts declare the same id, or the configuration is null
+	 */
+	private static ContextDefinition parseAll(final Map<String, InputStream> inputStreamsBySourceName, final ContainerConfiguration configuration) throws InvalidContextException {
+		if ((inputStreamsBySourceName == null) || inputStreamsBySourceName.isEmpty() || inputStreamsBySourceName.containsValue(null)) {
+			closeQuietly(inputStreamsBySourceName);
+			throw new InvalidContextException("At least one context must be given, and every context must be valid.");
+		}
+
+		if (configuration == null) {
+			closeQuietly(inputStreamsBySourceName);
+			throw new InvalidContextException("configuration may not be null.");
+		}
+
+		return ContextParser.parseAll(inputStreamsBySourceName, configuration.getExecutor(), getContextClassLoader(), configuration.getListener());
+	}
+
+	/**
+	 * Opens a XML context in the class path.
+	 * @param classPathContextPath Textual path to the context XML resource in the classpath
+	 * @return Input containing the XML content
+	 * @throws InvalidContextException If the path is null or the resource does not exist
+	 */
+	private static InputStream openClassPathContext(final String classPathContextPath) throws InvalidContextException {
+		if (classPathContextPath == null) {
+			throw new InvalidContextException("classPathContextPath may not be null.");
+		}
+		
+		final InputStream inputStream = DefaultContainerImpl.class.getResourceAsStream(classPathContextPath);
+
+		if (inputStream == null) {
+			throw new InvalidContextException("Context '" + classPathContextPath + "' could not be found in the classpath.");
+		}
+
+		return inputStream;
+	}
+
+	/**
+	 * Opens several XML contexts in the class path.
+	 * @param classPathContextPaths Textual paths to the context XML resources in the classpath
+	 * @return Inputs containing the XML content keyed by their path, in order
+	 * @throws InvalidContextException If the list or any path is null, or any resource does not exist
+	 */
+	private static Map<String, InputStream> openClassPathContexts(final List<String> classPathContextPaths) throws InvalidContextException {
+		if (classPathContextPaths == null) {
+			throw new InvalidContextException("classPathContextPaths may not be null.");
+		}
+
+		final Map<String, InputStream> inputStreams = new LinkedHashMap<String, InputStream>();
+
+		try {
+			for (final String classPathContextPath : classPathContextPaths) {
+				if (inputStreams.containsKey(classPathContextPath)) {
+					throw new InvalidContextException("Context '" + classPathContextPath + "' is listed more than once.");
+				}
+
+				inputStreams.put(classPathContextPath, openClassPathContext(classPathContextPath));
+			}
+		} catch (InvalidContextException ex) {
+			closeQuietly(inputStreams);
+			throw ex;
+		}
+
+		return inputStreams;
+	}
+
+	/**
+	 * Closes every input stream of a map, ignoring any failure to do so.
+	 * @param inputStreams Streams to close, which may be null or contain null values
+	 */
+	private static void closeQuietly(final Map<String, InputStream> inputStreams) {
+		if (inputStreams == null) {
+			return;
+		}
+
+		for (final InputStream inputStream : inputStreams.values()) {
+			try {
+				if (inputStream != null) {
+					inputStream.close();
+				}
+			} catch (IOException ex) {
+				// The context is rejected anyway, so a failure to release the stream is irrelevant
+			}
+		}
+	}
+
+	/**
+	 * Instantiates the root level beans of a parsed context as the build mode requires, then invokes their init methods
+	 * and those of the beans they reference. In the LAZY mode every bean is initialized as it is instantiated instead.
+	 * If any bean cannot be instantiated, the singletons instantiated so far are destroyed before the build is abandoned.
+	 * @param context Context whose root level beans to instantiate
+	 * @param configuration Options that control how the container is built
+	 * @param lifecycleRunner Runner of the init methods
+	 * @return Root level singletons in the order in which they were declared, or nothing in the LAZY mode
+	 * @throws InvalidContextException If any bean could not be instantiated or initialized, or the type of a lazy or scoped bean could not be determined
+	 */
+	private static List<Object> instantiate(final ContextDefinition context, final ContainerConfiguration configuration, final LifecycleRunner lifecycleRunner) throws InvalidContextException {
+		resolveDeclaredTypes(context, configuration.getBuildMode() != BuildMode.LAZY);
+
+		if (configuration.getBuildMode() == BuildMode.LAZY) {
+			return new ArrayList<Object>();
+		}
+
+		context.deferredInitialization = true;
+
+		final List<Object> objects;
+
+		try {
+			if (configuration.getBuildMode() == BuildMode.PARALLEL) {
+				ParallelInstantiator.instantiateAll(context, configuration.getExecutor());
+			}
+
+			objects = instantiateRootBeans(context);
+		} catch (InvalidContextException ex) {
+			throw abandonBuild(Collections.<Exception>singletonList(ex), lifecycleRunner, LifecycleRunner.getDestroySteps(context, false));
+		}
+
+		initialize(context, lifecycleRunner);
+		context.deferredInitialization = false;
+
+		return objects;
+	}
+
+	/**
+	 * Invokes the init methods of the instantiated singletons of a context, concurrently for beans that do not depend on
+	 * each other. If any fails, every singleton instantiated by this build is destroyed before the build is abandoned.
+	 * @param context Context whose singletons have been instantiated
+	 * @param lifecycleRunner Runner of the init methods
+	 * @throws InvalidContextException If any init method failed or did not complete in time
+	 */
+	private static void initialize(final ContextDefinition context, final LifecycleRunner lifecycleRunner) throws InvalidContextException {
+		final List<Exception> failures = lifecycleRunner.run(LifecycleRunner.getInitSteps(context), true);
+
+		if (failures.isEmpty()) {
+			return;
+		}
+
+		throw abandonBuild(failures, lifecycleRunner, LifecycleRunner.getDestroySteps(context, false));
+	}
+
+	/**
+	 * Destroys the objects of a build that failed, as they may hold resources that nobody could release once the build
+	 * is abandoned.
+	 * @param failures Failures that caused the build to fail, of which there is at least one
+	 * @param lifecycleRunner Runner of the destroy methods
+	 * @param destroySteps Destroy methods of the objects created so far
+	 * @return Exception reporting the first failure, to which the other failures, and those of the destroy methods, are added as suppressed exceptions
+	 */
+	private static InvalidContextException abandonBuild(final List<Exception> failures, final LifecycleRunner lifecycleRunner, final List<LifecycleRunner.Step> destroySteps) {
+		final Exception cause = failures.get(0);
+		final InvalidContextException exception = new InvalidContextException(cause.getMessage(), (cause.getCause() != null) ? cause.getCause() : cause);
+
+		for (int i = 1; i < failures.size(); i++) {
+			exception.addSuppressed(failures.get(i));
+		}
+
+		for (final Exception failure : lifecycleRunner.run(destroySteps, false)) {
+			exception.addSuppressed(failure);
+		}
+
+		return exception;
+	}
+
+	/**
+	 * Gathers the objects of a build to warm up, being the singletons that declare a warm-up method or are Warmable. The
+	 * instances a reload adopted from the previous context were warmed up by the build that created them.
+	 * @param objects Root level objects in the order in which they were declared
+	 * @param context Parsed context whose singletons have been instantiated, or null if the objects were decoded
+	 * @param deadlineNanos Value of System.nanoTime after which no warm-up method is invoked any more
+	 * @return Warm-up of each object, in the order in which the objects were declared
+	 */
+	private static List<WarmUpTask> collectWarmUpTasks(final List<Object> objects, final ContextDefinition context, final long deadlineNanos) {
+		final List<WarmUpTask> warmUpTasks = new ArrayList<WarmUpTask>();
+
+		if (context == null) {
+			for (int i = 0; i < objects.size(); i++) {
+				if (objects.get(i) instanceof Warmable) {
+					warmUpTasks.add(new WarmUpTask(objects.get(i), null, "root level object #" + (i + 1), null, deadlineNanos));
+				}
+			}
+		} else {
+			for (final BeanHolder bean : context.getAllBeans()) {
+				if ((bean.scope == Scope.SINGLETON) && bean.isCreated() && !bean.isReused() && WarmUpTask.isWarmable(bean)) {
+					warmUpTasks.add(new WarmUpTask(bean.getInstanceIfCreated(), bean.getWarmUpMethod(), bean.toString(), bean.id, deadlineNanos));
+				}
+			}
+		}
+
+		return warmUpTasks;
+	}
+
+	/**
+	 * Runs the warm-up of every object concurrently. The objects are already initialized, so they need not wait for each
+	 * other. If any warm-up fails, the objects instantiated by this build are destroyed before it is abandoned.
+	 * @param warmUpTasks Warm-up of each object, which is empty if no object is to be warmed up
+	 * @param configuration Options that control how the container is built
+	 * @param context Parsed context whose singletons have been instantiated, or null if the objects were decoded
+	 * @throws InvalidContextException If any warm-up method failed, or did not return within the lifecycle timeout past the warm-up budget
+	 */
+	private void warmUp(final List<WarmUpTask> warmUpTasks, final ContainerConfiguration configuration, final ContextDefinition context) throws InvalidContextException {
+		if (warmUpTasks.isEmpty()) {
+			return;
+		}
+
+		final LifecycleRunner warmUpRunner = new LifecycleRunner(configuration.getExecutor(), configuration.getWarmUpBudgetMillis() + configuration.getLifecycleTimeoutMillis());
+		final List<Exception> failures = warmUpRunner.run(LifecycleRunner.getIndependentSteps(warmUpTasks), true);
+
+		if (!failures.isEmpty()) {
+			throw abandonBuild(failures, this.lifecycleRunner, (context == null) ? this.destroySteps : LifecycleRunner.getDestroySteps(context, false));
+		}
+	}
+
+	/**
+	 * Maps objects to the single source that declared them all.
+	 * @param objects Root level objects
+	 * @param sourceName Name of the source, or null if it is unnamed
+	 * @return Names of the sources keyed by the identity of the objects
+	 */
+	private static Map<Object, String> mapSources(final List<Object> objects, final String sourceName) {
+		final Map<Object, String> sources = new IdentityHashMap<Object, String>();
+
+		if (sourceName != null) {
+			for (final Object object : objects) {
+				sources.put(object, sourceName);
+			}
+		}
+
+		return sources;
+	}
+
+	/**
+	 * Maps the instantiated root level beans of a parsed context to the source that declared them.
+	 * @param context Parsed context
+	 * @return Names of the sources keyed by the identity of the objects, which is empty in the LAZY mode
+	 */
+	private static Map<Object, String> mapSources(final ContextDefinition context) {
+		final Map<Object, String> sources = new IdentityHashMap<Object, String>();
+
+		for (final BeanHolder bean : context.getRootBeans()) {
+			final Object instance = bean.getInstanceIfCreated();
+
+			if ((instance != null) && (bean.source != null) && !sources.containsKey(instance)) {
+				sources.put(instance, bean.source);
+			}
+		}
+
+		return sources;
+	}
+
+	/**
+	 * Maps the ids of the root level beans of a parsed context to their instances, or, for beans instantiated on lookup,
+	 * to the beans.
+	 * @param context Parsed context
+	 * @param lazy Whether the singletons are instantiated on lookup
+	 * @return Instances, or beans that are instantiated on lookup, keyed by id
+	 */
+	private static Map<String, Object> mapIds(final ContextDefinition context, final boolean lazy) {
+		final Map<String, Object> objectsById = new HashMap<String, Object>();
+
+		for (final BeanHolder bean : context.getRootBeans()) {
+			final Object object = (lazy || (bean.scope != Scope.SINGLETON)) ? bean : bean.getInstanceIfCreated();
+
+			if ((bean.id != null) && (object != null)) {
+				objectsById.put(bean.id, object);
+			}
+		}
+
+		return objectsById;
+	}
+
+	/**
+	 * Gets the class loader by which the classes named in a context are loaded, which, as for XMLDecoder, is the context
+	 * class loader of the current thread if there is one.
+	 * @return Class loader to load the classes named in a context with
+	 */
+	static ClassLoader getContextClassLoader() {
+		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+		return (classLoader != null) ? classLoader : DefaultContainerImpl.class.getClassLoader();
+	}
+
+	/**
+	 * Determines the declared type of root level beans up front, so that classes missing from the classpath are reported
+	 * while the container is built rather than on lookup.
+	 * @param context Context whose root level beans to inspect
+	 * @param scopedOnly Whether to skip the singletons, as they are instantiated while the container is built
+	 * @throws InvalidContextException If the type of a bean could not be determined
+	 */
+	private static void resolveDeclaredTypes(final ContextDefinition context, final boolean scopedOnly) throws InvalidContextException {
+		for (final BeanHolder bean : context.getRootBeans()) {
+			if (scopedOnly && (bean.scope == Scope.SINGLETON)) {
+				continue;
+			}
+
+			try {
+				bean.getDeclaredType();
+			} catch (Exception ex) {
+				throw new InvalidContextException("Unable to determine the type of " + bean + ".", ex);
+			}
 		}
-		
-		final InputStream inputStream = DefaultContainerImpl.class.getResourceAsStream(classPathContextPath);
-		
-		this.processObjects(inputStream);
 	}
 
 	/**
-	 * Constructs a new DefaultContainerImpl based on a XML context provided in the input stream.
-	 * @param inputStream Input containing the XML content representing the context configuration
-	 * @throws InvalidContextException If the context XML could not be interpreted
+	 * Instantiates every root level singleton of a parsed context that has not been instantiated yet, in document order.
+	 * @param context Context whose root level beans to instantiate
+	 * @return Root level singletons by ascending priority, then in the order in which they were declared in the context, leaving out null values
+	 * @throws InvalidContextException If any bean could not be instantiated
 	 */
-	public DefaultContainerImpl(final InputStream inputStream) throws InvalidContextException {
-		if (inputStream == null) {
-			throw new InvalidContextException("Context file must be valid.");
+	private static List<Object> instantiateRootBeans(final ContextDefinition context) throws InvalidContextException {
+		final List<BeanHolder> singletons = new ArrayList<BeanHolder>(context.getRootBeans().size());
+
+		for (final BeanHolder bean : context.getRootBeans()) {
+			if (bean.scope != Scope.SINGLETON) {
+				continue;
+			}
+
+			try {
+				bean.getInstance();
+			} catch (ObjectInstantiationException ex) {
+				throw new InvalidContextException(ex.getMessage(), ex.getCause());
+			}
+
+			singletons.add(bean);
+		}
+
+		// The type index keeps this order for every type, so sorting once here spares every lookup from sorting
+		Collections.sort(singletons, BeanHolder.PRIORITY_ORDER);
+
+		final List<Object> objects = new ArrayList<Object>(singletons.size());
+
+		for (final BeanHolder bean : singletons) {
+			final Object object = bean.getInstanceIfCreated();
+
+			if (object != null) {
+				objects.add(object);
+			}
 		}
 
-		this.processObjects(inputStream);
+		return objects;
 	}
 
 	/**
-	 * Processes a context and discovers the root level objects inside.
+	 * Processes a context and discovers the root level objects inside. XMLDecoder reports attributes it does not know to
+	 * its exception listener and carries on, so an attribute only the definition based build modes understand is
+	 * recorded while decoding, and rejected once the context has been read.
 	 * @param inputStream Input containing the XML content representing the context configuration
-	 * @throws InvalidContextException If the context XML could not be interpreted
+	 * @param sourceName Name of the context, or null if it is unnamed
+	 * @param recorder Recorder timing each root level object, or null if no timings are collected
+	 * @param beanStatistics Timings of the root level objects, to which the timings are added
+	 * @param listener Observer told about each root level object, or null
+	 * @return Root level objects in the order in which they were declared in the context
+	 * @throws InvalidContextException If the context XML could not be interpreted, or an element declares a scope, lifecycle method or priority
 	 */
-	private void processObjects(final InputStream inputStream) throws InvalidContextException {
+	private List<Object> processObjects(final InputStream inputStream, final String sourceName, final StatisticsRecorder recorder, final List<ContainerStatistics.BeanStatistics> beanStatistics, final ContainerListener listener) throws InvalidContextException {
 		final XMLDecoder xmlDecoder = new XMLDecoder(inputStream, this);
+		final ExceptionListener defaultExceptionListener = xmlDecoder.getExceptionListener();
+		final String[] unsupportedAttribute = new String[1];
+		final List<Object> objects = new ArrayList<Object>();
+
+		xmlDecoder.setExceptionListener(new ExceptionListener() {
+			@Override
+			public void exceptionThrown(final Exception ex) {
+				for (final String attribute : DEFINITION_ONLY_ATTRIBUTES) {
+					if ((ex instanceof IllegalArgumentException) && ("Unsupported attribute: " + attribute).equals(ex.getMessage())) {
+						if (unsupportedAttribute[0] == null) {
+							unsupportedAttribute[0] = attribute;
+						}
+
+						return;
+					}
+				}
+
+				defaultExceptionListener.exceptionThrown(ex);
+			}
+		});
 
 		boolean anotherObjectMightBeAvailable = true;
 		
 		while (anotherObjectMightBeAvailable) {
-			anotherObjectMightBeAvailable = this.attemptSingleObjectExtraction(xmlDecoder);
+			final StatisticsRecorder.BeanRecord record = (recorder == null) ? null : recorder.startBean();
+			final Object token = (listener == null) ? null : listener.beanStarting();
+			final int objectCount = objects.size();
+
+			anotherObjectMightBeAvailable = this.attemptSingleObjectExtraction(xmlDecoder, objects);
+
+			if ((token != null) && (objects.size() > objectCount)) {
+				listener.beanFinished(token, null, objects.get(objectCount).getClass().getName());
+			}
+
+			if (record != null) {
+				if (objects.size() > objectCount) {
+					beanStatistics.add(recorder.finishBean(record, "root level object #" + objects.size(), null, objects.get(objectCount)));
+				} else {
+					recorder.abandonBean(record);
+				}
+			}
 		}
 
 		xmlDecoder.close();
+
+		if (unsupportedAttribute[0] != null) {
+			throw new InvalidContextException("Attribute '" + unsupportedAttribute[0] + "' is not supported by the XML_DECODER build mode, but declared in "
+					+ ((sourceName == null) ? "the context." : sourceName + "."));
+		}
+		
+		return objects;
 	}
 
 	/**
 	 * Attempts the extraction of a single object from the XML decoder.
 	 * @param xmlDecoder Decoder from which to attempt to extract the object
+	 * @param objects Objects extracted so far, to which the extracted object is added
 	 * @return truth of whether another object might be available
 	 */
-	private boolean attemptSingleObjectExtraction(final XMLDecoder xmlDecoder) {
+	private boolean attemptSingleObjectExtraction(final XMLDecoder xmlDecoder, final List<Object> objects) {
 		Object object = null;
 		
 		try {
@@ -102,46 +922,225 @@ public class DefaultContainerImpl implements Container {
 		}
 
 		if (object != null) {
-			catalogObject(object);
+			objects.add(object);
 		}
 		
 		return (object != null);
 	}
 
 	/**
-	 * Catalogs a single object in the objects structure for all determined interfaces that it implements.
-	 * @param object Object to catalog
+	 * Finds the root level beans of the lazy context whose declared type is assignable to a type.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Matching beans by ascending priority, then in the order in which they were declared in the context
 	 */
-	private void catalogObject(final Object object) {
-		final Class objectClass = object.getClass();
-		final Class[] interfaces = objectClass.getInterfaces();
+	private BeanHolder[] findLazyCandidates(final Class<?> classOrInterface) {
+		final List<BeanHolder> candidates = new ArrayList<BeanHolder>();
 
-		for (final Class interfaceClass : interfaces) {
-			if (this.objects.containsKey(interfaceClass)) {
-				final Object existingObject = this.objects.get(interfaceClass);
+		for (final BeanHolder bean : this.lazyContext.getRootBeans()) {
+			final Class<?> declaredType = getResolvedDeclaredType(bean);
+
+			if ((bean.scope == Scope.SINGLETON) && (declaredType != null) && classOrInterface.isAssignableFrom(declaredType)) {
+				candidates.add(bean);
 			}
-			
-			this.storeObjectForType(object, interfaceClass);
 		}
+
+		Collections.sort(candidates, BeanHolder.PRIORITY_ORDER);
+
+		return candidates.toArray(new BeanHolder[candidates.size()]);
+	}
+
+	/**
+	 * Gets the declared type of a root level bean, which was resolved while the container was built.
+	 * @param bean Bean to inspect
+	 * @return Declared type of the bean
+	 */
+	private static Class<?> getResolvedDeclaredType(final BeanHolder bean) {
+		try {
+			return bean.getDeclaredType();
+		} catch (Exception ex) {
+			throw new IllegalStateException("Declared type of " + bean + " must have been resolved while building.", ex);
+		}
+	}
+
+	/**
+	 * Resolves the entry holding every object assignable to a type.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Entry for the type, which is empty if no object is assignable to it
+	 */
+	private TypeIndexEntry resolve(final Class<?> classOrInterface) {
+		final TypeIndexEntry entry = this.typeIndex.get(classOrInterface);
 		
-		this.storeObjectForType(object, object.getClass());
+		return (entry != null) ? entry : this.resolutionCache.get(classOrInterface);
+	}
+
+	/**
+	 * Determines whether the lookups of this container always return the same objects, which holds unless it has a parent
+	 * whose lookups may change.
+	 * @return Whether the results of the lookups of this container may be cached by its children
+	 */
+	private boolean isHierarchyImmutable() {
+		return (this.parent == null) || this.parentImmutable;
+	}
+
+	/**
+	 * Resolves the entry holding every object assignable to a type, including those of the parent container if there is one.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Entry for the type, which is empty if no object is assignable to it
+	 */
+	private TypeIndexEntry resolveInHierarchy(final Class<?> classOrInterface) {
+		if (this.parent == null) {
+			return this.resolve(classOrInterface);
+		}
+
+		return this.parentImmutable ? this.hierarchyCache.get(classOrInterface) : this.resolveHierarchy(classOrInterface);
+	}
+
+	/**
+	 * Merges the objects of this container assignable to a type with those of the parent container. The unique instance
+	 * is taken from this container if it holds any such object, and from the parent otherwise.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Entry for the type, which is empty if no object of either container is assignable to it
+	 */
+	private TypeIndexEntry resolveHierarchy(final Class<?> classOrInterface) {
+		final TypeIndexEntry localEntry = this.resolve(classOrInterface);
+		final List<?> parentInstances;
+
+		try {
+			parentInstances = this.parent.getObjectsThatImplement(classOrInterface);
+		} catch (InvalidInterfaceException ex) {
+			throw new IllegalStateException("Parent container rejected " + classOrInterface.getName() + ".", ex);
+		}
+
+		if (parentInstances.isEmpty()) {
+			return localEntry;
+		}
+
+		final Object[] instances = new Object[localEntry.size() + parentInstances.size()];
+
+		for (int i = 0; i < localEntry.size(); i++) {
+			instances[i] = localEntry.get(i);
+		}
+
+		for (int i = 0; i < parentInstances.size(); i++) {
+			instances[localEntry.size() + i] = parentInstances.get(i);
+		}
+
+		return new TypeIndexEntry(instances, localEntry.isEmpty() ? this.getParentUniqueInstance(classOrInterface) : localEntry.uniqueInstance);
+	}
+
+	/**
+	 * Resolves the index of the objects carrying an annotation, including those of the parent container if there is one.
+	 * @param annotationType Annotation to resolve
+	 * @return Index of the annotated objects by every type they are assignable to
+	 */
+	private TypeIndex resolveAnnotated(final Class<? extends Annotation> annotationType) {
+		if ((this.parent != null) && !this.parentImmutable) {
+			return this.resolveAnnotatedHierarchy(annotationType);
+		}
+
+		if ((this.parent != null) || (this.lazyContext != null)) {
+			return this.annotationCache.get(annotationType);
+		}
+
+		final TypeIndex index = this.annotationIndex.get(annotationType);
+
+		return (index != null) ? index : TypeIndex.EMPTY;
+	}
+
+	/**
+	 * Indexes the objects of this container carrying an annotation, followed by those of the parent container. In the
+	 * LAZY mode, every root level bean whose declared type carries the annotation is instantiated.
+	 * @param annotationType Annotation to resolve
+	 * @return Index of the annotated objects by every type they are assignable to
+	 */
+	private TypeIndex resolveAnnotatedHierarchy(final Class<? extends Annotation> annotationType) {
+		final List<Object> annotatedObjects = new ArrayList<Object>();
+
+		if (this.lazyContext != null) {
+			for (final BeanHolder bean : this.lazyCandidates.get(Object.class)) {
+				if (getResolvedDeclaredType(bean).isAnnotationPresent(annotationType)) {
+					final Object instance = bean.getInstance();
+
+					if (instance != null) {
+						annotatedObjects.add(instance);
+					}
+				}
+			}
+		} else if (this.annotationIndex.containsKey(annotationType)) {
+			annotatedObjects.addAll(this.annotationIndex.get(annotationType).get(Object.class));
+		}
+
+		if (this.parent != null) {
+			try {
+				annotatedObjects.addAll(this.parent.getObjectsAnnotatedWith(annotationType));
+			} catch (InvalidInterfaceException ex) {
+				throw new IllegalStateException("Parent container rejected " + annotationType.getName() + ".", ex);
+			}
+		}
+
+		return annotatedObjects.isEmpty() ? TypeIndex.EMPTY : TypeIndex.build(annotatedObjects);
+	}
+
+	/**
+	 * Gets the object of the parent container returned by a lookup of a single instance of a type.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Object instance, null if the parent holds no implementation, or AMBIGUOUS if it holds several
+	 */
+	private Object getParentUniqueInstance(final Class<?> classOrInterface) {
+		try {
+			return this.parent.getObjectThatImplementsOrNull(classOrInterface);
+		} catch (AmbiguousInterfaceException ex) {
+			return TypeIndexEntry.AMBIGUOUS;
+		} catch (InvalidInterfaceException ex) {
+			throw new IllegalStateException("Parent container rejected " + classOrInterface.getName() + ".", ex);
+		}
 	}
 
 	/**
-	 * Stores a single object for a specific type into the objects structure.
-	 * @param object Object to store
-	 * @param classOrInterface Class or interface under which it should be cataloged
+	 * Resolves a type that is absent from the type index by checking the assignability of every object once, or, in lazy
+	 * mode, by instantiating every bean whose declared type is assignable to it.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Entry for the type, which is empty if no object is assignable to it
 	 */
-	private void storeObjectForType(final Object object, Class<?> classOrInterface) {
-		if (!this.objects.containsKey(classOrInterface)) {
-			this.objects.put(classOrInterface, new IdentityHashMap<Object, Object>());
+	private TypeIndexEntry resolveUnindexedType(final Class<?> classOrInterface) {
+		if (this.lazyContext != null) {
+			return this.instantiateLazyCandidates(classOrInterface);
+		}
+
+		final TypeIndexEntry allObjects = this.typeIndex.get(Object.class);
+		
+		if (allObjects == null) {
+			return TypeIndexEntry.EMPTY;
 		}
 		
-		final Map<Object, Object> currentObjectMap = this.objects.get(classOrInterface);
+		final List<Object> assignableObjects = new ArrayList<Object>();
+		
+		for (final Object object : allObjects) {
+			if (classOrInterface.isInstance(object)) {
+				assignableObjects.add(object);
+			}
+		}
 		
-		if (!currentObjectMap.containsKey(object)) {
-			currentObjectMap.put(object, object);
+		return assignableObjects.isEmpty() ? TypeIndexEntry.EMPTY : new TypeIndexEntry(assignableObjects.toArray());
+	}
+
+	/**
+	 * Instantiates every root level bean of the lazy context whose declared type is assignable to a type.
+	 * @param classOrInterface Class or interface to resolve
+	 * @return Entry for the type, which is empty if no object is assignable to it
+	 */
+	private TypeIndexEntry instantiateLazyCandidates(final Class<?> classOrInterface) {
+		final List<Object> instances = new ArrayList<Object>();
+
+		for (final BeanHolder bean : this.lazyCandidates.get(classOrInterface)) {
+			final Object instance = bean.getInstance();
+
+			if (instance != null) {
+				instances.add(instance);
+			}
 		}
+
+		return instances.isEmpty() ? TypeIndexEntry.EMPTY : new TypeIndexEntry(instances.toArray());
 	}
 
 	/**
@@ -153,24 +1152,39 @@ public class DefaultContainerImpl implements Container {
 			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
 		}
 		
-		T objectInstance = null;
+		final Object token = (this.lookupListener == null) ? null : this.startSampledLookup(classOrInterfaceToExtract);
+		final Object uniqueInstance = ((this.lazyContext != null) && (this.parent == null)) ? this.getLazyObjectThatImplementsOrNull(classOrInterfaceToExtract)
+				: this.resolveInHierarchy(classOrInterfaceToExtract).uniqueInstance;
 
-		final Map<Object, Object> objectMap = this.objects.get(classOrInterfaceToExtract);
-		
-		if (objectMap == null) {
-			return null;			
+		if (token != null) {
+			this.lookupListener.lookupFinished(token, classOrInterfaceToExtract, "getObjectThatImplementsOrNull", uniqueInstance != null);
+		}
+
+		if (this.lookupMetrics != null) {
+			this.lookupMetrics.recordSingleLookup(classOrInterfaceToExtract, uniqueInstance);
 		}
 		
-		if (objectMap.size() > 1) {
+		if (uniqueInstance == TypeIndexEntry.AMBIGUOUS) {
 			final String errorMessage = "Unable to locate unique object instance for class or interface '" + classOrInterfaceToExtract.getName() + "'.";
 			throw new AmbiguousInterfaceException(errorMessage);
 		}
 
-		if (!objectMap.isEmpty()) {
-			objectInstance = (T) new ArrayList<Object>(objectMap.values()).get(0);
+		return (T) uniqueInstance;
+	}
+
+	/**
+	 * Gets the only root level bean of the lazy context assignable to a type, instantiating it on first request.
+	 * @param classOrInterfaceToExtract Class or interface for which to obtain an implementation
+	 * @return Object instance, null if there is no implementer of the interface, or AMBIGUOUS if several beans are assignable to the type
+	 */
+	private Object getLazyObjectThatImplementsOrNull(final Class<?> classOrInterfaceToExtract) {
+		final BeanHolder[] candidates = this.lazyCandidates.get(classOrInterfaceToExtract);
+
+		if (candidates.length > 1) {
+			return TypeIndexEntry.AMBIGUOUS;
 		}
 
-		return objectInstance;
+		return (candidates.length == 0) ? null : candidates[0].getInstance();
 	}
 
 	/**
@@ -182,15 +1196,81 @@ public class DefaultContainerImpl implements Container {
 			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
 		}
 
-		final List<T> objectsList = new ArrayList<T>();
-		
-		final Map<Object, Object> objectMap = this.objects.get(classOrInterfaceToExtract);
-		
-		if (objectMap != null) {
-			objectsList.addAll((Collection<T>)objectMap.values());
+		final Object token = (this.lookupListener == null) ? null : this.startSampledLookup(classOrInterfaceToExtract);
+		final List<Object> instanceList = this.resolveInHierarchy(classOrInterfaceToExtract);
+
+		if (token != null) {
+			this.lookupListener.lookupFinished(token, classOrInterfaceToExtract, "getObjectsThatImplement", !instanceList.isEmpty());
+		}
+
+		if (this.lookupMetrics != null) {
+			this.lookupMetrics.recordMultipleLookup(classOrInterfaceToExtract, !instanceList.isEmpty());
+		}
+
+		return (List<T>) instanceList;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsThatImplement(java.lang.Class, java.lang.Class)
+	 */
+	public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract, final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		checkAnnotationType(annotationType);
+
+		return (List<T>) this.getAnnotatedObjects(classOrInterfaceToExtract, annotationType, classOrInterfaceToExtract, "getObjectsThatImplement");
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsAnnotatedWith(java.lang.Class)
+	 */
+	public List<Object> getObjectsAnnotatedWith(final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		checkAnnotationType(annotationType);
+
+		return this.getAnnotatedObjects(Object.class, annotationType, annotationType, "getObjectsAnnotatedWith");
+	}
+
+	/**
+	 * Gets the objects carrying an annotation that are assignable to a type, reporting the lookup to the listener and
+	 * the counters of lookups.
+	 * @param classOrInterface Class or interface the objects must be assignable to
+	 * @param annotationType Annotation the class of the objects must carry
+	 * @param lookedUpType Type under which the lookup is reported
+	 * @param methodName Name of the Container method reported to the listener
+	 * @return Unmodifiable list of the objects
+	 */
+	private List<Object> getAnnotatedObjects(final Class<?> classOrInterface, final Class<? extends Annotation> annotationType, final Class<?> lookedUpType, final String methodName) {
+		final Object token = (this.lookupListener == null) ? null : this.startSampledLookup(lookedUpType);
+		final TypeIndexEntry entry = this.resolveAnnotated(annotationType).get(classOrInterface);
+		final List<Object> instanceList = (entry != null) ? entry : TypeIndexEntry.EMPTY;
+
+		if (token != null) {
+			this.lookupListener.lookupFinished(token, lookedUpType, methodName, !instanceList.isEmpty());
+		}
+
+		if (this.lookupMetrics != null) {
+			this.lookupMetrics.recordMultipleLookup(lookedUpType, !instanceList.isEmpty());
+		}
+
+		return instanceList;
+	}
+
+	/**
+	 * Checks that a type requested as annotation of the objects is one.
+	 * @param annotationType Requested annotation type
+	 * @throws InvalidInterfaceException If the annotation type is null or not an annotation
+	 */
+	static void checkAnnotationType(final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		if (annotationType == null) {
+			throw new InvalidInterfaceException("annotationType may not be null");
+		}
+
+		if (!annotationType.isAnnotation()) {
+			throw new InvalidInterfaceException("'" + annotationType.getName() + "' is not an annotation type.");
 		}
-		
-		return objectsList;
 	}
 
 	/**
@@ -202,7 +1282,158 @@ public class DefaultContainerImpl implements Container {
 			throw new InvalidInterfaceException("classOrInterface may not be null");
 		}
 
-		// TODO - Optimize this implementation to not use getObjectsThatImplement
-		return !this.getObjectsThatImplement(classOrInterface).isEmpty();
+		final Object token = (this.lookupListener == null) ? null : this.startSampledLookup(classOrInterface);
+		final boolean found = ((this.lazyContext != null) && (this.parent == null)) ? (this.lazyCandidates.get(classOrInterface).length != 0)
+				: !this.resolveInHierarchy(classOrInterface).isEmpty();
+
+		if (token != null) {
+			this.lookupListener.lookupFinished(token, classOrInterface, "containsObjectThatImplements", found);
+		}
+
+		if (this.lookupMetrics != null) {
+			this.lookupMetrics.recordContainsLookup(classOrInterface, found);
+		}
+
+		return found;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectById(java.lang.String, java.lang.Class)
+	 */
+	public <T> T getObjectById(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		Object object = this.objectsById.get(id);
+
+		if (object instanceof BeanHolder) {
+			if (((BeanHolder) object).pool != null) {
+				throw new InvalidInterfaceException("Object '" + id + "' is pooled, so its instances must be borrowed through getObjectPool.");
+			}
+
+			object = ((BeanHolder) object).getInstance();
+		}
+
+		if (object == null) {
+			return (this.parent == null) ? null : this.parent.getObjectById(id, classOrInterfaceToExtract);
+		}
+
+		if (!classOrInterfaceToExtract.isInstance(object)) {
+			throw new InvalidInterfaceException("Object '" + id + "' of class " + object.getClass().getName() + " does not implement '" + classOrInterfaceToExtract.getName() + "'.");
+		}
+
+		return (T) object;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectPool(java.lang.String, java.lang.Class)
+	 */
+	public <T> ObjectPool<T> getObjectPool(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		final Object object = this.objectsById.get(id);
+
+		if (object == null) {
+			return (this.parent == null) ? null : this.parent.getObjectPool(id, classOrInterfaceToExtract);
+		}
+
+		if (!(object instanceof BeanHolder) || (((BeanHolder) object).pool == null)) {
+			throw new InvalidInterfaceException("Object '" + id + "' is not pooled.");
+		}
+
+		final Class<?> declaredType = getResolvedDeclaredType((BeanHolder) object);
+
+		if ((declaredType == null) || !classOrInterfaceToExtract.isAssignableFrom(declaredType)) {
+			throw new InvalidInterfaceException("Object '" + id + "' of type " + ((declaredType == null) ? "null" : declaredType.getName()) + " does not implement '" + classOrInterfaceToExtract.getName() + "'.");
+		}
+
+		return (ObjectPool<T>) (ObjectPool<?>) ((BeanHolder) object).pool;
+	}
+
+	/**
+	 * Tells the lookup listener about a lookup if it is chosen at the sampling interval.
+	 * @param classOrInterface Looked up type
+	 * @return Token handed to the listener once the lookup is made, or null if the lookup is not reported
+	 */
+	private Object startSampledLookup(final Class<?> classOrInterface) {
+		if ((this.lookupSamplingInterval != 1) && (ThreadLocalRandom.current().nextInt(this.lookupSamplingInterval) != 0)) {
+			return null;
+		}
+
+		return this.lookupListener.lookupStarting(classOrInterface);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getSourceOf(java.lang.Object)
+	 */
+	public String getSourceOf(final Object object) {
+		final String source = this.getLocalSourceOf(object);
+
+		return ((source == null) && (this.parent != null)) ? this.parent.getSourceOf(object) : source;
+	}
+
+	/**
+	 * Gets the name of the source that declared a root level object of this container, ignoring its parent.
+	 * @param object Object obtained from the container
+	 * @return Name of the source, or null if it is unknown
+	 */
+	private String getLocalSourceOf(final Object object) {
+		if (this.lazyContext != null) {
+			for (final BeanHolder bean : this.lazyContext.getRootBeans()) {
+				if ((bean.getInstanceIfCreated() == object) && (object != null)) {
+					return bean.source;
+				}
+			}
+
+			return null;
+		}
+
+		return this.objectSources.get(object);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getStatistics()
+	 */
+	public ContainerStatistics getStatistics() {
+		if ((this.statistics == null) || (this.lazyContext == null)) {
+			return this.statistics;
+		}
+
+		return new ContainerStatistics(this.statistics.getDecodeTimeNanos(), this.statistics.getInstantiationTimeNanos(), this.statistics.getIndexTimeNanos(),
+				this.statistics.getTotalTimeNanos(), this.statistics.getAllocatedBytes(), collectBeanStatistics(this.lazyContext));
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getLookupStatistics()
+	 */
+	public LookupStatistics getLookupStatistics() {
+		return (this.lookupMetrics == null) ? null : this.lookupMetrics.snapshot();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getParent()
+	 */
+	public Container getParent() {
+		return this.parent;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#close()
+	 */
+	public void close() throws LifecycleException {
+		if (!this.closed.compareAndSet(false, true)) {
+			return;
+		}
+
+		final List<Exception> failures = this.lifecycleRunner.run((this.lazyContext != null) ? LifecycleRunner.getDestroySteps(this.lazyContext, true) : this.destroySteps, false);
+
+		if (!failures.isEmpty()) {
+			throw LifecycleRunner.toLifecycleException(failures);
+		}
 	}
 }
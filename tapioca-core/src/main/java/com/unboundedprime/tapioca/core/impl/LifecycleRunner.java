@@ -0,0 +1,717 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Invokes the init or destroy methods of objects, each as soon as the methods it waits for have completed, so that a
+ * slow method only holds back the objects that depend on it. A method still running once its timeout expires, counted
+ * from the moment it started, is interrupted and reported as failed, but the methods waiting for it only start once it
+ * has returned.
+ */
+final class LifecycleRunner {
+
+	/**
+	 * Executor on which the methods are invoked, or null to start a thread per method that finds no idle thread, as
+	 * lifecycle methods tend to block on I/O rather than use the processor.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Longest time in milliseconds a method may take.
+	 */
+	private final long timeoutMillis;
+
+	/**
+	 * Constructs a new LifecycleRunner.
+	 * @param executor Executor on which the methods are invoked, or null to use a pool private to each run
+	 * @param timeoutMillis Longest time in milliseconds a method may take
+	 */
+	LifecycleRunner(final Executor executor, final long timeoutMillis) {
+		this.executor = executor;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Lifecycle method of an object, and the steps that must complete before it may start.
+	 */
+	static final class Step {
+
+		/**
+		 * Method to invoke.
+		 */
+		private final Callable<Object> method;
+
+		/**
+		 * Steps that must complete before this one starts.
+		 */
+		private final List<Step> prerequisites = new ArrayList<Step>();
+
+		/**
+		 * Constructs a new Step without prerequisites.
+		 * @param method Method to invoke
+		 */
+		Step(final Callable<Object> method) {
+			this.method = method;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return this.method.toString();
+		}
+	}
+
+	/**
+	 * Gathers the init methods still to be invoked on the singletons of a context, so that every singleton is initialized
+	 * after each singleton it depends on, directly or through beans without init method.
+	 * @param context Validated context whose singletons have been created
+	 * @return Steps of init methods, in the order in which the beans were declared
+	 */
+	static List<Step> getInitSteps(final ContextDefinition context) {
+		final Map<BeanHolder, Step> steps = new IdentityHashMap<BeanHolder, Step>();
+		final List<Step> orderedSteps = new ArrayList<Step>();
+
+		for (final BeanHolder bean : context.getAllBeans()) {
+			if ((bean.scope == Scope.SINGLETON) && bean.needsInitialization()) {
+				final Step step = new Step(new Callable<Object>() {
+					public Object call() {
+						bean.initialize();
+						return null;
+					}
+
+					@Override
+					public String toString() {
+						return "init method of " + bean;
+					}
+				});
+
+				steps.put(bean, step);
+				orderedSteps.add(step);
+			}
+		}
+
+		final Map<BeanHolder, Set<BeanHolder>> reachedSteps = new HashMap<BeanHolder, Set<BeanHolder>>();
+
+		for (final BeanHolder bean : context.getAllBeans()) {
+			final Step step = steps.get(bean);
+
+			if (step != null) {
+				for (final BeanHolder dependency : getNearestDependencies(bean, steps, reachedSteps)) {
+					step.prerequisites.add(steps.get(dependency));
+				}
+			}
+		}
+
+		return orderedSteps;
+	}
+
+	/**
+	 * Gathers the destroy methods of the created singletons of a context, so that every singleton is destroyed after
+	 * each singleton that depends on it.
+	 * @param context Validated context
+	 * @param includeReused Whether to include the instances adopted from a previous context, which is still using them if the build is abandoned
+	 * @return Steps of destroy methods, in the reverse order in which the beans were declared
+	 */
+	static List<Step> getDestroySteps(final ContextDefinition context, final boolean includeReused) {
+		final List<BeanHolder> beans = new ArrayList<BeanHolder>();
+
+		for (final BeanHolder bean : context.getAllBeans()) {
+			if (bean.needsDestruction() && (includeReused || !bean.isReused())) {
+				beans.add(bean);
+			}
+		}
+
+		return toDestroySteps(beans);
+	}
+
+	/**
+	 * Gathers the destroy methods of the created singletons of a context replaced by a reload, leaving out the instances
+	 * the new context adopted, so that every singleton is destroyed after each singleton that depends on it.
+	 * @param previous Context replaced by the reload
+	 * @param next Context now in use, whose beans may have adopted instances of the previous context
+	 * @return Steps of destroy methods, in the reverse order in which the beans were declared
+	 */
+	static List<Step> getReplacedDestroySteps(final ContextDefinition previous, final ContextDefinition next) {
+		final Map<Object, Object> adoptedInstances = new IdentityHashMap<Object, Object>();
+
+		for (final BeanHolder bean : next.getAllBeans()) {
+			if (bean.isReused()) {
+				adoptedInstances.put(bean.getInstanceIfCreated(), bean);
+			}
+		}
+
+		final List<BeanHolder> beans = new ArrayList<BeanHolder>();
+
+		for (final BeanHolder bean : previous.getAllBeans()) {
+			if (bean.needsDestruction() && !adoptedInstances.containsKey(bean.getInstanceIfCreated())) {
+				beans.add(bean);
+			}
+		}
+
+		return toDestroySteps(beans);
+	}
+
+	/**
+	 * Chains the destroy methods of singletons so that every singleton is destroyed after each singleton that depends on
+	 * it, directly or through beans that are not destroyed.
+	 * @param beans Singletons to destroy
+	 * @return Steps of destroy methods, in the reverse order of the given beans
+	 */
+	private static List<Step> toDestroySteps(final List<BeanHolder> beans) {
+		final Map<BeanHolder, Step> steps = new IdentityHashMap<BeanHolder, Step>();
+		final List<Step> orderedSteps = new ArrayList<Step>();
+
+		for (int i = beans.size() - 1; i >= 0; i--) {
+			final BeanHolder bean = beans.get(i);
+			final Step step = new Step(new Callable<Object>() {
+				public Object call() throws LifecycleException {
+					bean.destroy();
+					return null;
+				}
+
+				@Override
+				public String toString() {
+					return "destroy method of " + bean;
+				}
+			});
+
+			steps.put(bean, step);
+			orderedSteps.add(step);
+		}
+
+		final Map<BeanHolder, Set<BeanHolder>> reachedSteps = new HashMap<BeanHolder, Set<BeanHolder>>();
+
+		for (int i = beans.size() - 1; i >= 0; i--) {
+			for (final BeanHolder dependency : getNearestDependencies(beans.get(i), steps, reachedSteps)) {
+				steps.get(dependency).prerequisites.add(steps.get(beans.get(i)));
+			}
+		}
+
+		return orderedSteps;
+	}
+
+	/**
+	 * Gathers the AutoCloseable objects among objects whose dependencies are unknown, in reverse order, each waiting for
+	 * the one before it, so that an object is closed before any object declared before it.
+	 * @param objects Root level objects in the order in which they were declared
+	 * @return Steps closing one object each, in the order in which they run
+	 */
+	static List<Step> getCloseSteps(final List<Object> objects) {
+		final List<Step> steps = new ArrayList<Step>();
+
+		for (int i = objects.size() - 1; i >= 0; i--) {
+			if (objects.get(i) instanceof AutoCloseable) {
+				final AutoCloseable closeable = (AutoCloseable) objects.get(i);
+				final String description = "root level object #" + (i + 1);
+				final Step step = new Step(new Callable<Object>() {
+					public Object call() throws LifecycleException {
+						try {
+							closeable.close();
+						} catch (Exception ex) {
+							throw new LifecycleException("Unable to destroy " + description + ".", ex);
+						}
+
+						return null;
+					}
+
+					@Override
+					public String toString() {
+						return "close method of " + description;
+					}
+				});
+
+				if (!steps.isEmpty()) {
+					step.prerequisites.add(steps.get(steps.size() - 1));
+				}
+
+				steps.add(step);
+			}
+		}
+
+		return steps;
+	}
+
+	/**
+	 * Turns methods that do not depend on each other into steps, which all start at once.
+	 * @param methods Methods to invoke
+	 * @return Steps without prerequisites, in the order of the methods
+	 */
+	static List<Step> getIndependentSteps(final List<? extends Callable<Object>> methods) {
+		final List<Step> steps = new ArrayList<Step>(methods.size());
+
+		for (final Callable<Object> method : methods) {
+			steps.add(new Step(method));
+		}
+
+		return steps;
+	}
+
+	/**
+	 * Finds the beans holding a step that a bean depends on, directly or only through beans holding no step.
+	 * @param bean Bean to inspect, which is part of a context free of circular references
+	 * @param steps Steps keyed by their bean
+	 * @param reachedSteps Beans found so far for the beans holding no step, to which those met are added
+	 * @return Beans holding a step that are reached from the bean, in the order of its references
+	 */
+	private static Set<BeanHolder> getNearestDependencies(final BeanHolder bean, final Map<BeanHolder, Step> steps, final Map<BeanHolder, Set<BeanHolder>> reachedSteps) {
+		final Set<BeanHolder> dependencies = new LinkedHashSet<BeanHolder>();
+
+		for (final BeanHolder dependency : bean.dependencies) {
+			if (steps.containsKey(dependency)) {
+				dependencies.add(dependency);
+			} else {
+				Set<BeanHolder> reached = reachedSteps.get(dependency);
+
+				if (reached == null) {
+					reached = getNearestDependencies(dependency, steps, reachedSteps);
+					reachedSteps.put(dependency, reached);
+				}
+
+				dependencies.addAll(reached);
+			}
+		}
+
+		return dependencies;
+	}
+
+	/**
+	 * Runs lifecycle methods, starting each as soon as every step it waits for has returned. Failed methods release the
+	 * steps waiting for them as well, unless the run stops on failure. A timed out method is interrupted, and only
+	 * releases the steps waiting for it once it has returned. Whatever the outcome, the run returns once no method it
+	 * started is still running.
+	 * @param steps Steps of methods, whose prerequisites are all part of the steps
+	 * @param stopOnFailure Whether to start no further method once a method failed
+	 * @return Failures of the methods, in the order in which they were detected, which is empty if every method succeeded
+	 */
+	List<Exception> run(final List<Step> steps, final boolean stopOnFailure) {
+		final List<Exception> failures = new ArrayList<Exception>();
+
+		if (steps.isEmpty()) {
+			return failures;
+		}
+
+		final ExecutorService privateExecutor = (this.executor == null) ? createPrivateExecutor() : null;
+
+		try {
+			new Run(steps, (privateExecutor != null) ? privateExecutor : this.executor, stopOnFailure, failures).await();
+		} finally {
+			if (privateExecutor != null) {
+				privateExecutor.shutdownNow();
+			}
+		}
+
+		return failures;
+	}
+
+	/**
+	 * Creates a pool starting a daemon thread for every method that finds no idle thread, used by a run when no executor
+	 * is configured.
+	 * @return New executor, which must be shut down by the caller
+	 */
+	private static ExecutorService createPrivateExecutor() {
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, "tapioca-lifecycle-" + this.threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Invocation of the method of a step, which reports to its run both when it starts and once it has returned.
+	 */
+	private static final class StepTask extends FutureTask<Object> {
+
+		/**
+		 * Step whose method is invoked.
+		 */
+		private final Step step;
+
+		/**
+		 * Queue of the run, to which the task adds itself when it starts and when it has returned.
+		 */
+		private final BlockingQueue<StepTask> events;
+
+		/**
+		 * Number of prerequisites that have not returned yet, only accessed by the thread of the run.
+		 */
+		private int pendingPrerequisites;
+
+		/**
+		 * Whether the run handled the return of the task, or withdrew it, only accessed by the thread of the run.
+		 */
+		private boolean finished;
+
+		/**
+		 * Whether the run cancelled the method as it did not return in time, only accessed by the thread of the run.
+		 */
+		private boolean timedOut;
+
+		/**
+		 * Whether the run withdrew the task before it started, in which case it never invokes its method.
+		 */
+		private boolean withdrawn;
+
+		/**
+		 * Moment in nanoseconds at which the method started, published by started.
+		 */
+		private long startNanos;
+
+		/**
+		 * Whether the method started.
+		 */
+		private volatile boolean started;
+
+		/**
+		 * Whether the task returned, whatever its outcome.
+		 */
+		private volatile boolean returned;
+
+		/**
+		 * Constructs a new StepTask.
+		 * @param step Step whose method is invoked
+		 * @param events Queue of the run
+		 */
+		StepTask(final Step step, final BlockingQueue<StepTask> events) {
+			super(step.method);
+			this.step = step;
+			this.events = events;
+			this.pendingPrerequisites = step.prerequisites.size();
+		}
+
+		/**
+		 * @see java.util.concurrent.FutureTask#run()
+		 */
+		@Override
+		public void run() {
+			synchronized (this) {
+				if (this.withdrawn) {
+					return;
+				}
+
+				this.startNanos = System.nanoTime();
+				this.started = true;
+			}
+
+			this.events.add(this);
+
+			try {
+				super.run();
+			} finally {
+				this.returned = true;
+				this.events.add(this);
+			}
+		}
+
+		/**
+		 * Prevents the method from starting, unless it already has.
+		 * @return Whether the task was withdrawn before it started
+		 */
+		synchronized boolean withdraw() {
+			if (!this.started) {
+				this.withdrawn = true;
+			}
+
+			return this.withdrawn;
+		}
+	}
+
+	/**
+	 * Single run of lifecycle methods, whose state is only accessed by the thread awaiting it.
+	 */
+	private final class Run {
+
+		/**
+		 * Executor on which the methods are invoked.
+		 */
+		private final Executor runExecutor;
+
+		/**
+		 * Whether to start no further method once a method failed.
+		 */
+		private final boolean stopOnFailure;
+
+		/**
+		 * Failures detected so far.
+		 */
+		private final List<Exception> failures;
+
+		/**
+		 * Queue to which the tasks add themselves when they start and once they have returned.
+		 */
+		private final BlockingQueue<StepTask> events = new LinkedBlockingQueue<StepTask>();
+
+		/**
+		 * Tasks of the steps waiting for each step.
+		 */
+		private final Map<Step, List<StepTask>> dependentTasks = new IdentityHashMap<Step, List<StepTask>>();
+
+		/**
+		 * Tasks whose prerequisites have all returned, and which are yet to be submitted.
+		 */
+		private final Deque<StepTask> readyTasks = new ArrayDeque<StepTask>();
+
+		/**
+		 * Tasks submitted to the executor that have not been finished yet.
+		 */
+		private final List<StepTask> submittedTasks = new ArrayList<StepTask>();
+
+		/**
+		 * Whether the thread awaiting the run was interrupted.
+		 */
+		private boolean interrupted;
+
+		/**
+		 * Constructs a new Run.
+		 * @param steps Steps of methods
+		 * @param runExecutor Executor on which the methods are invoked
+		 * @param stopOnFailure Whether to start no further method once a method failed
+		 * @param failures List to which the failures are added
+		 */
+		Run(final List<Step> steps, final Executor runExecutor, final boolean stopOnFailure, final List<Exception> failures) {
+			this.runExecutor = runExecutor;
+			this.stopOnFailure = stopOnFailure;
+			this.failures = failures;
+
+			final Map<Step, StepTask> tasks = new IdentityHashMap<Step, StepTask>();
+
+			for (final Step step : steps) {
+				tasks.put(step, new StepTask(step, this.events));
+				this.dependentTasks.put(step, new ArrayList<StepTask>());
+			}
+
+			for (final Step step : steps) {
+				for (final Step prerequisite : step.prerequisites) {
+					this.dependentTasks.get(prerequisite).add(tasks.get(step));
+				}
+
+				if (step.prerequisites.isEmpty()) {
+					this.readyTasks.add(tasks.get(step));
+				}
+			}
+		}
+
+		/**
+		 * Determines whether no further method may start.
+		 * @return Whether the run was interrupted, or stops on failure and a method failed
+		 */
+		private boolean isStopping() {
+			return this.interrupted || (this.stopOnFailure && !this.failures.isEmpty());
+		}
+
+		/**
+		 * Starts the ready methods and waits until every started method has returned, or been withdrawn before starting.
+		 */
+		void await() {
+			final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(LifecycleRunner.this.timeoutMillis);
+
+			while (true) {
+				while (!this.readyTasks.isEmpty() && !this.isStopping()) {
+					this.submit(this.readyTasks.poll());
+				}
+
+				if (this.isStopping()) {
+					this.withdrawUnstartedTasks();
+				}
+
+				if (this.submittedTasks.isEmpty()) {
+					break;
+				}
+
+				try {
+					final long waitNanos = this.getNanosUntilFirstTimeout(timeoutNanos);
+					final StepTask event = (waitNanos < 0) ? this.events.take() : this.events.poll(waitNanos, TimeUnit.NANOSECONDS);
+
+					if (event != null) {
+						this.handle(event);
+
+						for (StepTask nextEvent = this.events.poll(); nextEvent != null; nextEvent = this.events.poll()) {
+							this.handle(nextEvent);
+						}
+					}
+				} catch (InterruptedException ex) {
+					if (!this.interrupted) {
+						this.interrupted = true;
+						this.failures.add(ex);
+
+						for (final StepTask task : this.submittedTasks) {
+							task.cancel(true);
+						}
+					}
+				}
+
+				this.cancelLateTasks(timeoutNanos);
+			}
+
+			if (this.interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/**
+		 * Submits a task to the executor, or records its rejection as a failure.
+		 * @param task Task whose prerequisites have all returned
+		 */
+		private void submit(final StepTask task) {
+			this.submittedTasks.add(task);
+
+			try {
+				this.runExecutor.execute(task);
+			} catch (RejectedExecutionException ex) {
+				this.failures.add(new LifecycleException("The executor rejected the " + task.step + ".", ex));
+				this.finish(task);
+			}
+		}
+
+		/**
+		 * Handles a task that started or returned.
+		 * @param task Task that added itself to the queue
+		 */
+		private void handle(final StepTask task) {
+			if (!task.returned || task.finished) {
+				return;
+			}
+
+			if (!task.timedOut && !task.isCancelled()) {
+				try {
+					task.get();
+				} catch (ExecutionException ex) {
+					this.failures.add((ex.getCause() instanceof Exception) ? (Exception) ex.getCause() : ex);
+				} catch (InterruptedException ex) {
+					// The task has returned, so its outcome is available without waiting
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			this.finish(task);
+		}
+
+		/**
+		 * Marks a task as finished, and makes the tasks waiting for it ready once they wait for nothing else.
+		 * @param task Task that returned, or never will run
+		 */
+		private void finish(final StepTask task) {
+			task.finished = true;
+			this.submittedTasks.remove(task);
+
+			for (final StepTask dependentTask : this.dependentTasks.get(task.step)) {
+				if (--dependentTask.pendingPrerequisites == 0) {
+					this.readyTasks.add(dependentTask);
+				}
+			}
+		}
+
+		/**
+		 * Withdraws the submitted tasks that have not started, so that they never invoke their method.
+		 */
+		private void withdrawUnstartedTasks() {
+			for (final Iterator<StepTask> iterator = this.submittedTasks.iterator(); iterator.hasNext();) {
+				final StepTask task = iterator.next();
+
+				if (task.withdraw()) {
+					task.finished = true;
+					iterator.remove();
+				}
+			}
+		}
+
+		/**
+		 * Determines how long the run may wait before the first running method exceeds its timeout.
+		 * @param timeoutNanos Longest time in nanoseconds a method may take
+		 * @return Time in nanoseconds, or a negative value if no running method is subject to a timeout
+		 */
+		private long getNanosUntilFirstTimeout(final long timeoutNanos) {
+			final long nowNanos = System.nanoTime();
+			long waitNanos = -1;
+
+			for (final StepTask task : this.submittedTasks) {
+				if (task.started && !task.timedOut && !task.isCancelled()) {
+					final long remainingNanos = Math.max(1, task.startNanos + timeoutNanos - nowNanos);
+					waitNanos = (waitNanos < 0) ? remainingNanos : Math.min(waitNanos, remainingNanos);
+				}
+			}
+
+			return waitNanos;
+		}
+
+		/**
+		 * Interrupts the running methods that exceeded their timeout, and records them as failed.
+		 * @param timeoutNanos Longest time in nanoseconds a method may take
+		 */
+		private void cancelLateTasks(final long timeoutNanos) {
+			final long nowNanos = System.nanoTime();
+
+			for (final StepTask task : this.submittedTasks) {
+				if (task.started && !task.timedOut && (nowNanos - task.startNanos >= timeoutNanos) && task.cancel(true)) {
+					task.timedOut = true;
+					this.failures.add(new TimeoutException("The " + task.step + " did not complete within " + LifecycleRunner.this.timeoutMillis + " ms."));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combines the failures of destroy methods into one exception.
+	 * @param failures Failures of destroy methods, of which there is at least one
+	 * @return Exception caused by the first failure, to which the others are added as suppressed exceptions
+	 */
+	static LifecycleException toLifecycleException(final List<Exception> failures) {
+		final Exception firstFailure = failures.get(0);
+		final LifecycleException exception = new LifecycleException((failures.size() == 1) ? firstFailure.getMessage()
+				: failures.size() + " objects could not be destroyed, the first because: " + firstFailure.getMessage(), firstFailure);
+
+		for (int i = 1; i < failures.size(); i++) {
+			exception.addSuppressed(failures.get(i));
+		}
+
+		return exception;
+	}
+}
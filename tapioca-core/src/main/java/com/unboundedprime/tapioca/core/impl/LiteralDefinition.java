@@ -0,0 +1,65 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+/**
+ * Definition of a constant value, declared by the string, primitive, class and null elements.
+ */
+final class LiteralDefinition extends ValueDefinition {
+
+	/**
+	 * Constant value.
+	 */
+	private final Object value;
+
+	/**
+	 * Constructs a new LiteralDefinition.
+	 * @param value Constant value, which may be null
+	 */
+	LiteralDefinition(final Object value) {
+		this.value = value;
+	}
+
+	@Override
+	Object evaluate(final ContextDefinition context) {
+		return this.value;
+	}
+
+	@Override
+	Class<?> getDeclaredType(final ContextDefinition context) {
+		return (this.value == null) ? null : this.value.getClass();
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (!(other instanceof LiteralDefinition)) {
+			return false;
+		}
+
+		final Object otherValue = ((LiteralDefinition) other).value;
+
+		return (this.value == null) ? (otherValue == null) : this.value.equals(otherValue);
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.value == null) ? 0 : this.value.hashCode();
+	}
+}
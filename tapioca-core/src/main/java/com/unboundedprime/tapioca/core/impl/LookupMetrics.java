@@ -0,0 +1,163 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.LookupStatistics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the lookups made on a container, kept per requested type in striped LongAdder cells so that concurrent
+ * lookups of the same type do not contend on a single counter.
+ */
+final class LookupMetrics {
+
+	/**
+	 * Counters of every type looked up so far, enumerated by a snapshot. Counters created by a lost race of the
+	 * ClassValue below stay at zero and are left out of the snapshot.
+	 */
+	private final Queue<TypeCounters> allCounters = new ConcurrentLinkedQueue<TypeCounters>();
+
+	/**
+	 * Counters of each type, held by the requested Class itself. The counters only name the type, so counting a type
+	 * never keeps its class loader alive.
+	 */
+	private final ClassValue<TypeCounters> counters = new ClassValue<TypeCounters>() {
+		@Override
+		protected TypeCounters computeValue(final Class<?> classOrInterface) {
+			final TypeCounters typeCounters = new TypeCounters(classOrInterface.getName());
+			LookupMetrics.this.allCounters.add(typeCounters);
+
+			return typeCounters;
+		}
+	};
+
+	/**
+	 * Counts a lookup of a single object.
+	 * @param classOrInterface Looked up type
+	 * @param uniqueInstance Object found, null if there is none, or AMBIGUOUS if there are several
+	 */
+	void recordSingleLookup(final Class<?> classOrInterface, final Object uniqueInstance) {
+		final TypeCounters typeCounters = this.counters.get(classOrInterface);
+		typeCounters.singleLookups.increment();
+
+		if (uniqueInstance == null) {
+			typeCounters.misses.increment();
+		} else if (uniqueInstance == TypeIndexEntry.AMBIGUOUS) {
+			typeCounters.ambiguities.increment();
+		}
+	}
+
+	/**
+	 * Counts a lookup of every object of a type.
+	 * @param classOrInterface Looked up type
+	 * @param found Whether any object was found
+	 */
+	void recordMultipleLookup(final Class<?> classOrInterface, final boolean found) {
+		final TypeCounters typeCounters = this.counters.get(classOrInterface);
+		typeCounters.multipleLookups.increment();
+
+		if (!found) {
+			typeCounters.misses.increment();
+		}
+	}
+
+	/**
+	 * Counts a check of the presence of an object of a type.
+	 * @param classOrInterface Looked up type
+	 * @param found Whether any object was found
+	 */
+	void recordContainsLookup(final Class<?> classOrInterface, final boolean found) {
+		final TypeCounters typeCounters = this.counters.get(classOrInterface);
+		typeCounters.containsLookups.increment();
+
+		if (!found) {
+			typeCounters.misses.increment();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the counters. Lookups made concurrently may be partially included.
+	 * @return Statistics of every type looked up so far
+	 */
+	LookupStatistics snapshot() {
+		final List<LookupStatistics.TypeLookupStatistics> typeStatistics = new ArrayList<LookupStatistics.TypeLookupStatistics>();
+
+		for (final TypeCounters typeCounters : this.allCounters) {
+			final long singleLookupCount = typeCounters.singleLookups.sum();
+			final long multipleLookupCount = typeCounters.multipleLookups.sum();
+			final long containsLookupCount = typeCounters.containsLookups.sum();
+
+			if ((singleLookupCount != 0) || (multipleLookupCount != 0) || (containsLookupCount != 0)) {
+				typeStatistics.add(new LookupStatistics.TypeLookupStatistics(typeCounters.typeName, singleLookupCount, multipleLookupCount, containsLookupCount,
+						typeCounters.misses.sum(), typeCounters.ambiguities.sum()));
+			}
+		}
+
+		return new LookupStatistics(typeStatistics);
+	}
+
+	/**
+	 * Counters of the lookups of a single type.
+	 */
+	private static final class TypeCounters {
+
+		/**
+		 * Fully qualified name of the looked up type.
+		 */
+		final String typeName;
+
+		/**
+		 * Number of lookups of a single object.
+		 */
+		final LongAdder singleLookups = new LongAdder();
+
+		/**
+		 * Number of lookups of every object.
+		 */
+		final LongAdder multipleLookups = new LongAdder();
+
+		/**
+		 * Number of checks of presence.
+		 */
+		final LongAdder containsLookups = new LongAdder();
+
+		/**
+		 * Number of lookups that found no object.
+		 */
+		final LongAdder misses = new LongAdder();
+
+		/**
+		 * Number of single object lookups that found several objects.
+		 */
+		final LongAdder ambiguities = new LongAdder();
+
+		/**
+		 * Constructs a new TypeCounters.
+		 * @param typeName Fully qualified name of the looked up type
+		 */
+		TypeCounters(final String typeName) {
+			this.typeName = typeName;
+		}
+	}
+}
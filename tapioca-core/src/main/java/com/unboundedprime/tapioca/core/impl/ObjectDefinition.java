@@ -0,0 +1,227 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Definition of an object, declared by the object element with a class attribute. The object is created by invoking a
+ * constructor, by invoking a static factory method if the method attribute is present, or by reading a static field if
+ * the field attribute is present, after which its statements are applied to it.
+ */
+final class ObjectDefinition extends ValueDefinition {
+
+	/**
+	 * Name of the class of the object.
+	 */
+	private final String className;
+
+	/**
+	 * Name of the static factory method, or null.
+	 */
+	private final String method;
+
+	/**
+	 * Name of the static field, or null.
+	 */
+	private final String field;
+
+	/**
+	 * Arguments passed to the constructor or the factory method.
+	 */
+	private final ValueDefinition[] arguments;
+
+	/**
+	 * Statements applied to the object once it has been created.
+	 */
+	private final StatementDefinition[] statements;
+
+	/**
+	 * Name of the method invoked once the object has been created and wired, or null.
+	 */
+	private final String initMethod;
+
+	/**
+	 * Name of the method invoked when the container is closed, or null.
+	 */
+	private final String destroyMethod;
+
+	/**
+	 * Name of the method invoked repeatedly to warm up the object before the container is ready, or null.
+	 */
+	private final String warmUpMethod;
+
+	/**
+	 * Rank of the object among the objects assignable to the same type, lower ranks coming first.
+	 */
+	private final int priority;
+
+	/**
+	 * Constructs a new ObjectDefinition.
+	 * @param className Name of the class of the object
+	 * @param method Name of the static factory method, or null
+	 * @param field Name of the static field, or null
+	 * @param arguments Arguments passed to the constructor or the factory method
+	 * @param statements Statements applied to the object once it has been created
+	 * @param initMethod Name of the method invoked once the object has been created and wired, or null
+	 * @param destroyMethod Name of the method invoked when the container is closed, or null
+	 * @param warmUpMethod Name of the method invoked repeatedly to warm up the object before the container is ready, or null
+	 * @param priority Rank of the object among the objects assignable to the same type, lower ranks coming first
+	 */
+	ObjectDefinition(final String className, final String method, final String field, final List<ValueDefinition> arguments, final List<StatementDefinition> statements,
+			final String initMethod, final String destroyMethod, final String warmUpMethod, final int priority) {
+		this.className = className;
+		this.method = method;
+		this.field = field;
+		this.arguments = arguments.toArray(new ValueDefinition[arguments.size()]);
+		this.statements = statements.toArray(new StatementDefinition[statements.size()]);
+		this.initMethod = initMethod;
+		this.destroyMethod = destroyMethod;
+		this.warmUpMethod = warmUpMethod;
+		this.priority = priority;
+	}
+
+	@Override
+	Object evaluate(final ContextDefinition context) throws Exception {
+		final Class<?> objectClass = context.loadClass(this.className);
+		final Object[] values = ValueDefinition.evaluateAll(this.arguments, context);
+		final Object object;
+
+		if (this.field != null) {
+			object = objectClass.getField(this.field).get(null);
+		} else if (this.method != null) {
+			final MethodHandle factoryMethod = ClassMetadata.forClass(objectClass).findMethod(this.method, values, true);
+
+			if (factoryMethod == null) {
+				throw new NoSuchMethodException("No static method " + this.className + "." + this.method + " accepts " + Arrays.deepToString(values) + ".");
+			}
+
+			object = ClassMetadata.invoke(factoryMethod, null, values);
+		} else {
+			final MethodHandle constructor = ClassMetadata.forClass(objectClass).findConstructor(values);
+
+			if (constructor == null) {
+				throw new NoSuchMethodException("No constructor of " + this.className + " accepts " + Arrays.deepToString(values) + ".");
+			}
+
+			object = ClassMetadata.invoke(constructor, null, values);
+		}
+
+		StatementDefinition.applyAll(this.statements, object, context);
+
+		return object;
+	}
+
+	@Override
+	Class<?> getDeclaredType(final ContextDefinition context) throws Exception {
+		final Class<?> objectClass = context.loadClass(this.className);
+
+		if (this.field != null) {
+			return objectClass.getField(this.field).getType();
+		}
+
+		if (this.method != null) {
+			return ReflectionUtils.getReturnType(objectClass, this.method, this.arguments.length);
+		}
+
+		return objectClass;
+	}
+
+	@Override
+	void collectReferences(final Collection<String> ids) {
+		ValueDefinition.collectReferences(Arrays.asList(this.arguments), ids);
+
+		for (final StatementDefinition statement : this.statements) {
+			statement.collectReferences(ids);
+		}
+	}
+
+	/**
+	 * Compares the definitions that create equal objects. The priority is left out, as it only places the object among
+	 * the others, so that a reload changing nothing but the priority reuses the instance.
+	 * @param other Object to compare with
+	 * @return Whether the other object is an equal definition
+	 */
+	@Override
+	public boolean equals(final Object other) {
+		if (!(other instanceof ObjectDefinition)) {
+			return false;
+		}
+
+		final ObjectDefinition otherDefinition = (ObjectDefinition) other;
+
+		return this.className.equals(otherDefinition.className)
+				&& ((this.method == null) ? (otherDefinition.method == null) : this.method.equals(otherDefinition.method))
+				&& ((this.field == null) ? (otherDefinition.field == null) : this.field.equals(otherDefinition.field))
+				&& Arrays.equals(this.arguments, otherDefinition.arguments)
+				&& Arrays.equals(this.statements, otherDefinition.statements)
+				&& ((this.initMethod == null) ? (otherDefinition.initMethod == null) : this.initMethod.equals(otherDefinition.initMethod))
+				&& ((this.destroyMethod == null) ? (otherDefinition.destroyMethod == null) : this.destroyMethod.equals(otherDefinition.destroyMethod))
+				&& ((this.warmUpMethod == null) ? (otherDefinition.warmUpMethod == null) : this.warmUpMethod.equals(otherDefinition.warmUpMethod));
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * this.className.hashCode() + Arrays.hashCode(this.arguments)) * 31 + Arrays.hashCode(this.statements);
+	}
+
+	/**
+	 * Gets the name of the class of the object.
+	 * @return Name of the class
+	 */
+	String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * Gets the name of the method invoked once the object has been created and wired.
+	 * @return Name of the init method, or null if none is declared
+	 */
+	String getInitMethod() {
+		return this.initMethod;
+	}
+
+	/**
+	 * Gets the name of the method invoked when the container is closed.
+	 * @return Name of the destroy method, or null if none is declared
+	 */
+	String getDestroyMethod() {
+		return this.destroyMethod;
+	}
+
+	/**
+	 * Gets the name of the method invoked repeatedly to warm up the object before the container is ready.
+	 * @return Name of the warm-up method, or null if none is declared
+	 */
+	String getWarmUpMethod() {
+		return this.warmUpMethod;
+	}
+
+	/**
+	 * Gets the rank of the object among the objects assignable to the same type.
+	 * @return Priority, zero if none is declared, lower ranks coming first
+	 */
+	int getPriority() {
+		return this.priority;
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ObjectHandle;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.List;
+
+/**
+ * Implementation of the ObjectHandle interface, whose method handle invokes a MutableCallSite targeting a constant. Only
+ * a container in this package may rebind it.
+ * @param <T> Type the object was resolved for
+ */
+public final class ObjectHandleImpl<T> implements ObjectHandle<T> {
+
+	/**
+	 * Type the object was resolved for.
+	 */
+	private final Class<T> type;
+
+	/**
+	 * Call site whose target returns the object.
+	 */
+	private final MutableCallSite callSite;
+
+	/**
+	 * Invoker of the target of the call site.
+	 */
+	private final MethodHandle invoker;
+
+	/**
+	 * Object the handle is bound to, or null. A plain field, so that get costs no more than any other field read.
+	 */
+	private T object;
+
+	/**
+	 * Constructs a new ObjectHandleImpl.
+	 * @param type Type the object was resolved for
+	 * @param object Object to bind the handle to, or null if the container holds no object of the type
+	 * @throws IllegalArgumentException If the type is null or primitive
+	 * @throws ClassCastException If the object is not of the type
+	 */
+	public ObjectHandleImpl(final Class<T> type, final T object) {
+		if ((type == null) || type.isPrimitive()) {
+			throw new IllegalArgumentException("type must be a class or interface.");
+		}
+
+		this.type = type;
+		this.callSite = new MutableCallSite(MethodHandles.constant(type, type.cast(object)));
+		this.invoker = this.callSite.dynamicInvoker();
+		this.object = object;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectHandle#get()
+	 */
+	public T get() {
+		return this.object;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectHandle#getType()
+	 */
+	public Class<T> getType() {
+		return this.type;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ObjectHandle#getMethodHandle()
+	 */
+	public MethodHandle getMethodHandle() {
+		return this.invoker;
+	}
+
+	/**
+	 * Binds handles to other objects at once. Every call site is retargeted before they are synchronized together, so
+	 * that the code which folded the previous objects is invalidated in a single pass rather than once per handle.
+	 * @param handles Handles to rebind
+	 * @param newObjects Object to bind each handle to, or null, in the order of the handles
+	 * @throws ClassCastException If an object is not of the type of its handle, in which case no handle is rebound
+	 */
+	static void rebindAll(final List<ObjectHandleImpl<Object>> handles, final List<Object> newObjects) {
+		final MutableCallSite[] callSites = new MutableCallSite[handles.size()];
+		final MethodHandle[] targets = new MethodHandle[handles.size()];
+
+		for (int i = 0; i < callSites.length; i++) {
+			final ObjectHandleImpl<Object> handle = handles.get(i);
+			callSites[i] = handle.callSite;
+			targets[i] = MethodHandles.constant(handle.type, handle.type.cast(newObjects.get(i)));
+		}
+
+		for (int i = 0; i < callSites.length; i++) {
+			callSites[i].setTarget(targets[i]);
+			handles.get(i).object = newObjects.get(i);
+		}
+
+		MutableCallSite.syncAll(callSites);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ObjectHandle(" + this.type.getName() + ")";
+	}
+}
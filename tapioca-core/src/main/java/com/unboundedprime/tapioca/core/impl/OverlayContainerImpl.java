@@ -0,0 +1,322 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import com.unboundedprime.tapioca.core.LookupStatistics;
+import com.unboundedprime.tapioca.core.ObjectHandle;
+import com.unboundedprime.tapioca.core.ObjectPool;
+import com.unboundedprime.tapioca.core.OverlayContainer;
+import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
+import com.unboundedprime.tapioca.core.exception.InvalidInterfaceException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of the OverlayContainer interface, which keeps the registered objects and their ids in two parallel
+ * arrays allocated on first registration. Lookups scan the registered objects and delegate to the shared container
+ * when none matches, so a lookup of a shared type costs a scan of a few objects on top of the shared lookup.
+ */
+public class OverlayContainerImpl implements OverlayContainer {
+
+	/**
+	 * Number of objects an overlay has room for when the first object is registered.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/**
+	 * Container to which every lookup falls through.
+	 */
+	private final Container sharedContainer;
+
+	/**
+	 * Registered objects in the order of registration, or null if none was registered yet.
+	 */
+	private Object[] objects;
+
+	/**
+	 * Id of each registered object, or null for an object registered without id.
+	 */
+	private String[] ids;
+
+	/**
+	 * Number of registered objects.
+	 */
+	private int size;
+
+	/**
+	 * Constructs a new OverlayContainerImpl.
+	 * @param sharedContainer Container to which every lookup falls through
+	 */
+	public OverlayContainerImpl(final Container sharedContainer) {
+		this.sharedContainer = sharedContainer;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.OverlayContainer#register(java.lang.Object)
+	 */
+	public OverlayContainer register(final Object object) {
+		if (object == null) {
+			throw new IllegalArgumentException("object may not be null");
+		}
+
+		this.add(null, object);
+
+		return this;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.OverlayContainer#register(java.lang.String, java.lang.Object)
+	 */
+	public OverlayContainer register(final String id, final Object object) {
+		if ((id == null) || (object == null)) {
+			throw new IllegalArgumentException("id and object may not be null");
+		}
+
+		this.add(id, object);
+
+		return this;
+	}
+
+	/**
+	 * Appends an object to the registered objects, growing the arrays if they are full.
+	 * @param id Id of the object, or null
+	 * @param object Object to register
+	 */
+	private void add(final String id, final Object object) {
+		if (this.objects == null) {
+			this.objects = new Object[INITIAL_CAPACITY];
+			this.ids = new String[INITIAL_CAPACITY];
+		} else if (this.size == this.objects.length) {
+			this.objects = Arrays.copyOf(this.objects, this.size * 2);
+			this.ids = Arrays.copyOf(this.ids, this.size * 2);
+		}
+
+		this.objects[this.size] = object;
+		this.ids[this.size] = id;
+		this.size++;
+	}
+
+	/**
+	 * Finds the first registered object that is an instance of a type.
+	 * @param classOrInterface Class or interface to match
+	 * @param start Index of the first registered object to inspect
+	 * @return Index of the matching object, or -1 if there is none
+	 */
+	private int indexOfInstance(final Class<?> classOrInterface, final int start) {
+		for (int i = start; i < this.size; i++) {
+			if (classOrInterface.isInstance(this.objects[i])) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectThatImplementsOrNull(java.lang.Class)
+	 */
+	public <T> T getObjectThatImplementsOrNull(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		final int index = this.indexOfInstance(classOrInterfaceToExtract, 0);
+
+		if (index < 0) {
+			return this.sharedContainer.getObjectThatImplementsOrNull(classOrInterfaceToExtract);
+		}
+
+		if (this.indexOfInstance(classOrInterfaceToExtract, index + 1) >= 0) {
+			throw new AmbiguousInterfaceException("Unable to locate unique object instance for class or interface '" + classOrInterfaceToExtract.getName() + "'.");
+		}
+
+		return classOrInterfaceToExtract.cast(this.objects[index]);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsThatImplement(java.lang.Class)
+	 */
+	public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		final List<T> sharedInstances = this.sharedContainer.getObjectsThatImplement(classOrInterfaceToExtract);
+		int index = this.indexOfInstance(classOrInterfaceToExtract, 0);
+
+		if (index < 0) {
+			return sharedInstances;
+		}
+
+		final List<T> instances = new ArrayList<T>(this.size + sharedInstances.size());
+
+		while (index >= 0) {
+			instances.add(classOrInterfaceToExtract.cast(this.objects[index]));
+			index = this.indexOfInstance(classOrInterfaceToExtract, index + 1);
+		}
+
+		instances.addAll(sharedInstances);
+
+		return Collections.unmodifiableList(instances);
+	}
+
+	/**
+	 * Registered objects are not indexed, so they are filtered on every call, while the objects of the shared container
+	 * come from its index.
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsThatImplement(java.lang.Class, java.lang.Class)
+	 */
+	public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract, final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		DefaultContainerImpl.checkAnnotationType(annotationType);
+
+		final List<T> sharedInstances = this.sharedContainer.getObjectsThatImplement(classOrInterfaceToExtract, annotationType);
+		List<T> instances = null;
+
+		for (int i = 0; i < this.size; i++) {
+			if (classOrInterfaceToExtract.isInstance(this.objects[i]) && this.objects[i].getClass().isAnnotationPresent(annotationType)) {
+				if (instances == null) {
+					instances = new ArrayList<T>(this.size + sharedInstances.size());
+				}
+
+				instances.add(classOrInterfaceToExtract.cast(this.objects[i]));
+			}
+		}
+
+		if (instances == null) {
+			return sharedInstances;
+		}
+
+		instances.addAll(sharedInstances);
+
+		return Collections.unmodifiableList(instances);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsAnnotatedWith(java.lang.Class)
+	 */
+	public List<Object> getObjectsAnnotatedWith(final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		return this.getObjectsThatImplement(Object.class, annotationType);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#containsObjectThatImplements(java.lang.Class)
+	 */
+	public <T> boolean containsObjectThatImplements(final Class<T> classOrInterface) throws InvalidInterfaceException {
+
+		if (classOrInterface == null) {
+			throw new InvalidInterfaceException("classOrInterface may not be null");
+		}
+
+		return (this.indexOfInstance(classOrInterface, 0) >= 0) || this.sharedContainer.containsObjectThatImplements(classOrInterface);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectById(java.lang.String, java.lang.Class)
+	 */
+	public <T> T getObjectById(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+
+		if (classOrInterfaceToExtract == null) {
+			throw new InvalidInterfaceException("classOrInterfaceToExtract may not be null");
+		}
+
+		for (int i = 0; (i < this.size) && (id != null); i++) {
+			if (id.equals(this.ids[i])) {
+				if (!classOrInterfaceToExtract.isInstance(this.objects[i])) {
+					throw new InvalidInterfaceException("Object '" + id + "' of class " + this.objects[i].getClass().getName() + " does not implement '" + classOrInterfaceToExtract.getName() + "'.");
+				}
+
+				return classOrInterfaceToExtract.cast(this.objects[i]);
+			}
+		}
+
+		return this.sharedContainer.getObjectById(id, classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectPool(java.lang.String, java.lang.Class)
+	 */
+	public <T> ObjectPool<T> getObjectPool(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		return this.sharedContainer.getObjectPool(id, classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getSourceOf(java.lang.Object)
+	 */
+	public String getSourceOf(final Object object) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.objects[i] == object) {
+				return null;
+			}
+		}
+
+		return this.sharedContainer.getSourceOf(object);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getStatistics()
+	 */
+	public ContainerStatistics getStatistics() {
+		return this.sharedContainer.getStatistics();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getLookupStatistics()
+	 */
+	public LookupStatistics getLookupStatistics() {
+		return this.sharedContainer.getLookupStatistics();
+	}
+
+	/**
+	 * Binds the handle to the object of the overlay or, if it holds none, of the shared container, so it only suits call
+	 * sites serving the request of the overlay.
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectHandle(java.lang.Class)
+	 */
+	public <T> ObjectHandle<T> getObjectHandle(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+		return OverlayContainer.super.getObjectHandle(classOrInterfaceToExtract);
+	}
+
+	/**
+	 * Gets the shared container, to which every lookup falls through.
+	 * @see com.unboundedprime.tapioca.core.Container#getParent()
+	 */
+	public Container getParent() {
+		return this.sharedContainer;
+	}
+
+	/**
+	 * Does nothing, as the registered objects belong to the caller and the shared container outlives the overlay.
+	 * @see com.unboundedprime.tapioca.core.Container#close()
+	 */
+	public void close() throws LifecycleException {
+		// Neither the registered objects nor the shared container are owned by the overlay
+	}
+}
@@ -0,0 +1,247 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.Scope;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantiates every bean of a context concurrently, following its idref dependency graph. A bean is submitted to the
+ * executor as soon as every bean it references has been instantiated, so its own instantiation never waits on another
+ * thread, and beans that are independent of each other are instantiated at the same time.
+ */
+final class ParallelInstantiator {
+
+	/**
+	 * Executor on which the beans are instantiated.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Beans referencing each bean, which become ready as the bean is instantiated.
+	 */
+	private final Map<BeanHolder, List<BeanHolder>> dependents = new HashMap<BeanHolder, List<BeanHolder>>();
+
+	/**
+	 * Number of beans each bean references that have not been instantiated yet.
+	 */
+	private final Map<BeanHolder, AtomicInteger> pendingDependencies = new HashMap<BeanHolder, AtomicInteger>();
+
+	/**
+	 * Number of beans that have not been instantiated yet.
+	 */
+	private final AtomicInteger remainingBeans;
+
+	/**
+	 * Number of instantiations submitted that have not completed yet, plus one while the first beans are being submitted.
+	 */
+	private final AtomicInteger runningTasks = new AtomicInteger();
+
+	/**
+	 * Released once every bean has been instantiated, or once any bean failed and no instantiation is running any more.
+	 */
+	private final CountDownLatch completion = new CountDownLatch(1);
+
+	/**
+	 * First failure, if any.
+	 */
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+	/**
+	 * Constructs a new ParallelInstantiator and records the dependency graph of the beans.
+	 * @param beans Every bean of the context, whose dependencies have been recorded by validation
+	 * @param executor Executor on which the beans are instantiated
+	 */
+	private ParallelInstantiator(final Collection<BeanHolder> beans, final Executor executor) {
+		this.executor = executor;
+		this.remainingBeans = new AtomicInteger(beans.size());
+
+		for (final BeanHolder bean : beans) {
+			this.dependents.put(bean, new ArrayList<BeanHolder>());
+			this.pendingDependencies.put(bean, new AtomicInteger(bean.dependencies.length));
+		}
+
+		for (final BeanHolder bean : beans) {
+			for (final BeanHolder dependency : bean.dependencies) {
+				this.dependents.get(dependency).add(bean);
+			}
+		}
+	}
+
+	/**
+	 * Instantiates every singleton of a validated context.
+	 * @param context Context whose beans to instantiate
+	 * @param executor Executor on which the beans are instantiated, or null to use a pool private to this call
+	 * @throws InvalidContextException If any bean could not be instantiated, or the build was interrupted
+	 */
+	static void instantiateAll(final ContextDefinition context, final Executor executor) throws InvalidContextException {
+		final Collection<BeanHolder> beans = new ArrayList<BeanHolder>();
+
+		// Scoped beans create their instances on demand, and no singleton may reference them
+		for (final BeanHolder bean : context.getAllBeans()) {
+			if (bean.scope == Scope.SINGLETON) {
+				beans.add(bean);
+			}
+		}
+
+		if (beans.isEmpty()) {
+			return;
+		}
+
+		final ExecutorService privateExecutor = (executor == null) ? createPrivateExecutor() : null;
+
+		try {
+			new ParallelInstantiator(beans, (executor == null) ? privateExecutor : executor).run(beans);
+		} finally {
+			if (privateExecutor != null) {
+				privateExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Creates a pool of one daemon thread per available processor, used by a build when no executor is configured.
+	 * @return New executor, which must be shut down by the caller
+	 */
+	static ExecutorService createPrivateExecutor() {
+		return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			public Thread newThread(final Runnable runnable) {
+				final Thread thread = new Thread(runnable, "tapioca-build-" + this.threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Submits every bean without dependencies, then waits for every bean to be instantiated. If any bean fails, no other
+	 * bean is submitted and the instantiations already running are waited for, so that every bean instantiated by the
+	 * build is known once this method returns.
+	 * @param beans Every bean of the context
+	 * @throws InvalidContextException If any bean could not be instantiated, or the build was interrupted
+	 */
+	private void run(final Collection<BeanHolder> beans) throws InvalidContextException {
+		// Keeps a failure of the first beans from releasing the build while others are still being submitted
+		this.runningTasks.incrementAndGet();
+
+		for (final BeanHolder bean : beans) {
+			if (bean.dependencies.length == 0) {
+				this.submit(bean);
+			}
+		}
+
+		this.completeTask();
+
+		try {
+			this.completion.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InvalidContextException("Interrupted while instantiating the context.", ex);
+		}
+
+		final Throwable cause = this.failure.get();
+
+		if (cause != null) {
+			throw new InvalidContextException(cause.getMessage(), (cause.getCause() != null) ? cause.getCause() : cause);
+		}
+	}
+
+	/**
+	 * Submits a bean whose dependencies have all been instantiated, unless a bean has already failed.
+	 * @param bean Bean to instantiate
+	 */
+	private void submit(final BeanHolder bean) {
+		if (this.failure.get() != null) {
+			return;
+		}
+
+		this.runningTasks.incrementAndGet();
+
+		try {
+			this.executor.execute(new Runnable() {
+				public void run() {
+					try {
+						ParallelInstantiator.this.instantiate(bean);
+					} finally {
+						ParallelInstantiator.this.completeTask();
+					}
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			this.fail(new InvalidContextException("The executor rejected the instantiation of " + bean + ".", ex));
+			this.completeTask();
+		}
+	}
+
+	/**
+	 * Instantiates a bean, then submits the beans referencing it that have become ready.
+	 * @param bean Bean to instantiate
+	 */
+	private void instantiate(final BeanHolder bean) {
+		try {
+			bean.getInstance();
+		} catch (Throwable throwable) {
+			this.fail(throwable);
+			return;
+		}
+
+		for (final BeanHolder dependent : this.dependents.get(bean)) {
+			if (this.pendingDependencies.get(dependent).decrementAndGet() == 0) {
+				this.submit(dependent);
+			}
+		}
+
+		if (this.remainingBeans.decrementAndGet() == 0) {
+			this.completion.countDown();
+		}
+	}
+
+	/**
+	 * Records a failure, which releases the waiting build once no instantiation is running any more.
+	 * @param throwable Failure, whose message and cause are reported
+	 */
+	private void fail(final Throwable throwable) {
+		this.failure.compareAndSet(null, throwable);
+	}
+
+	/**
+	 * Accounts for a completed instantiation, releasing the waiting build if it was the last one running after a failure.
+	 */
+	private void completeTask() {
+		if ((this.runningTasks.decrementAndGet() == 0) && (this.failure.get() != null)) {
+			this.completion.countDown();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.util.Collection;
+
+/**
+ * Definition of a reference to a bean, declared by an element carrying an idref attribute, or by any element carrying
+ * an id attribute, whose definition is then held by the bean of that id.
+ */
+final class ReferenceDefinition extends ValueDefinition {
+
+	/**
+	 * Id of the referenced bean.
+	 */
+	final String id;
+
+	/**
+	 * Constructs a new ReferenceDefinition.
+	 * @param id Id of the referenced bean
+	 */
+	ReferenceDefinition(final String id) {
+		this.id = id;
+	}
+
+	@Override
+	Object evaluate(final ContextDefinition context) throws Exception {
+		return context.getBean(this.id).getInstance();
+	}
+
+	@Override
+	Class<?> getDeclaredType(final ContextDefinition context) throws Exception {
+		return context.getBean(this.id).getDeclaredType();
+	}
+
+	@Override
+	void collectReferences(final Collection<String> ids) {
+		ids.add(this.id);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return (other instanceof ReferenceDefinition) && this.id.equals(((ReferenceDefinition) other).id);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.id.hashCode();
+	}
+}
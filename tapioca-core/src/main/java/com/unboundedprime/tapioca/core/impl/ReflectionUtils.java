@@ -0,0 +1,242 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utilities to resolve classes and members by the same rules java.beans.XMLDecoder applies.
+ */
+final class ReflectionUtils {
+
+	/**
+	 * Primitive types keyed by their names.
+	 */
+	private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<String, Class<?>>();
+
+	/**
+	 * Wrapper types keyed by the primitive type they wrap.
+	 */
+	private static final Map<Class<?>, Class<?>> WRAPPER_TYPES = new HashMap<Class<?>, Class<?>>();
+
+	static {
+		final Class<?>[][] primitiveAndWrapperTypes = {
+			{boolean.class, Boolean.class}, {byte.class, Byte.class}, {char.class, Character.class}, {short.class, Short.class},
+			{int.class, Integer.class}, {long.class, Long.class}, {float.class, Float.class}, {double.class, Double.class}, {void.class, Void.class}
+		};
+
+		for (final Class<?>[] primitiveAndWrapperType : primitiveAndWrapperTypes) {
+			PRIMITIVE_TYPES.put(primitiveAndWrapperType[0].getName(), primitiveAndWrapperType[0]);
+			WRAPPER_TYPES.put(primitiveAndWrapperType[0], primitiveAndWrapperType[1]);
+		}
+	}
+
+	/**
+	 * Loads a class by name, where the name may also denote a primitive type.
+	 * @param className Name of the class or primitive type
+	 * @param classLoader Class loader to load the class with
+	 * @param initialize Whether the class must be initialized
+	 * @return Loaded class
+	 * @throws ClassNotFoundException If the class does not exist
+	 */
+	static Class<?> loadClass(final String className, final ClassLoader classLoader, final boolean initialize) throws ClassNotFoundException {
+		final Class<?> primitiveType = PRIMITIVE_TYPES.get(className);
+
+		return (primitiveType != null) ? primitiveType : Class.forName(className, initialize, classLoader);
+	}
+
+	/**
+	 * Finds the most specific public constructor of a class that accepts a set of arguments.
+	 * @param objectClass Class to inspect
+	 * @param arguments Arguments to pass
+	 * @return Matching constructor, or null if there is none
+	 */
+	static Constructor<?> findConstructor(final Class<?> objectClass, final Object[] arguments) {
+		Constructor<?> bestMatch = null;
+
+		for (final Constructor<?> constructor : objectClass.getConstructors()) {
+			if (accepts(constructor.getParameterTypes(), arguments) && ((bestMatch == null) || isMoreSpecific(constructor.getParameterTypes(), bestMatch.getParameterTypes()))) {
+				bestMatch = constructor;
+			}
+		}
+
+		return bestMatch;
+	}
+
+	/**
+	 * Finds the most specific public method of a class that accepts a set of arguments.
+	 * @param objectClass Class to inspect
+	 * @param methodName Name of the method
+	 * @param arguments Arguments to pass
+	 * @param staticMethod Whether a static rather than an instance method is searched for
+	 * @return Matching method, which is declared by a public type so that it may be invoked, or null if there is none
+	 */
+	static Method findMethod(final Class<?> objectClass, final String methodName, final Object[] arguments, final boolean staticMethod) {
+		Method bestMatch = null;
+
+		for (final Method method : objectClass.getMethods()) {
+			if (method.getName().equals(methodName) && (Modifier.isStatic(method.getModifiers()) == staticMethod) && accepts(method.getParameterTypes(), arguments)
+					&& ((bestMatch == null) || isMoreSpecific(method.getParameterTypes(), bestMatch.getParameterTypes()))) {
+				bestMatch = method;
+			}
+		}
+
+		return (bestMatch == null) ? null : findAccessibleMethod(bestMatch);
+	}
+
+	/**
+	 * Determines the return type of a public static method without knowing its argument values.
+	 * @param objectClass Class to inspect
+	 * @param methodName Name of the method
+	 * @param argumentCount Number of arguments of the method
+	 * @return Return type shared by all overloads of that arity, or Object if they differ
+	 * @throws NoSuchMethodException If there is no such method
+	 */
+	static Class<?> getReturnType(final Class<?> objectClass, final String methodName, final int argumentCount) throws NoSuchMethodException {
+		Class<?> returnType = null;
+
+		for (final Method method : objectClass.getMethods()) {
+			if (method.getName().equals(methodName) && Modifier.isStatic(method.getModifiers()) && (method.getParameterTypes().length == argumentCount)) {
+				returnType = ((returnType == null) || (returnType == method.getReturnType())) ? method.getReturnType() : Object.class;
+			}
+		}
+
+		if (returnType == null) {
+			throw new NoSuchMethodException("No static method " + objectClass.getName() + "." + methodName + " accepts " + argumentCount + " argument(s).");
+		}
+
+		return returnType;
+	}
+
+	/**
+	 * Determines whether a parameter list accepts a set of arguments, treating primitive types and their wrappers alike.
+	 * @param parameterTypes Parameter types
+	 * @param arguments Arguments
+	 * @return truth of whether every argument may be passed as the corresponding parameter
+	 */
+	private static boolean accepts(final Class<?>[] parameterTypes, final Object[] arguments) {
+		if (parameterTypes.length != arguments.length) {
+			return false;
+		}
+
+		for (int index = 0; index < parameterTypes.length; index++) {
+			final Object argument = arguments[index];
+
+			if ((argument == null) ? parameterTypes[index].isPrimitive() : !wrap(parameterTypes[index]).isInstance(argument)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Determines whether a parameter list is more specific than another of the same length.
+	 * @param parameterTypes Parameter types of the candidate
+	 * @param otherParameterTypes Parameter types of the current best match
+	 * @return truth of whether every parameter type of the candidate is assignable to the other, and the lists differ
+	 */
+	private static boolean isMoreSpecific(final Class<?>[] parameterTypes, final Class<?>[] otherParameterTypes) {
+		boolean different = false;
+
+		for (int index = 0; index < parameterTypes.length; index++) {
+			if (!wrap(otherParameterTypes[index]).isAssignableFrom(wrap(parameterTypes[index]))) {
+				return false;
+			}
+
+			different |= (parameterTypes[index] != otherParameterTypes[index]);
+		}
+
+		return different;
+	}
+
+	/**
+	 * Gets the wrapper type of a primitive type.
+	 * @param type Type to wrap
+	 * @return Wrapper type if the type is primitive, the type itself otherwise
+	 */
+	private static Class<?> wrap(final Class<?> type) {
+		return type.isPrimitive() ? WRAPPER_TYPES.get(type) : type;
+	}
+
+	/**
+	 * Finds a declaration of a public method in a public type, because public methods of non-public classes may not be
+	 * invoked reflectively through the class itself.
+	 * @param method Method to find an accessible declaration of
+	 * @return The method itself if its declaring class is public, otherwise the same method declared by a public supertype
+	 */
+	private static Method findAccessibleMethod(final Method method) {
+		if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return method;
+		}
+
+		final Method accessibleMethod = findMethodInPublicSupertype(method.getDeclaringClass(), method.getName(), method.getParameterTypes());
+
+		return (accessibleMethod != null) ? accessibleMethod : method;
+	}
+
+	/**
+	 * Searches the supertypes of a type for a public declaration of a method.
+	 * @param type Type whose supertypes to search
+	 * @param methodName Name of the method
+	 * @param parameterTypes Parameter types of the method
+	 * @return Declaration of the method by a public supertype, or null if there is none
+	 */
+	private static Method findMethodInPublicSupertype(final Class<?> type, final String methodName, final Class<?>[] parameterTypes) {
+		final Class<?> superclass = type.getSuperclass();
+		final Class<?>[] interfaces = type.getInterfaces();
+		final Class<?>[] supertypes = new Class<?>[interfaces.length + 1];
+		System.arraycopy(interfaces, 0, supertypes, 0, interfaces.length);
+		supertypes[interfaces.length] = superclass;
+
+		for (final Class<?> supertype : supertypes) {
+			if (supertype == null) {
+				continue;
+			}
+
+			if (Modifier.isPublic(supertype.getModifiers())) {
+				try {
+					return supertype.getMethod(methodName, parameterTypes);
+				} catch (NoSuchMethodException ex) {
+					continue;
+				}
+			}
+
+			final Method method = findMethodInPublicSupertype(supertype, methodName, parameterTypes);
+
+			if (method != null) {
+				return method;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Prevents instantiation of a pure utility class.
+	 */
+	private ReflectionUtils() {
+		throw new UnsupportedOperationException("Instantiation of pure utility classes is not allowed.");
+	}
+}
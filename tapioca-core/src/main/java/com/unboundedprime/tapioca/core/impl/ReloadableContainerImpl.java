@@ -0,0 +1,495 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerConfiguration;
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import com.unboundedprime.tapioca.core.LookupStatistics;
+import com.unboundedprime.tapioca.core.ObjectHandle;
+import com.unboundedprime.tapioca.core.ObjectPool;
+import com.unboundedprime.tapioca.core.ReloadableContainer;
+import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import com.unboundedprime.tapioca.core.exception.InvalidInterfaceException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the ReloadableContainer interface, which watches its context file through a WatchService on a
+ * daemon thread. Every rebuild parses the file into a new context, adopts the unchanged instances of the previous
+ * context, and publishes a new DefaultContainerImpl through a volatile field, so a lookup costs a single volatile read
+ * on top of the lookup itself.
+ */
+public class ReloadableContainerImpl implements ReloadableContainer {
+
+	/**
+	 * Time during which further changes of the context file are awaited before rebuilding, so that a file written in
+	 * several steps is read once it is complete.
+	 */
+	private static final long SETTLE_TIME_MILLIS = 100;
+
+	/**
+	 * Absolute path of the context file.
+	 */
+	private final Path contextFile;
+
+	/**
+	 * Options that control how the container is built, applied to every rebuild.
+	 */
+	private final ContainerConfiguration configuration;
+
+	/**
+	 * Counters of the lookups shared by every rebuild, so that the counts survive a reload, or null if lookups are not counted.
+	 */
+	private final LookupMetrics lookupMetrics;
+
+	/**
+	 * Class loader used to load the classes named in the context, captured when the container was built.
+	 */
+	private final ClassLoader classLoader;
+
+	/**
+	 * Container holding the objects of the latest successful build.
+	 */
+	private volatile DefaultContainerImpl container;
+
+	/**
+	 * Context of the latest successful build, whose instances the next rebuild may reuse. Guarded by the reload lock.
+	 */
+	private ContextDefinition context;
+
+	/**
+	 * Number of successful rebuilds, only written while holding the reload lock.
+	 */
+	private volatile long reloadCount;
+
+	/**
+	 * Failure of the latest rebuild triggered by a change of the context file, or null.
+	 */
+	private volatile InvalidContextException lastReloadFailure;
+
+	/**
+	 * Runner of the destroy methods of the objects replaced by a rebuild, or created by a rebuild that is abandoned.
+	 */
+	private final LifecycleRunner lifecycleRunner;
+
+	/**
+	 * Lock serializing rebuilds.
+	 */
+	private final Object reloadLock = new Object();
+
+	/**
+	 * Lock guarding the handles and the swap of the container, only held briefly, so that handles are obtained without
+	 * waiting for a rebuild.
+	 */
+	private final Object handlesLock = new Object();
+
+	/**
+	 * Handles returned by getObjectHandle, rebound on every rebuild until they are garbage collected. Guarded by the
+	 * handles lock.
+	 */
+	private final List<WeakReference<ObjectHandleImpl<?>>> handles = new ArrayList<WeakReference<ObjectHandleImpl<?>>>();
+
+	/**
+	 * Watch on the directory of the context file.
+	 */
+	private final WatchService watchService;
+
+	/**
+	 * Daemon thread rebuilding the container when the context file changes.
+	 */
+	private final Thread watcher;
+
+	/**
+	 * Constructs a new ReloadableContainerImpl and starts watching its context file. Every build mode other than LAZY and
+	 * PARALLEL instantiates the objects as STREAMING does, because the instances of java.beans.XMLDecoder cannot be reused.
+	 * @param contextFile Path of the context XML file in the file system
+	 * @param configuration Options that control how the container is built, applied to every rebuild
+	 * @throws InvalidContextException If the context XML could not be read or interpreted, the file could not be watched, or an argument is null
+	 */
+	public ReloadableContainerImpl(final Path contextFile, final ContainerConfiguration configuration) throws InvalidContextException {
+		if (contextFile == null) {
+			throw new InvalidContextException("contextFile may not be null.");
+		}
+
+		if (configuration == null) {
+			throw new InvalidContextException("configuration may not be null.");
+		}
+
+		this.contextFile = contextFile.toAbsolutePath();
+		this.configuration = configuration;
+		this.lifecycleRunner = new LifecycleRunner(configuration.getExecutor(), configuration.getLifecycleTimeoutMillis());
+		this.lookupMetrics = DefaultContainerImpl.createLookupMetrics(configuration);
+		this.classLoader = DefaultContainerImpl.getContextClassLoader();
+		this.context = this.parse();
+		this.container = new DefaultContainerImpl(this.context, configuration, this.lookupMetrics);
+		this.watchService = this.watch();
+		this.watcher = new Thread(new Runnable() {
+			public void run() {
+				ReloadableContainerImpl.this.awaitChanges();
+			}
+		}, "tapioca-reload-" + this.contextFile.getFileName());
+		this.watcher.setDaemon(true);
+		this.watcher.start();
+	}
+
+	/**
+	 * Registers a watch on the directory of the context file.
+	 * @return Watch service receiving the changes of the directory
+	 * @throws InvalidContextException If the directory could not be watched
+	 */
+	private WatchService watch() throws InvalidContextException {
+		WatchService newWatchService = null;
+
+		try {
+			newWatchService = this.contextFile.getFileSystem().newWatchService();
+			this.contextFile.getParent().register(newWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+			return newWatchService;
+		} catch (IOException ex) {
+			closeQuietly(newWatchService);
+			throw new InvalidContextException("Unable to watch context '" + this.contextFile + "' for changes.", ex);
+		}
+	}
+
+	/**
+	 * Closes a watch service, ignoring any failure to do so.
+	 * @param watchService Watch service to close, which may be null
+	 */
+	private static void closeQuietly(final WatchService watchService) {
+		try {
+			if (watchService != null) {
+				watchService.close();
+			}
+		} catch (IOException ex) {
+			// The watch is abandoned anyway, so a failure to release it is irrelevant
+		}
+	}
+
+	/**
+	 * Parses and validates the context file.
+	 * @return Parsed context
+	 * @throws InvalidContextException If the context XML could not be read or interpreted
+	 */
+	private ContextDefinition parse() throws InvalidContextException {
+		final InputStream inputStream;
+
+		try {
+			inputStream = Files.newInputStream(this.contextFile);
+		} catch (IOException ex) {
+			throw new InvalidContextException("Context '" + this.contextFile + "' could not be read.", ex);
+		}
+
+		return ContextParser.parse(inputStream, this.contextFile.toString(), this.classLoader, this.configuration.getListener());
+	}
+
+	/**
+	 * Rebuilds the container each time the context file changes, until the watch service is closed.
+	 */
+	private void awaitChanges() {
+		try {
+			while (true) {
+				if (this.isContextFileChanged(this.watchService.take())) {
+					// Further changes of a file written in several steps are awaited, then handled by a single rebuild
+					WatchKey key;
+
+					while ((key = this.watchService.poll(SETTLE_TIME_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+						this.isContextFileChanged(key);
+					}
+
+					this.reloadAfterChange();
+				}
+			}
+		} catch (InterruptedException ex) {
+			// Interrupted by close
+		} catch (ClosedWatchServiceException ex) {
+			// Closed by close
+		}
+	}
+
+	/**
+	 * Consumes the events of a watch key and rearms it.
+	 * @param key Signalled watch key of the directory of the context file
+	 * @return Whether any event concerns the context file, or events may have been lost
+	 */
+	private boolean isContextFileChanged(final WatchKey key) {
+		boolean changed = false;
+
+		for (final WatchEvent<?> event : key.pollEvents()) {
+			if ((event.kind() == StandardWatchEventKinds.OVERFLOW) || this.contextFile.getFileName().equals(event.context())) {
+				changed = true;
+			}
+		}
+
+		key.reset();
+
+		return changed;
+	}
+
+	/**
+	 * Rebuilds the container after a change of the context file, recording the outcome.
+	 */
+	private void reloadAfterChange() {
+		try {
+			this.reload();
+			this.lastReloadFailure = null;
+		} catch (InvalidContextException ex) {
+			this.lastReloadFailure = ex;
+		} catch (RuntimeException ex) {
+			this.lastReloadFailure = new InvalidContextException("Unable to reload context '" + this.contextFile + "'.", ex);
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ReloadableContainer#reload()
+	 */
+	public void reload() throws InvalidContextException {
+		synchronized (this.reloadLock) {
+			final ContextDefinition newContext = this.parse();
+			newContext.reuseUnchangedInstances(this.context);
+
+			final DefaultContainerImpl newContainer = new DefaultContainerImpl(newContext, this.configuration, this.lookupMetrics);
+			final List<ObjectHandleImpl<Object>> liveHandles = new ArrayList<ObjectHandleImpl<Object>>();
+			final List<Object> newObjects = new ArrayList<Object>();
+
+			AmbiguousInterfaceException ambiguity = null;
+
+			// Handles obtained until the swap are resolved in the new build, those obtained after it from the new container
+			synchronized (this.handlesLock) {
+				try {
+					this.resolveHandles(newContainer, liveHandles, newObjects);
+					this.container = newContainer;
+				} catch (AmbiguousInterfaceException ex) {
+					ambiguity = ex;
+				}
+			}
+
+			if (ambiguity != null) {
+				this.lifecycleRunner.run(LifecycleRunner.getDestroySteps(newContext, false), false);
+				throw new InvalidContextException("Unable to reload context '" + this.contextFile + "', which no longer holds a unique object for a handle.", ambiguity);
+			}
+
+			final ContextDefinition previousContext = this.context;
+			this.context = newContext;
+			this.reloadCount++;
+
+			ObjectHandleImpl.rebindAll(liveHandles, newObjects);
+
+			final List<Exception> failures = this.lifecycleRunner.run(LifecycleRunner.getReplacedDestroySteps(previousContext, newContext), false);
+
+			if (!failures.isEmpty()) {
+				throw new InvalidContextException("Reloaded context '" + this.contextFile + "', but the objects it replaced could not all be destroyed.", LifecycleRunner.toLifecycleException(failures));
+			}
+		}
+	}
+
+	/**
+	 * Resolves the type of every live handle in a new build, forgetting the handles that have been garbage collected.
+	 * @param newContainer Container of the new build
+	 * @param liveHandles List receiving the handles that are still referenced
+	 * @param newObjects List receiving the object of each live handle in the new build, or null
+	 * @throws AmbiguousInterfaceException If more than one object of the new build implements the type of a handle
+	 */
+	@SuppressWarnings("unchecked")
+	private void resolveHandles(final DefaultContainerImpl newContainer, final List<ObjectHandleImpl<Object>> liveHandles, final List<Object> newObjects) throws AmbiguousInterfaceException {
+		final Iterator<WeakReference<ObjectHandleImpl<?>>> iterator = this.handles.iterator();
+
+		while (iterator.hasNext()) {
+			final ObjectHandleImpl<Object> handle = (ObjectHandleImpl<Object>) iterator.next().get();
+
+			if (handle == null) {
+				iterator.remove();
+			} else {
+				try {
+					newObjects.add(newContainer.getObjectThatImplementsOrNull(handle.getType()));
+				} catch (InvalidInterfaceException ex) {
+					throw new IllegalStateException("The type of a handle is a class or interface.", ex);
+				}
+
+				liveHandles.add(handle);
+			}
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ReloadableContainer#getLastReloadFailure()
+	 */
+	public InvalidContextException getLastReloadFailure() {
+		return this.lastReloadFailure;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ReloadableContainer#getReloadCount()
+	 */
+	public long getReloadCount() {
+		return this.reloadCount;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ReloadableContainer#close()
+	 */
+	public void close() throws LifecycleException {
+		LifecycleException failure = null;
+
+		try {
+			this.watchService.close();
+		} catch (IOException ex) {
+			failure = new LifecycleException("Unable to stop watching context '" + this.contextFile + "'.", ex);
+		}
+
+		this.watcher.interrupt();
+
+		synchronized (this.reloadLock) {
+			try {
+				this.container.close();
+			} catch (LifecycleException ex) {
+				if (failure == null) {
+					throw ex;
+				}
+
+				failure.addSuppressed(ex);
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectThatImplementsOrNull(java.lang.Class)
+	 */
+	public <T> T getObjectThatImplementsOrNull(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+		return this.container.getObjectThatImplementsOrNull(classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsThatImplement(java.lang.Class)
+	 */
+	public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		return this.container.getObjectsThatImplement(classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsThatImplement(java.lang.Class, java.lang.Class)
+	 */
+	public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract, final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		return this.container.getObjectsThatImplement(classOrInterfaceToExtract, annotationType);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectsAnnotatedWith(java.lang.Class)
+	 */
+	public List<Object> getObjectsAnnotatedWith(final Class<? extends Annotation> annotationType) throws InvalidInterfaceException {
+		return this.container.getObjectsAnnotatedWith(annotationType);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#containsObjectThatImplements(java.lang.Class)
+	 */
+	public <T> boolean containsObjectThatImplements(final Class<T> classOrInterface) throws InvalidInterfaceException {
+		return this.container.containsObjectThatImplements(classOrInterface);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectById(java.lang.String, java.lang.Class)
+	 */
+	public <T> T getObjectById(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		return this.container.getObjectById(id, classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectPool(java.lang.String, java.lang.Class)
+	 */
+	public <T> ObjectPool<T> getObjectPool(final String id, final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+		return this.container.getObjectPool(id, classOrInterfaceToExtract);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getSourceOf(java.lang.Object)
+	 */
+	public String getSourceOf(final Object object) {
+		return this.container.getSourceOf(object);
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getStatistics()
+	 */
+	public ContainerStatistics getStatistics() {
+		return this.container.getStatistics();
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getLookupStatistics()
+	 */
+	public LookupStatistics getLookupStatistics() {
+		return this.container.getLookupStatistics();
+	}
+
+	/**
+	 * Returns a handle that is rebound to the object of its type on every successful reload. A reload after which the type
+	 * would be implemented by several objects fails, and the previous objects remain in use. The handle is resolved in
+	 * the current container without waiting for a rebuild in progress, and resolved again should that rebuild complete
+	 * before the handle is registered.
+	 * @see com.unboundedprime.tapioca.core.Container#getObjectHandle(java.lang.Class)
+	 */
+	public <T> ObjectHandle<T> getObjectHandle(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+		while (true) {
+			final DefaultContainerImpl currentContainer = this.container;
+			final ObjectHandleImpl<T> handle = (ObjectHandleImpl<T>) currentContainer.getObjectHandle(classOrInterfaceToExtract);
+
+			synchronized (this.handlesLock) {
+				if (this.container == currentContainer) {
+					for (final Iterator<WeakReference<ObjectHandleImpl<?>>> iterator = this.handles.iterator(); iterator.hasNext();) {
+						if (iterator.next().get() == null) {
+							iterator.remove();
+						}
+					}
+
+					this.handles.add(new WeakReference<ObjectHandleImpl<?>>(handle));
+
+					return handle;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.Container#getParent()
+	 */
+	public Container getParent() {
+		return this.container.getParent();
+	}
+}
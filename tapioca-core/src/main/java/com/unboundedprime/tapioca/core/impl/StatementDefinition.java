@@ -0,0 +1,250 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.reflect.Array;
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Definition of a statement applied to an object, declared by the void element with either a property, a method or an
+ * index attribute. Statements nested in a statement are applied to its result.
+ */
+final class StatementDefinition {
+
+	/**
+	 * Name of the property to get or set, or null.
+	 */
+	private final String property;
+
+	/**
+	 * Name of the method to invoke, or null.
+	 */
+	private final String method;
+
+	/**
+	 * Names of the setter, getter and boolean getter of the property, or null if the statement does not access a property.
+	 */
+	private final String[] accessorNames;
+
+	/**
+	 * Index to get or set, or -1.
+	 */
+	private final int index;
+
+	/**
+	 * Arguments of the statement.
+	 */
+	private final ValueDefinition[] arguments;
+
+	/**
+	 * Statements to apply to the result of this statement.
+	 */
+	private final StatementDefinition[] statements;
+
+	/**
+	 * Constructs a new StatementDefinition. Exactly one of property, method and index must be specified.
+	 * @param property Name of the property to get or set, or null
+	 * @param method Name of the method to invoke, or null
+	 * @param index Index to get or set, or -1
+	 * @param arguments Arguments of the statement
+	 * @param statements Statements to apply to the result of this statement
+	 */
+	StatementDefinition(final String property, final String method, final int index, final List<ValueDefinition> arguments, final List<StatementDefinition> statements) {
+		this.property = property;
+		this.method = method;
+		this.index = index;
+
+		if (property != null) {
+			final String capitalizedProperty = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+			this.accessorNames = new String[] {"set" + capitalizedProperty, "get" + capitalizedProperty, "is" + capitalizedProperty};
+		} else {
+			this.accessorNames = null;
+		}
+		this.arguments = arguments.toArray(new ValueDefinition[arguments.size()]);
+		this.statements = statements.toArray(new StatementDefinition[statements.size()]);
+	}
+
+	/**
+	 * Applies the statement to an object.
+	 * @param target Object to apply the statement to
+	 * @param context Context the statement belongs to
+	 * @throws Exception If the statement could not be applied
+	 */
+	void apply(final Object target, final ContextDefinition context) throws Exception {
+		final StatisticsRecorder recorder = context.statisticsRecorder;
+
+		if (recorder == null) {
+			this.applyUnrecorded(target, context);
+			return;
+		}
+
+		final long startNanos = recorder.startStatement();
+
+		try {
+			this.applyUnrecorded(target, context);
+		} finally {
+			recorder.finishStatement(this.getName(), startNanos);
+		}
+	}
+
+	/**
+	 * Gets the name of the statement for use in timings.
+	 * @return Name of the property, name of the method followed by parentheses, or index in brackets
+	 */
+	private String getName() {
+		if (this.property != null) {
+			return this.property;
+		}
+
+		return (this.method != null) ? this.method + "()" : "[" + this.index + "]";
+	}
+
+	/**
+	 * Applies the statement to an object without timing it.
+	 * @param target Object to apply the statement to
+	 * @param context Context the statement belongs to
+	 * @throws Exception If the statement could not be applied
+	 */
+	private void applyUnrecorded(final Object target, final ContextDefinition context) throws Exception {
+		final Object[] values = ValueDefinition.evaluateAll(this.arguments, context);
+		final Object result;
+
+		if (this.property != null) {
+			result = this.applyProperty(target, values);
+		} else if (this.method != null) {
+			result = this.invoke(target, this.method, values);
+		} else {
+			result = this.applyIndex(target, values);
+		}
+
+		applyAll(this.statements, result, context);
+	}
+
+	/**
+	 * Gets or sets the property of an object, depending on whether a value is given.
+	 * @param target Object whose property to access
+	 * @param values Either no value, or the single value to set
+	 * @return Value of the property when getting, null when setting
+	 * @throws Exception If the property could not be accessed
+	 */
+	private Object applyProperty(final Object target, final Object[] values) throws Exception {
+		if (values.length != 0) {
+			return this.invoke(target, this.accessorNames[0], values);
+		}
+
+		final MethodHandle getter = ClassMetadata.forClass(target.getClass()).findMethod(this.accessorNames[1], values, false);
+
+		return (getter != null) ? ClassMetadata.invoke(getter, target, values) : this.invoke(target, this.accessorNames[2], values);
+	}
+
+	/**
+	 * Gets or sets an element of an array or list, depending on whether a value is given.
+	 * @param target Array or object with get(int) and set(int, Object) methods
+	 * @param values Either no value, or the single value to set
+	 * @return Element when getting, null when setting
+	 * @throws Exception If the element could not be accessed
+	 */
+	private Object applyIndex(final Object target, final Object[] values) throws Exception {
+		if (target.getClass().isArray()) {
+			if (values.length == 0) {
+				return Array.get(target, this.index);
+			}
+
+			Array.set(target, this.index, values[0]);
+			return null;
+		}
+
+		final Object[] indexedValues = new Object[values.length + 1];
+		indexedValues[0] = Integer.valueOf(this.index);
+		System.arraycopy(values, 0, indexedValues, 1, values.length);
+
+		return this.invoke(target, (values.length == 0) ? "get" : "set", indexedValues);
+	}
+
+	/**
+	 * Invokes a public instance method on an object.
+	 * @param target Object to invoke the method on
+	 * @param methodName Name of the method
+	 * @param values Arguments of the method
+	 * @return Result of the invocation
+	 * @throws Exception If no matching method exists, or the invocation failed
+	 */
+	private Object invoke(final Object target, final String methodName, final Object[] values) throws Exception {
+		final MethodHandle targetMethod = ClassMetadata.forClass(target.getClass()).findMethod(methodName, values, false);
+
+		if (targetMethod == null) {
+			throw new NoSuchMethodException("No method " + target.getClass().getName() + "." + methodName + " accepts " + Arrays.deepToString(values) + ".");
+		}
+
+		return ClassMetadata.invoke(targetMethod, target, values);
+	}
+
+	/**
+	 * Adds the ids of all beans this statement references to a collection.
+	 * @param ids Collection to add the referenced ids to
+	 */
+	void collectReferences(final Collection<String> ids) {
+		ValueDefinition.collectReferences(Arrays.asList(this.arguments), ids);
+
+		for (final StatementDefinition statement : this.statements) {
+			statement.collectReferences(ids);
+		}
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (!(other instanceof StatementDefinition)) {
+			return false;
+		}
+
+		final StatementDefinition otherStatement = (StatementDefinition) other;
+
+		return ((this.property == null) ? (otherStatement.property == null) : this.property.equals(otherStatement.property))
+				&& ((this.method == null) ? (otherStatement.method == null) : this.method.equals(otherStatement.method))
+				&& (this.index == otherStatement.index)
+				&& Arrays.equals(this.arguments, otherStatement.arguments)
+				&& Arrays.equals(this.statements, otherStatement.statements);
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * Arrays.hashCode(this.arguments) + Arrays.hashCode(this.statements)) * 31 + this.index;
+	}
+
+	/**
+	 * Applies a list of statements to an object, in order.
+	 * @param statements Statements to apply
+	 * @param target Object to apply the statements to
+	 * @param context Context the statements belong to
+	 * @throws Exception If any statement could not be applied
+	 */
+	static void applyAll(final StatementDefinition[] statements, final Object target, final ContextDefinition context) throws Exception {
+		if ((statements.length != 0) && (target == null)) {
+			throw new NullPointerException("Statements may not be applied to a null value.");
+		}
+
+		for (final StatementDefinition statement : statements) {
+			statement.apply(target, context);
+		}
+	}
+}
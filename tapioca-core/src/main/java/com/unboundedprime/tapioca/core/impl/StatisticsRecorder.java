@@ -0,0 +1,204 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the timings of the objects of a context as they are instantiated, on any number of threads. Each thread
+ * times one object at a time, which holds because the objects an object references are instantiated before it is timed.
+ */
+final class StatisticsRecorder {
+
+	/**
+	 * Reads the memory allocated by a thread given its id, or null if the JVM cannot measure it.
+	 */
+	private static final MethodHandle THREAD_ALLOCATED_BYTES = findThreadAllocatedBytes();
+
+	/**
+	 * Object being timed on the current thread, if any.
+	 */
+	private final ThreadLocal<BeanRecord> currentBean = new ThreadLocal<BeanRecord>();
+
+	/**
+	 * Finds the HotSpot extension measuring the memory allocated by a thread, which is looked up reflectively so that
+	 * the library still runs on JVMs without it.
+	 * @return Handle of type (long)long, or null if allocations cannot be measured
+	 */
+	private static MethodHandle findThreadAllocatedBytes() {
+		try {
+			final Class<?> threadBeanClass = Class.forName("com.sun.management.ThreadMXBean");
+			final Object threadBean = ManagementFactory.getThreadMXBean();
+
+			if (!threadBeanClass.isInstance(threadBean) || !((Boolean) threadBeanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadBean)).booleanValue()) {
+				return null;
+			}
+
+			return MethodHandles.publicLookup().findVirtual(threadBeanClass, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class)).bindTo(threadBean);
+		} catch (Exception ex) {
+			return null;
+		} catch (LinkageError ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Measures the memory allocated by the current thread so far.
+	 * @return Allocated bytes, or -1 if the JVM cannot measure them
+	 */
+	static long getAllocatedBytes() {
+		if (THREAD_ALLOCATED_BYTES == null) {
+			return -1;
+		}
+
+		try {
+			return (long) THREAD_ALLOCATED_BYTES.invokeExact(Thread.currentThread().getId());
+		} catch (Throwable ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Measures the memory allocated by the current thread since a previous measurement.
+	 * @param startAllocatedBytes Previous measurement
+	 * @return Allocated bytes, or -1 if the JVM cannot measure them
+	 */
+	static long getAllocatedBytesSince(final long startAllocatedBytes) {
+		return (startAllocatedBytes < 0) ? -1 : getAllocatedBytes() - startAllocatedBytes;
+	}
+
+	/**
+	 * Starts timing an object on the current thread.
+	 * @return Record of the object, which must be passed to finishBean or abandonBean
+	 */
+	BeanRecord startBean() {
+		final BeanRecord record = new BeanRecord(this.currentBean.get());
+		this.currentBean.set(record);
+		record.startAllocatedBytes = getAllocatedBytes();
+		record.startNanos = System.nanoTime();
+
+		return record;
+	}
+
+	/**
+	 * Finishes timing an object on the current thread.
+	 * @param record Record returned by startBean
+	 * @param description Human readable description of the object
+	 * @param id Id of the object, or null
+	 * @param instance Created object
+	 * @return Timings of the object
+	 */
+	ContainerStatistics.BeanStatistics finishBean(final BeanRecord record, final String description, final String id, final Object instance) {
+		final long constructionTimeNanos = System.nanoTime() - record.startNanos;
+		final long allocatedBytes = getAllocatedBytesSince(record.startAllocatedBytes);
+		this.abandonBean(record);
+
+		return new ContainerStatistics.BeanStatistics(description, id, (instance == null) ? null : instance.getClass().getName(), constructionTimeNanos, allocatedBytes, record.propertyStatistics);
+	}
+
+	/**
+	 * Stops timing an object on the current thread without producing its timings, as when it failed.
+	 * @param record Record returned by startBean
+	 */
+	void abandonBean(final BeanRecord record) {
+		if (record.enclosingRecord == null) {
+			this.currentBean.remove();
+		} else {
+			this.currentBean.set(record.enclosingRecord);
+		}
+	}
+
+	/**
+	 * Starts timing a statement on the current thread. Only statements applied directly to the object being timed are
+	 * recorded, those nested in them being part of their time.
+	 * @return Start time of the statement, or -1 if it is not recorded
+	 */
+	long startStatement() {
+		final BeanRecord record = this.currentBean.get();
+
+		if ((record == null) || (record.statementDepth++ != 0)) {
+			return -1;
+		}
+
+		return System.nanoTime();
+	}
+
+	/**
+	 * Finishes timing a statement on the current thread.
+	 * @param name Name of the statement
+	 * @param startNanos Value returned by startStatement
+	 */
+	void finishStatement(final String name, final long startNanos) {
+		final BeanRecord record = this.currentBean.get();
+
+		if (record != null) {
+			record.statementDepth--;
+
+			if (startNanos >= 0) {
+				record.propertyStatistics.add(new ContainerStatistics.PropertyStatistics(name, System.nanoTime() - startNanos));
+			}
+		}
+	}
+
+	/**
+	 * Timings of an object being instantiated, which is confined to the thread instantiating it.
+	 */
+	static final class BeanRecord {
+
+		/**
+		 * Record of the object that was being timed on the same thread when this one started, or null.
+		 */
+		final BeanRecord enclosingRecord;
+
+		/**
+		 * Timings of the statements applied to the object so far.
+		 */
+		final List<ContainerStatistics.PropertyStatistics> propertyStatistics = new ArrayList<ContainerStatistics.PropertyStatistics>();
+
+		/**
+		 * Number of statements currently being applied, being nested in each other.
+		 */
+		int statementDepth;
+
+		/**
+		 * Time at which timing started.
+		 */
+		long startNanos;
+
+		/**
+		 * Memory allocated by the thread when timing started, or -1 if unknown.
+		 */
+		long startAllocatedBytes;
+
+		/**
+		 * Constructs a new BeanRecord.
+		 * @param enclosingRecord Record of the object that was being timed on the same thread, or null
+		 */
+		BeanRecord(final BeanRecord enclosingRecord) {
+			this.enclosingRecord = enclosingRecord;
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the objects of a context by every class and interface they are assignable to.
+ * The complete type hierarchy of each object, meaning its class, all superclasses and all transitively inherited
+ * interfaces, is computed once when the index is built, so that resolving any assignable type is a single hash probe.
+ * Types and their entries are held in one open addressed table, and the objects of every entry in ranges of one shared
+ * array, so that the index allocates no node, map or array per type.
+ */
+final class TypeIndex {
+
+	/**
+	 * Index holding no object.
+	 */
+	static final TypeIndex EMPTY = build(Collections.<Object>emptyList());
+
+	/**
+	 * Open addressed table, at most half full, holding each type at an even position followed by its entry, with linear
+	 * probing from the slot selected by the hash of the type.
+	 */
+	private final Object[] table;
+
+	/**
+	 * Number of slots of the table minus one, the number of slots being a power of two.
+	 */
+	private final int mask;
+
+	/**
+	 * Constructs a new TypeIndex.
+	 * @param table Table of types and entries, which must not be modified afterwards
+	 */
+	private TypeIndex(final Object[] table) {
+		this.table = table;
+		this.mask = (table.length / 2) - 1;
+	}
+
+	/**
+	 * Builds an index over a set of objects.
+	 * @param objects Objects to catalog, in the order in which they were discovered in the context
+	 * @return Index over the objects
+	 */
+	static TypeIndex build(final List<Object> objects) {
+		return build(objects, new HashMap<Class<?>, Class<?>[]>());
+	}
+
+	/**
+	 * Builds an index over a set of objects, reusing the type hierarchies computed by earlier builds.
+	 * @param objects Objects to catalog, in the order in which they were discovered in the context
+	 * @param hierarchies Hierarchies computed so far, to which those of new classes are added
+	 * @return Index over the objects
+	 */
+	private static TypeIndex build(final List<Object> objects, final Map<Class<?>, Class<?>[]> hierarchies) {
+		final Map<Class<?>, List<Object>> objectsByType = new LinkedHashMap<Class<?>, List<Object>>();
+		final Map<Object, Object> cataloged = new IdentityHashMap<Object, Object>(objects.size());
+		int storageSize = 0;
+
+		for (final Object object : objects) {
+			if (cataloged.put(object, object) != null) {
+				continue;
+			}
+
+			for (final Class<?> type : getTypeHierarchy(object.getClass(), hierarchies)) {
+				List<Object> objectsOfType = objectsByType.get(type);
+
+				if (objectsOfType == null) {
+					objectsOfType = new ArrayList<Object>(1);
+					objectsByType.put(type, objectsOfType);
+				}
+
+				objectsOfType.add(object);
+				storageSize++;
+			}
+		}
+
+		final Object[] storage = new Object[storageSize];
+		final Object[] table = new Object[2 * tableSizeFor(objectsByType.size())];
+		final int mask = (table.length / 2) - 1;
+		int offset = 0;
+
+		for (final Map.Entry<Class<?>, List<Object>> objectsOfType : objectsByType.entrySet()) {
+			final List<Object> instances = objectsOfType.getValue();
+
+			for (int i = 0; i < instances.size(); i++) {
+				storage[offset + i] = instances.get(i);
+			}
+
+			int slot = spread(objectsOfType.getKey()) & mask;
+
+			while (table[2 * slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+
+			table[2 * slot] = objectsOfType.getKey();
+			table[2 * slot + 1] = new TypeIndexEntry(storage, offset, instances.size());
+			offset += instances.size();
+		}
+
+		return new TypeIndex(table);
+	}
+
+	/**
+	 * Builds an index over the objects carrying each runtime annotation of their class, inherited annotations included,
+	 * so that the objects carrying an annotation and assignable to a type are resolved by two hash probes.
+	 * @param objects Objects to catalog, in the order in which they were discovered in the context
+	 * @return Index over the objects carrying each annotation, keyed by the annotation type, which only holds the annotation types carried by any object
+	 */
+	static Map<Class<? extends Annotation>, TypeIndex> buildByAnnotation(final List<Object> objects) {
+		final Map<Class<?>, Annotation[]> annotationsByClass = new HashMap<Class<?>, Annotation[]>();
+		final Map<Class<? extends Annotation>, List<Object>> objectsByAnnotation = new LinkedHashMap<Class<? extends Annotation>, List<Object>>();
+
+		for (final Object object : objects) {
+			Annotation[] annotations = annotationsByClass.get(object.getClass());
+
+			if (annotations == null) {
+				annotations = object.getClass().getAnnotations();
+				annotationsByClass.put(object.getClass(), annotations);
+			}
+
+			for (final Annotation annotation : annotations) {
+				List<Object> annotatedObjects = objectsByAnnotation.get(annotation.annotationType());
+
+				if (annotatedObjects == null) {
+					annotatedObjects = new ArrayList<Object>(1);
+					objectsByAnnotation.put(annotation.annotationType(), annotatedObjects);
+				}
+
+				annotatedObjects.add(object);
+			}
+		}
+
+		final Map<Class<?>, Class<?>[]> hierarchies = new HashMap<Class<?>, Class<?>[]>();
+		final Map<Class<? extends Annotation>, TypeIndex> indexes = new HashMap<Class<? extends Annotation>, TypeIndex>();
+
+		for (final Map.Entry<Class<? extends Annotation>, List<Object>> annotatedObjects : objectsByAnnotation.entrySet()) {
+			indexes.put(annotatedObjects.getKey(), build(annotatedObjects.getValue(), hierarchies));
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * Computes the number of slots of a table holding a number of types at most half full.
+	 * @param typeCount Number of types
+	 * @return Power of two at least twice the number of types
+	 */
+	private static int tableSizeFor(final int typeCount) {
+		int slots = 2;
+
+		while (slots < 2 * typeCount) {
+			slots <<= 1;
+		}
+
+		return slots;
+	}
+
+	/**
+	 * Spreads the identity hash of a type over its low bits, which alone select a slot.
+	 * @param classOrInterface Type to hash
+	 * @return Hash of the type
+	 */
+	private static int spread(final Class<?> classOrInterface) {
+		final int hash = classOrInterface.hashCode();
+
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Gets the entry for a specific type.
+	 * @param classOrInterface Class or interface to look up
+	 * @return Entry holding every object assignable to the type, or null if there is none
+	 */
+	TypeIndexEntry get(final Class<?> classOrInterface) {
+		final Object[] table = this.table;
+		int slot = spread(classOrInterface) & this.mask;
+		Object type;
+
+		while ((type = table[2 * slot]) != null) {
+			if (type == classOrInterface) {
+				return (TypeIndexEntry) table[2 * slot + 1];
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the complete type hierarchy of a class, computing it only once per class for the duration of a build.
+	 * @param objectClass Class to inspect
+	 * @param hierarchies Hierarchies computed so far
+	 * @return The class itself, all of its superclasses and all interfaces that it transitively implements
+	 */
+	private static Class<?>[] getTypeHierarchy(final Class<?> objectClass, final Map<Class<?>, Class<?>[]> hierarchies) {
+		Class<?>[] hierarchy = hierarchies.get(objectClass);
+
+		if (hierarchy == null) {
+			final Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+
+			for (Class<?> currentClass = objectClass; currentClass != null; currentClass = currentClass.getSuperclass()) {
+				types.add(currentClass);
+				addInterfaces(currentClass, types);
+			}
+
+			hierarchy = types.toArray(new Class<?>[types.size()]);
+			hierarchies.put(objectClass, hierarchy);
+		}
+
+		return hierarchy;
+	}
+
+	/**
+	 * Adds all interfaces directly declared by a type, and the interfaces those extend, to a set.
+	 * @param type Class or interface to inspect
+	 * @param types Set to add the interfaces to
+	 */
+	private static void addInterfaces(final Class<?> type, final Set<Class<?>> types) {
+		for (final Class<?> interfaceClass : type.getInterfaces()) {
+			if (types.add(interfaceClass)) {
+				addInterfaces(interfaceClass, types);
+			}
+		}
+	}
+}
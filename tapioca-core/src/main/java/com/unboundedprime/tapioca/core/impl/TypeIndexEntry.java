@@ -0,0 +1,123 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable set of the objects from a context that are assignable to one specific class or interface. The entry is
+ * itself the unmodifiable list returned to every caller, and views a range of an array that may be shared with the
+ * entries of other types, so that an indexed type costs a single object on top of the references to its objects.
+ */
+final class TypeIndexEntry extends AbstractList<Object> implements RandomAccess {
+
+	/**
+	 * Marker held in place of the unique instance when more than one object is assignable to the indexed type.
+	 */
+	static final Object AMBIGUOUS = new Object();
+
+	/**
+	 * Entry for a type to which no object is assignable.
+	 */
+	static final TypeIndexEntry EMPTY = new TypeIndexEntry(new Object[0]);
+
+	/**
+	 * Array holding the objects assignable to the indexed type in a contiguous range.
+	 */
+	private final Object[] storage;
+
+	/**
+	 * Position of the first object of the range in the storage.
+	 */
+	private final int offset;
+
+	/**
+	 * Number of objects in the range.
+	 */
+	private final int size;
+
+	/**
+	 * The only object assignable to the indexed type, null if there is none, or AMBIGUOUS if there are several.
+	 */
+	final Object uniqueInstance;
+
+	/**
+	 * Constructs a new TypeIndexEntry over a whole array.
+	 * @param instances Objects assignable to the indexed type, which must not be modified afterwards
+	 */
+	TypeIndexEntry(final Object[] instances) {
+		this(instances, 0, instances.length);
+	}
+
+	/**
+	 * Constructs a new TypeIndexEntry over a range of an array.
+	 * @param storage Array holding the objects assignable to the indexed type, which must not be modified afterwards
+	 * @param offset Position of the first object of the range
+	 * @param size Number of objects in the range
+	 */
+	TypeIndexEntry(final Object[] storage, final int offset, final int size) {
+		this(storage, offset, size, (size > 1) ? AMBIGUOUS : ((size == 1) ? storage[offset] : null));
+	}
+
+	/**
+	 * Constructs a new TypeIndexEntry whose unique instance is not derived from its instances, as for an entry merging
+	 * the objects of several containers.
+	 * @param instances Objects assignable to the indexed type, which must not be modified afterwards
+	 * @param uniqueInstance Object returned by a lookup of a single instance, null if there is none, or AMBIGUOUS
+	 */
+	TypeIndexEntry(final Object[] instances, final Object uniqueInstance) {
+		this(instances, 0, instances.length, uniqueInstance);
+	}
+
+	/**
+	 * Constructs a new TypeIndexEntry.
+	 * @param storage Array holding the objects assignable to the indexed type, which must not be modified afterwards
+	 * @param offset Position of the first object of the range
+	 * @param size Number of objects in the range
+	 * @param uniqueInstance Object returned by a lookup of a single instance, null if there is none, or AMBIGUOUS
+	 */
+	private TypeIndexEntry(final Object[] storage, final int offset, final int size, final Object uniqueInstance) {
+		this.storage = storage;
+		this.offset = offset;
+		this.size = size;
+		this.uniqueInstance = uniqueInstance;
+	}
+
+	@Override
+	public Object get(final int index) {
+		if ((index < 0) || (index >= this.size)) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + this.size + ".");
+		}
+
+		return this.storage[this.offset + index];
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOfRange(this.storage, this.offset, this.offset + this.size);
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.util.Collection;
+
+/**
+ * Definition of a value in a context, as declared by a single element of the JavaBeans XML schema. Definitions are equal
+ * when they declare the same value, referencing other beans by their id.
+ */
+abstract class ValueDefinition {
+
+	/**
+	 * Evaluates the definition into the value that it describes.
+	 * @param context Context the definition belongs to, used to resolve references
+	 * @return Value described by the definition, which may be null
+	 * @throws Exception If the value could not be created
+	 */
+	abstract Object evaluate(ContextDefinition context) throws Exception;
+
+	/**
+	 * Determines the type of the value without evaluating the definition.
+	 * @param context Context the definition belongs to, used to resolve references
+	 * @return Declared type of the value, or null if the value is always null
+	 * @throws Exception If the type could not be determined
+	 */
+	abstract Class<?> getDeclaredType(ContextDefinition context) throws Exception;
+
+	/**
+	 * Adds the ids of all beans this definition references, directly or through nested definitions, to a collection.
+	 * @param ids Collection to add the referenced ids to
+	 */
+	void collectReferences(final Collection<String> ids) {
+	}
+
+	/**
+	 * Adds the ids of all beans referenced by a list of definitions to a collection.
+	 * @param definitions Definitions to inspect
+	 * @param ids Collection to add the referenced ids to
+	 */
+	static void collectReferences(final Iterable<? extends ValueDefinition> definitions, final Collection<String> ids) {
+		for (final ValueDefinition definition : definitions) {
+			definition.collectReferences(ids);
+		}
+	}
+
+	/**
+	 * Evaluates a list of definitions.
+	 * @param definitions Definitions to evaluate
+	 * @param context Context the definitions belong to
+	 * @return Values of the definitions, in order
+	 * @throws Exception If any value could not be created
+	 */
+	static Object[] evaluateAll(final ValueDefinition[] definitions, final ContextDefinition context) throws Exception {
+		final Object[] values = new Object[definitions.length];
+
+		for (int index = 0; index < definitions.length; index++) {
+			values[index] = definitions[index].evaluate(context);
+		}
+
+		return values;
+	}
+}
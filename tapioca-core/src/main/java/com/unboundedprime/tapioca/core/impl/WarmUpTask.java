@@ -0,0 +1,150 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.ContainerStatistics;
+import com.unboundedprime.tapioca.core.Warmable;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Callable;
+
+/**
+ * Warms up a single object by invoking its warm-up method repeatedly until a deadline shared by every object of the
+ * build has passed, counting the invocations and the time they took.
+ * <p>
+ * The deadline is computed once, before the tasks are submitted, and not when each task starts. A task that waits for a
+ * thread of the executor, e.g. because it has fewer threads than there are objects to warm up, only gets what is left of
+ * the budget, and a task that starts after the deadline has passed invokes the warm-up method exactly once.
+ */
+final class WarmUpTask implements Callable<Object> {
+
+	/**
+	 * Arguments passed to warm-up methods.
+	 */
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	/**
+	 * Object to warm up.
+	 */
+	private final Object target;
+
+	/**
+	 * Name of the warm-up method, or null to invoke Warmable.warmUp.
+	 */
+	private final String methodName;
+
+	/**
+	 * Human readable description of the object for use in messages.
+	 */
+	private final String description;
+
+	/**
+	 * Id of the object, or null.
+	 */
+	private final String id;
+
+	/**
+	 * Value of System.nanoTime after which the warm-up method is no longer invoked, shared by every task of the build.
+	 */
+	private final long deadlineNanos;
+
+	/**
+	 * Number of completed invocations, only read once the task has completed.
+	 */
+	private volatile long invocationCount;
+
+	/**
+	 * Time spent on the invocations, only read once the task has completed.
+	 */
+	private volatile long warmUpTimeNanos;
+
+	/**
+	 * Constructs a new WarmUpTask.
+	 * @param target Object to warm up
+	 * @param methodName Name of the warm-up method, or null to invoke Warmable.warmUp
+	 * @param description Human readable description of the object for use in messages
+	 * @param id Id of the object, or null
+	 * @param deadlineNanos Value of System.nanoTime after which the warm-up method is no longer invoked
+	 */
+	WarmUpTask(final Object target, final String methodName, final String description, final String id, final long deadlineNanos) {
+		this.target = target;
+		this.methodName = methodName;
+		this.description = description;
+		this.id = id;
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	/**
+	 * Determines whether an object of a bean is to be warmed up.
+	 * @param bean Bean whose instance has been created
+	 * @return Whether the bean declares a warm-up method or its instance is Warmable
+	 */
+	static boolean isWarmable(final BeanHolder bean) {
+		return (bean.getWarmUpMethod() != null) || (bean.getInstanceIfCreated() instanceof Warmable);
+	}
+
+	/**
+	 * Invokes the warm-up method at least once, and again until the deadline has passed or the thread is interrupted.
+	 * @return Nothing
+	 * @throws Exception If the warm-up method does not exist or fails
+	 */
+	public Object call() throws Exception {
+		final MethodHandle method = (this.methodName == null) ? null : ClassMetadata.forClass(this.target.getClass()).findMethod(this.methodName, NO_ARGUMENTS, false);
+
+		if ((this.methodName != null) && (method == null)) {
+			throw new NoSuchMethodException("No method " + this.target.getClass().getName() + "." + this.methodName + " without arguments.");
+		}
+
+		final long startNanos = System.nanoTime();
+		long count = 0;
+
+		try {
+			do {
+				if (method == null) {
+					((Warmable) this.target).warmUp();
+				} else {
+					ClassMetadata.invoke(method, this.target, NO_ARGUMENTS);
+				}
+
+				count++;
+			} while ((System.nanoTime() - this.deadlineNanos < 0) && !Thread.currentThread().isInterrupted());
+		} catch (Exception ex) {
+			throw new InvalidContextException("Unable to warm up " + this.description + ".", ex);
+		}
+
+		this.invocationCount = count;
+		this.warmUpTimeNanos = System.nanoTime() - startNanos;
+
+		return null;
+	}
+
+	/**
+	 * Gets the timings of the completed warm-up.
+	 * @return Timings of the object
+	 */
+	ContainerStatistics.WarmUpStatistics getStatistics() {
+		return new ContainerStatistics.WarmUpStatistics(this.description, this.id, this.warmUpTimeNanos, this.invocationCount);
+	}
+
+	@Override
+	public String toString() {
+		return "warm-up method of " + this.description;
+	}
+}
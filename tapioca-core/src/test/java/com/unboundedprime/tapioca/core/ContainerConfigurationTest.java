@@ -0,0 +1,244 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.ContainerConfiguration class.
+ */
+public class ContainerConfigurationTest {
+
+	/**
+	 * Test of getBuildMode method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetBuildMode_NewConfiguration_ReturnXmlDecoder() {
+		System.out.println("testGetBuildMode_NewConfiguration_ReturnXmlDecoder");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertSame("default build mode must be XML_DECODER", BuildMode.XML_DECODER, instance.getBuildMode());
+	}
+
+	/**
+	 * Test of setBuildMode method, of class ContainerConfiguration with a valid build mode.
+	 */
+	@Test
+	public void testSetBuildMode_ValidBuildMode_BuildModeChanged() {
+		System.out.println("testSetBuildMode_ValidBuildMode_BuildModeChanged");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setBuildMode(BuildMode.LAZY);
+
+		assertSame("build mode must be changed", BuildMode.LAZY, instance.getBuildMode());
+	}
+
+	/**
+	 * Test of setBuildMode method, of class ContainerConfiguration with a null build mode.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetBuildMode_NullBuildMode_ThrowException() {
+		System.out.println("testSetBuildMode_NullBuildMode_ThrowException");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setBuildMode(null);
+	}
+
+	/**
+	 * Test of getExecutor method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetExecutor_NewConfiguration_ReturnNull() {
+		System.out.println("testGetExecutor_NewConfiguration_ReturnNull");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertNull("default executor must be null", instance.getExecutor());
+	}
+
+	/**
+	 * Test of setExecutor method, of class ContainerConfiguration with a valid executor.
+	 */
+	@Test
+	public void testSetExecutor_ValidExecutor_ExecutorChanged() {
+		System.out.println("testSetExecutor_ValidExecutor_ExecutorChanged");
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			final ContainerConfiguration instance = new ContainerConfiguration();
+			instance.setExecutor(executor);
+
+			assertSame("executor must be changed", executor, instance.getExecutor());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test of getParent method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetParent_NewConfiguration_ReturnNull() {
+		System.out.println("testGetParent_NewConfiguration_ReturnNull");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertNull("default parent must be null", instance.getParent());
+	}
+
+	/**
+	 * Test of setParent method, of class ContainerConfiguration with a valid container.
+	 */
+	@Test
+	public void testSetParent_ValidContainer_ParentChanged() throws Throwable {
+		System.out.println("testSetParent_ValidContainer_ParentChanged");
+
+		final Container parent = Container.Builder.buildContainerFromXmlOnInputStream(this.getClass().getResourceAsStream("beans_ContainerTest_testGetObjectsThatImplement.xml"));
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setParent(parent);
+
+		assertSame("parent must be changed", parent, instance.getParent());
+	}
+
+	/**
+	 * Test of isStatisticsEnabled method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testIsStatisticsEnabled_NewConfiguration_ReturnFalse() {
+		System.out.println("testIsStatisticsEnabled_NewConfiguration_ReturnFalse");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertFalse("statistics must be disabled by default", instance.isStatisticsEnabled());
+	}
+
+	/**
+	 * Test of setStatisticsEnabled method, of class ContainerConfiguration with statistics enabled.
+	 */
+	@Test
+	public void testSetStatisticsEnabled_True_StatisticsEnabled() {
+		System.out.println("testSetStatisticsEnabled_True_StatisticsEnabled");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setStatisticsEnabled(true);
+
+		assertTrue("statistics must be enabled", instance.isStatisticsEnabled());
+	}
+
+	/**
+	 * Test of isLookupMetricsEnabled method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testIsLookupMetricsEnabled_NewConfiguration_ReturnFalse() {
+		System.out.println("testIsLookupMetricsEnabled_NewConfiguration_ReturnFalse");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertFalse("lookup metrics must be disabled by default", instance.isLookupMetricsEnabled());
+	}
+
+	/**
+	 * Test of setLookupMetricsEnabled method, of class ContainerConfiguration with lookup metrics enabled.
+	 */
+	@Test
+	public void testSetLookupMetricsEnabled_True_LookupMetricsEnabled() {
+		System.out.println("testSetLookupMetricsEnabled_True_LookupMetricsEnabled");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setLookupMetricsEnabled(true);
+
+		assertTrue("lookup metrics must be enabled", instance.isLookupMetricsEnabled());
+	}
+
+	/**
+	 * Test of getLookupSamplingInterval method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetLookupSamplingInterval_NewConfiguration_ReturnZero() {
+		System.out.println("testGetLookupSamplingInterval_NewConfiguration_ReturnZero");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertEquals("no lookup must be sampled by default", 0, instance.getLookupSamplingInterval());
+		assertNull("no listener must be set by default", instance.getListener());
+	}
+
+	/**
+	 * Test of setLookupSamplingInterval method, of class ContainerConfiguration with a negative interval.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetLookupSamplingInterval_Negative_ThrowException() {
+		System.out.println("testSetLookupSamplingInterval_Negative_ThrowException");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setLookupSamplingInterval(-1);
+	}
+
+	/**
+	 * Test of getLifecycleTimeoutMillis method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetLifecycleTimeoutMillis_NewConfiguration_ReturnThirtySeconds() {
+		System.out.println("testGetLifecycleTimeoutMillis_NewConfiguration_ReturnThirtySeconds");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertEquals("default lifecycle timeout must be 30 seconds", 30000L, instance.getLifecycleTimeoutMillis());
+	}
+
+	/**
+	 * Test of setLifecycleTimeoutMillis method, of class ContainerConfiguration with a zero timeout.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetLifecycleTimeoutMillis_Zero_ThrowException() {
+		System.out.println("testSetLifecycleTimeoutMillis_Zero_ThrowException");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setLifecycleTimeoutMillis(0);
+	}
+
+	/**
+	 * Test of getWarmUpBudgetMillis method, of class ContainerConfiguration with a new configuration.
+	 */
+	@Test
+	public void testGetWarmUpBudgetMillis_NewConfiguration_ReturnZero() {
+		System.out.println("testGetWarmUpBudgetMillis_NewConfiguration_ReturnZero");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+
+		assertEquals("no warm-up must be budgeted by default", 0L, instance.getWarmUpBudgetMillis());
+	}
+
+	/**
+	 * Test of setWarmUpBudgetMillis method, of class ContainerConfiguration with a negative budget.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetWarmUpBudgetMillis_Negative_ThrowException() {
+		System.out.println("testSetWarmUpBudgetMillis_Negative_ThrowException");
+
+		final ContainerConfiguration instance = new ContainerConfiguration();
+		instance.setWarmUpBudgetMillis(-1);
+	}
+}
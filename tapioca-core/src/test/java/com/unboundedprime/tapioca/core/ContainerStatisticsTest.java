@@ -0,0 +1,105 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.ContainerStatistics class.
+ */
+public class ContainerStatisticsTest {
+
+	/**
+	 * Creates statistics of three objects taking 2, 3 and 1 ms to instantiate, in that order.
+	 * @return Statistics
+	 */
+	private static ContainerStatistics createStatistics() {
+		final List<ContainerStatistics.PropertyStatistics> noProperties = Collections.emptyList();
+
+		return new ContainerStatistics(1000000, 6000000, 500000, 7500000, -1, Arrays.asList(
+				new ContainerStatistics.BeanStatistics("object 'first'", "first", "java.lang.Object", 2000000, -1, noProperties),
+				new ContainerStatistics.BeanStatistics("object 'second'", "second", "java.lang.Object", 3000000, -1, Arrays.asList(new ContainerStatistics.PropertyStatistics("dataSource", 2500000))),
+				new ContainerStatistics.BeanStatistics("object 'third'", "third", "java.lang.Object", 1000000, -1, noProperties)));
+	}
+
+	/**
+	 * Test of getSlowestBeans method, of class ContainerStatistics with fewer objects requested than available.
+	 */
+	@Test
+	public void testGetSlowestBeans_LimitBelowObjectCount_ReturnSlowestFirst() {
+		System.out.println("testGetSlowestBeans_LimitBelowObjectCount_ReturnSlowestFirst");
+
+		final ContainerStatistics instance = createStatistics();
+
+		final List<ContainerStatistics.BeanStatistics> result = instance.getSlowestBeans(2);
+
+		assertEquals("resulting list must be limited", 2, result.size());
+		assertEquals("slowest object must come first", "second", result.get(0).getId());
+		assertEquals("second slowest object must follow", "first", result.get(1).getId());
+		assertEquals("document order must be retained", "first", instance.getBeanStatistics().get(0).getId());
+	}
+
+	/**
+	 * Test of getSlowestBeans method, of class ContainerStatistics with more objects requested than available.
+	 */
+	@Test
+	public void testGetSlowestBeans_LimitAboveObjectCount_ReturnEveryObject() {
+		System.out.println("testGetSlowestBeans_LimitAboveObjectCount_ReturnEveryObject");
+
+		final ContainerStatistics instance = createStatistics();
+
+		assertEquals("every object must be returned", 3, instance.getSlowestBeans(10).size());
+		assertEquals("negative limit must return nothing", 0, instance.getSlowestBeans(-1).size());
+	}
+
+	/**
+	 * Test of formatSlowestBeansReport method, of class ContainerStatistics with timed properties.
+	 */
+	@Test
+	public void testFormatSlowestBeansReport_TimedProperties_ReportObjectsAndProperties() {
+		System.out.println("testFormatSlowestBeansReport_TimedProperties_ReportObjectsAndProperties");
+
+		final ContainerStatistics instance = createStatistics();
+
+		final String result = instance.formatSlowestBeansReport(1);
+
+		assertTrue("slowest object must be reported", result.contains("object 'second' (java.lang.Object)"));
+		assertTrue("its properties must be reported", result.contains("dataSource"));
+		assertTrue("its time must be reported", result.contains("3.000 ms"));
+		assertFalse("objects beyond the limit must not be reported", result.contains("object 'first'"));
+		assertTrue("unknown allocations must be reported as such", result.contains("unknown bytes"));
+	}
+
+	/**
+	 * Test of getBeanStatistics method, of class ContainerStatistics with an attempt to alter the result.
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	public void testGetBeanStatistics_Modification_ThrowException() {
+		System.out.println("testGetBeanStatistics_Modification_ThrowException");
+
+		final ContainerStatistics instance = createStatistics();
+
+		instance.getBeanStatistics().clear();
+	}
+}
@@ -20,13 +20,29 @@
 package com.unboundedprime.tapioca.core;
 
 import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Map;
 import java.util.List;
 import com.unboundedprime.tapioca.core.exception.InvalidContextException;
 import com.unboundedprime.tapioca.core.exception.InvalidInterfaceException;
+import com.unboundedprime.tapioca.core.exception.LifecycleException;
 import com.unboundedprime.tapioca.utilities.util.ClassPathUtils;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -100,7 +116,180 @@ public class ContainerTest {
 		final Class<CommonGroupInterface> interfaceToRequest = CommonGroupInterface.class;
 		instance.getObjectThatImplementsOrNull(interfaceToRequest);
 	}
+
+	/**
+	 * Test of getObjectHandle method, of interface Container with a valid context and a valid object graph.
+	 */
+	@Test
+	public void testGetObjectHandle_ValidContextAndValidRequestedObject_ReturnBoundHandle() throws Throwable {
+		System.out.println("testGetObjectHandle_ValidContextAndValidRequestedObject_ReturnBoundHandle");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final ObjectHandle<ParentTestInterface> result = instance.getObjectHandle(ParentTestInterface.class);
+
+		assertSame("handle must be bound to the object of the type", instance.getObjectThatImplementsOrNull(ParentTestInterface.class), result.get());
+		assertSame("method handle must return the object", result.get(), (ParentTestInterface) result.getMethodHandle().invokeExact());
+		assertEquals("handle must keep the requested type", ParentTestInterface.class, result.getType());
+	}
+
+	/**
+	 * Test of getObjectHandle method, of interface Container with a valid context and an invalid object graph.
+	 */
+	@Test
+	public void testGetObjectHandle_ValidContextAndInvalidRequestedObject_ReturnHandleBoundToNull() throws Throwable {
+		System.out.println("testGetObjectHandle_ValidContextAndInvalidRequestedObject_ReturnHandleBoundToNull");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final ObjectHandle<Map> result = instance.getObjectHandle(Map.class);
+
+		assertNull("handle must be bound to null", result.get());
+		assertNull("method handle must return null", (Map) result.getMethodHandle().invokeExact());
+	}
+
+	/**
+	 * Test of getObjectHandle method, of interface Container with a valid context and a requested interface that will cause ambiguity.
+	 */
+	@Test(expected=AmbiguousInterfaceException.class)
+	public void testGetObjectHandle_ValidContextAndRequestedInterfaceThatWillGetMultiples_ThrowException() throws Throwable {
+		System.out.println("testGetObjectHandle_ValidContextAndRequestedInterfaceThatWillGetMultiples_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectHandle(CommonGroupInterface.class);
+	}
+
+	/**
+	 * Test of getObjectHandle method, of interface Container with a valid context and a primitive requested type.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectHandle_ValidContextAndPrimitiveRequestedType_ThrowException() throws Throwable {
+		System.out.println("testGetObjectHandle_ValidContextAndPrimitiveRequestedType_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectHandle(int.class);
+	}
 	
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a valid context and a requested superclass of a contained object.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ValidContextAndRequestedSuperclass_ReturnValidObject () throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ValidContextAndRequestedSuperclass_ReturnValidObject");
+
+		final String contextFileName = "beans_ContainerTest_testTypeHierarchy.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final ParentTestClass result = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+
+		assertNotNull("object must not be null", result);
+		assertSame("object must be the extended parent", ExtendedParentTestClass.class, result.getClass());
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a valid context and a requested interface that is only inherited by a contained object.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ValidContextAndRequestedInheritedInterface_ReturnValidObject () throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ValidContextAndRequestedInheritedInterface_ReturnValidObject");
+
+		final String contextFileName = "beans_ContainerTest_testTypeHierarchy.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+		final SpecializedParentTestInterface specializedResult = instance.getObjectThatImplementsOrNull(SpecializedParentTestInterface.class);
+
+		assertNotNull("object must not be null", result);
+		assertSame("object must be found through both interfaces", result, specializedResult);
+	}
+
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a valid context and java.lang.Object as the requested class.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_ValidContextAndRequestedObjectClass_ReturnAllObjectsInDocumentOrder() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ValidContextAndRequestedObjectClass_ReturnAllObjectsInDocumentOrder");
+
+		final String contextFileName = "beans_ContainerTest_testTypeHierarchy.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		final List<Object> result = instance.getObjectsThatImplement(Object.class);
+
+		assertEquals("resulting list must contain two (2) objects", 2, result.size());
+		assertSame("first object must be the child", ChildTestClass.class, result.get(0).getClass());
+		assertSame("second object must be the extended parent", ExtendedParentTestClass.class, result.get(1).getClass());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a valid context and a requested type that is not in the type index.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ValidContextAndRequestedUnindexedType_ReturnValidObject () throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ValidContextAndRequestedUnindexedType_ReturnValidObject");
+
+		final String contextFileName = "beans_ContainerTest_testUnindexedTypes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final CharSequence[] result = instance.getObjectThatImplementsOrNull(CharSequence[].class);
+
+		assertNotNull("object must not be null", result);
+		assertArrayEquals("expected text must be present", new String[] {"Hello", "World!"}, result);
+		assertSame("object must be resolved identically on every request", result, instance.getObjectThatImplementsOrNull(CharSequence[].class));
+		assertEquals("resulting list must contain one (1) object", 1, instance.getObjectsThatImplement(Object[].class).size());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a valid context and a requested type that is not in the type index, from many threads at once.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ValidContextAndConcurrentlyRequestedUnindexedType_ReturnSameObject () throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ValidContextAndConcurrentlyRequestedUnindexedType_ReturnSameObject");
+
+		final String contextFileName = "beans_ContainerTest_testUnindexedTypes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		final int threadCount = 8;
+		final CountDownLatch startGate = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		final List<Future<CharSequence[]>> results = new ArrayList<Future<CharSequence[]>>(threadCount);
+
+		try {
+			for (int index = 0; index < threadCount; index++) {
+				results.add(executor.submit(new Callable<CharSequence[]>() {
+					public CharSequence[] call() throws Exception {
+						startGate.await();
+						return instance.getObjectThatImplementsOrNull(CharSequence[].class);
+					}
+				}));
+			}
+
+			startGate.countDown();
+
+			final CharSequence[] expectedResult = results.get(0).get();
+			assertNotNull("object must not be null", expectedResult);
+
+			for (final Future<CharSequence[]> result : results) {
+				assertSame("every thread must resolve the same object", expectedResult, result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Test of testGetObjectsThatImplement method, of interface Container with a valid context and a valid list of objects.
 	 */
@@ -146,6 +335,38 @@ public class ContainerTest {
 		assertEquals("resulting list must contain no objects", 0, result.size());
 	}
 		
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a valid context and a requested interface queried twice.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_ValidContextAndRepeatedRequest_ReturnSameList() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ValidContextAndRepeatedRequest_ReturnSameList");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final List<CommonGroupInterface> firstResult = instance.getObjectsThatImplement(CommonGroupInterface.class);
+		final List<CommonGroupInterface> secondResult = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+		assertSame("resulting lists must be the same shared snapshot", firstResult, secondResult);
+	}
+
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a valid context and an attempt to modify the result.
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	public void testGetObjectsThatImplement_ValidContextAndModifiedResult_ThrowException() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ValidContextAndModifiedResult_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+		result.clear();
+	}
+
 	/**
 	 * Test of testGetObjectsThatImplement method, of interface Container with a valid context and a null requested interface.
 	 */
@@ -161,6 +382,269 @@ public class ContainerTest {
 		final List<Map> result = instance.getObjectsThatImplement(interfaceToRequest);
 	}
 	
+	/**
+	 * Test of getObjectsAnnotatedWith method, of interface Container with a valid context and a requested annotation.
+	 */
+	@Test
+	public void testGetObjectsAnnotatedWith_ValidContextAndValidRequestedAnnotation_ReturnAnnotatedObjectsInDocumentOrder() throws Throwable {
+		System.out.println("testGetObjectsAnnotatedWith_ValidContextAndValidRequestedAnnotation_ReturnAnnotatedObjectsInDocumentOrder");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		final List<Object> result = instance.getObjectsAnnotatedWith(RegionTestAnnotation.class);
+
+		assertEquals("resulting list must contain three (3) objects", 3, result.size());
+		assertSame("EuropeanGroupedClass must be first", EuropeanGroupedClass.class, result.get(0).getClass());
+		assertSame("EuropeanNonGroupedClass must be second", EuropeanNonGroupedClass.class, result.get(1).getClass());
+		assertSame("object inheriting the annotation must be third", InheritedRegionGroupedClass.class, result.get(2).getClass());
+		assertSame("resulting lists must be the same shared snapshot", result, instance.getObjectsAnnotatedWith(RegionTestAnnotation.class));
+		assertTrue("resulting list must be empty for a missing annotation", instance.getObjectsAnnotatedWith(Deprecated.class).isEmpty());
+	}
+
+	/**
+	 * Test of getObjectsAnnotatedWith method, of interface Container with an implementation providing only the original lookups.
+	 */
+	@Test
+	public void testGetObjectsAnnotatedWith_ContainerImplementingOriginalLookupsOnly_ReturnAnnotatedObjectsThroughDefaults() throws Throwable {
+		System.out.println("testGetObjectsAnnotatedWith_ContainerImplementingOriginalLookupsOnly_ReturnAnnotatedObjectsThroughDefaults");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container delegate = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		final Container instance = new Container() {
+			public <T> T getObjectThatImplementsOrNull(final Class<T> classOrInterfaceToExtract) throws AmbiguousInterfaceException, InvalidInterfaceException {
+				return delegate.getObjectThatImplementsOrNull(classOrInterfaceToExtract);
+			}
+
+			public <T> List<T> getObjectsThatImplement(final Class<T> classOrInterfaceToExtract) throws InvalidInterfaceException {
+				return delegate.getObjectsThatImplement(classOrInterfaceToExtract);
+			}
+
+			public <T> boolean containsObjectThatImplements(final Class<T> classOrInterface) throws InvalidInterfaceException {
+				return delegate.containsObjectThatImplements(classOrInterface);
+			}
+		};
+
+		final List<Object> result = instance.getObjectsAnnotatedWith(RegionTestAnnotation.class);
+
+		assertEquals("resulting list must contain three (3) objects", 3, result.size());
+		assertSame("EuropeanGroupedClass must be first", EuropeanGroupedClass.class, result.get(0).getClass());
+		assertSame("object inheriting the annotation must be third", InheritedRegionGroupedClass.class, result.get(2).getClass());
+		assertEquals("annotated implementations must be filtered from the lookup", 2, instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class).size());
+		assertSame("handle must be bound to the looked up object", delegate.getObjectThatImplementsOrNull(EuropeanNonGroupedClass.class), instance.getObjectHandle(EuropeanNonGroupedClass.class).get());
+		assertNull("no object must be found by id", instance.getObjectById("europeanGroupedClass", Object.class));
+		assertNull("no statistics must be collected", instance.getStatistics());
+		assertNull("container must have no parent", instance.getParent());
+		instance.close();
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a valid context, a valid requested interface and a requested annotation.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_ValidContextAndRequestedAnnotation_ReturnAnnotatedImplementations() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ValidContextAndRequestedAnnotation_ReturnAnnotatedImplementations");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class);
+
+		assertEquals("resulting list must contain two (2) objects", 2, result.size());
+		assertSame("EuropeanGroupedClass must be first", EuropeanGroupedClass.class, result.get(0).getClass());
+		assertSame("object inheriting the annotation must be second", InheritedRegionGroupedClass.class, result.get(1).getClass());
+		assertSame("resulting lists must be the same shared snapshot", result, instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class));
+		assertTrue("resulting list must be empty for a missing annotation", instance.getObjectsThatImplement(CommonGroupInterface.class, Deprecated.class).isEmpty());
+		assertTrue("resulting list must be empty for a missing interface", instance.getObjectsThatImplement(Map.class, RegionTestAnnotation.class).isEmpty());
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a lazy context, a valid requested interface and a requested annotation.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_LazyContextAndRequestedAnnotation_ReturnAnnotatedImplementations() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_LazyContextAndRequestedAnnotation_ReturnAnnotatedImplementations");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class);
+
+		assertEquals("resulting list must contain two (2) objects", 2, result.size());
+		assertSame("annotated object must be the declared one", instance.getObjectById("european", EuropeanGroupedClass.class), result.get(0));
+		assertSame("object inheriting the annotation must be second", instance.getObjectById("inherited", InheritedRegionGroupedClass.class), result.get(1));
+		assertEquals("every annotated object must be found", 3, instance.getObjectsAnnotatedWith(RegionTestAnnotation.class).size());
+		assertSame("resulting lists must be the same shared snapshot", result, instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class));
+	}
+
+	/**
+	 * Test of getObjectsAnnotatedWith method, of interface Container with a child container whose parent holds the annotated objects.
+	 */
+	@Test
+	public void testGetObjectsAnnotatedWith_ChildContainerWithAnnotatedParent_ReturnObjectsOfParent() throws Throwable {
+		System.out.println("testGetObjectsAnnotatedWith_ChildContainerWithAnnotatedParent_ReturnObjectsOfParent");
+
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsAnnotatedWith.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"), configuration);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class);
+
+		assertEquals("resulting list must hold the objects of the parent", parent.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class), result);
+		assertSame("merged list must be computed only once", result, instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class));
+		assertEquals("every annotated object of the parent must be found", 3, instance.getObjectsAnnotatedWith(RegionTestAnnotation.class).size());
+	}
+
+	/**
+	 * Test of getObjectsAnnotatedWith method, of interface Container with a valid context and a null requested annotation.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectsAnnotatedWith_ValidContextAndNullRequestedAnnotation_ThrowException() throws Throwable {
+		System.out.println("testGetObjectsAnnotatedWith_ValidContextAndNullRequestedAnnotation_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectsAnnotatedWith(null);
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a valid context and a requested annotation type that is no annotation.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectsThatImplement_ValidContextAndRequestedInterfaceAsAnnotation_ThrowException() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ValidContextAndRequestedInterfaceAsAnnotation_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsAnnotatedWith.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectsThatImplement(CommonGroupInterface.class, Annotation.class);
+	}
+
+	/**
+	 * Builds the context declaring objects of several priorities.
+	 * @param buildMode Strategy by which the objects are instantiated
+	 * @return Built container
+	 * @throws Exception If the container could not be built
+	 */
+	private Container buildPriorityContainer(final BuildMode buildMode) throws Exception {
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testPriority.xml");
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(buildMode);
+
+		return Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+	}
+
+	/**
+	 * Asserts that the objects of the context declaring several priorities come by ascending priority, then in document order.
+	 * @param instance Container built from the context
+	 * @throws Exception If the objects could not be looked up
+	 */
+	private static void assertPriorityOrder(final Container instance) throws Exception {
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+		assertEquals("resulting list must contain five (5) objects", 5, result.size());
+		assertSame("lowest priority must be first", InheritedRegionGroupedClass.class, result.get(0).getClass());
+		assertSame("negative priority must be second", ThirdCommonGroupedClass.class, result.get(1).getClass());
+		assertSame("object without priority must be third", FirstCommonGroupedClass.class, result.get(2).getClass());
+		assertSame("equal priorities must keep their document order", SecondCommonGroupedClass.class, result.get(3).getClass());
+		assertSame("equal priorities must keep their document order", EuropeanGroupedClass.class, result.get(4).getClass());
+		assertSame("resulting lists must be the same shared snapshot", result, instance.getObjectsThatImplement(CommonGroupInterface.class));
+		assertSame("annotated objects must follow the same order", InheritedRegionGroupedClass.class, instance.getObjectsAnnotatedWith(RegionTestAnnotation.class).get(0).getClass());
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a streamed context declaring priorities.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_StreamingContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_StreamingContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder");
+
+		assertPriorityOrder(this.buildPriorityContainer(BuildMode.STREAMING));
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a context declaring priorities instantiated in parallel.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_ParallelContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ParallelContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder");
+
+		assertPriorityOrder(this.buildPriorityContainer(BuildMode.PARALLEL));
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a lazy context declaring priorities.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_LazyContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_LazyContextWithPriorities_ReturnObjectsByPriorityThenDocumentOrder");
+
+		assertPriorityOrder(this.buildPriorityContainer(BuildMode.LAZY));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a decoded context declaring priorities.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithPriorities_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithPriorities_ThrowException");
+
+		this.buildPriorityContainer(BuildMode.XML_DECODER);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlOnInputStream method, of class Container.Builder with a nested object declaring a priority.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlOnInputStream_NestedObjectWithPriority_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlOnInputStream_NestedObjectWithPriority_ThrowException");
+
+		final String context = "<java><object class=\"com.unboundedprime.tapioca.core.ParentTestClass\"><void property=\"child\">"
+				+ "<object class=\"com.unboundedprime.tapioca.core.ChildTestClass\" priority=\"1\"/></void></object></java>";
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+
+		final Container instance = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(context.getBytes("UTF-8")), configuration);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlOnInputStream method, of class Container.Builder with a decoded context declaring a priority.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlOnInputStream_DecodedContextWithPriority_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlOnInputStream_DecodedContextWithPriority_ThrowException");
+
+		final String context = "<java><object class=\"com.unboundedprime.tapioca.core.ChildTestClass\" priority=\"1\"/></java>";
+
+		final Container instance = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(context.getBytes("UTF-8")));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlOnInputStream method, of class Container.Builder with a priority that is not an integer.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlOnInputStream_InvalidPriority_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlOnInputStream_InvalidPriority_ThrowException");
+
+		final String context = "<java><object class=\"com.unboundedprime.tapioca.core.ChildTestClass\" priority=\"high\"/></java>";
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+
+		final Container instance = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(context.getBytes("UTF-8")), configuration);
+	}
+
 	/**
 	 * Test of containsObjectThatImplements method, of interface Container with a valid context and a valid requested interface.
 	 */
@@ -213,6 +697,1537 @@ public class ContainerTest {
 		boolean result = instance.containsObjectThatImplements(interfaceToRequest);
 	}
 	
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a lazy context and a valid object graph.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_LazyContextAndValidRequestedObject_ReturnValidObjectGraphAndInstantiateNothingElse() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_LazyContextAndValidRequestedObject_ReturnValidObjectGraphAndInstantiateNothingElse");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		InstanceCountingTestClass.resetInstanceCount();
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertNotNull("object must not be null", result);
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertSame("referenced object must be the same instance as the one looked up", result.getChild(), instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertTrue("unrequested object must be known", instance.containsObjectThatImplements(InstanceCountingTestClass.class));
+		assertEquals("unrequested object must not be instantiated", 0, InstanceCountingTestClass.getInstanceCount());
+	}
+
+	/**
+	 * Test of getObjectThatImplementsOrNull method, of interface Container with a lazy context and a long chain of references.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_LazyContextAndLongReferenceChain_ReturnValidObjectGraph() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_LazyContextAndLongReferenceChain_ReturnValidObjectGraph");
+
+		final int chainLength = 50000;
+		final StringBuilder context = new StringBuilder("<java>");
+
+		for (int index = 0; index < chainLength; index++) {
+			context.append("<object id=\"link").append(index).append("\" class=\"java.util.ArrayList\">");
+
+			if (index > 0) {
+				context.append("<void method=\"add\"><object idref=\"link").append(index - 1).append("\"/></void>");
+			}
+
+			context.append("</object>");
+		}
+
+		context.append("<object class=\"java.util.LinkedList\"><void method=\"add\"><object idref=\"link").append(chainLength - 1).append("\"/></void></object>");
+		context.append("</java>");
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream(context.toString().getBytes("UTF-8")), configuration);
+
+		final LinkedList<?> result = instance.getObjectThatImplementsOrNull(LinkedList.class);
+
+		List<?> link = (List<?>) result.get(0);
+		int linkCount = 1;
+
+		while (!link.isEmpty()) {
+			link = (List<?>) link.get(0);
+			linkCount++;
+		}
+
+		assertEquals("every link of the chain must be instantiated", chainLength, linkCount);
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a lazy context and concurrent first requests for the same object.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_LazyContextAndConcurrentFirstRequests_InstantiateOnce() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_LazyContextAndConcurrentFirstRequests_InstantiateOnce");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		InstanceCountingTestClass.resetInstanceCount();
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+		final int threadCount = 8;
+		final CountDownLatch startGate = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		final List<Future<InstanceCountingTestClass>> results = new ArrayList<Future<InstanceCountingTestClass>>(threadCount);
+
+		try {
+			for (int index = 0; index < threadCount; index++) {
+				results.add(executor.submit(new Callable<InstanceCountingTestClass>() {
+					public InstanceCountingTestClass call() throws Exception {
+						startGate.await();
+						return instance.getObjectThatImplementsOrNull(InstanceCountingTestClass.class);
+					}
+				}));
+			}
+
+			startGate.countDown();
+
+			final InstanceCountingTestClass expectedResult = results.get(0).get();
+			assertEquals("expected text must be present", "Counted", expectedResult.getText());
+
+			for (final Future<InstanceCountingTestClass> result : results) {
+				assertSame("every thread must obtain the same object", expectedResult, result.get());
+			}
+
+			assertEquals("object must be instantiated exactly once", 1, InstanceCountingTestClass.getInstanceCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a lazy context and a valid list of objects.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_LazyContextAndValidRequestedInterface_ReturnValidObjects() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_LazyContextAndValidRequestedInterface_ReturnValidObjects");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+		assertEquals("resulting list must contain three (3) objects", 3, result.size());
+		assertSame("FirstCommonGroupedClass must be first", FirstCommonGroupedClass.class, result.get(0).getClass());
+		assertSame("SecondCommonGroupedClass must be second", SecondCommonGroupedClass.class, result.get(1).getClass());
+		assertSame("ThirdCommonGroupedClass must be third", ThirdCommonGroupedClass.class, result.get(2).getClass());
+		assertSame("resulting lists must be the same shared snapshot", result, instance.getObjectsThatImplement(CommonGroupInterface.class));
+		assertTrue("resulting list must be empty for a missing interface", instance.getObjectsThatImplement(Map.class).isEmpty());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a lazy context and a requested interface that will cause ambiguity.
+	 */
+	@Test(expected=AmbiguousInterfaceException.class)
+	public void testGetObjectThatImplementsOrNull_LazyContextAndRequestedInterfaceThatWillGetMultiples_ThrowException() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_LazyContextAndRequestedInterfaceThatWillGetMultiples_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectThatImplementsOrNull(CommonGroupInterface.class);
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a streamed context and a valid object graph.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_StreamingContextAndValidRequestedObject_ReturnValidObjectGraphAndInstantiateEverything() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_StreamingContextAndValidRequestedObject_ReturnValidObjectGraphAndInstantiateEverything");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		InstanceCountingTestClass.resetInstanceCount();
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertEquals("every object must be instantiated while building", 1, InstanceCountingTestClass.getInstanceCount());
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertNotNull("object must not be null", result);
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertSame("referenced object must be the same instance as the one looked up", result.getChild(), instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertSame("superclass lookups must find the object", result, instance.getObjectThatImplementsOrNull(ParentTestClass.class));
+	}
+
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a streamed context and a valid list of objects.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_StreamingContextAndValidRequestedInterface_ReturnValidObjects() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_StreamingContextAndValidRequestedInterface_ReturnValidObjects");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+		assertEquals("resulting list must contain three (3) objects", 3, result.size());
+		assertSame("FirstCommonGroupedClass must be first", FirstCommonGroupedClass.class, result.get(0).getClass());
+		assertSame("SecondCommonGroupedClass must be second", SecondCommonGroupedClass.class, result.get(1).getClass());
+		assertSame("ThirdCommonGroupedClass must be third", ThirdCommonGroupedClass.class, result.get(2).getClass());
+		assertEquals("every object must be indexed", 4, instance.getObjectsThatImplement(Object.class).size());
+	}
+
+	/**
+	 * Test of testGetObjectsThatImplement method, of interface Container with a streamed context invoking constructors, static and instance methods.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_StreamingContextWithMemberInvocations_ReturnValidObjects() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_StreamingContextWithMemberInvocations_ReturnValidObjects");
+
+		final String contextFileName = "beans_ContainerTest_testMemberInvocation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final List<List> result = instance.getObjectsThatImplement(List.class);
+
+		assertEquals("resulting list must contain two (2) lists", 2, result.size());
+		assertEquals("overloaded methods must be chosen by their arguments", Arrays.asList("zero", "first"), result.get(0));
+		assertEquals("array must be passed as the varargs parameter", Arrays.asList("varargs"), result.get(1));
+		assertEquals("static factory method must be invoked", Integer.valueOf(42), instance.getObjectThatImplementsOrNull(Integer.class));
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a context instantiated in parallel and a valid object graph.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ParallelContextAndValidRequestedObject_ReturnValidObjectGraph() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ParallelContextAndValidRequestedObject_ReturnValidObjectGraph");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+		InstanceCountingTestClass.resetInstanceCount();
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertEquals("every object must be instantiated exactly once while building", 1, InstanceCountingTestClass.getInstanceCount());
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+		final List<Object> allObjects = instance.getObjectsThatImplement(Object.class);
+
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertSame("referenced object must be the same instance as the one looked up", result.getChild(), instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertEquals("every object must be indexed", 3, allObjects.size());
+		assertSame("objects must be cataloged in document order", InstanceCountingTestClass.class, allObjects.get(0).getClass());
+		assertSame("objects must be cataloged in document order", ParentTestClass.class, allObjects.get(1).getClass());
+		assertSame("objects must be cataloged in document order", ChildTestClass.class, allObjects.get(2).getClass());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a context instantiated in parallel on a configured executor.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithExecutor_InstantiateOnExecutor() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithExecutor_InstantiateOnExecutor");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final AtomicInteger taskCount = new AtomicInteger();
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+		configuration.setExecutor(new Executor() {
+			public void execute(final Runnable command) {
+				taskCount.incrementAndGet();
+				executor.execute(command);
+			}
+		});
+
+		try {
+			final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+			assertEquals("every object must be instantiated on the executor", 4, taskCount.get());
+			assertEquals("resulting list must contain three (3) objects", 3, instance.getObjectsThatImplement(CommonGroupInterface.class).size());
+			assertFalse("configured executor must not be shut down", executor.isShutdown());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a context instantiated in parallel whose object cannot be instantiated.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithFailingObject_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithFailingObject_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testInstantiationFailure.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a decoded context declaring ids and an object that cannot be decoded.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithIdsAndFailingObject_SkipFailingObject() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithIdsAndFailingObject_SkipFailingObject");
+
+		final String contextFileName = "beans_ContainerTest_testInstantiationFailure.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		assertTrue("decoded object must be kept", instance.containsObjectThatImplements(ChildTestClass.class));
+		assertNull("decoded object must have no id", instance.getObjectById("childClassInstance", ChildTestClass.class));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a streamed context referencing an unknown id.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithUnknownReference_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithUnknownReference_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testUnknownReference.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a lazy context referencing an unknown id.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_LazyContextWithUnknownReference_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_LazyContextWithUnknownReference_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testUnknownReference.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a null configuration.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_NullConfiguration_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_NullConfiguration_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, null);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a path that does not exist in the classpath.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_MissingResource_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_MissingResource_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_doesNotExist.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with several contexts referencing each other.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_MultipleContextsWithCrossReference_ReturnValidObjectGraph() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_MultipleContextsWithCrossReference_ReturnValidObjectGraph");
+
+		final String parentContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+		final String childContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml");
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(parentContextFileLocation, childContextFileLocation));
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+		final List<Object> allObjects = instance.getObjectsThatImplement(Object.class);
+
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertSame("referenced object must be the same instance as the one looked up", result.getChild(), instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertEquals("every object must be indexed", 2, allObjects.size());
+		assertSame("objects must be cataloged in the order of the contexts", result, allObjects.get(0));
+	}
+
+	/**
+	 * Test of getSourceOf method, of interface Container with several contexts.
+	 */
+	@Test
+	public void testGetSourceOf_MultipleContexts_ReturnDeclaringContext() throws Throwable {
+		System.out.println("testGetSourceOf_MultipleContexts_ReturnDeclaringContext");
+
+		final String parentContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+		final String childContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml");
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(parentContextFileLocation, childContextFileLocation));
+
+		assertEquals("source of the parent must be its context", parentContextFileLocation, instance.getSourceOf(instance.getObjectThatImplementsOrNull(ParentTestClass.class)));
+		assertEquals("source of the child must be its context", childContextFileLocation, instance.getSourceOf(instance.getObjectThatImplementsOrNull(ChildTestClass.class)));
+		assertNull("foreign object must have no source", instance.getSourceOf(new ChildTestClass()));
+	}
+
+	/**
+	 * Test of getSourceOf method, of interface Container with several lazy contexts.
+	 */
+	@Test
+	public void testGetSourceOf_LazyMultipleContexts_ReturnDeclaringContextOnceInstantiated() throws Throwable {
+		System.out.println("testGetSourceOf_LazyMultipleContexts_ReturnDeclaringContextOnceInstantiated");
+
+		final String parentContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+		final String childContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml");
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(parentContextFileLocation, childContextFileLocation), configuration);
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertEquals("source of the parent must be its context", parentContextFileLocation, instance.getSourceOf(result));
+		assertEquals("source of the child must be its context", childContextFileLocation, instance.getSourceOf(result.getChild()));
+	}
+
+	/**
+	 * Test of getSourceOf method, of interface Container with a single context in the classpath and on an input stream.
+	 */
+	@Test
+	public void testGetSourceOf_SingleContext_ReturnPathOrNull() throws Throwable {
+		System.out.println("testGetSourceOf_SingleContext_ReturnPathOrNull");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container classPathInstance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		final Container inputStreamInstance = Container.Builder.buildContainerFromXmlOnInputStream(this.getClass().getResourceAsStream(contextFileName));
+
+		assertEquals("source must be the path in the classpath", contextFileLocation, classPathInstance.getSourceOf(classPathInstance.getObjectThatImplementsOrNull(ParentTestClass.class)));
+		assertNull("source of an input stream must be unnamed", inputStreamInstance.getSourceOf(inputStreamInstance.getObjectThatImplementsOrNull(ParentTestClass.class)));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlOnInputStreams method, of class Container.Builder with several contexts parsed and instantiated on a configured executor.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlOnInputStreams_ParallelContextsWithExecutor_ReturnValidObjectGraph() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlOnInputStreams_ParallelContextsWithExecutor_ReturnValidObjectGraph");
+
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		final Map<String, InputStream> inputStreams = new HashMap<String, InputStream>();
+		inputStreams.put("child", this.getClass().getResourceAsStream("beans_ContainerTest_testMultipleContextsChild.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+		configuration.setExecutor(executor);
+
+		try {
+			inputStreams.put("parent", this.getClass().getResourceAsStream("beans_ContainerTest_testMultipleContextsParent.xml"));
+			final Container instance = Container.Builder.buildContainerFromXmlOnInputStreams(inputStreams, configuration);
+
+			final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+			assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+			assertEquals("source of the parent must be its name", "parent", instance.getSourceOf(result));
+			assertEquals("source of the child must be its name", "child", instance.getSourceOf(result.getChild()));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlFilesInClasspath method, of class Container.Builder with two contexts declaring the same id.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlFilesInClasspath_DuplicateId_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlFilesInClasspath_DuplicateId_ThrowException");
+
+		final String firstContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml");
+		final String secondContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml");
+
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(firstContextFileLocation, secondContextFileLocation));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlFilesInClasspath method, of class Container.Builder with an idref to an id no context declares.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlFilesInClasspath_UnresolvedCrossReference_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlFilesInClasspath_UnresolvedCrossReference_ThrowException");
+
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(contextFileLocation));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlFilesInClasspath method, of class Container.Builder with a path that does not exist in the classpath.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlFilesInClasspath_MissingResource_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlFilesInClasspath_MissingResource_ThrowException");
+
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+		final String missingContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_doesNotExist.xml");
+
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(Arrays.asList(contextFileLocation, missingContextFileLocation));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlFilesInClasspath method, of class Container.Builder with no contexts.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlFilesInClasspath_EmptyList_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlFilesInClasspath_EmptyList_ThrowException");
+
+		final Container instance = Container.Builder.buildContainerFromXmlFilesInClasspath(new ArrayList<String>());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a child container that holds no implementation.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ChildContainerWithoutImplementation_ReturnObjectOfParent() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ChildContainerWithoutImplementation_ReturnObjectOfParent");
+
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsThatImplement.xml"), configuration);
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertSame("object must be obtained from the parent", parent.getObjectThatImplementsOrNull(ParentTestInterface.class), result);
+		assertTrue("child must contain the objects of its parent", instance.containsObjectThatImplements(ChildTestClass.class));
+		assertSame("parent must be exposed", parent, instance.getParent());
+		assertNull("parent must not have a parent", parent.getParent());
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a child container that holds an implementation its parent also holds.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ChildContainerShadowingParent_ReturnObjectOfChild() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ChildContainerShadowingParent_ReturnObjectOfChild");
+
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml"), configuration);
+
+		final ChildTestClass result = instance.getObjectThatImplementsOrNull(ChildTestClass.class);
+		final List<ChildTestClass> allResults = instance.getObjectsThatImplement(ChildTestClass.class);
+
+		assertNotSame("object of the child must take precedence", parent.getObjectThatImplementsOrNull(ChildTestClass.class), result);
+		assertEquals("resulting list must contain the objects of both containers", 2, allResults.size());
+		assertSame("objects of the child must come first", result, allResults.get(0));
+		assertSame("objects of the parent must follow", parent.getObjectThatImplementsOrNull(ChildTestClass.class), allResults.get(1));
+	}
+
+	/**
+	 * Test of testGetObjectThatImplementsOrNull method, of interface Container with a child container whose parent holds several implementations.
+	 */
+	@Test(expected=AmbiguousInterfaceException.class)
+	public void testGetObjectThatImplementsOrNull_ChildContainerWithAmbiguousParent_ThrowException() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ChildContainerWithAmbiguousParent_ThrowException");
+
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsThatImplement.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml"), configuration);
+
+		final CommonGroupInterface result = instance.getObjectThatImplementsOrNull(CommonGroupInterface.class);
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface Container with a hierarchy of three containers.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_ContainerHierarchy_ReturnMergedCachedList() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_ContainerHierarchy_ReturnMergedCachedList");
+
+		final String grandparentContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsThatImplement.xml");
+		final Container grandparent = Container.Builder.buildContainerFromXmlInClasspath(grandparentContextFileLocation);
+		final ContainerConfiguration parentConfiguration = new ContainerConfiguration();
+		parentConfiguration.setParent(grandparent);
+		parentConfiguration.setBuildMode(BuildMode.LAZY);
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"), parentConfiguration);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml"), configuration);
+
+		final List<Object> result = instance.getObjectsThatImplement(Object.class);
+		final CommonGroupInterface groupedObject = instance.getObjectsThatImplement(CommonGroupInterface.class).get(0);
+
+		assertEquals("resulting list must contain the objects of every container", 7, result.size());
+		assertSame("objects of the child must come first", instance.getObjectThatImplementsOrNull(ParentTestClass.class).getChild().getClass(), result.get(0).getClass());
+		assertSame("objects of the grandparent must come last", FourthNonCommonGroupedClass.class, result.get(6).getClass());
+		assertSame("merged list must be computed only once", result, instance.getObjectsThatImplement(Object.class));
+		assertEquals("source must be reported by the declaring container", grandparentContextFileLocation, instance.getSourceOf(groupedObject));
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a streamed context holding several implementations of the same interface.
+	 */
+	@Test
+	public void testGetObjectById_ValidContextAndAmbiguousInterface_ReturnObjectDeclaredWithId() throws Throwable {
+		System.out.println("testGetObjectById_ValidContextAndAmbiguousInterface_ReturnObjectDeclaredWithId");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final CommonGroupInterface result = instance.getObjectById("second", CommonGroupInterface.class);
+
+		assertSame("object declared with the id must be returned", SecondCommonGroupedClass.class, result.getClass());
+		assertSame("object must be the indexed instance", instance.getObjectsThatImplement(CommonGroupInterface.class).get(1), result);
+		assertSame("last object must be found by its id", FourthNonCommonGroupedClass.class, instance.getObjectById("fourth", Object.class).getClass());
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a streamed context.
+	 */
+	@Test
+	public void testGetObjectById_StreamingContextAndValidId_ReturnObjectDeclaredWithId() throws Throwable {
+		System.out.println("testGetObjectById_StreamingContextAndValidId_ReturnObjectDeclaredWithId");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ParentTestInterface result = instance.getObjectById("parentClassInstance", ParentTestInterface.class);
+
+		assertSame("object must be the indexed instance", instance.getObjectThatImplementsOrNull(ParentTestInterface.class), result);
+		assertSame("referenced object must be found by its id", result.getChild(), instance.getObjectById("childClassInstance", ChildTestClass.class));
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a lazy context.
+	 */
+	@Test
+	public void testGetObjectById_LazyContextAndValidId_ReturnObjectAndInstantiateNothingElse() throws Throwable {
+		System.out.println("testGetObjectById_LazyContextAndValidId_ReturnObjectAndInstantiateNothingElse");
+
+		final String contextFileName = "beans_ContainerTest_testLazyInstantiation.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		InstanceCountingTestClass.resetInstanceCount();
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ParentTestClass result = instance.getObjectById("parentClassInstance", ParentTestClass.class);
+
+		assertEquals("expected text must be present", "Hello World!", result.getChild().getText());
+		assertSame("object must be the indexed instance", instance.getObjectThatImplementsOrNull(ParentTestClass.class), result);
+		assertEquals("unrequested object must not be instantiated", 0, InstanceCountingTestClass.getInstanceCount());
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with an id no object is declared with.
+	 */
+	@Test
+	public void testGetObjectById_ValidContextAndUnknownId_ReturnNull() throws Throwable {
+		System.out.println("testGetObjectById_ValidContextAndUnknownId_ReturnNull");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		assertNull("object must be null", instance.getObjectById("fifth", Object.class));
+		assertNull("object of a null id must be null", instance.getObjectById(null, Object.class));
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with an object that does not implement the requested interface.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectById_ValidContextAndMismatchingInterface_ThrowException() throws Throwable {
+		System.out.println("testGetObjectById_ValidContextAndMismatchingInterface_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final CommonGroupInterface result = instance.getObjectById("fourth", CommonGroupInterface.class);
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a null requested interface.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectById_ValidContextAndNullRequestedInterface_ThrowException() throws Throwable {
+		System.out.println("testGetObjectById_ValidContextAndNullRequestedInterface_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectById("first", null);
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a child container whose parent declares the id.
+	 */
+	@Test
+	public void testGetObjectById_ChildContainerWithoutId_ReturnObjectOfParent() throws Throwable {
+		System.out.println("testGetObjectById_ChildContainerWithoutId_ReturnObjectOfParent");
+
+		final ContainerConfiguration parentConfiguration = new ContainerConfiguration();
+		parentConfiguration.setBuildMode(BuildMode.STREAMING);
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsThatImplement.xml"), parentConfiguration);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setParent(parent);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml"), configuration);
+
+		assertSame("object must be obtained from the parent", parent.getObjectsThatImplement(CommonGroupInterface.class).get(2), instance.getObjectById("third", CommonGroupInterface.class));
+		assertSame("object of the child must be found by its id", instance.getObjectThatImplementsOrNull(ChildTestClass.class), instance.getObjectById("childClassInstance", ChildTestClass.class));
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a streamed context declaring thread scoped objects.
+	 */
+	@Test
+	public void testGetObjectById_StreamingContextAndThreadScope_ReturnInstanceOfCallingThread() throws Throwable {
+		System.out.println("testGetObjectById_StreamingContextAndThreadScope_ReturnInstanceOfCallingThread");
+
+		final String contextFileName = "beans_ContainerTest_testScopes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			final ChildTestClass result = instance.getObjectById("threadChild", ChildTestClass.class);
+			final ChildTestClass otherThreadResult = executor.submit(new Callable<ChildTestClass>() {
+				public ChildTestClass call() throws Exception {
+					return instance.getObjectById("threadChild", ChildTestClass.class);
+				}
+			}).get();
+
+			assertEquals("expected text must be present", "Thread", result.getText());
+			assertSame("thread must get the same instance again", result, instance.getObjectById("threadChild", ChildTestClass.class));
+			assertNotSame("another thread must get an instance of its own", result, otherThreadResult);
+			assertSame("thread scoped reference must resolve to the instance of the thread", result, instance.getObjectById("threadParent", ParentTestClass.class).getChild());
+			assertEquals("only the singleton must be indexed by type", 1, instance.getObjectsThatImplement(ChildTestClass.class).size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of getObjectPool method, of interface Container with a lazy context declaring a pooled object.
+	 */
+	@Test
+	public void testGetObjectPool_LazyContextAndPooledObject_BorrowAndReturnInstances() throws Throwable {
+		System.out.println("testGetObjectPool_LazyContextAndPooledObject_BorrowAndReturnInstances");
+
+		final String contextFileName = "beans_ContainerTest_testScopes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ObjectPool<ChildTestClass> pool = instance.getObjectPool("pooledChild", ChildTestClass.class);
+		final ChildTestClass first = pool.borrowObject();
+		final ChildTestClass second = pool.borrowObject();
+
+		assertEquals("expected text must be present", "Pooled", first.getText());
+		assertNotSame("borrowed instances must be distinct", first, second);
+		assertEquals("pool must have no idle instance", 0, pool.getIdleCount());
+
+		pool.returnObject(first);
+		pool.returnObject(second);
+		pool.returnObject(new ChildTestClass());
+
+		assertEquals("pool must keep no more idle instances than its capacity", 2, pool.getCapacity());
+		assertEquals("pool must be full", 2, pool.getIdleCount());
+		assertTrue("returned instance must be borrowed again", (pool.borrowObject() == first) || (pool.borrowObject() == first));
+		assertSame("pool must be the same on each lookup", pool, instance.getObjectPool("pooledChild", ChildTestClass.class));
+		assertEquals("pooled object must not be indexed by type", 1, instance.getObjectsThatImplement(ChildTestClass.class).size());
+	}
+
+	/**
+	 * Test of getObjectPool method, of interface Container with an object that is not pooled.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectPool_StreamingContextAndSingleton_ThrowException() throws Throwable {
+		System.out.println("testGetObjectPool_StreamingContextAndSingleton_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testScopes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectPool("sharedChild", ChildTestClass.class);
+	}
+
+	/**
+	 * Test of getObjectById method, of interface Container with a pooled object.
+	 */
+	@Test(expected=InvalidInterfaceException.class)
+	public void testGetObjectById_StreamingContextAndPooledObject_ThrowException() throws Throwable {
+		System.out.println("testGetObjectById_StreamingContextAndPooledObject_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testScopes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectById("pooledChild", ChildTestClass.class);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a singleton referencing a thread scoped object.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_SingletonReferencingThreadScope_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_SingletonReferencingThreadScope_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testScopedReference.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a decoded context declaring scopes.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithScopes_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithScopes_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testScopes.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+	}
+
+	/**
+	 * Test of close method, of interface Container with a streamed context declaring init and destroy methods.
+	 */
+	@Test
+	public void testClose_StreamingContextWithLifecycleMethods_InitInDependencyOrderAndDestroyInReverse() throws Throwable {
+		System.out.println("testClose_StreamingContextWithLifecycleMethods_InitInDependencyOrderAndDestroyInReverse");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycle.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		configuration.setExecutor(executor);
+		LifecycleTestClass.reset(new CyclicBarrier(2));
+
+		try {
+			final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+			final List<String> initEvents = LifecycleTestClass.getEvents();
+
+			assertEquals("every init method must be invoked once", 3, initEvents.size());
+			assertTrue("independent objects must be started concurrently", initEvents.containsAll(Arrays.asList("start:database", "start:cache")));
+			assertTrue("dependent object must be started after its dependency", initEvents.indexOf("start:service") > initEvents.indexOf("start:database"));
+
+			LifecycleTestClass.reset(null);
+			instance.close();
+			instance.close();
+
+			final List<String> destroyEvents = LifecycleTestClass.getEvents();
+
+			assertEquals("every object must be destroyed once", 3, destroyEvents.size());
+			assertTrue("object without destroy method must be closed", destroyEvents.containsAll(Arrays.asList("close:service", "stop:cache")));
+			assertTrue("dependency must be destroyed after the object referencing it", destroyEvents.indexOf("stop:database") > destroyEvents.indexOf("close:service"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of close method, of interface Container with a lazy context declaring init and destroy methods.
+	 */
+	@Test
+	public void testClose_LazyContextWithLifecycleMethods_InitAndDestroyInstantiatedObjectsOnly() throws Throwable {
+		System.out.println("testClose_LazyContextWithLifecycleMethods_InitAndDestroyInstantiatedObjectsOnly");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycle.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		LifecycleTestClass.reset(null);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertTrue("no object must be started before lookup", LifecycleTestClass.getEvents().isEmpty());
+
+		instance.getObjectById("service", LifecycleTestClass.class);
+
+		assertEquals("referenced object must be started first", Arrays.asList("start:database", "start:service"), LifecycleTestClass.getEvents());
+
+		LifecycleTestClass.reset(null);
+		instance.close();
+
+		assertEquals("only instantiated objects must be destroyed", Arrays.asList("close:service", "stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of close method, of interface Container with a decoded context holding AutoCloseable objects.
+	 */
+	@Test
+	public void testClose_DecodedContextWithAutoCloseableObjects_CloseInReverseOrder() throws Throwable {
+		System.out.println("testClose_DecodedContextWithAutoCloseableObjects_CloseInReverseOrder");
+
+		final String contextFileName = "beans_ContainerTest_testAutoCloseable.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+		LifecycleTestClass.reset(null);
+
+		instance.close();
+
+		assertEquals("objects must be closed in reverse document order", Arrays.asList("close:second", "close:first"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of close method, of interface Container with a destroy method exceeding the lifecycle timeout.
+	 */
+	@Test
+	public void testClose_SlowDestroyMethod_ThrowExceptionAfterDestroyingOthers() throws Throwable {
+		System.out.println("testClose_SlowDestroyMethod_ThrowExceptionAfterDestroyingOthers");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycleTimeout.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setLifecycleTimeoutMillis(100);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+		LifecycleTestClass.reset(null);
+
+		try {
+			instance.close();
+			fail("slow destroy method must be reported");
+		} catch (LifecycleException ex) {
+			assertTrue("cause must be the timeout", ex.getCause() instanceof TimeoutException);
+		}
+
+		assertEquals("other objects must be destroyed", Arrays.asList("stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of close method, of interface Container with a destroy method exceeding the lifecycle timeout while ignoring interruption.
+	 */
+	@Test
+	public void testClose_LateDestroyMethodIgnoringInterruption_DestroyDependencyOnceItReturned() throws Throwable {
+		System.out.println("testClose_LateDestroyMethodIgnoringInterruption_DestroyDependencyOnceItReturned");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycleLinger.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setLifecycleTimeoutMillis(50);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+		LifecycleTestClass.reset(null);
+
+		try {
+			instance.close();
+			fail("late destroy method must be reported");
+		} catch (LifecycleException ex) {
+			assertTrue("cause must be the timeout", ex.getCause() instanceof TimeoutException);
+		}
+
+		assertEquals("dependency must be destroyed after the late method returned", Arrays.asList("linger:worker", "stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a slow init method that nothing depends on.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_SlowIndependentInitMethod_StartOthersWithoutWaiting() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_SlowIndependentInitMethod_StartOthersWithoutWaiting");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycleScheduling.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		LifecycleTestClass.reset(null);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertEquals("dependent object must start as soon as its own dependency did", Arrays.asList("start:cache", "start:service", "pause:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with init methods queued on a single thread.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_InitMethodsQueuedOnSingleThread_TimeEachFromItsStart() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_InitMethodsQueuedOnSingleThread_TimeEachFromItsStart");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycleQueued.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setLifecycleTimeoutMillis(300);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		configuration.setExecutor(executor);
+		LifecycleTestClass.reset(null);
+
+		try {
+			final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+			assertEquals("every init method must complete", 2, LifecycleTestClass.getEvents().size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a failing init method.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_FailingInitMethod_ThrowExceptionAfterDestroyingObjects() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_FailingInitMethod_ThrowExceptionAfterDestroyingObjects");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycleFailure.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+		LifecycleTestClass.reset(null);
+
+		try {
+			Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+			fail("failing init method must be reported");
+		} catch (InvalidContextException ex) {
+			assertTrue("cause must be the failure of the init method", ex.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals("created objects must be destroyed", Arrays.asList("close:service", "stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a streamed context whose last object cannot be instantiated.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithFailingLastObject_ThrowExceptionAfterDestroyingObjects() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithFailingLastObject_ThrowExceptionAfterDestroyingObjects");
+
+		final String contextFileName = "beans_ContainerTest_testInstantiationFailureCleanup.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		LifecycleTestClass.reset(null);
+
+		try {
+			Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+			fail("failing object must be reported");
+		} catch (InvalidContextException ex) {
+			assertTrue("cause must be the failure of the object", ex.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals("objects created before the failure must be destroyed", Arrays.asList("stop:cache", "stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a parallel context whose last object cannot be instantiated.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithFailingLastObject_ThrowExceptionAfterDestroyingObjects() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_ParallelContextWithFailingLastObject_ThrowExceptionAfterDestroyingObjects");
+
+		final String contextFileName = "beans_ContainerTest_testInstantiationFailureCleanup.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.PARALLEL);
+		LifecycleTestClass.reset(null);
+
+		try {
+			Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+			fail("failing object must be reported");
+		} catch (InvalidContextException ex) {
+			assertTrue("cause must be the failure of the object", ex.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals("objects created before the failure must be destroyed", Arrays.asList("stop:cache", "stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a decoded context declaring lifecycle methods.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithLifecycleMethods_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithLifecycleMethods_ThrowException");
+
+		final String contextFileName = "beans_ContainerTest_testLifecycle.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+	}
+
+	/**
+	 * Test of getStatistics method, of interface Container with a streamed context and a warm-up budget.
+	 */
+	@Test
+	public void testGetStatistics_StreamingContextWithWarmUpBudget_ReportWarmUpOfEachObject() throws Throwable {
+		System.out.println("testGetStatistics_StreamingContextWithWarmUpBudget_ReportWarmUpOfEachObject");
+
+		final String contextFileName = "beans_ContainerTest_testWarmUp.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setStatisticsEnabled(true);
+		configuration.setWarmUpBudgetMillis(20);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final WarmUpTestClass handler = instance.getObjectById("handler", WarmUpTestClass.class);
+		final WarmUpTestClass codec = instance.getObjectById("codec", WarmUpTestClass.class);
+		final List<ContainerStatistics.WarmUpStatistics> result = instance.getStatistics().getWarmUpStatistics();
+
+		assertEquals("every object to warm up must be reported", 2, result.size());
+		assertEquals("objects must be reported in document order", "handler", result.get(0).getId());
+		assertEquals("declared warm-up method must be counted", handler.getHandleCount(), result.get(0).getInvocationCount());
+		assertEquals("declared warm-up method must take precedence over the interface", 0, handler.getWarmUpCount());
+		assertEquals("warmable object must be warmed up through the interface", codec.getWarmUpCount(), result.get(1).getInvocationCount());
+		assertTrue("warm-up methods must be invoked at least once", result.get(1).getInvocationCount() >= 1);
+		assertTrue("warm-up of each object must be timed", result.get(1).getWarmUpTimeNanos() > 0);
+		assertTrue("warm-up phase must last the budget", instance.getStatistics().getWarmUpTimeNanos() >= 20000000L);
+		assertTrue("warm-up phase must end once the budget is spent", instance.getStatistics().getWarmUpTimeNanos() < 10000000000L);
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with the default configuration and a warmable object.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_DefaultConfigurationAndWarmableObject_SkipWarmUp() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DefaultConfigurationAndWarmableObject_SkipWarmUp");
+
+		final String contextFileName = "beans_ContainerTest_testWarmUp.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertEquals("no object must be warmed up without budget", 0, instance.getObjectById("codec", WarmUpTestClass.class).getWarmUpCount());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a failing warm-up method.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_FailingWarmUpMethod_ThrowExceptionAfterDestroyingObjects() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_FailingWarmUpMethod_ThrowExceptionAfterDestroyingObjects");
+
+		final String contextFileName = "beans_ContainerTest_testWarmUpFailure.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setWarmUpBudgetMillis(10);
+		LifecycleTestClass.reset(null);
+
+		try {
+			Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+			fail("failing warm-up method must be reported");
+		} catch (InvalidContextException ex) {
+			assertTrue("cause must be the failure of the warm-up method", ex.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals("created objects must be destroyed", Arrays.asList("stop:database"), LifecycleTestClass.getEvents());
+	}
+
+	/**
+	 * Test of Builder.buildAsync method, of class Container.Builder with a valid context and no executor.
+	 */
+	@Test
+	public void testBuilderBuildAsync_ValidContextAndDefaultExecutor_CompleteWithValidObjectGraph() throws Throwable {
+		System.out.println("testBuilderBuildAsync_ValidContextAndDefaultExecutor_CompleteWithValidObjectGraph");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		final CompletableFuture<Container> future = Container.Builder.buildAsync(contextFileLocation);
+		final Container instance = future.get();
+
+		assertEquals("expected text must be present", "Hello World!", instance.getObjectThatImplementsOrNull(ParentTestInterface.class).getChild().getText());
+	}
+
+	/**
+	 * Test of Builder.buildAsync method, of class Container.Builder with several contexts built on a configured executor.
+	 */
+	@Test
+	public void testBuilderBuildAsync_MultipleContextsWithExecutor_BuildOnExecutor() throws Throwable {
+		System.out.println("testBuilderBuildAsync_MultipleContextsWithExecutor_BuildOnExecutor");
+
+		final String parentContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsParent.xml");
+		final String childContextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testMultipleContextsChild.xml");
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final AtomicInteger executedTasks = new AtomicInteger();
+
+		try {
+			final CompletableFuture<Container> future = Container.Builder.buildAsync(Arrays.asList(parentContextFileLocation, childContextFileLocation), new ContainerConfiguration(), new Executor() {
+				public void execute(final Runnable runnable) {
+					executedTasks.incrementAndGet();
+					executor.execute(runnable);
+				}
+			});
+			final Container instance = future.get();
+
+			assertEquals("build must run on the executor", 1, executedTasks.get());
+			assertEquals("expected text must be present", "Hello World!", instance.getObjectThatImplementsOrNull(ParentTestInterface.class).getChild().getText());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test of Builder.buildAsync method, of class Container.Builder with a context that cannot be found.
+	 */
+	@Test
+	public void testBuilderBuildAsync_MissingResource_CompleteExceptionally() throws Throwable {
+		System.out.println("testBuilderBuildAsync_MissingResource_CompleteExceptionally");
+
+		final String contextFileName = "beans_ContainerTest_doesNotExist.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+
+		try {
+			Container.Builder.buildAsync(contextFileLocation).get();
+			fail("build must fail");
+		} catch (ExecutionException ex) {
+			assertTrue("failure must be an InvalidContextException", ex.getCause() instanceof InvalidContextException);
+		}
+	}
+
+	/**
+	 * Test of Builder.buildAsync method, of class Container.Builder with an executor unable to start the build.
+	 */
+	@Test
+	public void testBuilderBuildAsync_ExecutorThrowingError_CompleteExceptionally() throws Throwable {
+		System.out.println("testBuilderBuildAsync_ExecutorThrowingError_CompleteExceptionally");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final CompletableFuture<Container> future = Container.Builder.buildAsync(contextFileLocation, new ContainerConfiguration(), new Executor() {
+			public void execute(final Runnable command) {
+				throw new OutOfMemoryError("unable to create native thread");
+			}
+		});
+
+		try {
+			future.get();
+			fail("build must fail");
+		} catch (ExecutionException ex) {
+			assertTrue("failure must be an InvalidContextException", ex.getCause() instanceof InvalidContextException);
+			assertTrue("cause must be the failure to start the build", ex.getCause().getCause() instanceof OutOfMemoryError);
+		}
+	}
+
+	/**
+	 * Test of getStatistics method, of interface Container with a streamed context collecting statistics.
+	 */
+	@Test
+	public void testGetStatistics_StreamingContextWithStatistics_ReturnBeanAndPropertyTimings() throws Throwable {
+		System.out.println("testGetStatistics_StreamingContextWithStatistics_ReturnBeanAndPropertyTimings");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setStatisticsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ContainerStatistics result = instance.getStatistics();
+		final List<ContainerStatistics.BeanStatistics> beanStatistics = result.getBeanStatistics();
+
+		assertEquals("every object must be timed", 2, beanStatistics.size());
+		assertEquals("objects must be reported in document order", "childClassInstance", beanStatistics.get(0).getId());
+		assertEquals("class of the object must be reported", ParentTestClass.class.getName(), beanStatistics.get(1).getClassName());
+		assertTrue("source must be named", beanStatistics.get(0).getDescription().contains(contextFileLocation));
+		assertEquals("property must be timed", "text", beanStatistics.get(0).getPropertyStatistics().get(0).getName());
+		assertEquals("property must be timed", "child", beanStatistics.get(1).getPropertyStatistics().get(0).getName());
+		assertTrue("decode time must be measured", result.getDecodeTimeNanos() > 0);
+		assertTrue("total time must cover every phase", result.getTotalTimeNanos() >= result.getDecodeTimeNanos() + result.getInstantiationTimeNanos() + result.getIndexTimeNanos());
+		assertTrue("report must name the objects", result.formatSlowestBeansReport(10).contains("childClassInstance"));
+	}
+
+	/**
+	 * Test of getStatistics method, of interface Container with a decoded context collecting statistics.
+	 */
+	@Test
+	public void testGetStatistics_DecodedContextWithStatistics_ReturnRootObjectTimings() throws Throwable {
+		System.out.println("testGetStatistics_DecodedContextWithStatistics_ReturnRootObjectTimings");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setStatisticsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		final ContainerStatistics result = instance.getStatistics();
+
+		assertEquals("every root level object must be timed", 4, result.getBeanStatistics().size());
+		assertEquals("class of the object must be reported", FirstCommonGroupedClass.class.getName(), result.getBeanStatistics().get(0).getClassName());
+		assertEquals("instantiation must be part of decoding", 0, result.getInstantiationTimeNanos());
+		assertTrue("decode time must be measured", result.getDecodeTimeNanos() > 0);
+	}
+
+	/**
+	 * Test of getStatistics method, of interface Container with a lazy context collecting statistics.
+	 */
+	@Test
+	public void testGetStatistics_LazyContextWithStatistics_ReturnInstantiatedObjectTimings() throws Throwable {
+		System.out.println("testGetStatistics_LazyContextWithStatistics_ReturnInstantiatedObjectTimings");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		configuration.setStatisticsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		assertEquals("no object must be timed before lookup", 0, instance.getStatistics().getBeanStatistics().size());
+
+		instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertEquals("looked up object and its reference must be timed", 2, instance.getStatistics().getBeanStatistics().size());
+	}
+
+	/**
+	 * Test of getStatistics method, of interface Container with the default configuration.
+	 */
+	@Test
+	public void testGetStatistics_DefaultConfiguration_ReturnNull() throws Throwable {
+		System.out.println("testGetStatistics_DefaultConfiguration_ReturnNull");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		assertNull("statistics must not be collected by default", instance.getStatistics());
+	}
+
+	/**
+	 * Test of getLookupStatistics method, of interface Container with counted lookups that hit, miss and are ambiguous.
+	 */
+	@Test
+	public void testGetLookupStatistics_CountedLookups_ReturnCountsPerType() throws Throwable {
+		System.out.println("testGetLookupStatistics_CountedLookups_ReturnCountsPerType");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setLookupMetricsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectThatImplementsOrNull(FirstCommonGroupedClass.class);
+		instance.getObjectThatImplementsOrNull(FirstCommonGroupedClass.class);
+		instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+		instance.getObjectsThatImplement(CommonGroupInterface.class);
+		instance.containsObjectThatImplements(ParentTestInterface.class);
+
+		try {
+			instance.getObjectThatImplementsOrNull(CommonGroupInterface.class);
+			fail("lookup must be ambiguous");
+		} catch (AmbiguousInterfaceException ex) {
+			// Expected, and counted
+		}
+
+		final LookupStatistics result = instance.getLookupStatistics();
+
+		assertEquals("every lookup must be counted", 6, result.getTotalLookupCount());
+		assertEquals("lookups finding nothing must be counted", 2, result.getTotalMissCount());
+		assertEquals("ambiguous lookups must be counted", 1, result.getTotalAmbiguousCount());
+		assertEquals("every looked up type must be reported", 3, result.getTypeStatistics().size());
+		assertEquals("single lookups must be counted per type", 2, result.getTypeStatistics(FirstCommonGroupedClass.class.getName()).getSingleLookupCount());
+		assertEquals("list lookups must be counted per type", 1, result.getTypeStatistics(CommonGroupInterface.class.getName()).getMultipleLookupCount());
+		assertEquals("checks must be counted per type", 1, result.getTypeStatistics(ParentTestInterface.class.getName()).getContainsLookupCount());
+	}
+
+	/**
+	 * Test of getLookupStatistics method, of interface Container with an ambiguous lookup of a lazy context.
+	 */
+	@Test
+	public void testGetLookupStatistics_LazyContextAmbiguousLookup_CountAmbiguity() throws Throwable {
+		System.out.println("testGetLookupStatistics_LazyContextAmbiguousLookup_CountAmbiguity");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectsThatImplement.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.LAZY);
+		configuration.setLookupMetricsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		try {
+			instance.getObjectThatImplementsOrNull(CommonGroupInterface.class);
+			fail("lookup must be ambiguous");
+		} catch (AmbiguousInterfaceException ex) {
+			// Expected, and counted
+		}
+
+		assertEquals("ambiguous lookup must be counted", 1, instance.getLookupStatistics().getTotalAmbiguousCount());
+	}
+
+	/**
+	 * Test of getLookupStatistics method, of interface Container with the default configuration.
+	 */
+	@Test
+	public void testGetLookupStatistics_DefaultConfiguration_ReturnNull() throws Throwable {
+		System.out.println("testGetLookupStatistics_DefaultConfiguration_ReturnNull");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation);
+
+		instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertNull("lookups must not be counted by default", instance.getLookupStatistics());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a listener sampling every lookup.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithListener_ReportBuildAndLookups() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_StreamingContextWithListener_ReportBuildAndLookups");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final RecordingContainerListener listener = new RecordingContainerListener();
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setListener(listener);
+		configuration.setLookupSamplingInterval(1);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+		instance.getObjectsThatImplement(CommonGroupInterface.class);
+		instance.containsObjectThatImplements(ChildTestClass.class);
+
+		assertEquals("every step must be reported in order", Arrays.asList("parse 2", "bean childClassInstance " + ChildTestClass.class.getName(), "bean parentClassInstance " + ParentTestClass.class.getName(),
+				"index 2", "getObjectThatImplementsOrNull ParentTestInterface true", "getObjectsThatImplement CommonGroupInterface false",
+				"containsObjectThatImplements ChildTestClass true"), listener.getSteps());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromXmlInClasspath method, of class Container.Builder with a listener and no lookup sampling.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithListener_ReportBuildOnly() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromXmlInClasspath_DecodedContextWithListener_ReportBuildOnly");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final RecordingContainerListener listener = new RecordingContainerListener();
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setListener(listener);
+		final Container instance = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+
+		instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertEquals("build must be reported without lookups", Arrays.asList("bean null " + ChildTestClass.class.getName(), "bean null " + ParentTestClass.class.getName(),
+				"parse 2", "index 2"), listener.getSteps());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with a context factory.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromCompiledContext_ValidFactory_ReturnValidObject() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_ValidFactory_ReturnValidObject");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext(ContextFactoryTestClass.class);
+
+		final ParentTestInterface result = instance.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+		assertNotNull("object must be created by the factory", result);
+		assertSame("child must be wired by the factory", instance.getObjectThatImplementsOrNull(ChildTestClass.class), result.getChild());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with a configuration holding a parent and counting lookups.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromCompiledContext_ConfigurationWithParent_HonourConfiguration() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_ConfigurationWithParent_HonourConfiguration");
+
+		final Container parent = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsThatImplement.xml"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setParent(parent);
+		configuration.setLookupMetricsEnabled(true);
+		final Container instance = Container.Builder.buildContainerFromCompiledContext(ContextFactoryTestClass.class, configuration);
+
+		final FirstCommonGroupedClass result = instance.getObjectThatImplementsOrNull(FirstCommonGroupedClass.class);
+
+		assertSame("object must be obtained from the parent", parent.getObjectThatImplementsOrNull(FirstCommonGroupedClass.class), result);
+		assertSame("parent must be exposed", parent, instance.getParent());
+		assertEquals("lookup must be counted", 1, instance.getLookupStatistics().getTotalLookupCount());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with the name of a context factory.
+	 */
+	@Test
+	public void testBuilderBuildContainerFromCompiledContext_ValidFactoryName_ReturnValidObject() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_ValidFactoryName_ReturnValidObject");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext(ContextFactoryTestClass.class.getName());
+
+		assertTrue(instance.containsObjectThatImplements(ParentTestClass.class));
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with a class that does not exist.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromCompiledContext_UnknownFactoryName_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_UnknownFactoryName_ThrowException");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext("com.unboundedprime.tapioca.core.DoesNotExistContextFactory");
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with a class that is not a context factory.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromCompiledContext_NotAFactory_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_NotAFactory_ThrowException");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext(ParentTestClass.class.getName());
+	}
+
+	/**
+	 * Test of Builder.buildContainerFromCompiledContext method, of class Container.Builder with a null class.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildContainerFromCompiledContext_NullClass_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildContainerFromCompiledContext_NullClass_ThrowException");
+
+		final Container instance = Container.Builder.buildContainerFromCompiledContext((Class<? extends ContextFactory>) null);
+	}
+
 	/**
 	 * Test of Builder.buildContainerFromXmlOnInputStream method, of class Container.Builder with a null inputstream.
 	 */
@@ -0,0 +1,52 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InstanceCountingTestClass {
+
+	private static final AtomicInteger instanceCount = new AtomicInteger();
+
+	private String text;
+
+	public InstanceCountingTestClass() throws InterruptedException {
+		instanceCount.incrementAndGet();
+		
+		// Widens the window in which concurrent first lookups race to create the instance
+		Thread.sleep(20);
+	}
+
+	public static int getInstanceCount() {
+		return instanceCount.get();
+	}
+
+	public static void resetInstanceCount() {
+		instanceCount.set(0);
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+public class LifecycleTestClass implements AutoCloseable {
+
+	private static final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+	private static volatile CyclicBarrier startBarrier;
+
+	private String name;
+
+	private LifecycleTestClass dependency;
+
+	private long pauseMillis;
+
+	public static List<String> getEvents() {
+		synchronized (events) {
+			return new ArrayList<String>(events);
+		}
+	}
+
+	public static void reset(final CyclicBarrier barrier) {
+		events.clear();
+		startBarrier = barrier;
+	}
+
+	public void start() throws Exception {
+		final CyclicBarrier barrier = startBarrier;
+
+		// Only completes if the objects sharing the barrier are started concurrently
+		if ((barrier != null) && (dependency == null)) {
+			barrier.await(5, TimeUnit.SECONDS);
+		}
+
+		events.add("start:" + name);
+	}
+
+	public void stop() {
+		events.add("stop:" + name);
+	}
+
+	public void fail() {
+		throw new IllegalStateException("Failed to start " + name + ".");
+	}
+
+	public void hang() throws InterruptedException {
+		Thread.sleep(10000);
+	}
+
+	public void pause() throws InterruptedException {
+		Thread.sleep(pauseMillis);
+		events.add("pause:" + name);
+	}
+
+	public void linger() {
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+
+		// Ignores interruption, as a method that never checks for it would
+		while (System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException ex) {
+				// Keeps lingering
+			}
+		}
+
+		events.add("linger:" + name);
+	}
+
+	public void close() {
+		events.add("close:" + name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public LifecycleTestClass getDependency() {
+		return dependency;
+	}
+
+	public void setDependency(LifecycleTestClass dependency) {
+		this.dependency = dependency;
+	}
+
+	public long getPauseMillis() {
+		return pauseMillis;
+	}
+
+	public void setPauseMillis(long pauseMillis) {
+		this.pauseMillis = pauseMillis;
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.LookupStatistics class.
+ */
+public class LookupStatisticsTest {
+
+	/**
+	 * Creates statistics of three types looked up 3, 10 and 1 times, in that order.
+	 * @return Statistics
+	 */
+	private static LookupStatistics createStatistics() {
+		return new LookupStatistics(Arrays.asList(
+				new LookupStatistics.TypeLookupStatistics("com.example.First", 3, 0, 0, 1, 2),
+				new LookupStatistics.TypeLookupStatistics("com.example.Second", 4, 5, 1, 0, 0),
+				new LookupStatistics.TypeLookupStatistics("com.example.Third", 0, 0, 1, 1, 0)));
+	}
+
+	/**
+	 * Test of getTypeStatistics method, of class LookupStatistics with types in any order.
+	 */
+	@Test
+	public void testGetTypeStatistics_UnsortedTypes_ReturnMostLookedUpFirst() {
+		System.out.println("testGetTypeStatistics_UnsortedTypes_ReturnMostLookedUpFirst");
+
+		final LookupStatistics instance = createStatistics();
+
+		assertEquals("most looked up type must come first", "com.example.Second", instance.getTypeStatistics().get(0).getTypeName());
+		assertEquals("least looked up type must come last", "com.example.Third", instance.getTypeStatistics().get(2).getTypeName());
+		assertEquals("type must be found by name", 10, instance.getTypeStatistics("com.example.Second").getTotalLookupCount());
+		assertNull("unknown type must not be found", instance.getTypeStatistics("com.example.Unknown"));
+	}
+
+	/**
+	 * Test of getTotalLookupCount method, of class LookupStatistics with several types.
+	 */
+	@Test
+	public void testGetTotalLookupCount_SeveralTypes_ReturnSums() {
+		System.out.println("testGetTotalLookupCount_SeveralTypes_ReturnSums");
+
+		final LookupStatistics instance = createStatistics();
+
+		assertEquals("lookups must be summed", 14, instance.getTotalLookupCount());
+		assertEquals("misses must be summed", 2, instance.getTotalMissCount());
+		assertEquals("ambiguous lookups must be summed", 2, instance.getTotalAmbiguousCount());
+	}
+
+	/**
+	 * Test of toMetrics method, of class LookupStatistics with several types.
+	 */
+	@Test
+	public void testToMetrics_SeveralTypes_ReturnCountsPerMetricName() {
+		System.out.println("testToMetrics_SeveralTypes_ReturnCountsPerMetricName");
+
+		final LookupStatistics instance = createStatistics();
+
+		final Map<String, Long> result = instance.toMetrics();
+
+		assertEquals("every type must contribute three metrics", 9, result.size());
+		assertEquals("lookups must be exported", Long.valueOf(3), result.get("com.example.First.lookups"));
+		assertEquals("misses must be exported", Long.valueOf(1), result.get("com.example.First.misses"));
+		assertEquals("ambiguous lookups must be exported", Long.valueOf(2), result.get("com.example.First.ambiguous"));
+		assertEquals("most looked up type must come first", "com.example.Second.lookups", result.keySet().iterator().next());
+	}
+
+	/**
+	 * Test of formatReport method, of class LookupStatistics with fewer types requested than available.
+	 */
+	@Test
+	public void testFormatReport_LimitBelowTypeCount_ReportMostLookedUpTypes() {
+		System.out.println("testFormatReport_LimitBelowTypeCount_ReportMostLookedUpTypes");
+
+		final LookupStatistics instance = createStatistics();
+
+		final String result = instance.formatReport(2);
+
+		assertTrue("totals must be reported", result.contains("14 lookups of 3 types"));
+		assertTrue("most looked up type must be reported", result.contains("com.example.Second"));
+		assertFalse("types beyond the limit must not be reported", result.contains("com.example.Third"));
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import com.unboundedprime.tapioca.utilities.util.ClassPathUtils;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.LookupStatisticsView class.
+ */
+public class LookupStatisticsViewTest {
+
+	/**
+	 * Test of getTypeStatistics method, of class LookupStatisticsView registered with the platform MBeanServer.
+	 */
+	@Test
+	public void testGetTypeStatistics_RegisteredView_ReturnCountsThroughJmx() throws Throwable {
+		System.out.println("testGetTypeStatistics_RegisteredView_ReturnCountsThroughJmx");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setLookupMetricsEnabled(true);
+		final Container container = Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation, configuration);
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName("com.unboundedprime.tapioca:type=LookupStatistics,name=LookupStatisticsViewTest");
+
+		server.registerMBean(new LookupStatisticsView(container), name);
+
+		try {
+			container.getObjectThatImplementsOrNull(ParentTestInterface.class);
+
+			final CompositeData[] result = (CompositeData[]) server.getAttribute(name, "TypeStatistics");
+
+			assertEquals("lookup must be counted", 1L, server.getAttribute(name, "TotalLookupCount"));
+			assertEquals("looked up type must be reported", 1, result.length);
+			assertEquals("type must be named", ParentTestInterface.class.getName(), result[0].get("typeName"));
+			assertEquals("single lookup must be reported", 1L, result[0].get("singleLookupCount"));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	/**
+	 * Test of getTotalLookupCount method, of class LookupStatisticsView with a container that does not count lookups.
+	 */
+	@Test
+	public void testGetTotalLookupCount_UncountedContainer_ReturnZero() throws Throwable {
+		System.out.println("testGetTotalLookupCount_UncountedContainer_ReturnZero");
+
+		final String contextFileName = "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml";
+		final String contextFileLocation = ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, contextFileName);
+		final LookupStatisticsView instance = new LookupStatisticsView(Container.Builder.buildContainerFromXmlInClasspath(contextFileLocation));
+
+		assertEquals("nothing must be counted", 0, instance.getTotalLookupCount());
+		assertTrue("no type must be reported", instance.getTypeStatistics().isEmpty());
+	}
+}
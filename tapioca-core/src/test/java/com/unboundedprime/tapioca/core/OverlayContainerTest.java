@@ -0,0 +1,156 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import com.unboundedprime.tapioca.core.exception.AmbiguousInterfaceException;
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import com.unboundedprime.tapioca.utilities.util.ClassPathUtils;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.OverlayContainer interface.
+ */
+public class OverlayContainerTest {
+
+	/**
+	 * Builds the shared container holding a parent referencing a child.
+	 * @return Shared container
+	 * @throws Exception If the container could not be built
+	 */
+	private Container buildSharedContainer() throws Exception {
+		return Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"));
+	}
+
+	/**
+	 * Test of getObjectThatImplementsOrNull method, of interface OverlayContainer with an object registered for the request.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_RegisteredObject_ReturnObjectOfOverlay() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_RegisteredObject_ReturnObjectOfOverlay");
+
+		final Container sharedContainer = this.buildSharedContainer();
+		final ChildTestClass requestObject = new ChildTestClass();
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(sharedContainer).register(requestObject);
+
+		assertSame("object of the overlay must take precedence", requestObject, instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertSame("shared object must be found", sharedContainer.getObjectThatImplementsOrNull(ParentTestInterface.class), instance.getObjectThatImplementsOrNull(ParentTestInterface.class));
+		assertNotSame("shared container must not see the object of the overlay", requestObject, sharedContainer.getObjectThatImplementsOrNull(ChildTestClass.class));
+		assertSame("shared container must be exposed as parent", sharedContainer, instance.getParent());
+	}
+
+	/**
+	 * Test of getObjectsThatImplement method, of interface OverlayContainer with objects registered for the request.
+	 */
+	@Test
+	public void testGetObjectsThatImplement_RegisteredObjects_ReturnObjectsOfOverlayFirst() throws Throwable {
+		System.out.println("testGetObjectsThatImplement_RegisteredObjects_ReturnObjectsOfOverlayFirst");
+
+		final Container sharedContainer = this.buildSharedContainer();
+		final ChildTestClass firstRequestObject = new ChildTestClass();
+		final ChildTestClass secondRequestObject = new ChildTestClass();
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(sharedContainer);
+
+		for (int i = 0; i < 3; i++) {
+			instance.register("unrelated" + i, Integer.valueOf(i));
+		}
+
+		instance.register(firstRequestObject).register(secondRequestObject);
+
+		final List<ChildTestClass> result = instance.getObjectsThatImplement(ChildTestClass.class);
+
+		assertEquals("resulting list must contain the objects of the overlay and the shared container", 3, result.size());
+		assertSame("objects of the overlay must come first", firstRequestObject, result.get(0));
+		assertSame("objects of the overlay must keep their order", secondRequestObject, result.get(1));
+		assertSame("list of a shared type must be the shared list", sharedContainer.getObjectsThatImplement(ParentTestClass.class), instance.getObjectsThatImplement(ParentTestClass.class));
+		assertTrue("registered type must be contained", instance.containsObjectThatImplements(Integer.class));
+	}
+
+	/**
+	 * Test of getObjectsAnnotatedWith method, of interface OverlayContainer with annotated and plain objects registered for the request.
+	 */
+	@Test
+	public void testGetObjectsAnnotatedWith_RegisteredObjects_ReturnAnnotatedObjectsOfOverlayFirst() throws Throwable {
+		System.out.println("testGetObjectsAnnotatedWith_RegisteredObjects_ReturnAnnotatedObjectsOfOverlayFirst");
+
+		final Container sharedContainer = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectsAnnotatedWith.xml"));
+		final EuropeanGroupedClass requestObject = new EuropeanGroupedClass();
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(sharedContainer).register(new FirstCommonGroupedClass()).register(requestObject);
+
+		final List<CommonGroupInterface> result = instance.getObjectsThatImplement(CommonGroupInterface.class, RegionTestAnnotation.class);
+
+		assertEquals("resulting list must contain the annotated objects of the overlay and the shared container", 3, result.size());
+		assertSame("annotated object of the overlay must come first", requestObject, result.get(0));
+		assertEquals("every annotated object must be found", 4, instance.getObjectsAnnotatedWith(RegionTestAnnotation.class).size());
+		assertSame("list without registered match must be the shared list", sharedContainer.getObjectsThatImplement(EuropeanNonGroupedClass.class, RegionTestAnnotation.class),
+				instance.getObjectsThatImplement(EuropeanNonGroupedClass.class, RegionTestAnnotation.class));
+	}
+
+	/**
+	 * Test of getObjectById method, of interface OverlayContainer with an object registered under an id.
+	 */
+	@Test
+	public void testGetObjectById_RegisteredObjectWithId_ReturnObjectOfOverlay() throws Throwable {
+		System.out.println("testGetObjectById_RegisteredObjectWithId_ReturnObjectOfOverlay");
+
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		final Container sharedContainer = Container.Builder.buildContainerFromXmlInClasspath(ClassPathUtils.generateClassPathPrefixForFileInSamePackageAs(this, "beans_ContainerTest_testGetObjectThatImplementsOrNull.xml"), configuration);
+		final ChildTestClass requestObject = new ChildTestClass();
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(sharedContainer).register("childClassInstance", requestObject);
+
+		assertSame("object of the overlay must shadow the shared id", requestObject, instance.getObjectById("childClassInstance", ChildTestClass.class));
+		assertSame("shared id must be found", sharedContainer.getObjectThatImplementsOrNull(ParentTestClass.class), instance.getObjectById("parentClassInstance", ParentTestClass.class));
+		assertNull("registered object must have no source", instance.getSourceOf(requestObject));
+	}
+
+	/**
+	 * Test of getObjectThatImplementsOrNull method, of interface OverlayContainer with two registered objects of the requested type.
+	 */
+	@Test(expected=AmbiguousInterfaceException.class)
+	public void testGetObjectThatImplementsOrNull_SeveralRegisteredObjects_ThrowException() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_SeveralRegisteredObjects_ThrowException");
+
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(this.buildSharedContainer()).register(new ChildTestClass()).register(new ChildTestClass());
+
+		instance.getObjectThatImplementsOrNull(ChildTestClass.class);
+	}
+
+	/**
+	 * Test of register method, of interface OverlayContainer with a null object.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testRegister_NullObject_ThrowException() throws Throwable {
+		System.out.println("testRegister_NullObject_ThrowException");
+
+		Container.Builder.buildOverlayContainer(this.buildSharedContainer()).register(null);
+	}
+
+	/**
+	 * Test of Builder.buildOverlayContainer method, of class Container.Builder with a null shared container.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildOverlayContainer_NullContainer_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildOverlayContainer_NullContainer_ThrowException");
+
+		final OverlayContainer instance = Container.Builder.buildOverlayContainer(null);
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RecordingContainerListener implements ContainerListener {
+
+	private final List<String> steps = Collections.synchronizedList(new ArrayList<String>());
+
+	public List<String> getSteps() {
+		return steps;
+	}
+
+	public Object parseStarting(String sourceName) {
+		return sourceName;
+	}
+
+	public void parseFinished(Object token, String sourceName, int objectCount) {
+		steps.add("parse " + objectCount);
+	}
+
+	public Object beanStarting() {
+		return this;
+	}
+
+	public void beanFinished(Object token, String id, String className) {
+		steps.add("bean " + id + " " + className);
+	}
+
+	public Object indexStarting() {
+		return this;
+	}
+
+	public void indexFinished(Object token, int objectCount) {
+		steps.add("index " + objectCount);
+	}
+
+	public Object lookupStarting(Class<?> classOrInterface) {
+		return this;
+	}
+
+	public void lookupFinished(Object token, Class<?> classOrInterface, String methodName, boolean found) {
+		steps.add(methodName + " " + classOrInterface.getSimpleName() + " " + found);
+	}
+}
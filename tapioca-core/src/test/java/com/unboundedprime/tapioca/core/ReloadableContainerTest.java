@@ -0,0 +1,461 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core;
+
+import com.unboundedprime.tapioca.core.exception.InvalidContextException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.ReloadableContainer interface.
+ */
+public class ReloadableContainerTest {
+
+	/**
+	 * Directory holding the context files, which is deleted after each test.
+	 */
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/**
+	 * Writes a context declaring a parent referencing a child, and an independent string.
+	 * @param contextFile File to write
+	 * @param childText Text of the child
+	 * @param otherText Value of the independent string
+	 * @throws Exception If the file could not be written
+	 */
+	private static void writeContext(final Path contextFile, final String childText, final String otherText) throws Exception {
+		final String context = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<java>\n"
+				+ "\t<object id=\"childClassInstance\" class=\"com.unboundedprime.tapioca.core.ChildTestClass\">\n"
+				+ "\t\t<void property=\"text\"><string>" + childText + "</string></void>\n"
+				+ "\t</object>\n"
+				+ "\t<object id=\"parentClassInstance\" class=\"com.unboundedprime.tapioca.core.ParentTestClass\">\n"
+				+ "\t\t<void property=\"child\"><object idref=\"childClassInstance\"/></void>\n"
+				+ "\t</object>\n"
+				+ "\t<object class=\"java.lang.String\"><string>" + otherText + "</string></object>\n"
+				+ "</java>\n";
+
+		Files.write(contextFile, context.getBytes("UTF-8"));
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a changed object that no other object references.
+	 */
+	@Test
+	public void testReload_ChangedIndependentObject_ReuseUnchangedObjects() throws Throwable {
+		System.out.println("testReload_ChangedIndependentObject_ReuseUnchangedObjects");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ParentTestClass parent = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+			final ChildTestClass child = instance.getObjectThatImplementsOrNull(ChildTestClass.class);
+
+			writeContext(contextFile, "Hello World!", "after");
+			instance.reload();
+
+			assertEquals("changed object must be rebuilt", "after", instance.getObjectThatImplementsOrNull(String.class));
+			assertSame("unchanged parent must be reused", parent, instance.getObjectThatImplementsOrNull(ParentTestClass.class));
+			assertSame("unchanged child must be reused", child, instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+			assertEquals("successful reload must be counted", 1, instance.getReloadCount());
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a child container looking up a changed object.
+	 */
+	@Test
+	public void testReload_ChildContainerAndChangedObject_ChildReturnReloadedObject() throws Throwable {
+		System.out.println("testReload_ChildContainerAndChangedObject_ChildReturnReloadedObject");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ContainerConfiguration configuration = new ContainerConfiguration();
+			configuration.setParent(instance);
+			final Container child = Container.Builder.buildContainerFromXmlOnInputStream(new ByteArrayInputStream("<java><int>1</int></java>".getBytes("UTF-8")), configuration);
+
+			assertEquals("child must return the object of the parent", Arrays.asList("before"), child.getObjectsThatImplement(String.class));
+
+			writeContext(contextFile, "Hello World!", "after");
+			instance.reload();
+
+			assertEquals("child must return the reloaded object of the parent", Arrays.asList("after"), child.getObjectsThatImplement(String.class));
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a changed object that another object references.
+	 */
+	@Test
+	public void testReload_ChangedReferencedObject_RebuildReferencingObjects() throws Throwable {
+		System.out.println("testReload_ChangedReferencedObject_RebuildReferencingObjects");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "unchanged");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ParentTestClass parent = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+			final String other = instance.getObjectThatImplementsOrNull(String.class);
+
+			writeContext(contextFile, "Goodbye World!", "unchanged");
+			instance.reload();
+
+			final ParentTestClass result = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+
+			assertNotSame("object referencing the changed object must be rebuilt", parent, result);
+			assertEquals("rebuilt object must reference the changed object", "Goodbye World!", result.getChild().getText());
+			assertSame("rebuilt object must reference the indexed object", result.getChild(), instance.getObjectThatImplementsOrNull(ChildTestClass.class));
+			assertSame("unchanged object must be reused", other, instance.getObjectThatImplementsOrNull(String.class));
+			assertEquals("source must be the context file", contextFile.toAbsolutePath().toString(), instance.getSourceOf(result));
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a malformed context.
+	 */
+	@Test
+	public void testReload_MalformedContext_KeepPreviousObjects() throws Throwable {
+		System.out.println("testReload_MalformedContext_KeepPreviousObjects");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "unchanged");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ParentTestClass parent = instance.getObjectThatImplementsOrNull(ParentTestClass.class);
+
+			Files.write(contextFile, "<java><object idref=\"unknown\"/></java>".getBytes("UTF-8"));
+
+			try {
+				instance.reload();
+				fail("malformed context must be rejected");
+			} catch (InvalidContextException ex) {
+				assertSame("previous objects must remain in use", parent, instance.getObjectThatImplementsOrNull(ParentTestClass.class));
+				assertEquals("failed reload must not be counted", 0, instance.getReloadCount());
+			}
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of getObjectThatImplementsOrNull method, of interface ReloadableContainer with a context file changed on disk.
+	 */
+	@Test
+	public void testGetObjectThatImplementsOrNull_ContextFileChanged_ReturnReloadedObject() throws Throwable {
+		System.out.println("testGetObjectThatImplementsOrNull_ContextFileChanged_ReturnReloadedObject");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			writeContext(contextFile, "Hello World!", "after");
+
+			final long deadline = System.currentTimeMillis() + 30000;
+
+			while ((instance.getReloadCount() == 0) && (System.currentTimeMillis() < deadline)) {
+				Thread.sleep(10);
+			}
+
+			assertNull("reload must succeed", instance.getLastReloadFailure());
+			assertEquals("changed object must be rebuilt", "after", instance.getObjectThatImplementsOrNull(String.class));
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a handle on an object that is rebuilt.
+	 */
+	@Test
+	public void testReload_HandleOnChangedObject_RebindHandle() throws Throwable {
+		System.out.println("testReload_HandleOnChangedObject_RebindHandle");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ObjectHandle<String> handle = instance.getObjectHandle(String.class);
+			assertEquals("handle must be bound to the built object", "before", (String) handle.getMethodHandle().invokeExact());
+
+			writeContext(contextFile, "Hello World!", "after");
+			instance.reload();
+
+			assertEquals("handle must be rebound to the rebuilt object", "after", handle.get());
+			assertEquals("method handle must return the rebuilt object", "after", (String) handle.getMethodHandle().invokeExact());
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of getObjectHandle method, of interface ReloadableContainer with a reload in progress.
+	 */
+	@Test
+	public void testGetObjectHandle_ReloadInProgress_ReturnHandleWithoutWaitingAndRebindIt() throws Throwable {
+		System.out.println("testGetObjectHandle_ReloadInProgress_ReturnHandleWithoutWaitingAndRebindIt");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+
+		try {
+			final String context = "<java>\n\t<object class=\"java.lang.String\"><string>after</string></object>\n"
+					+ "\t<object class=\"com.unboundedprime.tapioca.core.LifecycleTestClass\" init=\"start\"/>\n</java>\n";
+			Files.write(contextFile, context.getBytes("UTF-8"));
+			LifecycleTestClass.reset(barrier);
+
+			final Future<Object> reload = executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					instance.reload();
+					return null;
+				}
+			});
+
+			while (barrier.getNumberWaiting() == 0) {
+				Thread.sleep(10);
+			}
+
+			final ObjectHandle<String> handle = instance.getObjectHandle(String.class);
+
+			assertEquals("handle must be bound to the current object", "before", handle.get());
+
+			barrier.await(5, TimeUnit.SECONDS);
+			reload.get(5, TimeUnit.SECONDS);
+
+			assertEquals("handle obtained during the reload must be rebound", "after", handle.get());
+		} finally {
+			LifecycleTestClass.reset(null);
+			executor.shutdownNow();
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a handle whose type becomes ambiguous.
+	 */
+	@Test
+	public void testReload_HandleOnAmbiguousType_KeepPreviousObjects() throws Throwable {
+		System.out.println("testReload_HandleOnAmbiguousType_KeepPreviousObjects");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "before");
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final ObjectHandle<String> handle = instance.getObjectHandle(String.class);
+			final String context = "<java>\n\t<object class=\"java.lang.String\"><string>first</string></object>\n"
+					+ "\t<object class=\"java.lang.String\"><string>second</string></object>\n</java>\n";
+			Files.write(contextFile, context.getBytes("UTF-8"));
+
+			try {
+				instance.reload();
+				fail("ambiguous handle type must be rejected");
+			} catch (InvalidContextException ex) {
+				assertEquals("handle must stay bound to the previous object", "before", handle.get());
+				assertEquals("previous objects must remain in use", "before", instance.getObjectThatImplementsOrNull(String.class));
+				assertEquals("failed reload must not be counted", 0, instance.getReloadCount());
+			}
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with objects whose priorities change.
+	 */
+	@Test
+	public void testReload_ChangedPriorities_ReorderReusedObjects() throws Throwable {
+		System.out.println("testReload_ChangedPriorities_ReorderReusedObjects");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		final String context = "<java>\n\t<object class=\"com.unboundedprime.tapioca.core.FirstCommonGroupedClass\" priority=\"%d\"/>\n"
+				+ "\t<object class=\"com.unboundedprime.tapioca.core.SecondCommonGroupedClass\" priority=\"%d\"/>\n</java>\n";
+		Files.write(contextFile, String.format(context, 1, 2).getBytes("UTF-8"));
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+
+		try {
+			final List<CommonGroupInterface> before = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+			Files.write(contextFile, String.format(context, 2, 1).getBytes("UTF-8"));
+			instance.reload();
+
+			final List<CommonGroupInterface> after = instance.getObjectsThatImplement(CommonGroupInterface.class);
+
+			assertSame("reprioritized object must be reused and come first", before.get(1), after.get(0));
+			assertSame("reprioritized object must be reused and come last", before.get(0), after.get(1));
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a changed object declaring a destroy method.
+	 */
+	@Test
+	public void testReload_ChangedObjectWithDestroyMethod_DestroyReplacedObjectOnly() throws Throwable {
+		System.out.println("testReload_ChangedObjectWithDestroyMethod_DestroyReplacedObjectOnly");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		final String context = "<java>\n\t<object id=\"database\" class=\"com.unboundedprime.tapioca.core.LifecycleTestClass\" destroy=\"stop\">\n"
+				+ "\t\t<void property=\"name\"><string>database</string></void>\n\t</object>\n"
+				+ "\t<object id=\"cache\" class=\"com.unboundedprime.tapioca.core.LifecycleTestClass\" destroy=\"stop\">\n"
+				+ "\t\t<void property=\"name\"><string>%s</string></void>\n\t</object>\n</java>\n";
+		Files.write(contextFile, String.format(context, "cache").getBytes("UTF-8"));
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+		LifecycleTestClass.reset(null);
+
+		try {
+			final LifecycleTestClass database = instance.getObjectById("database", LifecycleTestClass.class);
+
+			Files.write(contextFile, String.format(context, "new cache").getBytes("UTF-8"));
+			instance.reload();
+
+			assertEquals("only the replaced object must be destroyed", 1, LifecycleTestClass.getEvents().size());
+			assertEquals("replaced object must be destroyed", "stop:cache", LifecycleTestClass.getEvents().get(0));
+			assertSame("unchanged object must be reused", database, instance.getObjectById("database", LifecycleTestClass.class));
+
+			instance.reload();
+
+			assertEquals("reload reusing every object must destroy nothing", 1, LifecycleTestClass.getEvents().size());
+		} finally {
+			instance.close();
+		}
+
+		assertTrue("reused object must be destroyed on close", LifecycleTestClass.getEvents().contains("stop:database"));
+		assertTrue("new object must be destroyed on close", LifecycleTestClass.getEvents().contains("stop:new cache"));
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a warm-up budget and an added object.
+	 */
+	@Test
+	public void testReload_WarmUpBudgetAndAddedObject_WarmUpCreatedObjectsOnly() throws Throwable {
+		System.out.println("testReload_WarmUpBudgetAndAddedObject_WarmUpCreatedObjectsOnly");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		final String context = "<java>\n\t<object id=\"handler\" class=\"com.unboundedprime.tapioca.core.WarmUpTestClass\" warmup=\"handle\"/>\n%s</java>\n";
+		Files.write(contextFile, String.format(context, "").getBytes("UTF-8"));
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setWarmUpBudgetMillis(50);
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile, configuration);
+
+		try {
+			final WarmUpTestClass handler = instance.getObjectById("handler", WarmUpTestClass.class);
+			final long handleCount = handler.getHandleCount();
+
+			assertTrue("object must be warmed up by the first build", handleCount > 0);
+
+			Files.write(contextFile, String.format(context, "\t<object id=\"codec\" class=\"com.unboundedprime.tapioca.core.WarmUpTestClass\"/>\n").getBytes("UTF-8"));
+			instance.reload();
+
+			assertSame("unchanged object must be reused", handler, instance.getObjectById("handler", WarmUpTestClass.class));
+			assertEquals("reused object must not be warmed up again", handleCount, handler.getHandleCount());
+			assertTrue("added object must be warmed up", instance.getObjectById("codec", WarmUpTestClass.class).getWarmUpCount() > 0);
+		} finally {
+			instance.close();
+		}
+	}
+
+	/**
+	 * Test of reload method, of interface ReloadableContainer with a new object whose init method fails.
+	 */
+	@Test
+	public void testReload_FailingInitMethod_KeepReusedObjectsAlive() throws Throwable {
+		System.out.println("testReload_FailingInitMethod_KeepReusedObjectsAlive");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		final String database = "\t<object id=\"database\" class=\"com.unboundedprime.tapioca.core.LifecycleTestClass\" destroy=\"stop\">\n"
+				+ "\t\t<void property=\"name\"><string>database</string></void>\n"
+				+ "\t</object>\n";
+		Files.write(contextFile, ("<java>\n" + database + "</java>\n").getBytes("UTF-8"));
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile);
+		LifecycleTestClass.reset(null);
+
+		try {
+			Files.write(contextFile, ("<java>\n" + database + "\t<object class=\"com.unboundedprime.tapioca.core.LifecycleTestClass\" init=\"fail\"/>\n</java>\n").getBytes("UTF-8"));
+
+			try {
+				instance.reload();
+				fail("failing init method must be reported");
+			} catch (InvalidContextException ex) {
+				assertEquals("only the new object must be destroyed", 1, LifecycleTestClass.getEvents().size());
+				assertEquals("reused object must stay alive", "close:null", LifecycleTestClass.getEvents().get(0));
+			}
+		} finally {
+			instance.close();
+		}
+
+		assertEquals("reused object must be destroyed on close", "stop:database", LifecycleTestClass.getEvents().get(1));
+	}
+
+	/**
+	 * Test of Builder.buildReloadableContainerFromXmlFile method, of class Container.Builder with a file that does not exist.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildReloadableContainerFromXmlFile_MissingFile_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildReloadableContainerFromXmlFile_MissingFile_ThrowException");
+
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(new File(this.temporaryFolder.getRoot(), "missing.xml").toPath());
+	}
+
+	/**
+	 * Test of Builder.buildReloadableContainerFromXmlFile method, of class Container.Builder with a null configuration.
+	 */
+	@Test(expected=InvalidContextException.class)
+	public void testBuilderBuildReloadableContainerFromXmlFile_NullConfiguration_ThrowException() throws Throwable {
+		System.out.println("testBuilderBuildReloadableContainerFromXmlFile_NullConfiguration_ThrowException");
+
+		final Path contextFile = new File(this.temporaryFolder.getRoot(), "context.xml").toPath();
+		writeContext(contextFile, "Hello World!", "unchanged");
+
+		final ReloadableContainer instance = Container.Builder.buildReloadableContainerFromXmlFile(contextFile, null);
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.impl.ObjectHandleImpl class.
+ */
+public class ObjectHandleImplTest {
+
+	/**
+	 * Test of rebindAll method, of class ObjectHandleImpl with other objects of the types.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRebindAll_ObjectsOfTypes_ReturnNewObjects() throws Throwable {
+		System.out.println("testRebindAll_ObjectsOfTypes_ReturnNewObjects");
+
+		final ObjectHandleImpl<CharSequence> first = new ObjectHandleImpl<CharSequence>(CharSequence.class, "before");
+		final ObjectHandleImpl<Number> second = new ObjectHandleImpl<Number>(Number.class, null);
+
+		ObjectHandleImpl.rebindAll(Arrays.asList((ObjectHandleImpl<Object>) (ObjectHandleImpl<?>) first, (ObjectHandleImpl<Object>) (ObjectHandleImpl<?>) second),
+				Arrays.<Object>asList("after", Integer.valueOf(1)));
+
+		assertEquals("supplier must return the new object", "after", first.get());
+		assertEquals("method handle must return the new object", "after", (CharSequence) first.getMethodHandle().invokeExact());
+		assertEquals("every handle must be rebound", Integer.valueOf(1), (Number) second.getMethodHandle().invokeExact());
+	}
+
+	/**
+	 * Test of rebindAll method, of class ObjectHandleImpl with an object of another type.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRebindAll_ObjectOfOtherType_ThrowExceptionAndRebindNothing() throws Throwable {
+		System.out.println("testRebindAll_ObjectOfOtherType_ThrowExceptionAndRebindNothing");
+
+		final ObjectHandleImpl<CharSequence> first = new ObjectHandleImpl<CharSequence>(CharSequence.class, "before");
+		final ObjectHandleImpl<CharSequence> second = new ObjectHandleImpl<CharSequence>(CharSequence.class, "before");
+
+		try {
+			ObjectHandleImpl.rebindAll(Arrays.asList((ObjectHandleImpl<Object>) (ObjectHandleImpl<?>) first, (ObjectHandleImpl<Object>) (ObjectHandleImpl<?>) second),
+					Arrays.<Object>asList("after", Integer.valueOf(1)));
+			fail("object of another type must be rejected");
+		} catch (ClassCastException ex) {
+			// Expected
+		}
+
+		assertEquals("valid handle must not be rebound", "before", first.get());
+		assertEquals("method handle must not be rebound", "before", (CharSequence) first.getMethodHandle().invokeExact());
+	}
+
+	/**
+	 * Test of constructor, of class ObjectHandleImpl with a null type.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_NullType_ThrowException() {
+		System.out.println("testConstructor_NullType_ThrowException");
+
+		final ObjectHandleImpl<Object> instance = new ObjectHandleImpl<Object>(null, "object");
+	}
+
+	/**
+	 * Test of constructor, of class ObjectHandleImpl with a primitive type.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_PrimitiveType_ThrowException() {
+		System.out.println("testConstructor_PrimitiveType_ThrowException");
+
+		final ObjectHandleImpl<Integer> instance = new ObjectHandleImpl<Integer>(int.class, Integer.valueOf(1));
+	}
+}
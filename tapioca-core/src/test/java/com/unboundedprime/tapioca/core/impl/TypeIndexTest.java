@@ -0,0 +1,199 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.core.impl;
+
+import com.unboundedprime.tapioca.core.CommonGroupInterface;
+import com.unboundedprime.tapioca.core.EuropeanGroupedClass;
+import com.unboundedprime.tapioca.core.EuropeanNonGroupedClass;
+import com.unboundedprime.tapioca.core.FirstCommonGroupedClass;
+import com.unboundedprime.tapioca.core.InheritedRegionGroupedClass;
+import com.unboundedprime.tapioca.core.RegionTestAnnotation;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jol.info.GraphLayout;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test of the com.unboundedprime.tapioca.core.impl.TypeIndex class.
+ */
+public class TypeIndexTest {
+
+	/**
+	 * Creates objects of a few classes with deep hierarchies, in a fixed order.
+	 * @param count Number of objects to create
+	 * @return Objects
+	 */
+	private static List<Object> createObjects(final int count) {
+		final List<Object> objects = new ArrayList<Object>(count);
+
+		for (int i = 0; i < count; i++) {
+			switch (i % 4) {
+				case 0:
+					objects.add(new ArrayList<Object>());
+					break;
+				case 1:
+					objects.add(new LinkedList<Object>());
+					break;
+				case 2:
+					objects.add(new StringBuilder());
+					break;
+				default:
+					objects.add(new AtomicLong(i));
+					break;
+			}
+		}
+
+		return objects;
+	}
+
+	/**
+	 * Builds the index layout used before the compact table, being one IdentityHashMap per type holding each object as
+	 * both key and value, over the same complete type hierarchies.
+	 * @param objects Objects to catalog
+	 * @return Objects keyed by every type they are assignable to
+	 */
+	private static Map<Class<?>, Map<Object, Object>> buildIdentityMapIndex(final List<Object> objects) {
+		final Map<Class<?>, Map<Object, Object>> index = new HashMap<Class<?>, Map<Object, Object>>();
+		final TypeIndex typeIndex = TypeIndex.build(objects);
+
+		for (final Object object : objects) {
+			for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+				addToIndex(index, type, object, typeIndex);
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Adds an object to the identity map layout under a type and its interfaces, if the compact index holds it there.
+	 * @param index Identity map layout
+	 * @param type Type under which to add the object
+	 * @param object Object to add
+	 * @param typeIndex Compact index deciding whether the object is cataloged under a type
+	 */
+	private static void addToIndex(final Map<Class<?>, Map<Object, Object>> index, final Class<?> type, final Object object, final TypeIndex typeIndex) {
+		if (typeIndex.get(type) == null) {
+			return;
+		}
+
+		Map<Object, Object> objectsOfType = index.get(type);
+
+		if (objectsOfType == null) {
+			objectsOfType = new IdentityHashMap<Object, Object>();
+			index.put(type, objectsOfType);
+		}
+
+		objectsOfType.put(object, object);
+
+		for (final Class<?> interfaceClass : type.getInterfaces()) {
+			addToIndex(index, interfaceClass, object, typeIndex);
+		}
+	}
+
+	/**
+	 * Test of get method, of class TypeIndex with types to which several objects are assignable.
+	 */
+	@Test
+	public void testGet_IndexedTypes_ReturnObjectsInDocumentOrder() {
+		System.out.println("testGet_IndexedTypes_ReturnObjectsInDocumentOrder");
+
+		final List<Object> objects = createObjects(8);
+		final TypeIndex instance = TypeIndex.build(objects);
+
+		final TypeIndexEntry lists = instance.get(List.class);
+		final TypeIndexEntry randomAccessLists = instance.get(RandomAccess.class);
+
+		assertEquals("every list must be indexed under an inherited interface", 4, lists.size());
+		assertSame("lists must keep document order", objects.get(1), lists.get(1));
+		assertSame("lookups of several objects must be ambiguous", TypeIndexEntry.AMBIGUOUS, lists.uniqueInstance);
+		assertEquals("only array lists must be random access", 2, randomAccessLists.size());
+		assertEquals("superclasses must be indexed", 4, instance.get(AbstractList.class).size());
+		assertEquals("every object must be indexed under Object", 8, instance.get(Object.class).size());
+		assertEquals("shared interfaces must be indexed", 8, instance.get(Serializable.class).size());
+	}
+
+	/**
+	 * Test of get method, of class TypeIndex with types to which no object is assignable.
+	 */
+	@Test
+	public void testGet_UnindexedType_ReturnNull() {
+		System.out.println("testGet_UnindexedType_ReturnNull");
+
+		final TypeIndex instance = TypeIndex.build(createObjects(8));
+
+		assertNull("unrelated type must not be indexed", instance.get(Map.class));
+		assertNull("empty index must hold nothing", TypeIndex.build(new ArrayList<Object>()).get(Object.class));
+	}
+
+	/**
+	 * Test of build method, of class TypeIndex comparing its footprint, excluding the indexed objects and their classes,
+	 * with one IdentityHashMap per type.
+	 */
+	@Test
+	public void testBuild_ManyObjects_FootprintBelowIdentityMaps() {
+		System.out.println("testBuild_ManyObjects_FootprintBelowIdentityMaps");
+
+		final List<Object> objects = createObjects(50000);
+		final GraphLayout sharedLayout = GraphLayout.parseInstance(objects.toArray(), ArrayList.class, LinkedList.class, StringBuilder.class, AtomicLong.class);
+
+		final long compactBytes = GraphLayout.parseInstance(TypeIndex.build(objects)).subtract(sharedLayout).totalSize();
+		final long identityMapBytes = GraphLayout.parseInstance(buildIdentityMapIndex(objects)).subtract(sharedLayout).totalSize();
+
+		System.out.println("TypeIndex footprint: " + compactBytes + " bytes, IdentityHashMap per type: " + identityMapBytes + " bytes");
+
+		assertTrue("compact index must take less than a third of the identity maps", compactBytes * 3 < identityMapBytes);
+	}
+
+	/**
+	 * Test of buildByAnnotation method, of class TypeIndex with annotated, inheriting and plain objects.
+	 */
+	@Test
+	public void testBuildByAnnotation_AnnotatedObjects_IndexAnnotatedObjectsByType() {
+		System.out.println("testBuildByAnnotation_AnnotatedObjects_IndexAnnotatedObjectsByType");
+
+		final Object european = new EuropeanGroupedClass();
+		final Object inherited = new InheritedRegionGroupedClass();
+		final Object nonGrouped = new EuropeanNonGroupedClass();
+		final List<Object> objects = new ArrayList<Object>();
+		objects.add(new FirstCommonGroupedClass());
+		objects.add(european);
+		objects.add(nonGrouped);
+		objects.add(inherited);
+
+		final Map<Class<? extends Annotation>, TypeIndex> result = TypeIndex.buildByAnnotation(objects);
+
+		assertEquals("only carried annotations must be indexed", 1, result.size());
+		assertEquals("annotated objects must keep their order", Arrays.asList(european, nonGrouped, inherited), result.get(RegionTestAnnotation.class).get(Object.class));
+		assertEquals("annotated objects must be indexed by type", Arrays.asList(european, inherited), result.get(RegionTestAnnotation.class).get(CommonGroupInterface.class));
+		assertNull("types of plain objects must not be indexed", result.get(RegionTestAnnotation.class).get(FirstCommonGroupedClass.class));
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the instantiation of an object of a context.
+ */
+@Name("com.unboundedprime.tapioca.BeanInstantiation")
+@Label("Bean Instantiation")
+@Category("Tapioca")
+@Description("Creation of an object of a context and application of its statements, excluding the objects it references")
+final class BeanInstantiationEvent extends jdk.jfr.Event {
+
+	/**
+	 * Id of the object, or null if it has none.
+	 */
+	@Label("Id")
+	String id;
+
+	/**
+	 * Name of the class of the object, or null if it is null.
+	 */
+	@Label("Class Name")
+	String className;
+}
@@ -0,0 +1,47 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning the reading of a context.
+ */
+@Name("com.unboundedprime.tapioca.ContextParse")
+@Label("Context Parse")
+@Category("Tapioca")
+@Description("Reading of a context, which in the XML_DECODER mode includes instantiating its objects")
+final class ContextParseEvent extends jdk.jfr.Event {
+
+	/**
+	 * Name of the context, or null if it is unnamed.
+	 */
+	@Label("Source")
+	String source;
+
+	/**
+	 * Number of root level objects declared by the context.
+	 */
+	@Label("Object Count")
+	int objectCount;
+}
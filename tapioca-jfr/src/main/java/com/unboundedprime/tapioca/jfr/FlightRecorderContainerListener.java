@@ -0,0 +1,147 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.jfr;
+
+import com.unboundedprime.tapioca.core.ContainerListener;
+
+/**
+ * ContainerListener emitting Java Flight Recorder events under the Tapioca category, so that the activity of a container
+ * appears in a recording next to that of the garbage collector and the compiler. A step whose event is disabled in the
+ * recording settings is ignored before any event is created, so disabled events cost no more than a check of the
+ * event type. The listener holds no state and may be shared by any number of containers.
+ */
+public class FlightRecorderContainerListener implements ContainerListener {
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#parseStarting(java.lang.String)
+	 */
+	public Object parseStarting(final String sourceName) {
+		final ContextParseEvent event = new ContextParseEvent();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#parseFinished(java.lang.Object, java.lang.String, int)
+	 */
+	public void parseFinished(final Object token, final String sourceName, final int objectCount) {
+		final ContextParseEvent event = (ContextParseEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.source = sourceName;
+			event.objectCount = objectCount;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#beanStarting()
+	 */
+	public Object beanStarting() {
+		final BeanInstantiationEvent event = new BeanInstantiationEvent();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#beanFinished(java.lang.Object, java.lang.String, java.lang.String)
+	 */
+	public void beanFinished(final Object token, final String id, final String className) {
+		final BeanInstantiationEvent event = (BeanInstantiationEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.id = id;
+			event.className = className;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#indexStarting()
+	 */
+	public Object indexStarting() {
+		final TypeIndexEvent event = new TypeIndexEvent();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#indexFinished(java.lang.Object, int)
+	 */
+	public void indexFinished(final Object token, final int objectCount) {
+		final TypeIndexEvent event = (TypeIndexEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.objectCount = objectCount;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#lookupStarting(java.lang.Class)
+	 */
+	public Object lookupStarting(final Class<?> classOrInterface) {
+		final LookupEvent event = new LookupEvent();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+
+		return event;
+	}
+
+	/**
+	 * @see com.unboundedprime.tapioca.core.ContainerListener#lookupFinished(java.lang.Object, java.lang.Class, java.lang.String, boolean)
+	 */
+	public void lookupFinished(final Object token, final Class<?> classOrInterface, final String methodName, final boolean found) {
+		final LookupEvent event = (LookupEvent) token;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.type = classOrInterface;
+			event.method = methodName;
+			event.found = found;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Tapioca - Tiny API Providing Inversion of Control Architecture
+ * Copyright (C) 2011 by Unbounded Prime, LLC
+ * All Rights Reserved
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package com.unboundedprime.tapioca.jfr;
+
+import com.unboundedprime.tapioca.core.BuildMode;
+import com.unboundedprime.tapioca.core.Container;
+import com.unboundedprime.tapioca.core.ContainerConfiguration;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class FlightRecorderContainerListenerTest {
+
+	private static final String CONTEXT_FILE_LOCATION = "/com/unboundedprime/tapioca/jfr/beans_FlightRecorderContainerListenerTest.xml";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	/**
+	 * Builds the test context in the STREAMING mode while recording the Tapioca events, then looks up every object.
+	 * @param lookupSamplingInterval Average number of lookups per reported lookup
+	 * @param enableEvents Whether the Tapioca events are enabled in the recording
+	 * @return Tapioca events of the recording
+	 */
+	private List<RecordedEvent> recordBuildAndLookup(final int lookupSamplingInterval, final boolean enableEvents) throws Throwable {
+		final ContainerConfiguration configuration = new ContainerConfiguration();
+		configuration.setBuildMode(BuildMode.STREAMING);
+		configuration.setListener(new FlightRecorderContainerListener());
+		configuration.setLookupSamplingInterval(lookupSamplingInterval);
+		final File recordingFile = this.temporaryFolder.newFile("container.jfr");
+		final Recording recording = new Recording();
+
+		for (final String eventName : new String[] {"ContextParse", "BeanInstantiation", "TypeIndex", "Lookup"}) {
+			if (enableEvents) {
+				recording.enable("com.unboundedprime.tapioca." + eventName).withoutThreshold();
+			} else {
+				recording.disable("com.unboundedprime.tapioca." + eventName);
+			}
+		}
+
+		try {
+			recording.start();
+
+			final Container container = Container.Builder.buildContainerFromXmlInClasspath(CONTEXT_FILE_LOCATION, configuration);
+			container.getObjectThatImplementsOrNull(StringBuilder.class);
+			container.getObjectsThatImplement(List.class);
+			container.containsObjectThatImplements(Runnable.class);
+
+			recording.stop();
+			recording.dump(recordingFile.toPath());
+		} finally {
+			recording.close();
+		}
+
+		final List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+
+		for (final RecordedEvent event : RecordingFile.readAllEvents(recordingFile.toPath())) {
+			if (event.getEventType().getName().startsWith("com.unboundedprime.tapioca.")) {
+				events.add(event);
+			}
+		}
+
+		return events;
+	}
+
+	/**
+	 * Gets the recorded events of a type.
+	 * @param events Recorded events
+	 * @param eventName Name of the event type, without the Tapioca prefix
+	 * @return Events of the type, in the order in which they were read
+	 */
+	private static List<RecordedEvent> filter(final List<RecordedEvent> events, final String eventName) {
+		final List<RecordedEvent> filteredEvents = new ArrayList<RecordedEvent>();
+
+		for (final RecordedEvent event : events) {
+			if (event.getEventType().getName().equals("com.unboundedprime.tapioca." + eventName)) {
+				filteredEvents.add(event);
+			}
+		}
+
+		return filteredEvents;
+	}
+
+	/**
+	 * Test of the FlightRecorderContainerListener class, with every event enabled and every lookup sampled.
+	 */
+	@Test
+	public void testBuild_EnabledEvents_RecordParseBeansIndexAndLookups() throws Throwable {
+		System.out.println("testBuild_EnabledEvents_RecordParseBeansIndexAndLookups");
+
+		final List<RecordedEvent> events = this.recordBuildAndLookup(1, true);
+
+		final List<RecordedEvent> parseEvents = filter(events, "ContextParse");
+		final List<RecordedEvent> beanEvents = filter(events, "BeanInstantiation");
+		final List<RecordedEvent> lookupEvents = filter(events, "Lookup");
+
+		assertEquals("context must be parsed once", 1, parseEvents.size());
+		assertEquals("source must be named", CONTEXT_FILE_LOCATION, parseEvents.get(0).getString("source"));
+		assertEquals("objects must be counted", 2, parseEvents.get(0).getInt("objectCount"));
+		assertEquals("every object must be instantiated", 2, beanEvents.size());
+		assertEquals("class must be reported", StringBuilder.class.getName(), beanEvents.get(0).getString("className"));
+		assertEquals("index must be built once", 1, filter(events, "TypeIndex").size());
+		assertEquals("every lookup must be sampled", 3, lookupEvents.size());
+	}
+
+	/**
+	 * Test of the FlightRecorderContainerListener class, with lookups never sampled.
+	 */
+	@Test
+	public void testBuild_NoLookupSampling_RecordNoLookups() throws Throwable {
+		System.out.println("testBuild_NoLookupSampling_RecordNoLookups");
+
+		final List<RecordedEvent> events = this.recordBuildAndLookup(0, true);
+
+		assertEquals("no lookup must be recorded", 0, filter(events, "Lookup").size());
+		assertEquals("build must still be recorded", 2, filter(events, "BeanInstantiation").size());
+	}
+
+	/**
+	 * Test of the FlightRecorderContainerListener class, with every event disabled.
+	 */
+	@Test
+	public void testBuild_DisabledEvents_RecordNothing() throws Throwable {
+		System.out.println("testBuild_DisabledEvents_RecordNothing");
+
+		final List<RecordedEvent> events = this.recordBuildAndLookup(1, false);
+
+		assertTrue("no event must be recorded", events.isEmpty());
+	}
+}